@@ -17,7 +17,6 @@
  */
 package org.wso2.carbon.identity.account.suspension.notification.task;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
@@ -25,7 +24,9 @@ import org.wso2.carbon.identity.account.suspension.notification.task.exception.A
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.EmailUtil;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.AccountSuspensionCheckpoint;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiver;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiversRetrievalUtil;
 import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.application.common.model.User;
 import org.wso2.carbon.identity.base.IdentityException;
@@ -44,17 +45,41 @@ import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the idle account suspension task. The tenants, and the user stores of each tenant, are handled in parallel on
+ * a work stealing pool sized by the suspension.notification.thread.pool.size property. The progress of a run is
+ * checkpointed per tenant, so that a run which was stopped midway resumes with the tenants it had not completed. A
+ * tenant is only checkpointed once all of its user stores are handled successfully, hence the tenants which failed
+ * are handled again when the run is resumed.
+ */
 public class AccountValidatorThread implements Runnable {
 
     private static final Log log = LogFactory.getLog(AccountValidatorThread.class);
 
+    private final boolean resumeOnly;
+
     public AccountValidatorThread() {
 
+        this(false);
+    }
+
+    /**
+     * @param resumeOnly Whether to only resume an unfinished run, without starting the run of today.
+     */
+    public AccountValidatorThread(boolean resumeOnly) {
+
+        this.resumeOnly = resumeOnly;
     }
 
     @Override
@@ -64,6 +89,42 @@ public class AccountValidatorThread implements Runnable {
             log.debug("Idle account suspension task started.");
         }
 
+        Path checkpointPath = AccountSuspensionCheckpoint.getDefaultPath();
+        AccountSuspensionCheckpoint checkpoint = AccountSuspensionCheckpoint.load(checkpointPath);
+        if (resumeOnly) {
+            if (checkpoint != null) {
+                resumeTask(checkpoint);
+            }
+            return;
+        }
+
+        long executionTime;
+        try {
+            executionTime = NotificationReceiversRetrievalManager.getExecutionTime();
+        } catch (AccountSuspensionNotificationException e) {
+            log.error("Error occurred while starting the idle account suspension task", e);
+            return;
+        }
+
+        if (checkpoint != null && checkpoint.getExecutionTime() != executionTime) {
+            resumeTask(checkpoint);
+            checkpoint = null;
+        }
+        if (checkpoint == null) {
+            checkpoint = AccountSuspensionCheckpoint.start(checkpointPath, executionTime);
+        }
+        runTask(checkpoint);
+    }
+
+    private void resumeTask(AccountSuspensionCheckpoint checkpoint) {
+
+        log.info("Resuming the unfinished idle account suspension task run of: " +
+                new Date(checkpoint.getExecutionTime()));
+        runTask(checkpoint);
+    }
+
+    private void runTask(AccountSuspensionCheckpoint checkpoint) {
+
         RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
 
         Tenant[] tenants = new Tenant[0];
@@ -74,15 +135,166 @@ public class AccountValidatorThread implements Runnable {
             log.error("Error occurred while retrieving tenants", e);
         }
 
-        handleTask(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
-
+        List<String> tenantDomains = new ArrayList<>();
+        tenantDomains.add(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
         for (Tenant tenant : tenants) {
-            handleTask(tenant.getDomain());
+            tenantDomains.add(tenant.getDomain());
+        }
+
+        List<TenantTask> tenantTasks = new ArrayList<>();
+        for (String tenantDomain : tenantDomains) {
+            if (checkpoint.isCompleted(tenantDomain)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Idle account suspension task is already completed for tenant: " + tenantDomain);
+                }
+                continue;
+            }
+            tenantTasks.add(new TenantTask(tenantDomain, checkpoint));
         }
 
+        long startTime = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(NotificationTaskDataHolder.getInstance()
+                .getNotificationSendingThreadPoolSize());
+        try {
+            for (TenantTask tenantTask : tenantTasks) {
+                pool.execute(tenantTask);
+            }
+            for (TenantTask tenantTask : tenantTasks) {
+                tenantTask.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int failedTenantCount = 0;
+        long notifiedUserCount = 0;
+        long lockedUserCount = 0;
+        for (TenantTask tenantTask : tenantTasks) {
+            if (!tenantTask.isCompleted()) {
+                failedTenantCount++;
+            }
+            notifiedUserCount += tenantTask.notifiedUserCount.sum();
+            lockedUserCount += tenantTask.lockedUserCount.sum();
+        }
+        if (failedTenantCount == 0) {
+            checkpoint.finish();
+        } else {
+            log.warn("Idle account suspension task failed for " + failedTenantCount + " tenants. The tenants will " +
+                    "be handled again when the run is resumed.");
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Idle account suspension task completed for " + tenantTasks.size() + " tenants in " +
+                    (System.currentTimeMillis() - startTime) + " ms. Notified users: " + notifiedUserCount +
+                    ", locked accounts: " + lockedUserCount);
+        }
     }
 
-    private void handleTask(String tenantDomain) {
+    /**
+     * Handles the idle accounts of a tenant, forking a task for each of its user stores.
+     */
+    private class TenantTask extends RecursiveAction {
+
+        private static final long serialVersionUID = -2907587213394738261L;
+
+        private final String tenantDomain;
+        private final transient AccountSuspensionCheckpoint checkpoint;
+        private final LongAdder notifiedUserCount = new LongAdder();
+        private final LongAdder lockedUserCount = new LongAdder();
+        private boolean completed;
+
+        TenantTask(String tenantDomain, AccountSuspensionCheckpoint checkpoint) {
+
+            this.tenantDomain = tenantDomain;
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        protected void compute() {
+
+            long startTime = System.currentTimeMillis();
+            try {
+                completed = handleTask(tenantDomain, checkpoint.getExecutionTime(), notifiedUserCount,
+                        lockedUserCount);
+            } catch (RuntimeException e) {
+                log.error("Error occurred while running the idle account suspension task for tenant: " +
+                        tenantDomain, e);
+            }
+            if (completed) {
+                checkpoint.markCompleted(tenantDomain);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Idle account suspension task completed for tenant: " + tenantDomain + " in " +
+                        (System.currentTimeMillis() - startTime) + " ms. Notified users: " + notifiedUserCount.sum() +
+                        ", locked accounts: " + lockedUserCount.sum());
+            }
+        }
+
+        boolean isCompleted() {
+
+            return completed;
+        }
+    }
+
+    /**
+     * Notifies and locks the idle accounts of a user store.
+     */
+    private class UserStoreTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 4377658287283364093L;
+
+        private final String tenantDomain;
+        private final String userStoreDomain;
+        private final long executionTime;
+        private final long suspensionDelay;
+        private final long[] notificationDelays;
+        private final LongAdder notifiedUserCount;
+        private final LongAdder lockedUserCount;
+        private boolean completed;
+
+        UserStoreTask(String tenantDomain, String userStoreDomain, long executionTime, long suspensionDelay,
+                      long[] notificationDelays, LongAdder notifiedUserCount, LongAdder lockedUserCount) {
+
+            this.tenantDomain = tenantDomain;
+            this.userStoreDomain = userStoreDomain;
+            this.executionTime = executionTime;
+            this.suspensionDelay = suspensionDelay;
+            this.notificationDelays = notificationDelays;
+            this.notifiedUserCount = notifiedUserCount;
+            this.lockedUserCount = lockedUserCount;
+        }
+
+        @Override
+        protected void compute() {
+
+            // The worker may be helping another tenant while this task runs, hence the task starts its own flow.
+            startTenantFlow(tenantDomain);
+            try {
+                boolean notified = notifyUsers(tenantDomain, userStoreDomain, suspensionDelay, notificationDelays,
+                        executionTime, notifiedUserCount);
+
+                lockAccounts(tenantDomain, userStoreDomain, suspensionDelay, executionTime, lockedUserCount);
+                completed = notified;
+            } catch (IdentityException e) {
+                log.error("Unable to disable user accounts", e);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        }
+
+        boolean isCompleted() {
+
+            return completed;
+        }
+    }
+
+    /**
+     * Handles the idle accounts of a tenant.
+     *
+     * @return True if the tenant was handled successfully, or the task is not enabled for the tenant.
+     */
+    private boolean handleTask(String tenantDomain, long executionTime, LongAdder notifiedUserCount,
+                               LongAdder lockedUserCount) {
 
         if (log.isDebugEnabled()) {
             log.debug("Handling idle account suspension task for tenant: " + tenantDomain);
@@ -91,10 +303,7 @@ public class AccountValidatorThread implements Runnable {
         Property[] identityProperties;
         try {
             // Start Tenant flow
-            PrivilegedCarbonContext.startTenantFlow();
-            PrivilegedCarbonContext privilegedCarbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
-            privilegedCarbonContext.setTenantId(IdentityTenantUtil.getTenantId(tenantDomain));
-            privilegedCarbonContext.setTenantDomain(tenantDomain);
+            startTenantFlow(tenantDomain);
 
             identityProperties = NotificationTaskDataHolder.getInstance().getIdentityGovernanceService()
                     .getConfiguration(getPropertyNames(), tenantDomain);
@@ -111,7 +320,7 @@ public class AccountValidatorThread implements Runnable {
                     isEnabled = Boolean.parseBoolean(identityProperty.getValue());
 
                     if (!isEnabled) {
-                        return;
+                        return true;
                     }
                 }
 
@@ -151,105 +360,149 @@ public class AccountValidatorThread implements Runnable {
             }
 
             if (!isEnabled) {
-                return;
+                return true;
             }
 
-            notifyUsers(tenantDomain, suspensionDelay, notificationDelays);
-
-            lockAccounts(tenantDomain, suspensionDelay);
+            List<UserStoreTask> userStoreTasks = new ArrayList<>();
+            for (String userStoreDomain : NotificationReceiversRetrievalUtil
+                    .getSuspensionNotificationEnabledUserStores(tenantDomain)) {
+                userStoreTasks.add(new UserStoreTask(tenantDomain, userStoreDomain, executionTime, suspensionDelay,
+                        notificationDelays, notifiedUserCount, lockedUserCount));
+            }
+            ForkJoinTask.invokeAll(userStoreTasks);
 
+            for (UserStoreTask userStoreTask : userStoreTasks) {
+                if (!userStoreTask.isCompleted()) {
+                    return false;
+                }
+            }
+            return true;
         } catch (IdentityGovernanceException e) {
             log.error("Error occurred while loading governance configuration for tenants", e);
-        } catch (IdentityException e) {
-            log.error("Unable to disable user accounts", e);
+        } catch (AccountSuspensionNotificationException e) {
+            log.error("Error occurred while retrieving the user stores of tenant: " + tenantDomain, e);
         } finally {
             PrivilegedCarbonContext.endTenantFlow();
         }
+        return false;
+    }
+
+    private void startTenantFlow(String tenantDomain) {
+
+        PrivilegedCarbonContext.startTenantFlow();
+        PrivilegedCarbonContext privilegedCarbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        privilegedCarbonContext.setTenantId(IdentityTenantUtil.getTenantId(tenantDomain));
+        privilegedCarbonContext.setTenantDomain(tenantDomain);
     }
 
     /**
-     * Notify users about account inactivity via Email.
+     * Notify users of a user store about account inactivity via Email. The receivers are notified page by page as
+     * they are retrieved.
+     *
+     * @return True if the receivers of all the notification delays were retrieved.
      */
-    private void notifyUsers(String tenantDomain, long suspensionDelay, long[] notificationDelays) {
+    private boolean notifyUsers(String tenantDomain, String userStoreDomain, long suspensionDelay,
+                                long[] notificationDelays, long executionTime, LongAdder notifiedUserCount) {
+        if (notificationDelays == null) {
+            return true;
+        }
+        boolean notified = true;
         EmailUtil util = new EmailUtil();
         for (long delay : notificationDelays) {
-            List<NotificationReceiver> receivers = null;
             try {
-                receivers = NotificationReceiversRetrievalManager.getReceivers(delay, tenantDomain, suspensionDelay);
+                NotificationReceiversRetrievalManager.processReceivers(delay, tenantDomain, userStoreDomain,
+                        suspensionDelay, executionTime, receivers -> {
+                            for (NotificationReceiver receiver : receivers) {
+                                if (log.isDebugEnabled()) {
+                                    log.debug("Sending notification to: " + IdentityUtil.addDomainToName(
+                                            receiver.getUsername(), receiver.getUserStoreDomain()) + "@" +
+                                            tenantDomain);
+                                }
+                                util.sendEmail(receiver);
+                                notifiedUserCount.increment();
+                            }
+                        });
             } catch (AccountSuspensionNotificationException e) {
                 log.error("Error occurred while retrieving notification receivers", e);
-            }
-            if (CollectionUtils.isNotEmpty(receivers)) {
-                for (NotificationReceiver receiver : receivers) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Sending notification to: " + IdentityUtil.addDomainToName(receiver.getUsername(),
-                                receiver.getUserStoreDomain()) + "@" + tenantDomain);
-                    }
-                    util.sendEmail(receiver);
-                }
+                notified = false;
             }
         }
+        return notified;
     }
 
     /**
-     * Disable user accounts which exceeds max inactivity timeout.
+     * Disable user accounts of a user store which exceeds max inactivity timeout. The accounts are disabled page by
+     * page as they are retrieved.
      *
      * @throws IdentityException
      */
-    private void lockAccounts(String tenantDomain, long suspensionDelay) throws IdentityException {
-        List<NotificationReceiver> receivers = null;
+    private void lockAccounts(String tenantDomain, String userStoreDomain, long suspensionDelay, long executionTime,
+                              LongAdder lockedUserCount) throws IdentityException {
+
+        RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
+        int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+
+        UserRealm userRealm;
         try {
-            receivers = NotificationReceiversRetrievalManager.getReceivers(suspensionDelay, tenantDomain,
-                    suspensionDelay);
+            userRealm = (UserRealm) realmService.getTenantUserRealm(tenantId);
+        } catch (UserStoreException e) {
+            throw new IdentityException("Failed retrieve the user realm for tenant: " + tenantDomain, e);
+        }
 
+        UserStoreManager userStoreManager;
+        try {
+            userStoreManager = userRealm.getUserStoreManager();
+        } catch (org.wso2.carbon.user.core.UserStoreException e) {
+            throw new IdentityException("Failed retrieve the user store manager for tenant: " + tenantDomain, e);
+        }
+
+        try {
+            NotificationReceiversRetrievalManager.processReceivers(suspensionDelay, tenantDomain, userStoreDomain,
+                    suspensionDelay, executionTime, receivers -> {
+                        for (NotificationReceiver receiver : receivers) {
+                            try {
+                                lockAccount(userStoreManager, receiver, tenantDomain);
+                            } catch (IdentityException e) {
+                                throw new AccountSuspensionNotificationException(e.getMessage(), e);
+                            }
+                            lockedUserCount.increment();
+                        }
+                    });
         } catch (AccountSuspensionNotificationException e) {
+            if (e.getCause() instanceof IdentityException) {
+                throw (IdentityException) e.getCause();
+            }
             throw IdentityException.error("Error occurred while retrieving users for account disable", e);
         }
-        if (receivers.size() > 0) {
-            for (NotificationReceiver receiver : receivers) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Locking idle account: " + IdentityUtil.addDomainToName(receiver.getUsername(),
-                            receiver.getUserStoreDomain()) + "@" + tenantDomain);
-                }
-                RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
-                int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
-
-                UserRealm userRealm;
-                try {
-                    userRealm = (UserRealm) realmService.getTenantUserRealm(tenantId);
-                } catch (UserStoreException e) {
-                    throw new IdentityException("Failed retrieve the user realm for tenant: " + tenantDomain, e);
-                }
+    }
 
-                UserStoreManager userStoreManager;
-                try {
-                    userStoreManager = userRealm.getUserStoreManager();
-                } catch (org.wso2.carbon.user.core.UserStoreException e) {
-                    throw new IdentityException("Failed retrieve the user store manager for tenant: " + tenantDomain,
-                            e);
-                }
+    private void lockAccount(UserStoreManager userStoreManager, NotificationReceiver receiver, String tenantDomain)
+            throws IdentityException {
 
-                Map<String, String> updatedClaims = new HashMap<>();
-                updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_CLAIM, Boolean.TRUE.toString());
-                updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_REASON_CLAIM,
-                        IdentityMgtConstants.LockedReason.IDLE_ACCOUNT.toString());
-                updatedClaims.put(NotificationConstants.PASSWORD_RESET_FAIL_ATTEMPTS_CLAIM, "0");
-                try {
-                    userStoreManager.setUserClaimValues(IdentityUtil.addDomainToName(receiver.getUsername(),
-                            receiver.getUserStoreDomain()), updatedClaims, UserCoreConstants.DEFAULT_PROFILE);
-                } catch (org.wso2.carbon.user.core.UserStoreException e) {
-                    throw new IdentityException("Failed to update claim values for user: " + IdentityUtil
-                            .addDomainToName(receiver.getUsername(), receiver.getUserStoreDomain()) + " in tenant: " +
-                            tenantDomain);
-                }
+        if (log.isDebugEnabled()) {
+            log.debug("Locking idle account: " + IdentityUtil.addDomainToName(receiver.getUsername(),
+                    receiver.getUserStoreDomain()) + "@" + tenantDomain);
+        }
 
-                User user = new User();
-                user.setUserName(receiver.getUsername());
-                user.setTenantDomain(tenantDomain);
-                user.setUserStoreDomain(receiver.getUserStoreDomain());
-                triggerNotification(user);
-            }
+        Map<String, String> updatedClaims = new HashMap<>();
+        updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_CLAIM, Boolean.TRUE.toString());
+        updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_REASON_CLAIM,
+                IdentityMgtConstants.LockedReason.IDLE_ACCOUNT.toString());
+        updatedClaims.put(NotificationConstants.PASSWORD_RESET_FAIL_ATTEMPTS_CLAIM, "0");
+        try {
+            userStoreManager.setUserClaimValues(IdentityUtil.addDomainToName(receiver.getUsername(),
+                    receiver.getUserStoreDomain()), updatedClaims, UserCoreConstants.DEFAULT_PROFILE);
+        } catch (org.wso2.carbon.user.core.UserStoreException e) {
+            throw new IdentityException("Failed to update claim values for user: " + IdentityUtil
+                    .addDomainToName(receiver.getUsername(), receiver.getUserStoreDomain()) + " in tenant: " +
+                    tenantDomain);
         }
+
+        User user = new User();
+        user.setUserName(receiver.getUsername());
+        user.setTenantDomain(tenantDomain);
+        user.setUserStoreDomain(receiver.getUserStoreDomain());
+        triggerNotification(user);
     }
 
     private String[] getPropertyNames() {
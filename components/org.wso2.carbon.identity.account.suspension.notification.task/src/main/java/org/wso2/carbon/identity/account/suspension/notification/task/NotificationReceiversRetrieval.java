@@ -28,6 +28,31 @@ public interface NotificationReceiversRetrieval {
     public List<NotificationReceiver> getNotificationReceivers(long lookupMin, long lookupMax,
             long delayForSuspension, String tenantDomain) throws AccountSuspensionNotificationException;
 
+    /**
+     * Retrieve the notification receivers page by page, handing each page over before the next one is retrieved, so
+     * that the receivers of a user store are not held in memory at once. Retrievals which do not support paging
+     * hand over all the receivers as a single page.
+     *
+     * @param lookupMin          Lookup minimum timestamp.
+     * @param lookupMax          Lookup maximum timestamp.
+     * @param delayForSuspension Allowed account suspension delay.
+     * @param tenantDomain       Tenant domain.
+     * @param pageSize           Maximum number of receivers in a page.
+     * @param pageHandler        Handler of the pages.
+     * @throws AccountSuspensionNotificationException If the receivers could not be retrieved or handled.
+     */
+    default void getNotificationReceivers(long lookupMin, long lookupMax, long delayForSuspension,
+                                          String tenantDomain, int pageSize,
+                                          NotificationReceiversPageHandler pageHandler)
+            throws AccountSuspensionNotificationException {
+
+        List<NotificationReceiver> receivers = getNotificationReceivers(lookupMin, lookupMax, delayForSuspension,
+                tenantDomain);
+        if (!receivers.isEmpty()) {
+            pageHandler.handle(receivers);
+        }
+    }
+
     void init(RealmConfiguration realmConfiguration);
 
 
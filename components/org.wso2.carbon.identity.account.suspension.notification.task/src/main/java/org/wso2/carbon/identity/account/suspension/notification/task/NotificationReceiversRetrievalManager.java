@@ -39,35 +39,83 @@ public class NotificationReceiversRetrievalManager {
     public static List<NotificationReceiver> getReceivers(long delay, String tenantDomain, long delayForSuspension)
             throws AccountSuspensionNotificationException {
 
+        List<NotificationReceiver> receivers = new ArrayList<>();
+        processReceivers(delay, tenantDomain, delayForSuspension, receivers::addAll);
+        return receivers;
+    }
+
+    /**
+     * Retrieve the notification receivers of the suspension notification enabled user stores of a tenant page by
+     * page, handing each page over to the page handler before the next page is retrieved.
+     *
+     * @param delay              Notification delay in days.
+     * @param tenantDomain       Tenant domain.
+     * @param delayForSuspension Allowed account suspension delay.
+     * @param pageHandler        Handler of the pages.
+     * @throws AccountSuspensionNotificationException If the receivers could not be retrieved or handled.
+     */
+    public static void processReceivers(long delay, String tenantDomain, long delayForSuspension,
+                                        NotificationReceiversPageHandler pageHandler)
+            throws AccountSuspensionNotificationException {
+
         Set<String> userStoreDomains = NotificationReceiversRetrievalUtil.
                 getSuspensionNotificationEnabledUserStores(tenantDomain);
+        if (userStoreDomains.isEmpty()) {
+            return;
+        }
 
-        List<NotificationReceiver> receivers = new ArrayList<>();
-
+        long executionTime = getExecutionTime();
         for (String userStoreDomain : userStoreDomains) {
-            if (log.isDebugEnabled()) {
-                log.debug("Idle account suspension task enabled for user store: " + userStoreDomain + " in tenant: "
-                        + tenantDomain);
-            }
-            NotificationReceiversRetrieval notificationReceiversRetrieval = NotificationReceiversRetrievalUtil
-                    .getNotificationReceiversRetrievalForDomain(userStoreDomain, tenantDomain);
-            if (notificationReceiversRetrieval != null) {
-                long lookupMin;
-                try {
-                    lookupMin = getCurrentExecutionTime(NotificationTaskDataHolder.getInstance().
-                            getNotificationTriggerTime()).getTimeInMillis() - TimeUnit.DAYS.toMillis(delay+1);
-                } catch (ParseException e) {
-                    throw new AccountSuspensionNotificationException("Error occurred while reading notification "
-                            + "trigger time", e);
-                }
-                long lookupMax = lookupMin + TimeUnit.DAYS.toMillis(1);
-                List<NotificationReceiver> newReceivers = notificationReceiversRetrieval
-                        .getNotificationReceivers(lookupMin, lookupMax, delayForSuspension, tenantDomain);
-                receivers.addAll(newReceivers);
-            }
+            processReceivers(delay, tenantDomain, userStoreDomain, delayForSuspension, executionTime, pageHandler);
         }
+    }
 
-        return receivers;
+    /**
+     * Retrieve the notification receivers of a user store page by page, handing each page over to the page handler
+     * before the next page is retrieved.
+     *
+     * @param delay              Notification delay in days.
+     * @param tenantDomain       Tenant domain.
+     * @param userStoreDomain    User store domain.
+     * @param delayForSuspension Allowed account suspension delay.
+     * @param executionTime      Execution time of the task run, which the lookup period is relative to.
+     * @param pageHandler        Handler of the pages.
+     * @throws AccountSuspensionNotificationException If the receivers could not be retrieved or handled.
+     */
+    public static void processReceivers(long delay, String tenantDomain, String userStoreDomain,
+                                        long delayForSuspension, long executionTime,
+                                        NotificationReceiversPageHandler pageHandler)
+            throws AccountSuspensionNotificationException {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Idle account suspension task enabled for user store: " + userStoreDomain + " in tenant: "
+                    + tenantDomain);
+        }
+        NotificationReceiversRetrieval notificationReceiversRetrieval = NotificationReceiversRetrievalUtil
+                .getNotificationReceiversRetrievalForDomain(userStoreDomain, tenantDomain);
+        if (notificationReceiversRetrieval != null) {
+            long lookupMin = executionTime - TimeUnit.DAYS.toMillis(delay + 1);
+            long lookupMax = lookupMin + TimeUnit.DAYS.toMillis(1);
+            notificationReceiversRetrieval.getNotificationReceivers(lookupMin, lookupMax, delayForSuspension,
+                    tenantDomain, NotificationReceiversRetrievalUtil.getReceiversPageSize(), pageHandler);
+        }
+    }
+
+    /**
+     * Get the execution time of today's task run, which is today at the notification trigger time.
+     *
+     * @return Execution time in milliseconds.
+     * @throws AccountSuspensionNotificationException If the notification trigger time could not be read.
+     */
+    public static long getExecutionTime() throws AccountSuspensionNotificationException {
+
+        try {
+            return getCurrentExecutionTime(NotificationTaskDataHolder.getInstance().getNotificationTriggerTime())
+                    .getTimeInMillis();
+        } catch (ParseException e) {
+            throw new AccountSuspensionNotificationException("Error occurred while reading notification "
+                    + "trigger time", e);
+        }
     }
 
     private static Calendar getCurrentExecutionTime(Date triggerTime) {
@@ -20,6 +20,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.account.suspension.notification.task.AccountValidatorThread;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.AccountSuspensionCheckpoint;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
 import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.carbon.identity.core.handler.InitConfig;
@@ -154,6 +155,23 @@ public class AccountSuspensionNotificationHandler extends AbstractEventHandler i
 
         NotificationTaskDataHolder.getInstance().setNotificationTriggerTime(configs.getModuleProperties().
                 getProperty(NotificationConstants.SUSPENSION_NOTIFICATION_TRIGGER_TIME));
+
+        String threadPoolSize = configs.getModuleProperties().
+                getProperty(NotificationConstants.SUSPENSION_NOTIFICATION_THREAD_POOL_SIZE);
+        if (StringUtils.isNotBlank(threadPoolSize)) {
+            try {
+                if (Integer.parseInt(threadPoolSize.trim()) > 0) {
+                    NotificationTaskDataHolder.getInstance().setNotificationSendingThreadPoolSize(
+                            threadPoolSize.trim());
+                } else {
+                    log.warn("Invalid value: " + threadPoolSize + " for the property: " +
+                            NotificationConstants.SUSPENSION_NOTIFICATION_THREAD_POOL_SIZE);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + threadPoolSize + " for the property: " +
+                        NotificationConstants.SUSPENSION_NOTIFICATION_THREAD_POOL_SIZE, e);
+            }
+        }
         startScheduler();
         NotificationTaskDataHolder.getInstance().getBundleContext()
                 .registerService(IdentityConnectorConfig.class.getName(), this, null);
@@ -242,8 +260,13 @@ public class AccountSuspensionNotificationHandler extends AbstractEventHandler i
             delay += schedulerDelayInSeconds;
         }
 
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(NotificationTaskDataHolder.getInstance().
-                getNotificationSendingThreadPoolSize());
+        // The task runs on a single thread, which keeps the runs serialized. The tenants of a run are handled on a
+        // worker pool sized by the thread pool size property.
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        if (AccountSuspensionCheckpoint.load(AccountSuspensionCheckpoint.getDefaultPath()) != null) {
+            scheduler.schedule(new AccountValidatorThread(true), NotificationConstants.CHECKPOINT_RESUME_DELAY,
+                    TimeUnit.MINUTES);
+        }
         scheduler.scheduleAtFixedRate(new AccountValidatorThread(), delay, schedulerDelayInSeconds, TimeUnit.SECONDS);
     }
 
@@ -20,6 +20,7 @@ package org.wso2.carbon.identity.account.suspension.notification.task.jdbc;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversPageHandler;
 import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversRetrieval;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
@@ -42,12 +43,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 
 public class JDBCNotificationReceiversRetrieval implements NotificationReceiversRetrieval {
@@ -66,11 +65,22 @@ public class JDBCNotificationReceiversRetrieval implements NotificationReceivers
             throws AccountSuspensionNotificationException {
 
         List<NotificationReceiver> users = new ArrayList<>();
+        getNotificationReceivers(lookupMin, lookupMax, delayForSuspension, tenantDomain,
+                NotificationReceiversRetrievalUtil.getReceiversPageSize(), users::addAll);
+        return users;
+    }
+
+    @Override
+    public void getNotificationReceivers(long lookupMin, long lookupMax, long delayForSuspension,
+                                         String tenantDomain, int pageSize,
+                                         NotificationReceiversPageHandler pageHandler)
+            throws AccountSuspensionNotificationException {
+
         RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
 
         try {
-            ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(IdentityTenantUtil.
-                    getTenantId(tenantDomain)).getClaimManager();
+            int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+            ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(tenantId).getClaimManager();
             String userStoreDomain = realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.
                     PROPERTY_DOMAIN_NAME);
 
@@ -88,56 +98,54 @@ public class JDBCNotificationReceiversRetrieval implements NotificationReceivers
                     log.debug("Property " + NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME +
                             " is enabled in identity.xml file. Hence treating last login time as identity claim.");
                 }
-                return NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(lookupMin,
-                        lookupMax, delayForSuspension, realmService, tenantDomain, userStoreDomain);
+                NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(lookupMin, lookupMax,
+                        delayForSuspension, realmService, tenantDomain, userStoreDomain, pageSize, pageHandler);
+                return;
             }
 
-            String lastLoginClaim = NotificationConstants.LAST_LOGIN_TIME;
-            String lastLoginTimeAttribute = claimManager.getAttributeName(userStoreDomain, lastLoginClaim);
+            String lastLoginTimeAttribute = claimManager.getAttributeName(userStoreDomain,
+                    NotificationConstants.LAST_LOGIN_TIME);
+            UserStoreManager userStoreManager = (UserStoreManager) realmService.getTenantUserRealm(tenantId)
+                    .getUserStoreManager();
 
             try (Connection dbConnection = getDBConnection(realmConfiguration)) {
-                String sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME;
-                try (PreparedStatement prepStmt = dbConnection.prepareStatement(sqlStmt)) {
-
-                    prepStmt.setString(1, lastLoginTimeAttribute);
-                    prepStmt.setString(2, String.valueOf(lookupMin));
-                    prepStmt.setString(3, String.valueOf(lookupMax));
-                    // As UM_TENANT_ID is integer, this has to be set as an int to work with postgres.
-                    prepStmt.setInt(4, IdentityTenantUtil.getTenantId(tenantDomain));
-                    prepStmt.setInt(5, IdentityTenantUtil.getTenantId(tenantDomain));
-
-                    try (ResultSet resultSet = prepStmt.executeQuery()) {
-
-                        while (resultSet.next()) {
-                            String userName = resultSet.getString(1);
-
-                            if (StringUtils.isNotBlank(userName)) {
-
-                                String[] claims = new String[3];
-                                claims[0] = NotificationConstants.FIRST_NAME_CLAIM;
-                                claims[1] = NotificationConstants.EMAIL_CLAIM;
-                                claims[2] = lastLoginClaim;
-
-                                UserStoreManager userStoreManager =
-                                        (UserStoreManager) realmService.getTenantUserRealm(IdentityTenantUtil
-                                                .getTenantId(tenantDomain)).getUserStoreManager();
-
-                                Map<String, String> map =
-                                        userStoreManager.getUserClaimValues(IdentityUtil.addDomainToName
-                                                (userName, userStoreDomain), claims, null);
-
-                                NotificationReceiver receiver = new NotificationReceiver();
-                                receiver.setEmail(map.get(NotificationConstants.EMAIL_CLAIM));
-                                receiver.setUsername(userName);
-                                receiver.setFirstName(map.get(NotificationConstants.FIRST_NAME_CLAIM));
-                                receiver.setUserStoreDomain(userStoreDomain);
-
-                                long lastLoginTime = Long.parseLong(map.get(lastLoginClaim));
-                                long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
-                                receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
-                                users.add(receiver);
+                String sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_PAGED;
+                try {
+                    // Users are paged by the user id, so that a page is read with an index range scan regardless of
+                    // the number of pages already read.
+                    int lastUserId = 0;
+                    int readCount = pageSize;
+                    while (readCount == pageSize) {
+                        readCount = 0;
+                        // Last login times of the users of the page, by domain qualified username.
+                        Map<String, String> lastLoginTimes = new LinkedHashMap<>();
+                        try (PreparedStatement prepStmt = dbConnection.prepareStatement(sqlStmt)) {
+                            prepStmt.setString(1, lastLoginTimeAttribute);
+                            prepStmt.setString(2, String.valueOf(lookupMin));
+                            prepStmt.setString(3, String.valueOf(lookupMax));
+                            // As UM_TENANT_ID is integer, this has to be set as an int to work with postgres.
+                            prepStmt.setInt(4, tenantId);
+                            prepStmt.setInt(5, tenantId);
+                            prepStmt.setInt(6, lastUserId);
+                            prepStmt.setMaxRows(pageSize);
+                            prepStmt.setFetchSize(pageSize);
+
+                            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                                while (resultSet.next()) {
+                                    readCount++;
+                                    lastUserId = resultSet.getInt(1);
+                                    String userName = resultSet.getString(2);
+                                    if (StringUtils.isNotBlank(userName)) {
+                                        lastLoginTimes.put(IdentityUtil.addDomainToName(userName, userStoreDomain),
+                                                resultSet.getString(3));
+                                    }
+                                }
                             }
                         }
+                        if (!lastLoginTimes.isEmpty()) {
+                            pageHandler.handle(NotificationReceiversRetrievalUtil.buildNotificationReceivers(
+                                    userStoreManager, lastLoginTimes, delayForSuspension, userStoreDomain));
+                        }
                     }
                     dbConnection.commit();
                 } catch (SQLException e) {
@@ -151,7 +159,6 @@ public class JDBCNotificationReceiversRetrieval implements NotificationReceivers
         } catch (IdentityRuntimeException | SQLException | NumberFormatException | UserStoreException e) {
             throw new AccountSuspensionNotificationException(e.getMessage(), e);
         }
-        return users;
     }
 
     private Connection getDBConnection(RealmConfiguration realmConfiguration) throws SQLException, UserStoreException {
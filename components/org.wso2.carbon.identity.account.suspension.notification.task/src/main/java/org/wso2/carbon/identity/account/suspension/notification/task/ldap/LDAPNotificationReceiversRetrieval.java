@@ -20,6 +20,7 @@ package org.wso2.carbon.identity.account.suspension.notification.task.ldap;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversPageHandler;
 import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversRetrieval;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
@@ -39,9 +40,16 @@ import org.wso2.carbon.user.core.service.RealmService;
 
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
 import javax.naming.directory.DirContext;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -66,49 +74,65 @@ public class LDAPNotificationReceiversRetrieval implements NotificationReceivers
             long delayForSuspension, String tenantDomain) throws AccountSuspensionNotificationException {
 
         List<NotificationReceiver> users = new ArrayList<NotificationReceiver>();
+        getNotificationReceivers(lookupMin, lookupMax, delayForSuspension, tenantDomain,
+                NotificationReceiversRetrievalUtil.getReceiversPageSize(), users::addAll);
+        return users;
+    }
 
-        if (realmConfiguration != null) {
-            String ldapSearchBase = realmConfiguration.getUserStoreProperty(LDAPConstants.USER_SEARCH_BASE);
-            RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
+    @Override
+    public void getNotificationReceivers(long lookupMin, long lookupMax, long delayForSuspension,
+                                         String tenantDomain, int pageSize,
+                                         NotificationReceiversPageHandler pageHandler)
+            throws AccountSuspensionNotificationException {
 
-            try {
-                ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(IdentityTenantUtil.
-                        getTenantId(tenantDomain)).getClaimManager();
-                String userStoreDomain = realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.
-                        PROPERTY_DOMAIN_NAME);
-                if (StringUtils.isBlank(userStoreDomain)) {
-                    userStoreDomain = IdentityUtil.getPrimaryDomainName();
-                }
+        if (realmConfiguration == null) {
+            return;
+        }
 
-                String identityClaimForLastLoginTime = IdentityUtil.
-                        getProperty(NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME);
-                boolean useIdentityClaimForLastLoginTime = StringUtils.isBlank(identityClaimForLastLoginTime) ||
-                        Boolean.parseBoolean(identityClaimForLastLoginTime);
+        String ldapSearchBase = realmConfiguration.getUserStoreProperty(LDAPConstants.USER_SEARCH_BASE);
+        RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
 
-                if (useIdentityClaimForLastLoginTime) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Property " + NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME +
-                                " is enabled in identity.xml file. Hence treating last login time as identity claim.");
-                    }
-                    return NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(lookupMin,
-                            lookupMax, delayForSuspension, realmService, tenantDomain, userStoreDomain);
-                }
+        try {
+            ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(IdentityTenantUtil.
+                    getTenantId(tenantDomain)).getClaimManager();
+            String userStoreDomain = realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.
+                    PROPERTY_DOMAIN_NAME);
+            if (StringUtils.isBlank(userStoreDomain)) {
+                userStoreDomain = IdentityUtil.getPrimaryDomainName();
+            }
 
-                String lastLoginClaim = NotificationConstants.LAST_LOGIN_TIME;
-                String usernameMapAttribute = claimManager.getAttributeName(userStoreDomain, NotificationConstants.USERNAME_CLAIM);
-                String firstNameMapAttribute  = claimManager.getAttributeName(userStoreDomain, NotificationConstants.FIRST_NAME_CLAIM);
-                String emailMapAttribute = claimManager.getAttributeName(userStoreDomain, NotificationConstants.EMAIL_CLAIM);
-                String lastLoginTimeAttribute = claimManager.getAttributeName(userStoreDomain, lastLoginClaim);
+            String identityClaimForLastLoginTime = IdentityUtil.
+                    getProperty(NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME);
+            boolean useIdentityClaimForLastLoginTime = StringUtils.isBlank(identityClaimForLastLoginTime) ||
+                    Boolean.parseBoolean(identityClaimForLastLoginTime);
 
+            if (useIdentityClaimForLastLoginTime) {
                 if (log.isDebugEnabled()) {
-                    log.debug("Retrieving ldap user list for lookupMin: " + lookupMin + " - lookupMax: " + lookupMax);
+                    log.debug("Property " + NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME +
+                            " is enabled in identity.xml file. Hence treating last login time as identity claim.");
                 }
+                NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(lookupMin, lookupMax,
+                        delayForSuspension, realmService, tenantDomain, userStoreDomain, pageSize, pageHandler);
+                return;
+            }
+
+            String lastLoginClaim = NotificationConstants.LAST_LOGIN_TIME;
+            String usernameMapAttribute = claimManager.getAttributeName(userStoreDomain, NotificationConstants.USERNAME_CLAIM);
+            String firstNameMapAttribute  = claimManager.getAttributeName(userStoreDomain, NotificationConstants.FIRST_NAME_CLAIM);
+            String emailMapAttribute = claimManager.getAttributeName(userStoreDomain, NotificationConstants.EMAIL_CLAIM);
+            String lastLoginTimeAttribute = claimManager.getAttributeName(userStoreDomain, lastLoginClaim);
 
-                String[] returnedAttrs = {emailMapAttribute, usernameMapAttribute, firstNameMapAttribute, lastLoginTimeAttribute};
+            if (log.isDebugEnabled()) {
+                log.debug("Retrieving ldap user list for lookupMin: " + lookupMin + " - lookupMax: " + lookupMax);
+            }
 
-                LDAPConnectionContext ldapConnectionContext = new LDAPConnectionContext(realmConfiguration);
-                DirContext ctx = ldapConnectionContext.getContext();
+            String[] returnedAttrs = {emailMapAttribute, usernameMapAttribute, firstNameMapAttribute, lastLoginTimeAttribute};
 
+            LDAPConnectionContext ldapConnectionContext = new LDAPConnectionContext(realmConfiguration);
+            DirContext ctx = ldapConnectionContext.getContext();
+            NamingEnumeration<SearchResult> results = null;
+
+            try {
                 //carLicense is the mapped LDAP attribute for LastLoginTime claim
                 String searchFilter = getSearchFilter(lookupMin, lookupMax,lastLoginTimeAttribute);
 
@@ -116,41 +140,120 @@ public class LDAPNotificationReceiversRetrieval implements NotificationReceivers
                 searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
                 searchControls.setReturningAttributes(returnedAttrs);
 
-                NamingEnumeration<SearchResult> results = ctx.search(ldapSearchBase, searchFilter, searchControls);
+                // The results are requested page by page with the paged results control. Servers which do not
+                // support the control return all the results at once, which are then handed over in pages.
+                LdapContext ldapContext = ctx instanceof LdapContext ? (LdapContext) ctx : null;
+                SimpleDateFormat expireDateFormat = new SimpleDateFormat("dd-MM-yyyy");
+                byte[] cookie = null;
+                do {
+                    if (ldapContext != null) {
+                        ldapContext.setRequestControls(new Control[]{
+                                new PagedResultsControl(pageSize, cookie, Control.NONCRITICAL)});
+                    }
+                    results = ctx.search(ldapSearchBase, searchFilter, searchControls);
+
+                    List<NotificationReceiver> receivers = new ArrayList<>();
+                    while (results.hasMoreElements()) {
+                        SearchResult result = results.nextElement();
+                        Attributes attributes = result.getAttributes();
+
+                        NotificationReceiver receiver = new NotificationReceiver();
+                        receiver.setEmail(getAttributeValue(attributes, emailMapAttribute));
+                        receiver.setUsername(getAttributeValue(attributes, usernameMapAttribute));
+                        receiver.setFirstName(getAttributeValue(attributes, firstNameMapAttribute));
+                        receiver.setUserStoreDomain(userStoreDomain);
+
+                        String lastLoginTimeValue = getAttributeValue(attributes, lastLoginTimeAttribute);
+                        if (lastLoginTimeValue == null) {
+                            continue;
+                        }
+                        long lastLoginTime = convertToWSO2DateFormat(lastLoginTimeValue);
+                        long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
+                        receiver.setExpireDate(expireDateFormat.format(new Date(expireDate)));
+
+                        if (log.isDebugEnabled()) {
+                            log.debug("Expire date was set to: " + receiver.getExpireDate());
+                        }
+                        receivers.add(receiver);
+                        if (receivers.size() == pageSize) {
+                            pageHandler.handle(receivers);
+                            receivers = new ArrayList<>();
+                        }
+                    }
+                    if (!receivers.isEmpty()) {
+                        pageHandler.handle(receivers);
+                    }
+                    closeNamingEnumeration(results);
+                    results = null;
+                    cookie = ldapContext != null ? getPagedResultsCookie(ldapContext.getResponseControls()) : null;
+                } while (cookie != null && cookie.length > 0);
 
                 if (log.isDebugEnabled()) {
                     log.debug("LDAP user list retrieved.");
                 }
+            } finally {
+                closeNamingEnumeration(results);
+                closeContext(ctx);
+            }
+        } catch (NamingException | IOException e) {
+            throw new AccountSuspensionNotificationException("Failed to filter users from LDAP user store.", e);
+        } catch (UserStoreException e) {
+            throw new AccountSuspensionNotificationException("Failed to load LDAP connection context.", e);
+        } catch (org.wso2.carbon.user.api.UserStoreException e) {
+            throw new AccountSuspensionNotificationException("Error occurred while getting tenant user realm for "
+                    + "tenant:" + tenantDomain, e);
+        }
+    }
+
+    /**
+     * Get the cookie of the next page from the response controls of a paged search.
+     * @param controls Response controls of the search.
+     * @return Cookie of the next page, or null if there are no more pages.
+     */
+    private byte[] getPagedResultsCookie(Control[] controls) {
+
+        if (controls != null) {
+            for (Control control : controls) {
+                if (control instanceof PagedResultsResponseControl) {
+                    return ((PagedResultsResponseControl) control).getCookie();
+                }
+            }
+        }
+        return null;
+    }
 
-                while (results.hasMoreElements()) {
-                    SearchResult result = results.nextElement();
+    private String getAttributeValue(Attributes attributes, String attributeName) throws NamingException {
 
-                    NotificationReceiver receiver = new NotificationReceiver();
-                    receiver.setEmail((String) result.getAttributes().get(emailMapAttribute).get());
-                    receiver.setUsername((String) result.getAttributes().get(usernameMapAttribute).get());
-                    receiver.setFirstName((String) result.getAttributes().get(firstNameMapAttribute).get());
-                    receiver.setUserStoreDomain(userStoreDomain);
+        if (attributes == null || attributeName == null) {
+            return null;
+        }
+        Attribute attribute = attributes.get(attributeName);
+        if (attribute == null || attribute.get() == null) {
+            return null;
+        }
+        return attribute.get().toString();
+    }
 
-                    String lastLoginTimeValue = result.getAttributes().get(lastLoginTimeAttribute).get().toString();
-                    long lastLoginTime = convertToWSO2DateFormat(lastLoginTimeValue);
-                    long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
-                    receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
+    private void closeNamingEnumeration(NamingEnumeration<SearchResult> results) {
 
-                    if (log.isDebugEnabled()) {
-                        log.debug("Expire date was set to: " + receiver.getExpireDate());
-                    }
-                    users.add(receiver);
-                }
+        if (results != null) {
+            try {
+                results.close();
             } catch (NamingException e) {
-                throw new AccountSuspensionNotificationException("Failed to filter users from LDAP user store.", e);
-            } catch (UserStoreException e) {
-                throw new AccountSuspensionNotificationException("Failed to load LDAP connection context.", e);
-            } catch (org.wso2.carbon.user.api.UserStoreException e) {
-                throw new AccountSuspensionNotificationException("Error occurred while getting tenant user realm for "
-                        + "tenant:" + tenantDomain, e);
+                log.error("Error while closing the LDAP search results.", e);
+            }
+        }
+    }
+
+    private void closeContext(DirContext ctx) {
+
+        if (ctx != null) {
+            try {
+                ctx.close();
+            } catch (NamingException e) {
+                log.error("Error while closing the LDAP connection context.", e);
             }
         }
-        return users;
     }
 
     /**
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.account.suspension.notification.task.util;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Progress of a run of the idle account suspension task. The checkpoint file holds the execution time of the run on
+ * the first line, followed by a line for each tenant the run has completed. The file is removed once the run
+ * completes, hence a remaining file belongs to a run which was stopped midway and has to be resumed.
+ * Checkpointing is best effort. Failures to write the file are logged and do not stop the run.
+ */
+public class AccountSuspensionCheckpoint {
+
+    private static final Log log = LogFactory.getLog(AccountSuspensionCheckpoint.class);
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final Path path;
+    private final long executionTime;
+    private final Set<String> completedTenants;
+
+    private AccountSuspensionCheckpoint(Path path, long executionTime, Set<String> completedTenants) {
+
+        this.path = path;
+        this.executionTime = executionTime;
+        this.completedTenants = completedTenants;
+    }
+
+    /**
+     * Get the path of the checkpoint file, which is in the data directory of the server.
+     *
+     * @return Path of the checkpoint file, or null if the server home is not known.
+     */
+    public static Path getDefaultPath() {
+
+        String carbonHome = System.getProperty(NotificationConstants.CARBON_HOME);
+        if (StringUtils.isBlank(carbonHome)) {
+            return null;
+        }
+        return Paths.get(carbonHome, "repository", "data", NotificationConstants.CHECKPOINT_FILE_NAME);
+    }
+
+    /**
+     * Load the checkpoint of an unfinished run.
+     *
+     * @param path Path of the checkpoint file.
+     * @return Checkpoint of the unfinished run, or null if there is no unfinished run.
+     */
+    public static AccountSuspensionCheckpoint load(Path path) {
+
+        if (path == null || !Files.exists(path)) {
+            return null;
+        }
+        try {
+            String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            // A line which is not terminated was being written when the run stopped, hence it is ignored.
+            int end = content.lastIndexOf(LINE_SEPARATOR);
+            if (end < 0) {
+                return null;
+            }
+            String[] lines = content.substring(0, end).split(LINE_SEPARATOR);
+            long executionTime = Long.parseLong(lines[0].trim());
+            Set<String> completedTenants = ConcurrentHashMap.newKeySet();
+            for (int i = 1; i < lines.length; i++) {
+                if (StringUtils.isNotBlank(lines[i])) {
+                    completedTenants.add(lines[i].trim());
+                }
+            }
+            return new AccountSuspensionCheckpoint(path, executionTime, completedTenants);
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring the unreadable idle account suspension task checkpoint: " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Start the checkpoint of a new run, replacing any existing checkpoint.
+     *
+     * @param path          Path of the checkpoint file. Progress is not persisted if the path is null.
+     * @param executionTime Execution time of the run.
+     * @return Checkpoint of the run.
+     */
+    public static AccountSuspensionCheckpoint start(Path path, long executionTime) {
+
+        AccountSuspensionCheckpoint checkpoint = new AccountSuspensionCheckpoint(path, executionTime,
+                ConcurrentHashMap.newKeySet());
+        if (path != null) {
+            try {
+                Files.createDirectories(path.getParent());
+                Files.write(path, (executionTime + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                log.warn("Error while writing the idle account suspension task checkpoint: " + path, e);
+            }
+        }
+        return checkpoint;
+    }
+
+    public long getExecutionTime() {
+
+        return executionTime;
+    }
+
+    /**
+     * Check whether the run has completed a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return True if the tenant is completed.
+     */
+    public boolean isCompleted(String tenantDomain) {
+
+        return completedTenants.contains(tenantDomain);
+    }
+
+    /**
+     * Record that the run has completed a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public synchronized void markCompleted(String tenantDomain) {
+
+        completedTenants.add(tenantDomain);
+        if (path != null) {
+            try {
+                Files.write(path, (tenantDomain + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                log.warn("Error while checkpointing tenant: " + tenantDomain + " of the idle account suspension "
+                        + "task.", e);
+            }
+        }
+    }
+
+    /**
+     * Remove the checkpoint once the run is completed.
+     */
+    public synchronized void finish() {
+
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Error while removing the idle account suspension task checkpoint: " + path, e);
+            }
+        }
+    }
+}
@@ -27,18 +27,40 @@ public class NotificationConstants {
     public static final String SUSPENSION_NOTIFICATION_TRIGGER_TIME= "suspension.notification.trigger.time";
     public static final String SUSPENSION_NOTIFICATION_DELAYS="suspension.notification.delays";
     public static final String USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME = "AccountSuspension.UseIdentityClaims";
+    public static final String RECEIVERS_PAGE_SIZE = "AccountSuspension.ReceiversPageSize";
+    public static final int DEFAULT_RECEIVERS_PAGE_SIZE = 1000;
     public static final String TRIGGER_TIME_FORMAT = "HH:mm:ss";
     public static final long SCHEDULER_DELAY = 24; // In hours
     public static final String SUSPENSION_NOTIFICATION_THREAD_POOL_SIZE = "suspension.notification.thread.pool.size";
+    public static final String CARBON_HOME = "carbon.home";
+    public static final String CHECKPOINT_FILE_NAME = "idle-account-suspension.checkpoint";
+    public static final long CHECKPOINT_RESUME_DELAY = 5; // In minutes
 
     public static final String GET_USERS_FILTERED_BY_LAST_LOGIN_TIME = "SELECT UM_USER.UM_USER_NAME FROM "
     + "UM_USER, UM_USER_ATTRIBUTE WHERE UM_USER_ATTRIBUTE.UM_USER_ID = UM_USER.UM_ID AND UM_USER_ATTRIBUTE.UM_ATTR_NAME "
     + "= ? AND UM_USER_ATTRIBUTE.UM_ATTR_VALUE BETWEEN ? AND ? AND UM_USER_ATTRIBUTE.UM_TENANT_ID=? AND "
     + "UM_USER.UM_TENANT_ID=?";
 
+    // Users are paged by the user id, which is bound as the id of the last user of the previous page.
+    public static final String GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_PAGED = "SELECT UM_USER.UM_ID, "
+    + "UM_USER.UM_USER_NAME, UM_USER_ATTRIBUTE.UM_ATTR_VALUE FROM UM_USER, UM_USER_ATTRIBUTE WHERE "
+    + "UM_USER_ATTRIBUTE.UM_USER_ID = UM_USER.UM_ID AND UM_USER_ATTRIBUTE.UM_ATTR_NAME = ? AND "
+    + "UM_USER_ATTRIBUTE.UM_ATTR_VALUE BETWEEN ? AND ? AND UM_USER_ATTRIBUTE.UM_TENANT_ID=? AND "
+    + "UM_USER.UM_TENANT_ID=? AND UM_USER.UM_ID > ? ORDER BY UM_USER.UM_ID";
+
     public static final String GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM = "SELECT USER_NAME, DATA_VALUE " +
             "FROM IDN_IDENTITY_USER_DATA WHERE DATA_KEY = ? AND DATA_VALUE BETWEEN ? AND ? AND TENANT_ID = ?";
 
+    // Users are paged by the username, which is bound as the username of the last user of the previous page.
+    // The first page is read without the username condition, as Oracle treats an empty string as NULL.
+    public static final String GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM_FIRST_PAGE = "SELECT " +
+            "USER_NAME, DATA_VALUE FROM IDN_IDENTITY_USER_DATA WHERE DATA_KEY = ? AND DATA_VALUE BETWEEN ? AND ? " +
+            "AND TENANT_ID = ? ORDER BY USER_NAME";
+
+    public static final String GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM_PAGED = "SELECT USER_NAME, " +
+            "DATA_VALUE FROM IDN_IDENTITY_USER_DATA WHERE DATA_KEY = ? AND DATA_VALUE BETWEEN ? AND ? AND " +
+            "TENANT_ID = ? AND USER_NAME > ? ORDER BY USER_NAME";
+
     public final static String USERNAME_CLAIM = "http://wso2.org/claims/username";
     public final static String FIRST_NAME_CLAIM = "http://wso2.org/claims/givenname";
     public final static String EMAIL_CLAIM = "http://wso2.org/claims/emailaddress";
@@ -22,6 +22,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversPageHandler;
 import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversRetrieval;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
@@ -32,6 +33,7 @@ import org.wso2.carbon.user.api.RealmConfiguration;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.model.UserClaimSearchEntry;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
@@ -41,9 +43,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -192,57 +196,159 @@ public class NotificationReceiversRetrievalUtil {
             lookupMax, long delayForSuspension, RealmService realmService, String tenantDomain, String userStoreDomain)
             throws AccountSuspensionNotificationException {
 
+        List<NotificationReceiver> users = new ArrayList<>();
+        getNotificationReceiversFromIdentityClaim(lookupMin, lookupMax, delayForSuspension, realmService,
+                tenantDomain, userStoreDomain, getReceiversPageSize(), users::addAll);
+        return users;
+    }
+
+    /**
+     * This method retrieves the NotificationReceiver objects for the users whose accounts have been idle more than
+     * the allowed number of days page by page. The users are paged by the username, and the claims of the users of a
+     * page are retrieved with a single user store call.
+     *
+     * @param lookupMin          lookup mininum timestamp
+     * @param lookupMax          lookup maximum timestamp
+     * @param delayForSuspension allowed account suspension delay
+     * @param realmService       realm service
+     * @param tenantDomain       tenant domain
+     * @param userStoreDomain    userstore domain
+     * @param pageSize           maximum number of users read in a page
+     * @param pageHandler        handler of the NotificationReceiver objects of a page
+     * @throws AccountSuspensionNotificationException if something happens when retrieving user details
+     */
+    public static void getNotificationReceiversFromIdentityClaim(long lookupMin, long lookupMax,
+                                                                 long delayForSuspension, RealmService realmService,
+                                                                 String tenantDomain, String userStoreDomain,
+                                                                 int pageSize,
+                                                                 NotificationReceiversPageHandler pageHandler)
+            throws AccountSuspensionNotificationException {
+
         if (log.isDebugEnabled()) {
             log.debug("Retrieve users whose accounts have been idle more than the allowed number of days by checking " +
                     "the identity database.");
         }
 
-        List<NotificationReceiver> users = new ArrayList<>();
-        String sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM;
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
-            try (PreparedStatement prepStmt = connection.prepareStatement(sqlStmt)) {
-                prepStmt.setString(1, NotificationConstants.LAST_LOGIN_TIME_IDENTITY_CLAIM);
-                prepStmt.setString(2, String.valueOf(lookupMin));
-                prepStmt.setString(3, String.valueOf(lookupMax));
-                prepStmt.setInt(4, IdentityTenantUtil.getTenantId(tenantDomain));
-                try (ResultSet resultSet = prepStmt.executeQuery()) {
-                    while (resultSet.next()) {
-                        String userName = resultSet.getString(1);
-                        if (StringUtils.isNotBlank(userName)) {
-                            String[] claims = new String[2];
-                            claims[0] = NotificationConstants.FIRST_NAME_CLAIM;
-                            claims[1] = NotificationConstants.EMAIL_CLAIM;
-                            UserStoreManager userStoreManager = (UserStoreManager) realmService.getTenantUserRealm
-                                    (IdentityTenantUtil.getTenantId(tenantDomain)).getUserStoreManager();
-
-                            if (userStoreDomain != null &&
+        int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+        String sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM_FIRST_PAGE;
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false)) {
+            UserStoreManager userStoreManager = (UserStoreManager) realmService.getTenantUserRealm(tenantId)
+                    .getUserStoreManager();
+            String lastUserName = null;
+            int readCount = pageSize;
+            while (readCount == pageSize) {
+                readCount = 0;
+                // Last login times of the users of the user store domain, by username.
+                Map<String, String> lastLoginTimes = new LinkedHashMap<>();
+                try (PreparedStatement prepStmt = connection.prepareStatement(sqlStmt)) {
+                    prepStmt.setString(1, NotificationConstants.LAST_LOGIN_TIME_IDENTITY_CLAIM);
+                    prepStmt.setString(2, String.valueOf(lookupMin));
+                    prepStmt.setString(3, String.valueOf(lookupMax));
+                    prepStmt.setInt(4, tenantId);
+                    if (lastUserName != null) {
+                        prepStmt.setString(5, lastUserName);
+                    }
+                    prepStmt.setMaxRows(pageSize);
+                    prepStmt.setFetchSize(pageSize);
+                    try (ResultSet resultSet = prepStmt.executeQuery()) {
+                        while (resultSet.next()) {
+                            readCount++;
+                            String userName = resultSet.getString(1);
+                            lastUserName = userName;
+                            if (StringUtils.isNotBlank(userName) && userStoreDomain != null &&
                                     userStoreDomain.equalsIgnoreCase(UserCoreUtil.extractDomainFromName(userName))) {
-
-                                Map<String, String> map = userStoreManager.getUserClaimValues(userName, claims, null);
-                                NotificationReceiver receiver = new NotificationReceiver();
-                                receiver.setEmail(map.get(NotificationConstants.EMAIL_CLAIM));
-                                receiver.setUsername(UserCoreUtil.removeDomainFromName(userName));
-                                receiver.setFirstName(map.get(NotificationConstants.FIRST_NAME_CLAIM));
-                                receiver.setUserStoreDomain(userStoreDomain);
-
-                                long lastLoginTime = Long.parseLong(resultSet.getString(2));
-                                long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
-                                receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
-                                users.add(receiver);
+                                lastLoginTimes.put(userName, resultSet.getString(2));
                             }
                         }
                     }
                 }
-                IdentityDatabaseUtil.commitTransaction(connection);
-                return users;
+                if (!lastLoginTimes.isEmpty()) {
+                    pageHandler.handle(buildNotificationReceivers(userStoreManager, lastLoginTimes,
+                            delayForSuspension, userStoreDomain));
+                }
+                sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM_PAGED;
             }
         } catch (SQLException e) {
             if (log.isDebugEnabled()) {
                 log.debug("Error occurred while running the sql query: " + sqlStmt);
             }
             throw new AccountSuspensionNotificationException(e.getMessage(), e);
-        } catch (UserStoreException e) {
+        } catch (UserStoreException | NumberFormatException e) {
             throw new AccountSuspensionNotificationException(e.getMessage(), e);
         }
     }
+
+    /**
+     * Build the NotificationReceiver objects of a page of users. The claims of the users are retrieved with a single
+     * user store call.
+     *
+     * @param userStoreManager   user store manager of the tenant
+     * @param lastLoginTimes     last login times of the users, by domain qualified username
+     * @param delayForSuspension allowed account suspension delay
+     * @param userStoreDomain    userstore domain of the users
+     * @return NotificationReceiver objects of the users
+     * @throws UserStoreException if the claims of the users could not be retrieved
+     */
+    public static List<NotificationReceiver> buildNotificationReceivers(UserStoreManager userStoreManager,
+                                                                        Map<String, String> lastLoginTimes,
+                                                                        long delayForSuspension,
+                                                                        String userStoreDomain)
+            throws UserStoreException {
+
+        String[] claims = new String[2];
+        claims[0] = NotificationConstants.FIRST_NAME_CLAIM;
+        claims[1] = NotificationConstants.EMAIL_CLAIM;
+        UserClaimSearchEntry[] userClaimSearchEntries = userStoreManager.getUsersClaimValues(
+                lastLoginTimes.keySet().toArray(new String[0]), claims, null);
+
+        Map<String, Map<String, String>> usersClaims = new HashMap<>();
+        if (userClaimSearchEntries != null) {
+            for (UserClaimSearchEntry userClaimSearchEntry : userClaimSearchEntries) {
+                if (userClaimSearchEntry.getUserName() != null && userClaimSearchEntry.getClaims() != null) {
+                    usersClaims.put(UserCoreUtil.removeDomainFromName(userClaimSearchEntry.getUserName()),
+                            userClaimSearchEntry.getClaims());
+                }
+            }
+        }
+
+        List<NotificationReceiver> receivers = new ArrayList<>(lastLoginTimes.size());
+        SimpleDateFormat expireDateFormat = new SimpleDateFormat("dd-MM-yyyy");
+        for (Map.Entry<String, String> lastLoginTime : lastLoginTimes.entrySet()) {
+            String userName = UserCoreUtil.removeDomainFromName(lastLoginTime.getKey());
+            Map<String, String> map = usersClaims.getOrDefault(userName, Collections.emptyMap());
+            NotificationReceiver receiver = new NotificationReceiver();
+            receiver.setEmail(map.get(NotificationConstants.EMAIL_CLAIM));
+            receiver.setUsername(userName);
+            receiver.setFirstName(map.get(NotificationConstants.FIRST_NAME_CLAIM));
+            receiver.setUserStoreDomain(userStoreDomain);
+
+            long expireDate = Long.parseLong(lastLoginTime.getValue()) + TimeUnit.DAYS.toMillis(delayForSuspension);
+            receiver.setExpireDate(expireDateFormat.format(new Date(expireDate)));
+            receivers.add(receiver);
+        }
+        return receivers;
+    }
+
+    /**
+     * Get the maximum number of notification receivers retrieved in a page.
+     *
+     * @return page size
+     */
+    public static int getReceiversPageSize() {
+
+        String pageSize = IdentityUtil.getProperty(NotificationConstants.RECEIVERS_PAGE_SIZE);
+        if (StringUtils.isNotBlank(pageSize)) {
+            try {
+                int receiversPageSize = Integer.parseInt(pageSize.trim());
+                if (receiversPageSize > 0) {
+                    return receiversPageSize;
+                }
+            } catch (NumberFormatException e) {
+                // Default page size is used.
+            }
+            log.warn("Invalid value: " + pageSize + " for the property: " + NotificationConstants.RECEIVERS_PAGE_SIZE
+                    + ". Hence using the default page size: " + NotificationConstants.DEFAULT_RECEIVERS_PAGE_SIZE);
+        }
+        return NotificationConstants.DEFAULT_RECEIVERS_PAGE_SIZE;
+    }
 }
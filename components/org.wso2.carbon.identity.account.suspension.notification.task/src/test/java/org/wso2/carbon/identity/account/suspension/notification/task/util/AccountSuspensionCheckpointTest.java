@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.account.suspension.notification.task.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class AccountSuspensionCheckpointTest {
+
+    private static final long EXECUTION_TIME = 1700000000000L;
+
+    private Path directory;
+    private Path path;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("account-suspension-checkpoint");
+        path = directory.resolve("data").resolve(NotificationConstants.CHECKPOINT_FILE_NAME);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test(description = "Test whether there is no checkpoint to resume when the file does not exist.")
+    public void testLoadMissingCheckpoint() {
+
+        assertNull(AccountSuspensionCheckpoint.load(path));
+        assertNull(AccountSuspensionCheckpoint.load(null));
+    }
+
+    @Test(description = "Test whether a started checkpoint is loaded with the tenants it completed.")
+    public void testLoad() {
+
+        AccountSuspensionCheckpoint checkpoint = AccountSuspensionCheckpoint.start(path, EXECUTION_TIME);
+        checkpoint.markCompleted("carbon.super");
+        checkpoint.markCompleted("wso2.com");
+
+        AccountSuspensionCheckpoint loadedCheckpoint = AccountSuspensionCheckpoint.load(path);
+        assertNotNull(loadedCheckpoint);
+        assertEquals(loadedCheckpoint.getExecutionTime(), EXECUTION_TIME);
+        assertTrue(loadedCheckpoint.isCompleted("carbon.super"));
+        assertTrue(loadedCheckpoint.isCompleted("wso2.com"));
+        assertFalse(loadedCheckpoint.isCompleted("abc.com"));
+    }
+
+    @Test(description = "Test whether a tenant line which was not fully written is ignored.")
+    public void testLoadTruncatedLine() throws IOException {
+
+        write(EXECUTION_TIME + "\ncarbon.super\nwso2.c");
+
+        AccountSuspensionCheckpoint checkpoint = AccountSuspensionCheckpoint.load(path);
+        assertNotNull(checkpoint);
+        assertEquals(checkpoint.getExecutionTime(), EXECUTION_TIME);
+        assertTrue(checkpoint.isCompleted("carbon.super"));
+        assertFalse(checkpoint.isCompleted("wso2.c"));
+        assertFalse(checkpoint.isCompleted("wso2.com"));
+    }
+
+    @Test(description = "Test whether a checkpoint without a fully written execution time is not resumed.")
+    public void testLoadTruncatedExecutionTime() throws IOException {
+
+        write("17000000");
+        assertNull(AccountSuspensionCheckpoint.load(path));
+
+        write("");
+        assertNull(AccountSuspensionCheckpoint.load(path));
+    }
+
+    @Test(description = "Test whether a checkpoint with an unreadable execution time is not resumed.")
+    public void testLoadUnreadableExecutionTime() throws IOException {
+
+        write("not-a-time\ncarbon.super\n");
+        assertNull(AccountSuspensionCheckpoint.load(path));
+    }
+
+    @Test(description = "Test whether a resumed run keeps the tenants completed before it was stopped.")
+    public void testResume() {
+
+        AccountSuspensionCheckpoint checkpoint = AccountSuspensionCheckpoint.start(path, EXECUTION_TIME);
+        checkpoint.markCompleted("carbon.super");
+
+        AccountSuspensionCheckpoint resumedCheckpoint = AccountSuspensionCheckpoint.load(path);
+        assertNotNull(resumedCheckpoint);
+        resumedCheckpoint.markCompleted("wso2.com");
+
+        AccountSuspensionCheckpoint reloadedCheckpoint = AccountSuspensionCheckpoint.load(path);
+        assertNotNull(reloadedCheckpoint);
+        assertEquals(reloadedCheckpoint.getExecutionTime(), EXECUTION_TIME);
+        assertTrue(reloadedCheckpoint.isCompleted("carbon.super"));
+        assertTrue(reloadedCheckpoint.isCompleted("wso2.com"));
+    }
+
+    @Test(description = "Test whether starting a new run replaces the checkpoint of the previous run.")
+    public void testStartReplacesCheckpoint() {
+
+        AccountSuspensionCheckpoint checkpoint = AccountSuspensionCheckpoint.start(path, EXECUTION_TIME);
+        checkpoint.markCompleted("carbon.super");
+
+        AccountSuspensionCheckpoint.start(path, EXECUTION_TIME + 1);
+
+        AccountSuspensionCheckpoint loadedCheckpoint = AccountSuspensionCheckpoint.load(path);
+        assertNotNull(loadedCheckpoint);
+        assertEquals(loadedCheckpoint.getExecutionTime(), EXECUTION_TIME + 1);
+        assertFalse(loadedCheckpoint.isCompleted("carbon.super"));
+    }
+
+    @Test(description = "Test whether a finished run leaves no checkpoint to resume.")
+    public void testFinish() {
+
+        AccountSuspensionCheckpoint checkpoint = AccountSuspensionCheckpoint.start(path, EXECUTION_TIME);
+        checkpoint.markCompleted("carbon.super");
+        checkpoint.finish();
+
+        assertFalse(Files.exists(path));
+        assertNull(AccountSuspensionCheckpoint.load(path));
+    }
+
+    @Test(description = "Test whether the progress is kept in memory when there is no checkpoint file.")
+    public void testWithoutPath() {
+
+        AccountSuspensionCheckpoint checkpoint = AccountSuspensionCheckpoint.start(null, EXECUTION_TIME);
+        checkpoint.markCompleted("carbon.super");
+
+        assertTrue(checkpoint.isCompleted("carbon.super"));
+        checkpoint.finish();
+    }
+
+    private void write(String content) throws IOException {
+
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.account.suspension.notification.task.util;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.user.core.UserRealm;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.model.UserClaimSearchEntry;
+import org.wso2.carbon.user.core.service.RealmService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class NotificationReceiversRetrievalUtilTest {
+
+    // Oracle mode treats an empty string as NULL, as Oracle does.
+    private static final String DB_URL = "jdbc:h2:mem:account_suspension;MODE=Oracle;DB_CLOSE_DELAY=-1";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final int TENANT_ID = -1234;
+    private static final long LAST_LOGIN_TIME = 1700000000000L;
+
+    private Connection keepAliveConnection;
+    private MockedStatic<IdentityDatabaseUtil> mockedIdentityDatabaseUtil;
+    private MockedStatic<IdentityTenantUtil> mockedIdentityTenantUtil;
+    private RealmService realmService;
+
+    @BeforeClass
+    public void setUpDatabase() throws Exception {
+
+        keepAliveConnection = DriverManager.getConnection(DB_URL);
+        try (Statement statement = keepAliveConnection.createStatement()) {
+            statement.execute("CREATE TABLE IDN_IDENTITY_USER_DATA (TENANT_ID INTEGER, USER_NAME VARCHAR(255), " +
+                    "DATA_KEY VARCHAR(255), DATA_VALUE VARCHAR(255))");
+        }
+        try (PreparedStatement prepStmt = keepAliveConnection.prepareStatement(
+                "INSERT INTO IDN_IDENTITY_USER_DATA VALUES (?, ?, ?, ?)")) {
+            for (String userName : new String[]{"user1", "user2", "user3", "user4", "user5", "SECONDARY/user6"}) {
+                prepStmt.setInt(1, TENANT_ID);
+                prepStmt.setString(2, userName);
+                prepStmt.setString(3, NotificationConstants.LAST_LOGIN_TIME_IDENTITY_CLAIM);
+                prepStmt.setString(4, String.valueOf(LAST_LOGIN_TIME));
+                prepStmt.addBatch();
+            }
+            prepStmt.executeBatch();
+        }
+    }
+
+    @AfterClass
+    public void tearDownDatabase() throws Exception {
+
+        keepAliveConnection.close();
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockedIdentityDatabaseUtil = Mockito.mockStatic(IdentityDatabaseUtil.class);
+        mockedIdentityDatabaseUtil.when(() -> IdentityDatabaseUtil.getDBConnection(anyBoolean()))
+                .thenAnswer(invocation -> DriverManager.getConnection(DB_URL));
+        mockedIdentityTenantUtil = Mockito.mockStatic(IdentityTenantUtil.class);
+        mockedIdentityTenantUtil.when(() -> IdentityTenantUtil.getTenantId(TENANT_DOMAIN)).thenReturn(TENANT_ID);
+
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.getUsersClaimValues(any(String[].class), any(String[].class), any()))
+                .thenReturn(new UserClaimSearchEntry[0]);
+        UserRealm userRealm = mock(UserRealm.class);
+        when(userRealm.getUserStoreManager()).thenReturn(userStoreManager);
+        realmService = mock(RealmService.class);
+        when(realmService.getTenantUserRealm(TENANT_ID)).thenReturn(userRealm);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        mockedIdentityDatabaseUtil.close();
+        mockedIdentityTenantUtil.close();
+    }
+
+    @Test
+    public void testReceiversAreRetrievedPageByPage() throws Exception {
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> userNames = new ArrayList<>();
+        NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(LAST_LOGIN_TIME - 1,
+                LAST_LOGIN_TIME + 1, 1, realmService, TENANT_DOMAIN, "PRIMARY", 2, receivers -> {
+                    pageSizes.add(receivers.size());
+                    for (NotificationReceiver receiver : receivers) {
+                        userNames.add(receiver.getUsername());
+                    }
+                });
+
+        // The user of the other user store domain is sorted first, hence only a user of the first page is handled.
+        assertEquals(pageSizes, list(1, 2, 2));
+        assertEquals(userNames, list("user1", "user2", "user3", "user4", "user5"));
+    }
+
+    @Test
+    public void testAllReceiversAreRetrievedInSinglePage() throws Exception {
+
+        List<NotificationReceiver> receivers = new ArrayList<>();
+        NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(LAST_LOGIN_TIME - 1,
+                LAST_LOGIN_TIME + 1, 1, realmService, TENANT_DOMAIN, "SECONDARY", 10, receivers::addAll);
+
+        assertEquals(receivers.size(), 1);
+        assertEquals(receivers.get(0).getUsername(), "user6");
+        assertEquals(receivers.get(0).getUserStoreDomain(), "SECONDARY");
+    }
+
+    @SafeVarargs
+    private static <T> List<T> list(T... values) {
+
+        List<T> list = new ArrayList<>();
+        for (T value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
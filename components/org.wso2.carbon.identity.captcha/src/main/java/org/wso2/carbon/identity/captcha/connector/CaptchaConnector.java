@@ -21,6 +21,9 @@ package org.wso2.carbon.identity.captcha.connector;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
@@ -35,11 +38,43 @@ public interface CaptchaConnector {
 
     boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException;
 
+    /**
+     * Get the request paths the connector can handle. The connector is asked whether it can handle a request only if
+     * the request is to one of these paths. By default the connector is asked for the requests to any path.
+     *
+     * @return Secured request paths, or null if the connector may handle a request to any path.
+     */
+    default Set<String> getSecuredPaths() {
+
+        return null;
+    }
+
     CaptchaPreValidationResponse preValidate(ServletRequest servletRequest, ServletResponse servletResponse) throws
             CaptchaException;
 
     boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException;
 
+    /**
+     * Verify the captcha of the request without blocking the calling thread. The request must only be read on the
+     * calling thread, as the container may recycle it once the calling thread stops waiting for the verification.
+     * Connectors read the captcha response from the request and verify only that response on the given executor. By
+     * default the captcha is verified with {@link #verifyCaptcha(ServletRequest, ServletResponse)} on the calling
+     * thread.
+     *
+     * @param servletRequest  Servlet request.
+     * @param servletResponse Servlet response.
+     * @param executor        Executor to verify the captcha response on.
+     * @return Future completed with the verification result, or completed exceptionally with the
+     * {@link CaptchaException} thrown while verifying.
+     * @throws CaptchaException If the captcha response could not be read from the request.
+     */
+    default CompletableFuture<Boolean> verifyCaptchaAsync(ServletRequest servletRequest,
+                                                          ServletResponse servletResponse, Executor executor)
+            throws CaptchaException {
+
+        return CompletableFuture.completedFuture(verifyCaptcha(servletRequest, servletResponse));
+    }
+
     CaptchaPostValidationResponse postValidate(ServletRequest servletRequest, ServletResponse servletResponse) throws
             CaptchaException;
 }
@@ -24,6 +24,9 @@ import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -37,6 +40,19 @@ public abstract class AbstractReCaptchaConnector implements CaptchaConnector {
     public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
+        return CaptchaUtil.isValidCaptcha(getReCaptchaResponse(servletRequest));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyCaptchaAsync(ServletRequest servletRequest,
+                                                         ServletResponse servletResponse, Executor executor)
+            throws CaptchaException {
+
+        return CaptchaUtil.isValidCaptchaAsync(getReCaptchaResponse(servletRequest), executor);
+    }
+
+    private String getReCaptchaResponse(ServletRequest servletRequest) throws CaptchaClientException {
+
         if (((HttpServletRequest) servletRequest).getMethod().equalsIgnoreCase("GET")) {
             throw new CaptchaClientException("reCaptcha response must send in a POST request.");
         }
@@ -45,7 +61,6 @@ public abstract class AbstractReCaptchaConnector implements CaptchaConnector {
         if (StringUtils.isBlank(reCaptchaResponse)) {
             throw new CaptchaClientException("reCaptcha response is not available in the request.");
         }
-
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return reCaptchaResponse;
     }
 }
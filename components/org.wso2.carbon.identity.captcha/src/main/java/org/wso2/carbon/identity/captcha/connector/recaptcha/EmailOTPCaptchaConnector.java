@@ -45,6 +45,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.wso2.carbon.identity.captcha.util.CaptchaConstants.SSO_LOGIN_RECAPTCHA_CONNECTOR_NAME;
 
@@ -55,6 +56,7 @@ public class EmailOTPCaptchaConnector extends AbstractReCaptchaConnector {
 
     private static final Log log = LogFactory.getLog(EmailOTPCaptchaConnector.class);
     private static final String SECURED_DESTINATIONS = "/commonauth";
+    private static final Set<String> SECURED_PATHS = CaptchaUtil.getPaths(SECURED_DESTINATIONS);
     public static final String EMAIL_OTP_AUTHENTICATOR_NAME = "email-otp-authenticator";
     public static final String IS_REDIRECT_TO_EMAIL_OTP = "isRedirectToEmailOTP";
     public static final String RESEND_CODE = "resendCode";
@@ -77,12 +79,18 @@ public class EmailOTPCaptchaConnector extends AbstractReCaptchaConnector {
         return 30;
     }
 
+    @Override
+    public Set<String> getSecuredPaths() {
+
+        return SECURED_PATHS;
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
         String path = ((HttpServletRequest) servletRequest).getRequestURI();
 
-        if (StringUtils.isBlank(path) || !(CaptchaUtil.isPathAvailable(path, SECURED_DESTINATIONS))) {
+        if (StringUtils.isBlank(path) || !SECURED_PATHS.contains(path)) {
             return false;
         }
 
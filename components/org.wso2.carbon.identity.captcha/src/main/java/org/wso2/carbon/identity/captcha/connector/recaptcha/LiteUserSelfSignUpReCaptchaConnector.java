@@ -21,7 +21,6 @@ package org.wso2.carbon.identity.captcha.connector.recaptcha;
 import org.apache.commons.lang.StringUtils;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
-import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
@@ -29,6 +28,9 @@ import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
@@ -41,6 +43,7 @@ import javax.servlet.http.HttpServletResponse;
 public class LiteUserSelfSignUpReCaptchaConnector extends AbstractReCaptchaConnector {
 
     private static final String LITE_USER_REGISTRATION_URL = "/api/identity/user/v1.0/lite";
+    private static final Set<String> SECURED_PATHS = CaptchaUtil.getPaths(LITE_USER_REGISTRATION_URL);
     private static final String SELF_REGISTRATION_RECAPTCHA_ENABLE = "SelfRegistration.ReCaptcha";
 
     private IdentityGovernanceService identityGovernanceService;
@@ -57,12 +60,18 @@ public class LiteUserSelfSignUpReCaptchaConnector extends AbstractReCaptchaConne
         return 11;
     }
 
+    @Override
+    public Set<String> getSecuredPaths() {
+
+        return SECURED_PATHS;
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
         String path = ((HttpServletRequest) servletRequest).getRequestURI();
 
-        if (StringUtils.isBlank(path) || !(CaptchaUtil.isPathAvailable(path, LITE_USER_REGISTRATION_URL))) {
+        if (StringUtils.isBlank(path) || !SECURED_PATHS.contains(path)) {
             return false;
         }
 
@@ -97,11 +106,16 @@ public class LiteUserSelfSignUpReCaptchaConnector extends AbstractReCaptchaConne
     public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
-        String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
-        if (StringUtils.isBlank(reCaptchaResponse)) {
-            throw new CaptchaClientException("reCaptcha response is not available in the request.");
-        }
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return CaptchaUtil.isValidCaptcha(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyCaptchaAsync(ServletRequest servletRequest,
+                                                         ServletResponse servletResponse, Executor executor)
+            throws CaptchaException {
+
+        return CaptchaUtil.isValidCaptchaAsync(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest),
+                executor);
     }
 
     @Override
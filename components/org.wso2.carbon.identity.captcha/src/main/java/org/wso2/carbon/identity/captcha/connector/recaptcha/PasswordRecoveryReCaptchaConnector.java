@@ -29,7 +29,6 @@ import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.application.common.model.User;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
-import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaServerException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
@@ -49,8 +48,14 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -75,6 +80,10 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
 
     private static final String RECOVER_PASSWORD_URL = "/api/identity/recovery/v0.9/recover-password";
 
+    private static final Set<String> SECURED_PATHS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            ACCOUNT_SECURITY_QUESTION_URL, ACCOUNT_SECURITY_QUESTIONS_URL, ACCOUNT_VALIDATE_ANSWER_URL,
+            RECOVER_PASSWORD_URL)));
+
     private static final String RECOVERY_QUESTION_PASSWORD_RECAPTCHA_ENABLE = "Recovery.Question.Password" +
             ".ReCaptcha.Enable";
     private static final String RECOVERY_QUESTION_PASSWORD_RECAPTCHA_MAX_FAILED_ATTEMPTS = "Recovery.Question" +
@@ -95,16 +104,18 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
         return 10;
     }
 
+    @Override
+    public Set<String> getSecuredPaths() {
+
+        return SECURED_PATHS;
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
         String path = ((HttpServletRequest) servletRequest).getRequestURI();
 
-        return !StringUtils.isBlank(path) &&
-                (CaptchaUtil.isPathAvailable(path, ACCOUNT_SECURITY_QUESTION_URL) ||
-                        CaptchaUtil.isPathAvailable(path, ACCOUNT_SECURITY_QUESTIONS_URL) ||
-                        CaptchaUtil.isPathAvailable(path, ACCOUNT_VALIDATE_ANSWER_URL) ||
-                        CaptchaUtil.isPathAvailable(path, RECOVER_PASSWORD_URL));
+        return !StringUtils.isBlank(path) && SECURED_PATHS.contains(path);
     }
 
     @Override
@@ -131,7 +142,12 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
         // Handle recover with security questions option.
         HttpServletRequest httpServletRequestWrapper;
         try {
-            httpServletRequestWrapper = new CaptchaHttpServletRequestWrapper((HttpServletRequest) servletRequest);
+            // Reuse the request wrapped by the filter, so that the body is buffered and parsed only once.
+            if (servletRequest instanceof CaptchaHttpServletRequestWrapper) {
+                httpServletRequestWrapper = (HttpServletRequest) servletRequest;
+            } else {
+                httpServletRequestWrapper = new CaptchaHttpServletRequestWrapper((HttpServletRequest) servletRequest);
+            }
             preValidationResponse.setWrappedHttpServletRequest(httpServletRequestWrapper);
         } catch (IOException e) {
             log.error("Error occurred while wrapping ServletRequest.", e);
@@ -271,12 +287,16 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
     public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
-        String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
-        if (StringUtils.isBlank(reCaptchaResponse)) {
-            throw new CaptchaClientException("reCaptcha response is not available in the request.");
-        }
+        return CaptchaUtil.isValidCaptcha(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyCaptchaAsync(ServletRequest servletRequest,
+                                                         ServletResponse servletResponse, Executor executor)
+            throws CaptchaException {
 
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return CaptchaUtil.isValidCaptchaAsync(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest),
+                executor);
     }
 
     @Override
@@ -24,7 +24,6 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
-import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
@@ -36,6 +35,9 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * This class handle the resend confirmation ReCaptcha.
@@ -44,6 +46,7 @@ public class ResendConfirmationReCaptchaConnector extends AbstractReCaptchaConne
 
     private static final Log log = LogFactory.getLog(ResendConfirmationReCaptchaConnector.class);
     private static final String RESEND_CONFIRMATION_URL = "/api/identity/user/v1.0/resend-code";
+    private static final Set<String> SECURED_PATHS = CaptchaUtil.getPaths(RESEND_CONFIRMATION_URL);
     private static final String RESEND_CONFIRMATION_RECAPTCHA_ENABLE = "SelfRegistration.ResendConfirmationReCaptcha";
     private IdentityGovernanceService identityGovernanceService;
 
@@ -59,12 +62,18 @@ public class ResendConfirmationReCaptchaConnector extends AbstractReCaptchaConne
         return 3;
     }
 
+    @Override
+    public Set<String> getSecuredPaths() {
+
+        return SECURED_PATHS;
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
         String path = ((HttpServletRequest) servletRequest).getRequestURI();
 
-        if (StringUtils.isBlank(path) || !(CaptchaUtil.isPathAvailable(path, RESEND_CONFIRMATION_URL))) {
+        if (StringUtils.isBlank(path) || !SECURED_PATHS.contains(path)) {
             return false;
         }
 
@@ -99,11 +108,16 @@ public class ResendConfirmationReCaptchaConnector extends AbstractReCaptchaConne
     public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
-        String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
-        if (StringUtils.isBlank(reCaptchaResponse)) {
-            throw new CaptchaClientException("reCaptcha response is not available in the request.");
-        }
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return CaptchaUtil.isValidCaptcha(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyCaptchaAsync(ServletRequest servletRequest,
+                                                         ServletResponse servletResponse, Executor executor)
+            throws CaptchaException {
+
+        return CaptchaUtil.isValidCaptchaAsync(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest),
+                executor);
     }
 
     @Override
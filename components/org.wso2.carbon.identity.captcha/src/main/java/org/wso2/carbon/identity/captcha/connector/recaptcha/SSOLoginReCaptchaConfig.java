@@ -44,6 +44,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -62,8 +63,11 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
     private static final Log log = LogFactory.getLog(SSOLoginReCaptchaConfig.class);
 
     private static final String CONNECTOR_IDENTIFIER_ATTRIBUTE = "username,password";
+    private static final String[] CONNECTOR_IDENTIFIER_ATTRIBUTES = StringUtils.split(
+            CONNECTOR_IDENTIFIER_ATTRIBUTE, ',');
     private static final String RECAPTCHA_VERIFICATION_CLAIM = "http://wso2.org/claims/identity/failedLoginAttempts";
     private static final String SECURED_DESTINATIONS = "/commonauth,/samlsso,/oauth2";
+    private static final Set<String> SECURED_PATHS = CaptchaUtil.getPaths(SECURED_DESTINATIONS);
     private static final String ON_FAIL_REDIRECT_URL = "/authenticationendpoint/login.do";
 
     private IdentityGovernanceService identityGovernanceService;
@@ -79,6 +83,12 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
         return 20;
     }
 
+    @Override
+    public Set<String> getSecuredPaths() {
+
+        return SECURED_PATHS;
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
@@ -88,12 +98,11 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
         }
 
         String currentPath = ((HttpServletRequest) servletRequest).getRequestURI();
-        if (StringUtils.isBlank(currentPath) || !CaptchaUtil.isPathAvailable(currentPath, SECURED_DESTINATIONS)) {
+        if (StringUtils.isBlank(currentPath) || !SECURED_PATHS.contains(currentPath)) {
             return false;
         }
 
-        String[] connectorIdentifierAttributes = CONNECTOR_IDENTIFIER_ATTRIBUTE.split(",");
-        for (String attribute : connectorIdentifierAttributes) {
+        for (String attribute : CONNECTOR_IDENTIFIER_ATTRIBUTES) {
             if (servletRequest.getParameter(attribute) == null) {
                 return false;
             }
@@ -24,12 +24,18 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
-import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -46,6 +52,9 @@ public class SelfSignUpReCaptchaConnector extends AbstractReCaptchaConnector {
 
     private static final String SELF_REGISTRATION_URL = "/api/identity/user/v1.0/me";
 
+    private static final Set<String> SECURED_PATHS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            SELF_REGISTRATION_INITIATE_URL, SELF_REGISTRATION_URL)));
+
     private final String PROPERTY_ENABLE_RECAPTCHA = "SelfRegistration.ReCaptcha";
 
     private IdentityGovernanceService identityGovernanceService;
@@ -61,13 +70,18 @@ public class SelfSignUpReCaptchaConnector extends AbstractReCaptchaConnector {
         return 10;
     }
 
+    @Override
+    public Set<String> getSecuredPaths() {
+
+        return SECURED_PATHS;
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
         String path = ((HttpServletRequest) servletRequest).getRequestURI();
 
-        if (StringUtils.isBlank(path) || (!CaptchaUtil.isPathAvailable(path, SELF_REGISTRATION_INITIATE_URL) &&
-                !CaptchaUtil.isPathAvailable(path, SELF_REGISTRATION_URL))) {
+        if (StringUtils.isBlank(path) || !SECURED_PATHS.contains(path)) {
             return false;
         }
 
@@ -116,12 +130,16 @@ public class SelfSignUpReCaptchaConnector extends AbstractReCaptchaConnector {
     public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
-        String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
-        if (StringUtils.isBlank(reCaptchaResponse)) {
-            throw new CaptchaClientException("reCaptcha response is not available in the request.");
-        }
+        return CaptchaUtil.isValidCaptcha(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyCaptchaAsync(ServletRequest servletRequest,
+                                                         ServletResponse servletResponse, Executor executor)
+            throws CaptchaException {
 
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return CaptchaUtil.isValidCaptchaAsync(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest),
+                executor);
     }
 
     @Override
@@ -24,12 +24,15 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
-import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -42,6 +45,7 @@ public class UsernameRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
 
     private static final Log log = LogFactory.getLog(UsernameRecoveryReCaptchaConnector.class);
     private static final String RECOVER_USERNAME_URL = "/api/identity/recovery/v0.9/recover-username/";
+    private static final Set<String> SECURED_PATHS = CaptchaUtil.getPaths(RECOVER_USERNAME_URL);
     private final String PROPERTY_USERNAME_RECAPTCHA_ENABLE = "Recovery.ReCaptcha.Username.Enable";
     private IdentityGovernanceService identityGovernanceService;
 
@@ -57,12 +61,18 @@ public class UsernameRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
         return 5;
     }
 
+    @Override
+    public Set<String> getSecuredPaths() {
+
+        return SECURED_PATHS;
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
         String path = ((HttpServletRequest) servletRequest).getRequestURI();
 
-        if (StringUtils.isBlank(path) || !(CaptchaUtil.isPathAvailable(path, RECOVER_USERNAME_URL))) {
+        if (StringUtils.isBlank(path) || !SECURED_PATHS.contains(path)) {
             return false;
         }
 
@@ -93,11 +103,16 @@ public class UsernameRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
     public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
-        String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
-        if (StringUtils.isBlank(reCaptchaResponse)) {
-            throw new CaptchaClientException("reCaptcha response is not available in the request.");
-        }
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return CaptchaUtil.isValidCaptcha(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyCaptchaAsync(ServletRequest servletRequest,
+                                                         ServletResponse servletResponse, Executor executor)
+            throws CaptchaException {
+
+        return CaptchaUtil.isValidCaptchaAsync(CaptchaUtil.getReCaptchaResponseFromHeader(servletRequest),
+                executor);
     }
 
     @Override
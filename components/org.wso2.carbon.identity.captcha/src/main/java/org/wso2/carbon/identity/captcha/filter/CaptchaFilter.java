@@ -33,6 +33,7 @@ import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaHttpServletRequestWrapper;
 import org.wso2.carbon.identity.captcha.util.CaptchaHttpServletResponseWrapper;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
+import org.wso2.carbon.identity.captcha.util.CaptchaVerificationExecutor;
 
 import java.io.IOException;
 import java.util.List;
@@ -73,25 +74,31 @@ public class CaptchaFilter implements Filter {
                 return;
             }
 
-            // Wrap Servlet request for password recovery flow as the data are in POST body of request.
-            // May need multiple reads of request body value from connectors.
+            String currentPath = null;
             if (servletRequest instanceof HttpServletRequest) {
-                String currentPath = ((HttpServletRequest) servletRequest).getRequestURI();
+                currentPath = ((HttpServletRequest) servletRequest).getRequestURI();
+            }
+            List<CaptchaConnector> captchaConnectors = CaptchaDataHolder.getInstance()
+                    .getCaptchaConnectors(currentPath);
 
-                if (StringUtils.isNotBlank(currentPath) &&
-                        CaptchaUtil.isPathAvailable(currentPath, CaptchaDataHolder.getInstance()
-                                .getReCaptchaRequestWrapUrls())) {
-                    servletRequest = new CaptchaHttpServletRequestWrapper((HttpServletRequest) servletRequest);
-                }
+            // Wrap Servlet request for password recovery flow as the data are in POST body of request.
+            // May need multiple reads of request body value from connectors.
+            if (StringUtils.isNotBlank(currentPath) &&
+                    CaptchaDataHolder.getInstance().isReCaptchaRequestWrapPath(currentPath)) {
+                servletRequest = new CaptchaHttpServletRequestWrapper((HttpServletRequest) servletRequest);
             }
 
-            List<CaptchaConnector> captchaConnectors = CaptchaDataHolder.getInstance().getCaptchaConnectors();
+            if (captchaConnectors.isEmpty()) {
+                filterChain.doFilter(servletRequest, servletResponse);
+                return;
+            }
 
+            // Candidate connectors are ordered by priority, hence the first one which can handle is selected.
             CaptchaConnector selectedCaptchaConnector = null;
             for (CaptchaConnector captchaConnector : captchaConnectors) {
-                if (captchaConnector.canHandle(servletRequest, servletResponse) && (selectedCaptchaConnector == null ||
-                        captchaConnector.getPriority() > selectedCaptchaConnector.getPriority())) {
+                if (captchaConnector.canHandle(servletRequest, servletResponse)) {
                     selectedCaptchaConnector = captchaConnector;
+                    break;
                 }
             }
 
@@ -128,7 +135,7 @@ public class CaptchaFilter implements Filter {
                 }
 
                 try {
-                    boolean validCaptcha = selectedCaptchaConnector.verifyCaptcha(servletRequest, servletResponse);
+                    boolean validCaptcha = verifyCaptcha(selectedCaptchaConnector, servletRequest, servletResponse);
                     if (!validCaptcha) {
                         log.warn("Captcha validation failed for the user.");
                         httpResponse.sendRedirect(CaptchaUtil.getOnFailRedirectUrl(redirectURL,
@@ -194,6 +201,17 @@ public class CaptchaFilter implements Filter {
 
     }
 
+    private boolean verifyCaptcha(CaptchaConnector captchaConnector, ServletRequest servletRequest,
+                                  ServletResponse servletResponse) throws CaptchaException {
+
+        CaptchaVerificationExecutor verificationExecutor = CaptchaDataHolder.getInstance()
+                .getCaptchaVerificationExecutor();
+        if (verificationExecutor == null) {
+            return captchaConnector.verifyCaptcha(servletRequest, servletResponse);
+        }
+        return verificationExecutor.verify(captchaConnector, servletRequest, servletResponse);
+    }
+
     private void doFilter(CaptchaPreValidationResponse preValidationResponse, ServletRequest servletRequest,
                           ServletResponse servletResponse, FilterChain filterChain)
             throws IOException, ServletException {
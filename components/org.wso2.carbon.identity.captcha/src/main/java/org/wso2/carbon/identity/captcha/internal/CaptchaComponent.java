@@ -102,6 +102,8 @@ public class CaptchaComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        CaptchaDataHolder.getInstance().setCaptchaVerificationExecutor(null);
+        CaptchaDataHolder.getInstance().setReCaptchaHttpClient(null);
         if (log.isDebugEnabled()) {
             log.debug("Captcha Component is de-activated");
         }
@@ -120,7 +122,7 @@ public class CaptchaComponent {
 
     protected void unsetCaptchaConnector(CaptchaConnector captchaConnector) {
 
-        CaptchaDataHolder.getInstance().getCaptchaConnectors().remove(captchaConnector);
+        CaptchaDataHolder.getInstance().removeCaptchaConnector(captchaConnector);
     }
 
     @Reference(
@@ -140,7 +142,7 @@ public class CaptchaComponent {
     protected void unsetIdentityGovernanceConnector(IdentityConnectorConfig identityConnectorConfig) {
 
         if (identityConnectorConfig instanceof CaptchaConnector) {
-            CaptchaDataHolder.getInstance().getCaptchaConnectors().remove(identityConnectorConfig);
+            CaptchaDataHolder.getInstance().removeCaptchaConnector((CaptchaConnector) identityConnectorConfig);
         }
     }
 
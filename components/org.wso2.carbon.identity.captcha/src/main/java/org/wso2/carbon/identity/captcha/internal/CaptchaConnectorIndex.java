@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.internal;
+
+import org.wso2.carbon.identity.captcha.connector.CaptchaConnector;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the captcha connectors by the request paths they secure. The connectors of a path are kept
+ * ordered by priority, highest first, so that the first connector which can handle a request is the selected one.
+ * Connectors which do not declare their secured paths are candidates for every path. The index is rebuilt whenever
+ * the connectors or the paths of the requests to wrap are changed.
+ */
+final class CaptchaConnectorIndex {
+
+    static final CaptchaConnectorIndex EMPTY = new CaptchaConnectorIndex(Collections.emptyList(),
+            Collections.emptySet());
+
+    private static final Comparator<CaptchaConnector> PRIORITY_ORDER =
+            Comparator.comparingInt(CaptchaConnector::getPriority).reversed();
+
+    private final Map<String, List<CaptchaConnector>> pathConnectors;
+    private final List<CaptchaConnector> anyPathConnectors;
+    private final Set<String> requestWrapPaths;
+
+    /**
+     * Create a captcha connector index.
+     *
+     * @param captchaConnectors Captcha connectors, in the order they are registered.
+     * @param requestWrapPaths  Paths of the requests which are wrapped to read the body more than once.
+     */
+    CaptchaConnectorIndex(Collection<CaptchaConnector> captchaConnectors, Set<String> requestWrapPaths) {
+
+        Map<String, List<CaptchaConnector>> pathConnectorMap = new HashMap<>();
+        for (CaptchaConnector captchaConnector : captchaConnectors) {
+            Set<String> securedPaths = captchaConnector.getSecuredPaths();
+            if (securedPaths != null) {
+                for (String securedPath : securedPaths) {
+                    pathConnectorMap.putIfAbsent(securedPath, new ArrayList<>());
+                }
+            }
+        }
+
+        // Connectors are added in the order they are registered and the sort is stable, hence the connector
+        // registered first is selected among the connectors of the same priority.
+        List<CaptchaConnector> anyPathConnectorList = new ArrayList<>();
+        for (CaptchaConnector captchaConnector : captchaConnectors) {
+            Set<String> securedPaths = captchaConnector.getSecuredPaths();
+            Collection<List<CaptchaConnector>> candidateLists;
+            if (securedPaths == null) {
+                anyPathConnectorList.add(captchaConnector);
+                candidateLists = pathConnectorMap.values();
+            } else {
+                candidateLists = new ArrayList<>();
+                for (String securedPath : securedPaths) {
+                    candidateLists.add(pathConnectorMap.get(securedPath));
+                }
+            }
+            for (List<CaptchaConnector> connectors : candidateLists) {
+                if (!connectors.contains(captchaConnector)) {
+                    connectors.add(captchaConnector);
+                }
+            }
+        }
+
+        anyPathConnectorList.sort(PRIORITY_ORDER);
+        for (Map.Entry<String, List<CaptchaConnector>> entry : pathConnectorMap.entrySet()) {
+            List<CaptchaConnector> connectors = entry.getValue();
+            connectors.sort(PRIORITY_ORDER);
+            entry.setValue(Collections.unmodifiableList(connectors));
+        }
+        this.pathConnectors = pathConnectorMap;
+        this.anyPathConnectors = Collections.unmodifiableList(anyPathConnectorList);
+        this.requestWrapPaths = requestWrapPaths;
+    }
+
+    /**
+     * Get the captcha connectors which may handle a request to the given path.
+     *
+     * @param path Request path, or null if the request has no path.
+     * @return Candidate captcha connectors, highest priority first.
+     */
+    List<CaptchaConnector> getCaptchaConnectors(String path) {
+
+        List<CaptchaConnector> connectors = path == null ? null : pathConnectors.get(path);
+        return connectors != null ? connectors : anyPathConnectors;
+    }
+
+    /**
+     * Check whether a request to the given path is wrapped to read the body more than once.
+     *
+     * @param path Request path.
+     * @return True if the request is wrapped.
+     */
+    boolean isRequestWrapPath(String path) {
+
+        return requestWrapPaths.contains(path);
+    }
+}
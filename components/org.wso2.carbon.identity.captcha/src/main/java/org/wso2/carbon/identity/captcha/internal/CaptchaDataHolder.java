@@ -19,14 +19,21 @@
 package org.wso2.carbon.identity.captcha.internal;
 
 import org.wso2.carbon.identity.captcha.connector.CaptchaConnector;
+import org.wso2.carbon.identity.captcha.util.CaptchaConstants;
+import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
+import org.wso2.carbon.identity.captcha.util.CaptchaVerificationExecutor;
+import org.wso2.carbon.identity.captcha.util.ReCaptchaHttpClient;
+import org.wso2.carbon.identity.captcha.util.ReCaptchaVerificationCache;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 import org.wso2.carbon.identity.handler.event.account.lock.service.AccountLockService;
 import org.wso2.carbon.user.core.service.RealmService;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Captcha Data Holder.
@@ -49,6 +56,10 @@ public class CaptchaDataHolder {
 
     private String reCaptchaRequestWrapUrls;
 
+    private Set<String> reCaptchaRequestWrapPaths = Collections.emptySet();
+
+    private int reCaptchaRequestMaxBodySize = CaptchaConstants.RE_CAPTCHA_REQUEST_DEFAULT_MAX_BODY_SIZE;
+
     // Threshold for score in reCAPTCHA v3.
     private double reCaptchaScoreThreshold;
 
@@ -60,6 +71,8 @@ public class CaptchaDataHolder {
 
     private List<CaptchaConnector> captchaConnectors = new ArrayList<>();
 
+    private volatile CaptchaConnectorIndex captchaConnectorIndex = CaptchaConnectorIndex.EMPTY;
+
     private Map<String, String> ssoLoginReCaptchaConnectorPropertyMap = new HashMap<>();
 
     private Map<String, String> pathBasedReCaptchaConnectorPropertyMap = new HashMap<>();
@@ -68,6 +81,12 @@ public class CaptchaDataHolder {
 
     private boolean forcefullyEnabledRecaptchaForAllTenants;
 
+    private volatile ReCaptchaHttpClient reCaptchaHttpClient;
+
+    private volatile CaptchaVerificationExecutor captchaVerificationExecutor;
+
+    private volatile ReCaptchaVerificationCache reCaptchaVerificationCache;
+
     private CaptchaDataHolder() {
 
     }
@@ -121,7 +140,33 @@ public class CaptchaDataHolder {
     }
 
     public void setReCaptchaRequestWrapUrls(String reCaptchaRequestWrapUrls) {
-        this.reCaptchaRequestWrapUrls = reCaptchaRequestWrapUrls;
+
+        synchronized (this) {
+            this.reCaptchaRequestWrapUrls = reCaptchaRequestWrapUrls;
+            this.reCaptchaRequestWrapPaths = CaptchaUtil.getPaths(reCaptchaRequestWrapUrls);
+            rebuildCaptchaConnectorIndex();
+        }
+    }
+
+    /**
+     * Check whether a request to the given path is wrapped, so that the connectors can read its body more than once.
+     *
+     * @param path Request path.
+     * @return True if the path is one of the reCaptcha request wrap URLs.
+     */
+    public boolean isReCaptchaRequestWrapPath(String path) {
+
+        return captchaConnectorIndex.isRequestWrapPath(path);
+    }
+
+    public int getReCaptchaRequestMaxBodySize() {
+
+        return reCaptchaRequestMaxBodySize;
+    }
+
+    public void setReCaptchaRequestMaxBodySize(int reCaptchaRequestMaxBodySize) {
+
+        this.reCaptchaRequestMaxBodySize = reCaptchaRequestMaxBodySize;
     }
 
     public double getReCaptchaScoreThreshold() {
@@ -180,7 +225,36 @@ public class CaptchaDataHolder {
     }
 
     public void addCaptchaConnector(CaptchaConnector captchaConnector) {
-        this.captchaConnectors.add(captchaConnector);
+
+        synchronized (this) {
+            this.captchaConnectors.add(captchaConnector);
+            rebuildCaptchaConnectorIndex();
+        }
+    }
+
+    public void removeCaptchaConnector(CaptchaConnector captchaConnector) {
+
+        synchronized (this) {
+            this.captchaConnectors.remove(captchaConnector);
+            rebuildCaptchaConnectorIndex();
+        }
+    }
+
+    /**
+     * Get the captcha connectors which may handle a request to the given path, without going through all the
+     * registered connectors.
+     *
+     * @param path Request path, or null if the request has no path.
+     * @return Candidate captcha connectors, highest priority first. Empty if no connector secures the path.
+     */
+    public List<CaptchaConnector> getCaptchaConnectors(String path) {
+
+        return captchaConnectorIndex.getCaptchaConnectors(path);
+    }
+
+    private void rebuildCaptchaConnectorIndex() {
+
+        captchaConnectorIndex = new CaptchaConnectorIndex(captchaConnectors, reCaptchaRequestWrapPaths);
     }
 
     public void setRealmService(RealmService realmService) {
@@ -211,4 +285,60 @@ public class CaptchaDataHolder {
 
         this.forcefullyEnabledRecaptchaForAllTenants = forcefullyEnabledRecaptchaForAllTenants;
     }
+
+    public ReCaptchaHttpClient getReCaptchaHttpClient() {
+
+        return reCaptchaHttpClient;
+    }
+
+    /**
+     * Set the HTTP client used to verify the reCaptcha responses. The replaced client is closed once the
+     * verifications in progress are completed.
+     *
+     * @param reCaptchaHttpClient reCaptcha HTTP client.
+     */
+    public void setReCaptchaHttpClient(ReCaptchaHttpClient reCaptchaHttpClient) {
+
+        ReCaptchaHttpClient replacedHttpClient;
+        synchronized (this) {
+            replacedHttpClient = this.reCaptchaHttpClient;
+            this.reCaptchaHttpClient = reCaptchaHttpClient;
+        }
+        if (replacedHttpClient != null && replacedHttpClient != reCaptchaHttpClient) {
+            replacedHttpClient.close();
+        }
+    }
+
+    public CaptchaVerificationExecutor getCaptchaVerificationExecutor() {
+
+        return captchaVerificationExecutor;
+    }
+
+    /**
+     * Set the executor used to verify the captchas asynchronously. The replaced executor is shut down.
+     *
+     * @param captchaVerificationExecutor Captcha verification executor, or null to verify the captchas on the
+     *                                    request thread.
+     */
+    public void setCaptchaVerificationExecutor(CaptchaVerificationExecutor captchaVerificationExecutor) {
+
+        CaptchaVerificationExecutor replacedExecutor;
+        synchronized (this) {
+            replacedExecutor = this.captchaVerificationExecutor;
+            this.captchaVerificationExecutor = captchaVerificationExecutor;
+        }
+        if (replacedExecutor != null && replacedExecutor != captchaVerificationExecutor) {
+            replacedExecutor.shutdown();
+        }
+    }
+
+    public ReCaptchaVerificationCache getReCaptchaVerificationCache() {
+
+        return reCaptchaVerificationCache;
+    }
+
+    public void setReCaptchaVerificationCache(ReCaptchaVerificationCache reCaptchaVerificationCache) {
+
+        this.reCaptchaVerificationCache = reCaptchaVerificationCache;
+    }
 }
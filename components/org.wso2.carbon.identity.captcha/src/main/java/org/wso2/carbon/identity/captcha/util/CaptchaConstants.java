@@ -46,12 +46,42 @@ public class CaptchaConstants {
 
     public static final String RE_CAPTCHA_REQUEST_WRAP_URLS = "recaptcha.request.wrap.urls";
 
+    public static final String RE_CAPTCHA_REQUEST_MAX_BODY_SIZE = "recaptcha.request.max.body.size";
+
     public static final String FAIL_LOGIN_ATTEMPT_VALIDATOR_ENABLED = "failLoginAttemptValidator.enable";
 
     public static final String RE_CAPTCHA_FAILED_REDIRECT_URLS = "recaptcha.failed.redirect.urls";
 
     public static final String RE_CAPTCHA_SCORE_THRESHOLD = "recaptcha.threshold";
 
+    public static final String RE_CAPTCHA_HTTP_MAX_CONNECTIONS = "recaptcha.http.max.connections";
+
+    public static final String RE_CAPTCHA_HTTP_CONNECT_TIMEOUT = "recaptcha.http.connect.timeout";
+
+    public static final String RE_CAPTCHA_HTTP_READ_TIMEOUT = "recaptcha.http.read.timeout";
+
+    public static final String RE_CAPTCHA_HTTP_CONNECTION_REQUEST_TIMEOUT = "recaptcha.http.connection.request.timeout";
+
+    public static final String RE_CAPTCHA_HTTP_KEEP_ALIVE = "recaptcha.http.keep.alive";
+
+    public static final String RE_CAPTCHA_VERIFICATION_ASYNC_ENABLED = "recaptcha.verification.async.enabled";
+
+    public static final String RE_CAPTCHA_VERIFICATION_POOL_SIZE = "recaptcha.verification.pool.size";
+
+    public static final String RE_CAPTCHA_VERIFICATION_MAX_IN_FLIGHT = "recaptcha.verification.max.inflight";
+
+    public static final String RE_CAPTCHA_VERIFICATION_TIMEOUT = "recaptcha.verification.timeout";
+
+    public static final String RE_CAPTCHA_VERIFICATION_FAIL_OPEN = "recaptcha.verification.fail.open";
+
+    public static final String RE_CAPTCHA_VERIFICATION_CACHE_ENABLED = "recaptcha.verification.cache.enabled";
+
+    public static final String RE_CAPTCHA_VERIFICATION_CACHE_TIMEOUT = "recaptcha.verification.cache.timeout";
+
+    public static final String RE_CAPTCHA_VERIFICATION_CACHE_MAX_SIZE = "recaptcha.verification.cache.max.size";
+
+    public static final String RE_CAPTCHA_VERIFICATION_CACHE_MAX_REUSE = "recaptcha.verification.cache.max.reuse";
+
     public static final String BASIC_AUTHENTICATOR = "BasicAuthenticator";
 
     public static final String BASIC_AUTH_MECHANISM = "basic";
@@ -63,6 +93,35 @@ public class CaptchaConstants {
     // Default value for threshold for score in reCAPTCHA v3.
     public static final double CAPTCHA_V3_DEFAULT_THRESHOLD = 0.5;
 
+    // Default maximum size in bytes of a request body buffered to be read by the captcha connectors.
+    public static final int RE_CAPTCHA_REQUEST_DEFAULT_MAX_BODY_SIZE = 1048576;
+
+    // Default connection pool size, and timeouts and keep alive time in milliseconds of the reCAPTCHA verify client.
+    public static final int RE_CAPTCHA_HTTP_DEFAULT_MAX_CONNECTIONS = 50;
+
+    public static final int RE_CAPTCHA_HTTP_DEFAULT_CONNECT_TIMEOUT = 5000;
+
+    public static final int RE_CAPTCHA_HTTP_DEFAULT_READ_TIMEOUT = 5000;
+
+    public static final int RE_CAPTCHA_HTTP_DEFAULT_CONNECTION_REQUEST_TIMEOUT = 5000;
+
+    public static final int RE_CAPTCHA_HTTP_DEFAULT_KEEP_ALIVE = 60000;
+
+    // Default pool size, in-flight limit and timeout in milliseconds of the asynchronous reCAPTCHA verification.
+    public static final int RE_CAPTCHA_VERIFICATION_DEFAULT_POOL_SIZE = 20;
+
+    public static final int RE_CAPTCHA_VERIFICATION_DEFAULT_MAX_IN_FLIGHT = 100;
+
+    public static final int RE_CAPTCHA_VERIFICATION_DEFAULT_TIMEOUT = 10000;
+
+    // Default time in seconds, size and number of reuses of a verified reCAPTCHA token kept in the cache. reCAPTCHA
+    // tokens expire two minutes after they are issued. A verified token is not accepted again by default.
+    public static final int RE_CAPTCHA_VERIFICATION_CACHE_DEFAULT_TIMEOUT = 120;
+
+    public static final int RE_CAPTCHA_VERIFICATION_CACHE_DEFAULT_MAX_SIZE = 10000;
+
+    public static final int RE_CAPTCHA_VERIFICATION_CACHE_DEFAULT_MAX_REUSE = 0;
+
     public static final String SSO_LOGIN_RECAPTCHA_CONNECTOR_NAME = "sso.login.recaptcha";
 
     /**
@@ -18,43 +18,215 @@
 
 package org.wso2.carbon.identity.captcha.util;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
- * Captcha Response Wrapper.
+ * Captcha Request Wrapper, which allows the request body to be read more than once. The body is buffered only when it
+ * is first read, either directly or through the request parameters, and only up to the configured maximum size. A
+ * larger body is not buffered and can be read only once. Form parameters in the body are parsed once and shared by
+ * every reader of the request.
  */
 public class CaptchaHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+    private static final Log log = LogFactory.getLog(CaptchaHttpServletRequestWrapper.class);
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final String DEFAULT_ENCODING = "UTF-8";
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final BlockingQueue<byte[]> READ_BUFFER_POOL = new ArrayBlockingQueue<>(64);
+
     private byte[] body;
+    private InputStream unbufferedBody;
+    private boolean bodyRead;
+    private Map<String, String[]> parameters;
 
     public CaptchaHttpServletRequestWrapper(HttpServletRequest httpServletRequest) throws IOException {
+
         super(httpServletRequest);
-        // Read the request body and save it as a byte array
-        InputStream is = super.getInputStream();
-        body = IOUtils.toByteArray(is);
     }
 
+    /**
+     * Get the request body. A buffered body can be read any number of times. A body larger than the maximum buffered
+     * size is returned as is, hence it can be read only once and its form parameters are not parsed.
+     *
+     * @return Input stream of the request body.
+     * @throws IOException If the body is not buffered and is already read, or the body could not be read.
+     */
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        return new ServletInputStreamImpl(new ByteArrayInputStream(body));
+
+        readBody();
+        if (body != null) {
+            return new ServletInputStreamImpl(new ByteArrayInputStream(body));
+        }
+        if (unbufferedBody == null) {
+            throw new IOException("Request body is larger than the maximum buffered size and is already read.");
+        }
+        InputStream inputStream = unbufferedBody;
+        unbufferedBody = null;
+        return new ServletInputStreamImpl(inputStream);
     }
 
     @Override
     public BufferedReader getReader() throws IOException {
+
         String enc = getCharacterEncoding();
-        if (enc == null) enc = "UTF-8";
+        if (enc == null) enc = DEFAULT_ENCODING;
         return new BufferedReader(new InputStreamReader(getInputStream(), enc));
     }
 
+    @Override
+    public String getParameter(String name) {
+
+        String[] values = getParameters().get(name);
+        return values == null || values.length == 0 ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+
+        return Collections.unmodifiableMap(getParameters());
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+
+        return Collections.enumeration(getParameters().keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+
+        String[] values = getParameters().get(name);
+        return values == null ? null : values.clone();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String[]> getParameters() {
+
+        if (parameters != null) {
+            return parameters;
+        }
+        if (!isFormPost()) {
+            parameters = super.getParameterMap();
+            return parameters;
+        }
+        try {
+            // The body is read before the wrapped request parses its parameters, so that the wrapped request does not
+            // consume the body.
+            readBody();
+        } catch (IOException e) {
+            log.error("Error occurred while reading the request body.", e);
+        }
+        Map<String, String[]> parsedParameters = new LinkedHashMap<>(super.getParameterMap());
+        if (body != null && body.length > 0) {
+            addFormParameters(parsedParameters);
+        }
+        parameters = parsedParameters;
+        return parameters;
+    }
+
+    private boolean isFormPost() {
+
+        String contentType = getContentType();
+        return "POST".equalsIgnoreCase(getMethod()) && contentType != null &&
+                contentType.toLowerCase().startsWith(FORM_CONTENT_TYPE);
+    }
+
+    private void addFormParameters(Map<String, String[]> parsedParameters) {
+
+        String enc = getCharacterEncoding();
+        if (enc == null) enc = DEFAULT_ENCODING;
+        try {
+            Map<String, List<String>> formParameters = new LinkedHashMap<>();
+            for (String pair : StringUtils.split(new String(body, enc), '&')) {
+                int separatorIndex = pair.indexOf('=');
+                String name = URLDecoder.decode(separatorIndex < 0 ? pair : pair.substring(0, separatorIndex), enc);
+                String value = separatorIndex < 0 ? "" : URLDecoder.decode(pair.substring(separatorIndex + 1), enc);
+                formParameters.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+            for (Map.Entry<String, List<String>> formParameter : formParameters.entrySet()) {
+                String[] existingValues = parsedParameters.get(formParameter.getKey());
+                List<String> values = new ArrayList<>();
+                if (existingValues != null) {
+                    Collections.addAll(values, existingValues);
+                }
+                values.addAll(formParameter.getValue());
+                parsedParameters.put(formParameter.getKey(), values.toArray(new String[0]));
+            }
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            log.error("Error occurred while parsing the form parameters of the request body.", e);
+        }
+    }
+
+    private void readBody() throws IOException {
+
+        if (bodyRead) {
+            return;
+        }
+        bodyRead = true;
+        int maxBodySize = CaptchaDataHolder.getInstance().getReCaptchaRequestMaxBodySize();
+        int contentLength = getContentLength();
+        InputStream is = super.getInputStream();
+        if (contentLength > maxBodySize) {
+            skipBuffering(new byte[0], is, contentLength, maxBodySize);
+            return;
+        }
+
+        ByteArrayOutputStream bufferedBody = new ByteArrayOutputStream(contentLength > 0 ? contentLength :
+                READ_BUFFER_SIZE);
+        byte[] readBuffer = READ_BUFFER_POOL.poll();
+        if (readBuffer == null) {
+            readBuffer = new byte[READ_BUFFER_SIZE];
+        }
+        try {
+            int read;
+            while ((read = is.read(readBuffer)) != -1) {
+                bufferedBody.write(readBuffer, 0, read);
+                if (bufferedBody.size() > maxBodySize) {
+                    skipBuffering(bufferedBody.toByteArray(), is, contentLength, maxBodySize);
+                    return;
+                }
+            }
+        } finally {
+            READ_BUFFER_POOL.offer(readBuffer);
+        }
+        body = bufferedBody.toByteArray();
+    }
+
+    private void skipBuffering(byte[] readBody, InputStream remainingBody, int contentLength, int maxBodySize) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Request body of the request to: " + getRequestURI() + " with content length: " +
+                    contentLength + " is larger than the maximum buffered size: " + maxBodySize +
+                    ". Hence the body is not buffered.");
+        }
+        unbufferedBody = new SequenceInputStream(new ByteArrayInputStream(readBody), remainingBody);
+    }
+
     private class ServletInputStreamImpl extends ServletInputStream {
 
         private InputStream is;
@@ -67,6 +239,11 @@ public class CaptchaHttpServletRequestWrapper extends HttpServletRequestWrapper
             return is.read();
         }
 
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return is.read(b, off, len);
+        }
+
         public boolean markSupported() {
             return false;
         }
@@ -27,13 +27,10 @@ import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicNameValuePair;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.application.authentication.framework.ApplicationAuthenticator;
@@ -72,11 +69,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
 
 import static org.wso2.carbon.identity.captcha.util.CaptchaConstants.BASIC_AUTH_MECHANISM;
 import static org.wso2.carbon.identity.captcha.util.CaptchaConstants.ReCaptchaConnectorPropertySuffixes;
@@ -119,7 +122,9 @@ public class CaptchaUtil {
                 //setPathBasedConnectorConfigs(properties);
             } else {
                 CaptchaDataHolder.getInstance().setReCaptchaEnabled(false);
-
+                CaptchaDataHolder.getInstance().setReCaptchaHttpClient(null);
+                CaptchaDataHolder.getInstance().setCaptchaVerificationExecutor(null);
+                CaptchaDataHolder.getInstance().setReCaptchaVerificationCache(null);
             }
         }
 
@@ -143,6 +148,20 @@ public class CaptchaUtil {
         return false;
     }
 
+    /**
+     * Get the paths in a comma separated list of paths, so that a path can be looked up without splitting the list.
+     *
+     * @param paths Comma separated paths.
+     * @return Unmodifiable set of the paths.
+     */
+    public static Set<String> getPaths(String paths) {
+
+        if (StringUtils.isBlank(paths)) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(StringUtils.split(paths, ','))));
+    }
+
     public static String getUpdatedUrl(String url, Map<String, String> attributes) {
 
         try {
@@ -266,66 +285,145 @@ public class CaptchaUtil {
         return claimValues;
     }
 
+    /**
+     * Verify a reCaptcha response with {@link #isValidCaptcha(String)} on the given executor. Only the response read
+     * from the request is handed over to the executor, hence the request is never read off the request thread.
+     *
+     * @param reCaptchaResponse reCaptcha response read from the request.
+     * @param executor          Executor to verify the response on.
+     * @return Future completed with the verification result, or completed exceptionally with the
+     * {@link CaptchaException} thrown while verifying.
+     */
+    public static CompletableFuture<Boolean> isValidCaptchaAsync(String reCaptchaResponse, Executor executor) {
+
+        CompletableFuture<Boolean> verification = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                verification.complete(isValidCaptcha(reCaptchaResponse));
+            } catch (CaptchaException | RuntimeException e) {
+                verification.completeExceptionally(e);
+            }
+        });
+        return verification;
+    }
+
+    /**
+     * Get the reCaptcha response sent in the g-recaptcha-response header of the request.
+     *
+     * @param servletRequest Servlet request.
+     * @return reCaptcha response.
+     * @throws CaptchaClientException If the request has no reCaptcha response.
+     */
+    public static String getReCaptchaResponseFromHeader(ServletRequest servletRequest)
+            throws CaptchaClientException {
+
+        String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
+        if (StringUtils.isBlank(reCaptchaResponse)) {
+            throw new CaptchaClientException("reCaptcha response is not available in the request.");
+        }
+        return reCaptchaResponse;
+    }
+
     public static boolean isValidCaptcha(String reCaptchaResponse) throws CaptchaException {
 
-        CloseableHttpClient httpclient = HttpClientBuilder.create().useSystemProperties().build();
-        HttpPost httppost = new HttpPost(CaptchaDataHolder.getInstance().getReCaptchaVerifyUrl());
         final double scoreThreshold = CaptchaDataHolder.getInstance().getReCaptchaScoreThreshold();
+        ReCaptchaVerificationCache verificationCache =
+                CaptchaDataHolder.getInstance().getReCaptchaVerificationCache();
+        JsonObject verificationResponse = null;
+        if (verificationCache != null) {
+            // A token verified recently is not sent to the verify endpoint again.
+            verificationResponse = verificationCache.get(reCaptchaResponse);
+        }
+
+        try {
+            if (verificationResponse == null) {
+                verificationResponse = getVerificationResponse(reCaptchaResponse);
+                if (verificationCache != null && verificationResponse != null) {
+                    verificationCache.put(reCaptchaResponse, verificationResponse);
+                }
+            }
+            if (verificationResponse == null) {
+                throw new CaptchaClientException("Error receiving reCaptcha response from the server");
+            }
+            boolean success = verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS) != null
+                    && verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS).getAsBoolean();
+            // Whether this request was a valid reCAPTCHA token.
+            if (!success) {
+                throw new CaptchaClientException("reCaptcha token is invalid. Error:" +
+                        verificationResponse.get("error-codes"));
+            }
+            if (verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE) != null) {
+                double score = verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE).getAsDouble();
+                // reCAPTCHA v3 response contains score
+                if (log.isDebugEnabled()) {
+                    log.debug("reCAPTCHA v3 response { timestamp:" +
+                            verificationResponse.get("challenge_ts") + ", action: " +
+                            verificationResponse.get("action") + ", score: " + score + " }");
+                }
+                if (score < scoreThreshold) {
+                    throw new CaptchaClientException("reCaptcha score is less than the threshold.");
+                }
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug("reCAPTCHA v2 response { timestamp:" +
+                            verificationResponse.get("challenge_ts") + " }");
+                }
+            }
+        } catch (ClassCastException e) {
+            throw new CaptchaServerException("Unable to cast the response value.", e);
+        }
+
+        return true;
+    }
+
+    private static JsonObject getVerificationResponse(String reCaptchaResponse) throws CaptchaServerException {
 
+        HttpPost httppost = new HttpPost(CaptchaDataHolder.getInstance().getReCaptchaVerifyUrl());
         List<BasicNameValuePair> params = Arrays.asList(new BasicNameValuePair("secret", CaptchaDataHolder
                 .getInstance().getReCaptchaSecretKey()), new BasicNameValuePair("response", reCaptchaResponse));
         httppost.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
 
-        HttpResponse response;
+        String responseBody;
         try {
-            response = httpclient.execute(httppost);
+            // The response is read within the handler, so that the connection is released back to the pool.
+            responseBody = getReCaptchaHttpClient().execute(httppost, response -> {
+                HttpEntity entity = response.getEntity();
+                if (entity == null) {
+                    return null;
+                }
+                try (InputStream in = entity.getContent()) {
+                    return IOUtils.toString(in);
+                }
+            });
         } catch (IOException e) {
             throw new CaptchaServerException("Unable to get the verification response.", e);
         }
 
-        HttpEntity entity = response.getEntity();
-        if (entity == null) {
+        if (responseBody == null) {
             throw new CaptchaServerException("reCaptcha verification response is not received.");
         }
+        return new JsonParser().parse(responseBody).getAsJsonObject();
+    }
 
-        try {
-            try (InputStream in = entity.getContent()) {
-                JsonObject verificationResponse = new JsonParser().parse(IOUtils.toString(in)).getAsJsonObject();
-                if (verificationResponse == null) {
-                    throw new CaptchaClientException("Error receiving reCaptcha response from the server");
-                }
-                boolean success = verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS) != null
-                        && verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS).getAsBoolean();
-                // Whether this request was a valid reCAPTCHA token.
-                if (!success) {
-                    throw new CaptchaClientException("reCaptcha token is invalid. Error:" +
-                            verificationResponse.get("error-codes"));
-                }
-                if (verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE) != null) {
-                    double score = verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE).getAsDouble();
-                    // reCAPTCHA v3 response contains score
-                    if (log.isDebugEnabled()) {
-                        log.debug("reCAPTCHA v3 response { timestamp:" +
-                                verificationResponse.get("challenge_ts") + ", action: " +
-                                verificationResponse.get("action") + ", score: " + score + " }");
-                    }
-                    if (score < scoreThreshold) {
-                        throw new CaptchaClientException("reCaptcha score is less than the threshold.");
-                    }
-                } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug("reCAPTCHA v2 response { timestamp:" +
-                                verificationResponse.get("challenge_ts") + " }");
-                    }
+    /**
+     * Get the HTTP client used to verify the reCaptcha responses. A client with the default configurations is built if
+     * the client was not built when loading the captcha configurations.
+     *
+     * @return reCaptcha HTTP client.
+     */
+    private static ReCaptchaHttpClient getReCaptchaHttpClient() {
+
+        ReCaptchaHttpClient reCaptchaHttpClient = CaptchaDataHolder.getInstance().getReCaptchaHttpClient();
+        if (reCaptchaHttpClient == null) {
+            synchronized (CaptchaUtil.class) {
+                reCaptchaHttpClient = CaptchaDataHolder.getInstance().getReCaptchaHttpClient();
+                if (reCaptchaHttpClient == null) {
+                    reCaptchaHttpClient = ReCaptchaHttpClient.build(new Properties());
+                    CaptchaDataHolder.getInstance().setReCaptchaHttpClient(reCaptchaHttpClient);
                 }
             }
-        } catch (IOException e) {
-            throw new CaptchaServerException("Unable to read the verification response.", e);
-        } catch (ClassCastException e) {
-            throw new CaptchaServerException("Unable to cast the response value.", e);
         }
-
-        return true;
+        return reCaptchaHttpClient;
     }
 
     public static boolean isMaximumFailedLoginAttemptsReached(String usernameWithDomain, String tenantDomain) throws
@@ -482,6 +580,9 @@ public class CaptchaUtil {
             throw new RuntimeException(getValidationErrorMessage(CaptchaConstants.RE_CAPTCHA_REQUEST_WRAP_URLS));
         }
         CaptchaDataHolder.getInstance().setReCaptchaRequestWrapUrls(reCaptchaRequestWrapUrls);
+        CaptchaDataHolder.getInstance().setReCaptchaRequestMaxBodySize(getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_REQUEST_MAX_BODY_SIZE,
+                CaptchaConstants.RE_CAPTCHA_REQUEST_DEFAULT_MAX_BODY_SIZE));
 
         try {
             Double reCaptchaScoreThreshold = getReCaptchaThreshold(properties);
@@ -494,6 +595,57 @@ public class CaptchaUtil {
                 properties.getProperty(CaptchaConstants.FORCEFULLY_ENABLED_RECAPTCHA_FOR_ALL_TENANTS);
         CaptchaDataHolder.getInstance().setForcefullyEnabledRecaptchaForAllTenants(
                 Boolean.parseBoolean(forcefullyEnableRecaptchaForAllTenants));
+
+        // Replaces the client built for the previously loaded configurations.
+        CaptchaDataHolder.getInstance().setReCaptchaHttpClient(ReCaptchaHttpClient.build(properties));
+        CaptchaDataHolder.getInstance().setCaptchaVerificationExecutor(
+                CaptchaVerificationExecutor.build(properties));
+        CaptchaDataHolder.getInstance().setReCaptchaVerificationCache(ReCaptchaVerificationCache.build(properties));
+    }
+
+    /**
+     * Get a positive integer value from the captcha configurations.
+     *
+     * @param properties   Captcha configurations.
+     * @param propertyName Name of the property.
+     * @param defaultValue Value used if the property is not configured or is not a positive integer.
+     * @return Configured value or the default value.
+     */
+    static int getPositiveIntProperty(Properties properties, String propertyName, int defaultValue) {
+
+        return getIntProperty(properties, propertyName, defaultValue, 1);
+    }
+
+    /**
+     * Get a non-negative integer value from the captcha configurations.
+     *
+     * @param properties   Captcha configurations.
+     * @param propertyName Name of the property.
+     * @param defaultValue Value used if the property is not configured or is not a non-negative integer.
+     * @return Configured value or the default value.
+     */
+    static int getNonNegativeIntProperty(Properties properties, String propertyName, int defaultValue) {
+
+        return getIntProperty(properties, propertyName, defaultValue, 0);
+    }
+
+    private static int getIntProperty(Properties properties, String propertyName, int defaultValue, int minValue) {
+
+        String value = properties.getProperty(propertyName);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int parsedValue = Integer.parseInt(value.trim());
+            if (parsedValue >= minValue) {
+                return parsedValue;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below by falling back to the default value.
+        }
+        log.warn("Invalid value: " + value + " configured for " + propertyName + " in the " +
+                CaptchaConstants.CAPTCHA_CONFIG_FILE_NAME + " file. Using the default value: " + defaultValue);
+        return defaultValue;
     }
 
     /**
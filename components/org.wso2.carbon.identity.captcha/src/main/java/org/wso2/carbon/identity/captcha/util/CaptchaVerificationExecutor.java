@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.captcha.connector.CaptchaConnector;
+import org.wso2.carbon.identity.captcha.exception.CaptchaException;
+import org.wso2.carbon.identity.captcha.exception.CaptchaServerException;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+/**
+ * Verifies captchas with {@link CaptchaConnector#verifyCaptchaAsync} on a bounded pool of threads. The number of
+ * verifications in flight is limited, and a request waits for its verification only up to a timeout. A verification
+ * which is rejected because of the limit, or which times out, is considered successful if the executor fails open,
+ * and fails with a {@link CaptchaServerException} otherwise.
+ */
+public class CaptchaVerificationExecutor {
+
+    private static final Log log = LogFactory.getLog(CaptchaVerificationExecutor.class);
+    private static final String THREAD_NAME_PREFIX = "CaptchaVerification-";
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore inFlightPermits;
+    private final int maxInFlight;
+    private final long timeoutMillis;
+    private final boolean failOpen;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+    private final AtomicLong failedOpenCount = new AtomicLong();
+
+    /**
+     * Create a captcha verification executor.
+     *
+     * @param poolSize      Number of threads verifying captchas.
+     * @param maxInFlight   Maximum number of verifications in flight.
+     * @param timeoutMillis Time a request waits for its verification, in milliseconds.
+     * @param failOpen      Whether rejected and timed out verifications are considered successful.
+     */
+    public CaptchaVerificationExecutor(int poolSize, int maxInFlight, long timeoutMillis, boolean failOpen) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // The in-flight limit keeps the queue from overflowing.
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(maxInFlight), runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.timeoutMillis = timeoutMillis;
+        this.failOpen = failOpen;
+    }
+
+    /**
+     * Create a captcha verification executor from the captcha configurations.
+     *
+     * @param properties Captcha configurations.
+     * @return Captcha verification executor, or null if the asynchronous verification is not enabled.
+     */
+    public static CaptchaVerificationExecutor build(Properties properties) {
+
+        if (!Boolean.parseBoolean(properties.getProperty(CaptchaConstants.RE_CAPTCHA_VERIFICATION_ASYNC_ENABLED))) {
+            return null;
+        }
+        int poolSize = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_POOL_SIZE,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_DEFAULT_POOL_SIZE);
+        int maxInFlight = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_MAX_IN_FLIGHT,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_DEFAULT_MAX_IN_FLIGHT);
+        int timeout = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_TIMEOUT,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_DEFAULT_TIMEOUT);
+        boolean failOpen = Boolean.parseBoolean(
+                properties.getProperty(CaptchaConstants.RE_CAPTCHA_VERIFICATION_FAIL_OPEN));
+        if (log.isDebugEnabled()) {
+            log.debug("Building the captcha verification executor with pool size: " + poolSize +
+                    ", max in-flight verifications: " + maxInFlight + ", timeout: " + timeout +
+                    " and fail open: " + failOpen);
+        }
+        return new CaptchaVerificationExecutor(poolSize, maxInFlight, timeout, failOpen);
+    }
+
+    /**
+     * Verify the captcha of the request with the given connector.
+     *
+     * @param captchaConnector Captcha connector selected for the request.
+     * @param servletRequest   Servlet request.
+     * @param servletResponse  Servlet response.
+     * @return Whether the captcha is valid.
+     * @throws CaptchaException If the verification failed, or was rejected or timed out while failing closed.
+     */
+    public boolean verify(CaptchaConnector captchaConnector, ServletRequest servletRequest,
+                          ServletResponse servletResponse) throws CaptchaException {
+
+        if (!inFlightPermits.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            return onVerificationUnavailable("Maximum number of captcha verifications in flight: " + maxInFlight +
+                    " is reached.");
+        }
+        CompletableFuture<Boolean> verification;
+        try {
+            verification = captchaConnector.verifyCaptchaAsync(servletRequest, servletResponse, executor);
+        } catch (RejectedExecutionException e) {
+            inFlightPermits.release();
+            rejectedCount.incrementAndGet();
+            return onVerificationUnavailable("Captcha verification executor is shut down.");
+        } catch (CaptchaException | RuntimeException e) {
+            // The captcha response could not be read from the request.
+            inFlightPermits.release();
+            throw e;
+        }
+        // The permit is kept until the verification completes, even if the request stops waiting for it.
+        verification.whenComplete((valid, error) -> inFlightPermits.release());
+
+        try {
+            return Boolean.TRUE.equals(verification.get(timeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            timedOutCount.incrementAndGet();
+            return onVerificationUnavailable("Captcha verification timed out after " + timeoutMillis + " ms.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CaptchaServerException("Interrupted while verifying the captcha.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CaptchaException) {
+                throw (CaptchaException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CaptchaServerException("Error while verifying the captcha.", cause);
+        }
+    }
+
+    /**
+     * Get the number of verifications in flight.
+     *
+     * @return Number of verifications in flight.
+     */
+    public int getInFlightCount() {
+
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    /**
+     * Get the number of verifications rejected because of the in-flight limit.
+     *
+     * @return Number of rejected verifications.
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    /**
+     * Get the number of verifications which timed out.
+     *
+     * @return Number of timed out verifications.
+     */
+    public long getTimedOutCount() {
+
+        return timedOutCount.get();
+    }
+
+    /**
+     * Get the number of rejected or timed out verifications which were considered successful.
+     *
+     * @return Number of verifications which failed open.
+     */
+    public long getFailedOpenCount() {
+
+        return failedOpenCount.get();
+    }
+
+    /**
+     * Stop the threads of the executor. Verifications in progress are interrupted.
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    private boolean onVerificationUnavailable(String reason) throws CaptchaServerException {
+
+        if (failOpen) {
+            failedOpenCount.incrementAndGet();
+            log.warn(reason + " Captcha verification is skipped for the request.");
+            return true;
+        }
+        throw new CaptchaServerException(reason);
+    }
+}
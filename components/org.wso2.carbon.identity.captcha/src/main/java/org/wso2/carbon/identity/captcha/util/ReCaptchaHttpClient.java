@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP client used to call the reCAPTCHA verify endpoint. Connections are pooled and kept alive, so that a
+ * verification does not set up a new connection to the endpoint. Keeps the latency of the verifications and exposes
+ * the usage of the connection pool. A closed client is shut down once the requests in progress are completed, so
+ * that the client can be replaced while it is in use.
+ */
+public class ReCaptchaHttpClient implements Closeable {
+
+    private static final Log log = LogFactory.getLog(ReCaptchaHttpClient.class);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong failedRequestCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private volatile boolean closed;
+
+    /**
+     * Create a reCAPTCHA HTTP client.
+     *
+     * @param maxConnections           Maximum number of connections to the verify endpoint.
+     * @param connectTimeout           Timeout to establish a connection, in milliseconds.
+     * @param readTimeout              Timeout to wait for data on a connection, in milliseconds.
+     * @param connectionRequestTimeout Timeout to get a connection from the pool, in milliseconds.
+     * @param keepAlive                Maximum time an idle connection is kept alive, in milliseconds.
+     */
+    public ReCaptchaHttpClient(int maxConnections, int connectTimeout, int readTimeout, int connectionRequestTimeout,
+                               long keepAlive) {
+
+        connectionManager = new PoolingHttpClientConnectionManager(keepAlive, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        // All the connections are to the verify endpoint.
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+        httpClient = HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response,
+                            context);
+                    return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Create a reCAPTCHA HTTP client from the captcha configurations. Invalid values are replaced by the defaults.
+     *
+     * @param properties Captcha configurations.
+     * @return reCAPTCHA HTTP client.
+     */
+    public static ReCaptchaHttpClient build(Properties properties) {
+
+        int maxConnections = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_HTTP_MAX_CONNECTIONS,
+                CaptchaConstants.RE_CAPTCHA_HTTP_DEFAULT_MAX_CONNECTIONS);
+        int connectTimeout = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_HTTP_CONNECT_TIMEOUT,
+                CaptchaConstants.RE_CAPTCHA_HTTP_DEFAULT_CONNECT_TIMEOUT);
+        int readTimeout = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_HTTP_READ_TIMEOUT,
+                CaptchaConstants.RE_CAPTCHA_HTTP_DEFAULT_READ_TIMEOUT);
+        int connectionRequestTimeout = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_HTTP_CONNECTION_REQUEST_TIMEOUT,
+                CaptchaConstants.RE_CAPTCHA_HTTP_DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+        int keepAlive = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_HTTP_KEEP_ALIVE,
+                CaptchaConstants.RE_CAPTCHA_HTTP_DEFAULT_KEEP_ALIVE);
+        if (log.isDebugEnabled()) {
+            log.debug("Building the reCaptcha HTTP client with max connections: " + maxConnections +
+                    ", connect timeout: " + connectTimeout + ", read timeout: " + readTimeout +
+                    ", connection request timeout: " + connectionRequestTimeout + " and keep alive: " + keepAlive);
+        }
+        return new ReCaptchaHttpClient(maxConnections, connectTimeout, readTimeout, connectionRequestTimeout,
+                keepAlive);
+    }
+
+    /**
+     * Execute a request. The connection is released back to the pool once the response is handled.
+     *
+     * @param request         Request.
+     * @param responseHandler Handler of the response.
+     * @param <T>             Type of the handled response.
+     * @return Handled response.
+     * @throws IOException If the request failed.
+     */
+    public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) throws IOException {
+
+        inFlightRequests.incrementAndGet();
+        long startTime = System.nanoTime();
+        try {
+            return httpClient.execute(request, responseHandler);
+        } catch (IOException | RuntimeException e) {
+            failedRequestCount.incrementAndGet();
+            throw e;
+        } finally {
+            recordLatency(System.nanoTime() - startTime);
+            if (inFlightRequests.decrementAndGet() == 0 && closed) {
+                shutdown();
+            }
+        }
+    }
+
+    /**
+     * Get the number of requests executed.
+     *
+     * @return Number of requests.
+     */
+    public long getRequestCount() {
+
+        return requestCount.get();
+    }
+
+    /**
+     * Get the number of requests which failed without a response.
+     *
+     * @return Number of failed requests.
+     */
+    public long getFailedRequestCount() {
+
+        return failedRequestCount.get();
+    }
+
+    /**
+     * Get the average time taken to receive a response.
+     *
+     * @return Average latency in milliseconds.
+     */
+    public long getAverageLatencyMillis() {
+
+        long count = requestCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatency.get() / count);
+    }
+
+    /**
+     * Get the maximum time taken to receive a response.
+     *
+     * @return Maximum latency in milliseconds.
+     */
+    public long getMaxLatencyMillis() {
+
+        return TimeUnit.NANOSECONDS.toMillis(maxLatency.get());
+    }
+
+    /**
+     * Get the number of connections which are in use.
+     *
+     * @return Number of leased connections.
+     */
+    public int getLeasedConnections() {
+
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    /**
+     * Get the number of idle connections which are kept alive in the pool.
+     *
+     * @return Number of available connections.
+     */
+    public int getAvailableConnections() {
+
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    /**
+     * Get the number of requests waiting for a connection.
+     *
+     * @return Number of pending requests.
+     */
+    public int getPendingRequests() {
+
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    @Override
+    public void close() {
+
+        closed = true;
+        if (inFlightRequests.get() == 0) {
+            shutdown();
+        }
+    }
+
+    private void shutdown() {
+
+        if (!shutdown.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Error while closing the reCaptcha HTTP client.", e);
+        }
+    }
+
+    private void recordLatency(long latency) {
+
+        long count = requestCount.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        if (log.isDebugEnabled()) {
+            PoolStats poolStats = connectionManager.getTotalStats();
+            log.debug("reCaptcha verification request: " + count + " took " +
+                    TimeUnit.NANOSECONDS.toMillis(latency) + " ms. Connections { leased: " + poolStats.getLeased() +
+                    ", available: " + poolStats.getAvailable() + ", pending: " + poolStats.getPending() +
+                    ", max: " + poolStats.getMax() + " }");
+        }
+    }
+}
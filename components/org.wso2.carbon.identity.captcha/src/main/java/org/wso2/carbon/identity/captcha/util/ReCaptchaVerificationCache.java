@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the verify endpoint responses of recently verified reCAPTCHA tokens, so that a token which reaches the server
+ * more than once, such as on retries or in multi step flows, is verified only once. Tokens are kept as hashes. A
+ * successfully verified token is rejected as a replay when it reaches the server again, unless a number of reuses is
+ * configured for such flows. The least recently used tokens are evicted when the cache is full.
+ */
+public class ReCaptchaVerificationCache {
+
+    private static final Log log = LogFactory.getLog(ReCaptchaVerificationCache.class);
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final long timeoutNanos;
+    private final int maxSize;
+    private final int maxReuse;
+    private final Map<String, CachedVerification> verifications;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong replayCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Create a reCAPTCHA verification cache.
+     *
+     * @param timeoutSeconds Time a verification is kept, in seconds.
+     * @param maxSize        Maximum number of verifications kept.
+     * @param maxReuse       Number of times a successfully verified token is accepted after its verification. A
+     *                       token is accepted only once if this is zero.
+     */
+    public ReCaptchaVerificationCache(long timeoutSeconds, int maxSize, int maxReuse) {
+
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.maxSize = maxSize;
+        this.maxReuse = maxReuse;
+        this.verifications = new LinkedHashMap<String, CachedVerification>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedVerification> eldest) {
+
+                if (size() > ReCaptchaVerificationCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Create a reCAPTCHA verification cache from the captcha configurations.
+     *
+     * @param properties Captcha configurations.
+     * @return reCAPTCHA verification cache, or null if the cache is not enabled.
+     */
+    public static ReCaptchaVerificationCache build(Properties properties) {
+
+        if (!Boolean.parseBoolean(properties.getProperty(CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_ENABLED))) {
+            return null;
+        }
+        int timeout = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_TIMEOUT,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_DEFAULT_TIMEOUT);
+        int maxSize = CaptchaUtil.getPositiveIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_MAX_SIZE,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_DEFAULT_MAX_SIZE);
+        int maxReuse = CaptchaUtil.getNonNegativeIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_MAX_REUSE,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_DEFAULT_MAX_REUSE);
+        if (log.isDebugEnabled()) {
+            log.debug("Building the reCaptcha verification cache with timeout: " + timeout + " seconds, max size: " +
+                    maxSize + " and max reuse: " + maxReuse);
+        }
+        return new ReCaptchaVerificationCache(timeout, maxSize, maxReuse);
+    }
+
+    /**
+     * Get the verify endpoint response of a token verified recently. Using a successful verification counts as a
+     * reuse of the token.
+     *
+     * @param token reCAPTCHA token.
+     * @return Verify endpoint response, or null if the token was not verified recently.
+     * @throws CaptchaClientException If the successfully verified token was already reused the maximum times.
+     */
+    public JsonObject get(String token) throws CaptchaClientException {
+
+        String tokenHash = hash(token);
+        long now = System.nanoTime();
+        synchronized (verifications) {
+            CachedVerification verification = verifications.get(tokenHash);
+            if (verification == null || now - verification.verifiedTime >= timeoutNanos) {
+                if (verification != null) {
+                    verifications.remove(tokenHash);
+                }
+                missCount.incrementAndGet();
+                return null;
+            }
+            if (verification.successful) {
+                if (verification.remainingReuses <= 0) {
+                    replayCount.incrementAndGet();
+                    throw new CaptchaClientException("reCaptcha token is already used.");
+                }
+                verification.remainingReuses--;
+            }
+            hitCount.incrementAndGet();
+            return verification.response;
+        }
+    }
+
+    /**
+     * Keep the verify endpoint response of a token.
+     *
+     * @param token    reCAPTCHA token.
+     * @param response Verify endpoint response.
+     */
+    public void put(String token, JsonObject response) {
+
+        JsonElement success = response.get(CaptchaConstants.CAPTCHA_SUCCESS);
+        boolean successful = success != null && success.isJsonPrimitive() && success.getAsBoolean();
+        CachedVerification verification = new CachedVerification(response, successful, maxReuse,
+                System.nanoTime());
+        String tokenHash = hash(token);
+        synchronized (verifications) {
+            verifications.put(tokenHash, verification);
+        }
+    }
+
+    /**
+     * Get the number of tokens found in the cache.
+     *
+     * @return Number of cache hits.
+     */
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of tokens not found in the cache.
+     *
+     * @return Number of cache misses.
+     */
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    /**
+     * Get the number of successfully verified tokens rejected as replays.
+     *
+     * @return Number of replays.
+     */
+    public long getReplayCount() {
+
+        return replayCount.get();
+    }
+
+    /**
+     * Get the number of verifications evicted because the cache was full.
+     *
+     * @return Number of evictions.
+     */
+    public long getEvictionCount() {
+
+        return evictionCount.get();
+    }
+
+    /**
+     * Get the number of verifications kept.
+     *
+     * @return Size of the cache.
+     */
+    public int size() {
+
+        synchronized (verifications) {
+            return verifications.size();
+        }
+    }
+
+    private static String hash(String token) {
+
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(HASH_ALGORITHM);
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not supported.", e);
+        }
+    }
+
+    private static final class CachedVerification {
+
+        private final JsonObject response;
+        private final boolean successful;
+        private final long verifiedTime;
+        private int remainingReuses;
+
+        private CachedVerification(JsonObject response, boolean successful, int remainingReuses, long verifiedTime) {
+
+            this.response = response;
+            this.successful = successful;
+            this.remainingReuses = remainingReuses;
+            this.verifiedTime = verifiedTime;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.internal;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.captcha.connector.CaptchaConnector;
+import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
+import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
+import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the lookup of the candidate captcha connectors of a request path against the linear scan over all the
+ * connectors which it replaces.
+ */
+public class CaptchaConnectorIndexTest {
+
+    private final TestCaptchaConnector loginConnector = new TestCaptchaConnector("login", 10, "/commonauth",
+            "/shared");
+    private final TestCaptchaConnector recoveryConnector = new TestCaptchaConnector("recovery", 20,
+            "/api/identity/recovery/v0.9", "/shared");
+    private final TestCaptchaConnector lowPriorityAnyPathConnector = new TestCaptchaConnector("lowAnyPath", 5);
+    private final TestCaptchaConnector highPriorityAnyPathConnector = new TestCaptchaConnector("highAnyPath", 20);
+    private final TestCaptchaConnector sharedConnector = new TestCaptchaConnector("shared", 10, "/shared");
+
+    private List<CaptchaConnector> captchaConnectors;
+    private CaptchaConnectorIndex captchaConnectorIndex;
+
+    @BeforeClass
+    public void setUp() {
+
+        captchaConnectors = Arrays.asList(loginConnector, recoveryConnector, lowPriorityAnyPathConnector,
+                highPriorityAnyPathConnector, sharedConnector);
+        captchaConnectorIndex = new CaptchaConnectorIndex(captchaConnectors,
+                Collections.singleton("/api/identity/recovery/v0.9"));
+    }
+
+    @DataProvider(name = "requestPaths")
+    public Object[][] requestPaths() {
+
+        return new Object[][]{
+                {"/commonauth"},
+                {"/api/identity/recovery/v0.9"},
+                {"/shared"},
+                {"/unmatched"},
+                {""},
+                {null}
+        };
+    }
+
+    @Test(dataProvider = "requestPaths")
+    public void testLookupMatchesLinearScan(String path) {
+
+        assertEquals(captchaConnectorIndex.getCaptchaConnectors(path), scanCaptchaConnectors(path),
+                "Unexpected candidate connectors for the path: " + path);
+    }
+
+    @Test
+    public void testPathClaimedByTwoConnectors() {
+
+        // Connectors of the same priority are kept in the order they are registered.
+        assertEquals(captchaConnectorIndex.getCaptchaConnectors("/shared"), Arrays.asList(recoveryConnector,
+                highPriorityAnyPathConnector, loginConnector, sharedConnector, lowPriorityAnyPathConnector));
+    }
+
+    @Test
+    public void testUnmatchedPath() {
+
+        assertEquals(captchaConnectorIndex.getCaptchaConnectors("/unmatched"),
+                Arrays.asList(highPriorityAnyPathConnector, lowPriorityAnyPathConnector));
+    }
+
+    @Test
+    public void testEmptyIndex() {
+
+        assertTrue(CaptchaConnectorIndex.EMPTY.getCaptchaConnectors("/commonauth").isEmpty());
+        assertTrue(CaptchaConnectorIndex.EMPTY.getCaptchaConnectors(null).isEmpty());
+        assertFalse(CaptchaConnectorIndex.EMPTY.isRequestWrapPath("/api/identity/recovery/v0.9"));
+    }
+
+    @Test
+    public void testRequestWrapPath() {
+
+        assertTrue(captchaConnectorIndex.isRequestWrapPath("/api/identity/recovery/v0.9"));
+        assertFalse(captchaConnectorIndex.isRequestWrapPath("/commonauth"));
+    }
+
+    /**
+     * Select the candidate connectors the way they were selected before the index, by going through all the
+     * connectors in the order of priority.
+     */
+    private List<CaptchaConnector> scanCaptchaConnectors(String path) {
+
+        List<CaptchaConnector> sortedConnectors = new ArrayList<>(captchaConnectors);
+        sortedConnectors.sort(Comparator.comparingInt(CaptchaConnector::getPriority).reversed());
+        List<CaptchaConnector> candidates = new ArrayList<>();
+        for (CaptchaConnector captchaConnector : sortedConnectors) {
+            Set<String> securedPaths = captchaConnector.getSecuredPaths();
+            if (securedPaths == null || securedPaths.contains(path)) {
+                candidates.add(captchaConnector);
+            }
+        }
+        return candidates;
+    }
+
+    private static class TestCaptchaConnector implements CaptchaConnector {
+
+        private final String name;
+        private final int priority;
+        private final Set<String> securedPaths;
+
+        TestCaptchaConnector(String name, int priority, String... securedPaths) {
+
+            this.name = name;
+            this.priority = priority;
+            this.securedPaths = securedPaths.length == 0 ? null : new HashSet<>(Arrays.asList(securedPaths));
+        }
+
+        @Override
+        public void init(IdentityGovernanceService identityGovernanceService) {
+
+        }
+
+        @Override
+        public int getPriority() {
+
+            return priority;
+        }
+
+        @Override
+        public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) {
+
+            return true;
+        }
+
+        @Override
+        public Set<String> getSecuredPaths() {
+
+            return securedPaths;
+        }
+
+        @Override
+        public CaptchaPreValidationResponse preValidate(ServletRequest servletRequest,
+                                                        ServletResponse servletResponse) {
+
+            return null;
+        }
+
+        @Override
+        public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse) {
+
+            return true;
+        }
+
+        @Override
+        public CaptchaPostValidationResponse postValidate(ServletRequest servletRequest,
+                                                          ServletResponse servletResponse) {
+
+            return null;
+        }
+
+        @Override
+        public String toString() {
+
+            return name;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+public class CaptchaHttpServletRequestWrapperTest {
+
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final String FORM_BODY = "username=alex&g-recaptcha-response=03AGdBq24PBCbwiDRaS_MJ7Z&" +
+            "callback=https%3A%2F%2Flocalhost%3A9443%2Fmyaccount";
+    private static final int MAX_BODY_SIZE = 1024;
+
+    private int defaultMaxBodySize;
+    private Map<String, Integer> invocationCounts;
+
+    @BeforeMethod
+    public void setUp() {
+
+        defaultMaxBodySize = CaptchaDataHolder.getInstance().getReCaptchaRequestMaxBodySize();
+        CaptchaDataHolder.getInstance().setReCaptchaRequestMaxBodySize(MAX_BODY_SIZE);
+        invocationCounts = new HashMap<>();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        CaptchaDataHolder.getInstance().setReCaptchaRequestMaxBodySize(defaultMaxBodySize);
+    }
+
+    @Test
+    public void testBodyIsReadSeveralTimes() throws Exception {
+
+        CaptchaHttpServletRequestWrapper wrapper = new CaptchaHttpServletRequestWrapper(
+                newRequest(FORM_CONTENT_TYPE, FORM_BODY));
+
+        assertEquals(read(wrapper.getInputStream()), FORM_BODY);
+        assertEquals(read(wrapper.getInputStream()), FORM_BODY);
+        assertEquals(wrapper.getReader().readLine(), FORM_BODY);
+        assertEquals(invocationCounts.get("getInputStream"), Integer.valueOf(1));
+    }
+
+    @Test
+    public void testParametersAfterBodyIsRead() throws Exception {
+
+        CaptchaHttpServletRequestWrapper wrapper = new CaptchaHttpServletRequestWrapper(
+                newRequest(FORM_CONTENT_TYPE, FORM_BODY));
+
+        assertEquals(read(wrapper.getInputStream()), FORM_BODY);
+        assertEquals(wrapper.getParameter("username"), "alex");
+        assertEquals(wrapper.getParameter("g-recaptcha-response"), "03AGdBq24PBCbwiDRaS_MJ7Z");
+        assertEquals(wrapper.getParameter("callback"), "https://localhost:9443/myaccount");
+        assertEquals(wrapper.getParameterValues("username"), new String[]{"alex"});
+        assertEquals(wrapper.getParameterMap().size(), 3);
+        assertNull(wrapper.getParameter("password"));
+
+        // The form parameters are parsed once and the wrapped request never reads the body.
+        assertEquals(invocationCounts.get("getParameterMap"), Integer.valueOf(1));
+        assertEquals(invocationCounts.get("getInputStream"), Integer.valueOf(1));
+        assertEquals(read(wrapper.getInputStream()), FORM_BODY);
+    }
+
+    @Test
+    public void testLargeBodyIsNotBuffered() throws Exception {
+
+        StringBuilder largeBody = new StringBuilder("username=alex&data=");
+        while (largeBody.length() <= MAX_BODY_SIZE) {
+            largeBody.append("0123456789");
+        }
+        CaptchaHttpServletRequestWrapper wrapper = new CaptchaHttpServletRequestWrapper(
+                newRequest(FORM_CONTENT_TYPE, largeBody.toString()));
+
+        // A body larger than the maximum buffered size passes through as is, can be read only once and its form
+        // parameters are not parsed.
+        assertEquals(read(wrapper.getInputStream()), largeBody.toString());
+        try {
+            wrapper.getInputStream();
+            fail("The request body which is not buffered is read twice.");
+        } catch (IOException e) {
+            // Expected.
+        }
+        assertNull(wrapper.getParameter("username"));
+    }
+
+    private HttpServletRequest newRequest(String contentType, String body) {
+
+        byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        InputStream bodyStream = new ByteArrayInputStream(bodyBytes);
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    invocationCounts.merge(method.getName(), 1, Integer::sum);
+                    switch (method.getName()) {
+                        case "getMethod":
+                            return "POST";
+                        case "getContentType":
+                            return contentType;
+                        case "getContentLength":
+                            return bodyBytes.length;
+                        case "getRequestURI":
+                            return "/accountrecoveryendpoint/recoverpassword.do";
+                        case "getInputStream":
+                            return new ServletInputStream() {
+
+                                @Override
+                                public int read() throws IOException {
+
+                                    return bodyStream.read();
+                                }
+                            };
+                        case "getParameterMap":
+                            // Query parameters only, since the wrapped request never sees the body.
+                            return Collections.emptyMap();
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private String read(InputStream inputStream) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
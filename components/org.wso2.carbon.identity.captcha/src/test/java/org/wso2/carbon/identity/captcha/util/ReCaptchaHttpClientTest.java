@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.testng.Assert.assertEquals;
+
+public class ReCaptchaHttpClientTest {
+
+    private static final String VERIFY_RESPONSE = "{\"success\": true}";
+    private static final int VERIFICATION_COUNT = 5;
+
+    private HttpServer server;
+    private Set<InetSocketAddress> clientAddresses;
+    private String verifyUrl;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        clientAddresses = ConcurrentHashMap.newKeySet();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/recaptcha/api/siteverify", exchange -> {
+            // Each connection is accepted from a new client port.
+            clientAddresses.add(exchange.getRemoteAddress());
+            byte[] buffer = new byte[1024];
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read(buffer) != -1) {
+                    // The request is drained so that the connection can be reused.
+                }
+            }
+            byte[] response = VERIFY_RESPONSE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        verifyUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() +
+                "/recaptcha/api/siteverify";
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        server.stop(0);
+    }
+
+    @Test
+    public void testVerificationsReuseConnection() throws Exception {
+
+        try (ReCaptchaHttpClient httpClient = new ReCaptchaHttpClient(10, 5000, 5000, 5000, 60000)) {
+            for (int i = 0; i < VERIFICATION_COUNT; i++) {
+                assertEquals(verify(httpClient, "response-" + i), VERIFY_RESPONSE);
+            }
+
+            assertEquals(httpClient.getRequestCount(), VERIFICATION_COUNT);
+            assertEquals(httpClient.getFailedRequestCount(), 0);
+            assertEquals(httpClient.getLeasedConnections(), 0);
+            assertEquals(httpClient.getAvailableConnections(), 1);
+        }
+        assertEquals(clientAddresses.size(), 1, "Verifications did not reuse the pooled connection.");
+    }
+
+    private String verify(ReCaptchaHttpClient httpClient, String reCaptchaResponse) throws Exception {
+
+        HttpPost httpPost = new HttpPost(verifyUrl);
+        httpPost.setEntity(new UrlEncodedFormEntity(Arrays.asList(new BasicNameValuePair("secret", "secret"),
+                new BasicNameValuePair("response", reCaptchaResponse)), StandardCharsets.UTF_8));
+        return httpClient.execute(httpPost, response -> EntityUtils.toString(response.getEntity()));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.util;
+
+import com.google.gson.JsonObject;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
+
+import java.util.Properties;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+public class ReCaptchaVerificationCacheTest {
+
+    private static final String TOKEN = "03AGdBq24PBCbwiDRaS_MJ7Z";
+
+    @Test
+    public void testVerifiedTokenIsNotReplayedByDefault() throws Exception {
+
+        Properties properties = new Properties();
+        properties.setProperty(CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_ENABLED, "true");
+        ReCaptchaVerificationCache cache = ReCaptchaVerificationCache.build(properties);
+        assertNotNull(cache);
+
+        cache.put(TOKEN, verifyResponse(true));
+        assertReplayRejected(cache);
+        assertEquals(cache.getReplayCount(), 1);
+    }
+
+    @Test
+    public void testZeroMaxReuseIsAccepted() throws Exception {
+
+        Properties properties = new Properties();
+        properties.setProperty(CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_ENABLED, "true");
+        properties.setProperty(CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_MAX_REUSE, "0");
+        ReCaptchaVerificationCache cache = ReCaptchaVerificationCache.build(properties);
+
+        cache.put(TOKEN, verifyResponse(true));
+        assertReplayRejected(cache);
+    }
+
+    @Test
+    public void testVerifiedTokenIsRejectedAfterMaxReuse() throws Exception {
+
+        ReCaptchaVerificationCache cache = new ReCaptchaVerificationCache(120, 10, 2);
+        JsonObject response = verifyResponse(true);
+        cache.put(TOKEN, response);
+
+        assertSame(cache.get(TOKEN), response);
+        assertSame(cache.get(TOKEN), response);
+        assertReplayRejected(cache);
+        assertEquals(cache.getHitCount(), 2);
+    }
+
+    @Test
+    public void testFailedVerificationIsNotCountedAsReuse() throws Exception {
+
+        ReCaptchaVerificationCache cache = new ReCaptchaVerificationCache(120, 10, 0);
+        JsonObject response = verifyResponse(false);
+        cache.put(TOKEN, response);
+
+        assertSame(cache.get(TOKEN), response);
+        assertSame(cache.get(TOKEN), response);
+        assertEquals(cache.getReplayCount(), 0);
+    }
+
+    @Test
+    public void testUnknownTokenIsMissed() throws Exception {
+
+        ReCaptchaVerificationCache cache = new ReCaptchaVerificationCache(120, 10, 0);
+
+        assertNull(cache.get(TOKEN));
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    private static void assertReplayRejected(ReCaptchaVerificationCache cache) {
+
+        try {
+            cache.get(TOKEN);
+            fail("A replayed reCaptcha token is accepted.");
+        } catch (CaptchaClientException e) {
+            assertEquals(e.getMessage(), "reCaptcha token is already used.");
+        }
+    }
+
+    private static JsonObject verifyResponse(boolean success) {
+
+        JsonObject response = new JsonObject();
+        response.addProperty(CaptchaConstants.CAPTCHA_SUCCESS, success);
+        return response;
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.wso2.carbon.identity.governance;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.model.FederatedAuthenticatorConfig;
@@ -27,13 +28,17 @@ import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.governance.bean.ConnectorConfig;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
 import org.wso2.carbon.identity.governance.internal.IdentityMgtServiceDataHolder;
+import org.wso2.carbon.identity.governance.internal.cache.IdentityGovernanceConfigCache;
+import org.wso2.carbon.identity.governance.internal.cache.IdentityGovernanceConfigSnapshot;
 import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
 import org.wso2.carbon.idp.mgt.IdpManager;
+import org.wso2.carbon.user.api.UserStoreException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class which contains exposed identity governance services.
@@ -41,6 +46,7 @@ import java.util.Map;
 public class IdentityGovernanceServiceImpl implements IdentityGovernanceService {
 
     private static final Log log = LogFactory.getLog(IdentityGovernanceServiceImpl.class);
+    private static final AtomicLong configInvalidationCount = new AtomicLong();
 
     public void updateConfiguration(String tenantDomain, Map<String, String> configurationDetails)
             throws IdentityGovernanceException {
@@ -83,6 +89,7 @@ public class IdentityGovernanceServiceImpl implements IdentityGovernanceService
             residentIdp.setFederatedAuthenticatorConfigs(configsToSave.toArray(new
                     FederatedAuthenticatorConfig[configsToSave.size()]));
             identityProviderManager.updateResidentIdP(residentIdp, tenantDomain);
+            invalidateConfiguration(tenantDomain);
         } catch (IdentityProviderManagementException e) {
             log.error("Error while updating identityManagement Properties of Resident Idp.", e);
         }
@@ -92,6 +99,66 @@ public class IdentityGovernanceServiceImpl implements IdentityGovernanceService
     @Override
     public Property[] getConfiguration(String tenantDomain) throws IdentityGovernanceException {
 
+        return getConfigurationSnapshot(tenantDomain).getProperties();
+    }
+
+    @Override
+    public Property[] getConfiguration(String[] propertyNames, String tenantDomain) throws
+            IdentityGovernanceException {
+
+        return getConfigurationSnapshot(tenantDomain).getProperties(propertyNames);
+    }
+
+    /**
+     * Discard the cached configuration of the tenant so that it is built again from the resident identity provider.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidateConfiguration(String tenantDomain) {
+
+        configInvalidationCount.incrementAndGet();
+        if (StringUtils.isBlank(tenantDomain)) {
+            return;
+        }
+        try {
+            IdentityGovernanceConfigCache.getInstance().clearCacheEntry(tenantDomain, getTenantId(tenantDomain));
+        } catch (IdentityGovernanceException e) {
+            log.error("Error while invalidating the identity governance configuration of the tenant: " +
+                    tenantDomain, e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidated the identity governance configuration of the tenant: " + tenantDomain);
+        }
+    }
+
+    private IdentityGovernanceConfigSnapshot getConfigurationSnapshot(String tenantDomain)
+            throws IdentityGovernanceException {
+
+        if (StringUtils.isBlank(tenantDomain)) {
+            return loadConfigurationSnapshot(tenantDomain);
+        }
+        int tenantId = getTenantId(tenantDomain);
+        IdentityGovernanceConfigCache configCache = IdentityGovernanceConfigCache.getInstance();
+        IdentityGovernanceConfigSnapshot snapshot = configCache.getValueFromCache(tenantDomain, tenantId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long invalidationCount = configInvalidationCount.get();
+        snapshot = loadConfigurationSnapshot(tenantDomain);
+        // A snapshot loaded while the configuration was being updated may be stale, hence it is not cached.
+        if (invalidationCount == configInvalidationCount.get()) {
+            configCache.addToCache(tenantDomain, snapshot, tenantId);
+            // The configuration may have been invalidated after the check, before the snapshot was cached.
+            if (invalidationCount != configInvalidationCount.get()) {
+                configCache.clearCacheEntry(tenantDomain, tenantId);
+            }
+        }
+        return snapshot;
+    }
+
+    private IdentityGovernanceConfigSnapshot loadConfigurationSnapshot(String tenantDomain)
+            throws IdentityGovernanceException {
+
         IdpManager identityProviderManager = IdentityMgtServiceDataHolder.getInstance().getIdpManager();
         IdentityProvider residentIdp = null;
         try {
@@ -100,41 +167,18 @@ public class IdentityGovernanceServiceImpl implements IdentityGovernanceService
             String errorMsg = String.format("Error while retrieving resident Idp for %s tenant.", tenantDomain);
             throw new IdentityGovernanceException(errorMsg, e);
         }
-        IdentityProviderProperty[] identityMgtProperties = residentIdp.getIdpProperties();
-        Property[] configMap = new Property[identityMgtProperties.length];
-        int index = 0;
-        for (IdentityProviderProperty identityMgtProperty : identityMgtProperties) {
-            if (IdentityEventConstants.PropertyConfig.ALREADY_WRITTEN_PROPERTY_KEY
-                    .equals(identityMgtProperty.getName())) {
-                continue;
-            }
-            Property property = new Property();
-            property.setName(identityMgtProperty.getName());
-            property.setValue(identityMgtProperty.getValue());
-            configMap[index] = property;
-            index++;
-        }
-
-        return configMap;
+        return IdentityGovernanceConfigSnapshot.of(residentIdp.getIdpProperties(),
+                IdentityEventConstants.PropertyConfig.ALREADY_WRITTEN_PROPERTY_KEY);
     }
 
-    @Override
-    public Property[] getConfiguration(String[] propertyNames, String tenantDomain) throws
-            IdentityGovernanceException {
-
-        List<Property> requestedProperties = new ArrayList<>();
-        Property[] allProperties = getConfiguration(tenantDomain);
-        for (String propertyName : propertyNames) {
-            for (int i = 0; i < allProperties.length; i++) {
-                if (propertyName.equals(allProperties[i].getName())) {
-                    requestedProperties.add(allProperties[i]);
-                    break;
-                }
-            }
+    private int getTenantId(String tenantDomain) throws IdentityGovernanceException {
 
+        try {
+            return IdentityMgtServiceDataHolder.getInstance().getTenantDomainResolver().getTenantId(tenantDomain);
+        } catch (UserStoreException e) {
+            throw new IdentityGovernanceException("Error while resolving the tenant id of the tenant: " +
+                    tenantDomain, e);
         }
-        return requestedProperties.toArray(new Property[requestedProperties.size()]);
-
     }
 
     public List<IdentityConnectorConfig> getConnectorList() throws IdentityGovernanceException {
@@ -151,6 +151,12 @@ public class IdentityMgtConstants {
         public static final String EXTENSION_USER_DATA_STORE = "Identity.Mgt.User.Data.Store";
         public static final String EXTENSION_USER_RECOVERY_DATA_STORE = "Identity.Mgt.User.Recovery.Data.Store";
         public static final String NOTIFICATION_LINK_EXPIRE_TIME = "Notification.Expire.Time";
+        public static final String IDENTITY_DATA_STORE_WRITE_BEHIND_ENABLE = "IdentityDataStore.WriteBehind.Enable";
+        public static final String IDENTITY_DATA_STORE_WRITE_BEHIND_FLUSH_INTERVAL =
+                "IdentityDataStore.WriteBehind.FlushInterval";
+        public static final String IDENTITY_DATA_STORE_WRITE_BEHIND_MAX_PENDING_USERS =
+                "IdentityDataStore.WriteBehind.MaxPendingUsers";
+        public static final String IDENTITY_DATA_STORE_UPSERT_ENABLE = "IdentityDataStore.Upsert.Enable";
         private PropertyConfig() {
 
         }
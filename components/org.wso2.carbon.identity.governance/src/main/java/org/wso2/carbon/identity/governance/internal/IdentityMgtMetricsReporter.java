@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.governance.listener.IdentityEventDispatchMetrics;
+import org.wso2.carbon.identity.governance.store.IdentityDataStoreWriteBehindQueue;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs the metrics of the identity governance component at the debug level. The metrics are only
+ * collected into a log line while debug logs are enabled for this class.
+ */
+public class IdentityMgtMetricsReporter {
+
+    private static final Log log = LogFactory.getLog(IdentityMgtMetricsReporter.class);
+    private static final String REPORTER_THREAD_NAME = "IdentityMgtMetricsReporter";
+    private static final long REPORT_INTERVAL_MINUTES = 5;
+
+    private ScheduledExecutorService reporterExecutor;
+
+    /**
+     * Start logging the metrics periodically.
+     */
+    public synchronized void start() {
+
+        if (reporterExecutor != null) {
+            return;
+        }
+        reporterExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, REPORTER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporterExecutor.scheduleWithFixedDelay(this::reportSafely, REPORT_INTERVAL_MINUTES,
+                REPORT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stop logging the metrics.
+     */
+    public synchronized void stop() {
+
+        if (reporterExecutor != null) {
+            reporterExecutor.shutdownNow();
+            reporterExecutor = null;
+        }
+    }
+
+    /**
+     * Log the metrics if debug logs are enabled.
+     */
+    void report() {
+
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        IdentityMgtServiceDataHolder dataHolder = IdentityMgtServiceDataHolder.getInstance();
+        for (Map.Entry<String, IdentityEventDispatchMetrics.EventMetrics> entry :
+                dataHolder.getIdentityEventDispatchMetrics().getEventMetrics().entrySet()) {
+            IdentityEventDispatchMetrics.EventMetrics metrics = entry.getValue();
+            log.debug("Event: " + entry.getKey() + " dispatched: " + metrics.getDispatchedCount() + ", skipped: " +
+                    metrics.getSkippedCount() + ", failed: " + metrics.getFailedCount() + ", average latency: " +
+                    TimeUnit.NANOSECONDS.toMicros(metrics.getAverageLatencyNanos()) + "us, max latency: " +
+                    TimeUnit.NANOSECONDS.toMicros(metrics.getMaxLatencyNanos()) + "us");
+        }
+        for (IdentityDataStoreWriteBehindQueue writeBehindQueue : dataHolder.getIdentityDataStoreWriteBehindQueues()) {
+            log.debug("Identity data write behind queue pending: " + writeBehindQueue.getPendingWriteCount() +
+                    ", coalesced: " + writeBehindQueue.getCoalescedWriteCount() + ", persisted: " +
+                    writeBehindQueue.getPersistedWriteCount() + ", failed: " + writeBehindQueue.getFailedWriteCount() +
+                    ", dropped: " + writeBehindQueue.getDroppedWriteCount() + ", last flush lag: " +
+                    writeBehindQueue.getLastFlushLag() + "ms, max flush lag: " + writeBehindQueue.getMaxFlushLag() +
+                    "ms");
+        }
+        TenantDomainResolver tenantDomainResolver = dataHolder.getTenantDomainResolver();
+        log.debug("Tenant domain resolver hits: " + tenantDomainResolver.getHitCount() + ", misses: " +
+                tenantDomainResolver.getMissCount() + ", hit rate: " +
+                String.format("%.2f", tenantDomainResolver.getHitRate()));
+    }
+
+    private void reportSafely() {
+
+        try {
+            report();
+        } catch (RuntimeException e) {
+            log.error("Error while logging the identity governance metrics.", e);
+        }
+    }
+}
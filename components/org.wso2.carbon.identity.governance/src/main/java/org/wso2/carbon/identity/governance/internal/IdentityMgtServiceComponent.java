@@ -27,6 +27,7 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.identity.core.ConnectorConfig;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceServiceImpl;
@@ -34,10 +35,15 @@ import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
 import org.wso2.carbon.identity.governance.internal.service.impl.notification.DefaultNotificationChannelManager;
 import org.wso2.carbon.identity.governance.internal.service.impl.otp.DefaultOTPGenerator;
 import org.wso2.carbon.identity.governance.service.notification.NotificationChannelManager;
+import org.wso2.carbon.identity.governance.listener.IdentityGovernanceIdpMgtListener;
 import org.wso2.carbon.identity.governance.listener.IdentityMgtEventListener;
 import org.wso2.carbon.identity.governance.listener.IdentityStoreEventListener;
+import org.wso2.carbon.identity.governance.listener.TenantDomainResolverTenantMgtListener;
 import org.wso2.carbon.identity.governance.service.otp.OTPGenerator;
+import org.wso2.carbon.identity.governance.store.IdentityDataStoreWriteBehindQueue;
 import org.wso2.carbon.idp.mgt.IdpManager;
+import org.wso2.carbon.idp.mgt.listener.IdentityProviderMgtListener;
+import org.wso2.carbon.stratos.common.listeners.TenantMgtListener;
 import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 import org.wso2.carbon.user.core.service.RealmService;
 
@@ -47,6 +53,7 @@ import org.wso2.carbon.user.core.service.RealmService;
 public class IdentityMgtServiceComponent {
 
     private static final Log log = LogFactory.getLog(IdentityMgtServiceComponent.class);
+    private final IdentityMgtMetricsReporter metricsReporter = new IdentityMgtMetricsReporter();
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -56,10 +63,14 @@ public class IdentityMgtServiceComponent {
             context.getBundleContext().registerService(UserOperationEventListener.class, listener, null);
             context.getBundleContext().registerService(UserOperationEventListener.class, new
                     IdentityStoreEventListener(), null);
+            context.getBundleContext().registerService(TenantMgtListener.class.getName(),
+                    new TenantDomainResolverTenantMgtListener(), null);
             IdentityGovernanceServiceImpl identityGovernanceService = new IdentityGovernanceServiceImpl();
             context.getBundleContext().registerService(IdentityGovernanceService.class, identityGovernanceService,
                     null);
             IdentityMgtServiceDataHolder.getInstance().setIdentityGovernanceService(identityGovernanceService);
+            context.getBundleContext().registerService(IdentityProviderMgtListener.class,
+                    new IdentityGovernanceIdpMgtListener(), null);
             DefaultNotificationChannelManager defaultNotificationChannelManager =
                     new DefaultNotificationChannelManager();
             context.getBundleContext()
@@ -67,6 +78,7 @@ public class IdentityMgtServiceComponent {
             DefaultOTPGenerator defaultOtpGenerator = new DefaultOTPGenerator();
             context.getBundleContext()
                     .registerService(OTPGenerator.class.getName(), defaultOtpGenerator, null);
+            metricsReporter.start();
 
             if (log.isDebugEnabled()) {
                 log.debug("Identity Management Listener is enabled");
@@ -79,6 +91,16 @@ public class IdentityMgtServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        metricsReporter.stop();
+        // Persist the identity data writes which are still waiting in the write behind queues.
+        for (IdentityDataStoreWriteBehindQueue writeBehindQueue :
+                IdentityMgtServiceDataHolder.getInstance().getIdentityDataStoreWriteBehindQueues()) {
+            try {
+                writeBehindQueue.shutdown();
+            } catch (Exception e) {
+                log.error("Error while flushing pending identity data writes.", e);
+            }
+        }
         if (log.isDebugEnabled()) {
             log.debug("Identity Management bundle is de-activated");
         }
@@ -100,6 +122,22 @@ public class IdentityMgtServiceComponent {
         IdentityMgtServiceDataHolder.getInstance().setIdentityEventService(identityEventService);
     }
 
+    @Reference(
+            name = "EventHandler",
+            service = org.wso2.carbon.identity.event.handler.AbstractEventHandler.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetEventHandler")
+    protected void setEventHandler(AbstractEventHandler eventHandler) {
+
+        IdentityMgtServiceDataHolder.getInstance().getIdentityEventSubscriptionIndex().addEventHandler(eventHandler);
+    }
+
+    protected void unsetEventHandler(AbstractEventHandler eventHandler) {
+
+        IdentityMgtServiceDataHolder.getInstance().getIdentityEventSubscriptionIndex().removeEventHandler(eventHandler);
+    }
+
     @Reference(
             name = "idp.mgt.event.listener.service",
             service = org.wso2.carbon.identity.governance.common.IdentityConnectorConfig.class,
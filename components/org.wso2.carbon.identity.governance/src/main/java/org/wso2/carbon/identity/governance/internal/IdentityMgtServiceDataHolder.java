@@ -19,11 +19,15 @@ package org.wso2.carbon.identity.governance.internal;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceServiceImpl;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
+import org.wso2.carbon.identity.governance.listener.IdentityEventDispatchMetrics;
+import org.wso2.carbon.identity.governance.listener.IdentityEventSubscriptionIndex;
+import org.wso2.carbon.identity.governance.store.IdentityDataStoreWriteBehindQueue;
 import org.wso2.carbon.idp.mgt.IdpManager;
 import org.wso2.carbon.user.core.service.RealmService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class IdentityMgtServiceDataHolder {
 
@@ -33,6 +37,11 @@ public class IdentityMgtServiceDataHolder {
     private static volatile List<IdentityConnectorConfig> identityConnectorConfigList = new ArrayList<>();
     private RealmService realmService;
     private IdentityGovernanceServiceImpl identityGovernanceService;
+    private final List<IdentityDataStoreWriteBehindQueue> identityDataStoreWriteBehindQueues =
+            new CopyOnWriteArrayList<>();
+    private final IdentityEventSubscriptionIndex identityEventSubscriptionIndex = new IdentityEventSubscriptionIndex();
+    private final IdentityEventDispatchMetrics identityEventDispatchMetrics = new IdentityEventDispatchMetrics();
+    private volatile TenantDomainResolver tenantDomainResolver = new TenantDomainResolver();
 
     public static IdentityMgtServiceDataHolder getInstance() {
 
@@ -88,4 +97,54 @@ public class IdentityMgtServiceDataHolder {
 
         this.identityGovernanceService = identityGovernanceService;
     }
+
+    public void addIdentityDataStoreWriteBehindQueue(IdentityDataStoreWriteBehindQueue writeBehindQueue) {
+
+        identityDataStoreWriteBehindQueues.add(writeBehindQueue);
+    }
+
+    /**
+     * Get the write behind queues of the identity data stores, which should be flushed before the component stops.
+     *
+     * @return List of write behind queues.
+     */
+    public List<IdentityDataStoreWriteBehindQueue> getIdentityDataStoreWriteBehindQueues() {
+
+        return identityDataStoreWriteBehindQueues;
+    }
+
+    /**
+     * Get the index of the events the registered event handlers are subscribed to.
+     *
+     * @return Event subscription index.
+     */
+    public IdentityEventSubscriptionIndex getIdentityEventSubscriptionIndex() {
+
+        return identityEventSubscriptionIndex;
+    }
+
+    /**
+     * Get the metrics of the events dispatched by the identity management event listener.
+     *
+     * @return Event dispatch metrics.
+     */
+    public IdentityEventDispatchMetrics getIdentityEventDispatchMetrics() {
+
+        return identityEventDispatchMetrics;
+    }
+
+    /**
+     * Get the resolver which caches the tenant id to tenant domain mapping.
+     *
+     * @return Tenant domain resolver.
+     */
+    public TenantDomainResolver getTenantDomainResolver() {
+
+        return tenantDomainResolver;
+    }
+
+    public void setTenantDomainResolver(TenantDomainResolver tenantDomainResolver) {
+
+        this.tenantDomainResolver = tenantDomainResolver;
+    }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.governance.internal.cache.TenantDomainCache;
+import org.wso2.carbon.identity.governance.internal.cache.TenantIdCache;
+import org.wso2.carbon.user.api.TenantManager;
+import org.wso2.carbon.user.api.UserStoreException;
+import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves the tenant id to tenant domain mapping, and its inverse, through the tenant manager of the realm service.
+ * The mappings are kept in the tenant domain and tenant id caches, hence their capacity is configured with the cache
+ * configuration and the mapping of a tenant invalidated on the lifecycle events of the tenant is invalidated across
+ * the cluster. The hit rate of the lookups is logged periodically at the debug level by the
+ * {@link IdentityMgtMetricsReporter}.
+ */
+public class TenantDomainResolver {
+
+    private static final Log log = LogFactory.getLog(TenantDomainResolver.class);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Get the tenant domain of the given tenant.
+     *
+     * @param tenantId Tenant id.
+     * @return Tenant domain, or null if there is no such tenant.
+     * @throws UserStoreException If an error occurred while resolving the tenant domain.
+     */
+    public String getTenantDomain(int tenantId) throws UserStoreException {
+
+        if (tenantId == MultitenantConstants.SUPER_TENANT_ID) {
+            hitCount.increment();
+            return MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+        }
+        String tenantDomain = TenantDomainCache.getInstance().getValueFromCache(tenantId,
+                MultitenantConstants.SUPER_TENANT_ID);
+        if (tenantDomain != null) {
+            hitCount.increment();
+            return tenantDomain;
+        }
+        missCount.increment();
+        tenantDomain = getTenantManager().getDomain(tenantId);
+        if (tenantDomain != null) {
+            put(tenantId, tenantDomain);
+        }
+        return tenantDomain;
+    }
+
+    /**
+     * Get the tenant id of the given tenant domain.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Tenant id, or {@link MultitenantConstants#INVALID_TENANT_ID} if there is no such tenant.
+     * @throws UserStoreException If an error occurred while resolving the tenant id.
+     */
+    public int getTenantId(String tenantDomain) throws UserStoreException {
+
+        if (tenantDomain == null) {
+            return getTenantManager().getTenantId(null);
+        }
+        if (MultitenantConstants.SUPER_TENANT_DOMAIN_NAME.equals(tenantDomain)) {
+            hitCount.increment();
+            return MultitenantConstants.SUPER_TENANT_ID;
+        }
+        Integer tenantId = TenantIdCache.getInstance().getValueFromCache(tenantDomain,
+                MultitenantConstants.SUPER_TENANT_ID);
+        if (tenantId != null) {
+            hitCount.increment();
+            return tenantId;
+        }
+        missCount.increment();
+        int resolvedTenantId = getTenantManager().getTenantId(tenantDomain);
+        if (resolvedTenantId != MultitenantConstants.INVALID_TENANT_ID) {
+            put(resolvedTenantId, tenantDomain);
+        }
+        return resolvedTenantId;
+    }
+
+    /**
+     * Remove the mapping of the given tenant across the cluster.
+     *
+     * @param tenantId Tenant id.
+     */
+    public void invalidate(int tenantId) {
+
+        String tenantDomain = TenantDomainCache.getInstance().getValueFromCache(tenantId,
+                MultitenantConstants.SUPER_TENANT_ID);
+        if (tenantDomain == null) {
+            // Other nodes may have resolved the tenant id of the tenant domain, although this node has not.
+            try {
+                tenantDomain = getTenantManager().getDomain(tenantId);
+            } catch (UserStoreException e) {
+                log.warn("Error while resolving the tenant domain of the tenant: " + tenantId + " to invalidate "
+                        + "its tenant id.", e);
+            }
+        }
+        TenantDomainCache.getInstance().clearCacheEntry(tenantId, MultitenantConstants.SUPER_TENANT_ID);
+        if (tenantDomain != null) {
+            TenantIdCache.getInstance().clearCacheEntry(tenantDomain, MultitenantConstants.SUPER_TENANT_ID);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidated the tenant domain of the tenant: " + tenantId);
+        }
+    }
+
+    /**
+     * Remove the mapping of the given tenant domain across the cluster.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidate(String tenantDomain) {
+
+        if (tenantDomain == null) {
+            return;
+        }
+        Integer tenantId = TenantIdCache.getInstance().getValueFromCache(tenantDomain,
+                MultitenantConstants.SUPER_TENANT_ID);
+        TenantIdCache.getInstance().clearCacheEntry(tenantDomain, MultitenantConstants.SUPER_TENANT_ID);
+        if (tenantId != null) {
+            TenantDomainCache.getInstance().clearCacheEntry(tenantId, MultitenantConstants.SUPER_TENANT_ID);
+        }
+    }
+
+    /**
+     * Remove all the mappings across the cluster.
+     */
+    public void invalidateAll() {
+
+        TenantDomainCache.getInstance().clear(MultitenantConstants.SUPER_TENANT_ID);
+        TenantIdCache.getInstance().clear(MultitenantConstants.SUPER_TENANT_ID);
+    }
+
+    private void put(int tenantId, String tenantDomain) {
+
+        // The mappings are kept under the super tenant, since they are looked up before the tenant is known.
+        TenantDomainCache.getInstance().addToCache(tenantId, tenantDomain, MultitenantConstants.SUPER_TENANT_ID);
+        TenantIdCache.getInstance().addToCache(tenantDomain, tenantId, MultitenantConstants.SUPER_TENANT_ID);
+    }
+
+    private TenantManager getTenantManager() {
+
+        RealmService realmService = IdentityMgtServiceDataHolder.getInstance().getRealmService();
+        return realmService.getTenantManager();
+    }
+
+    /**
+     * Get the number of lookups served from the cache.
+     *
+     * @return Hit count.
+     */
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    /**
+     * Get the number of lookups resolved through the tenant manager.
+     *
+     * @return Miss count.
+     */
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    /**
+     * Get the ratio of the lookups served from the cache.
+     *
+     * @return Hit rate between 0 and 1, or 0 if there were no lookups.
+     */
+    public double getHitRate() {
+
+        long hits = hitCount.sum();
+        long lookups = hits + missCount.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -19,19 +19,24 @@
 package org.wso2.carbon.identity.governance.internal.cache;
 
 import org.wso2.carbon.identity.core.cache.BaseCache;
-import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
 
 /**
  * Cache to maintain the user - identity claims.
  */
-public class IdentityDataStoreCache extends BaseCache<IdentityDataStoreCacheKey, UserIdentityClaim> {
+public class IdentityDataStoreCache extends BaseCache<IdentityDataStoreCacheKey, UserIdentityClaimSnapshot> {
 
     private static final String IDENTITY_DATA_CACHE = "IdentityDataStoreCache";
+    private static final int UPDATE_LOCK_COUNT = 64;
     private static volatile IdentityDataStoreCache instance;
 
+    private final Object[] updateLocks = new Object[UPDATE_LOCK_COUNT];
+
     public IdentityDataStoreCache() {
 
         super(IDENTITY_DATA_CACHE);
+        for (int i = 0; i < UPDATE_LOCK_COUNT; i++) {
+            updateLocks[i] = new Object();
+        }
     }
 
     public static IdentityDataStoreCache getInstance() {
@@ -45,4 +50,36 @@ public class IdentityDataStoreCache extends BaseCache<IdentityDataStoreCacheKey,
         }
         return instance;
     }
+
+    /**
+     * Replace the cached snapshot of the user only if it has not been changed since the expected snapshot was read.
+     * Reads do not take the lock, only the updates of users sharing a lock stripe are serialized.
+     *
+     * @param key      Cache key of the user.
+     * @param expected Snapshot read from the cache, or null if there was none.
+     * @param update   New snapshot of the user.
+     * @param tenantId Tenant id of the user.
+     * @return True if the snapshot was replaced, false if it was changed in the meantime.
+     */
+    public boolean compareAndSet(IdentityDataStoreCacheKey key, UserIdentityClaimSnapshot expected,
+                                 UserIdentityClaimSnapshot update, int tenantId) {
+
+        synchronized (updateLocks[(key.hashCode() & Integer.MAX_VALUE) % UPDATE_LOCK_COUNT]) {
+            UserIdentityClaimSnapshot current = getValueFromCache(key, tenantId);
+            if (!isSameSnapshot(current, expected)) {
+                return false;
+            }
+            addToCache(key, update, tenantId);
+            return true;
+        }
+    }
+
+    private static boolean isSameSnapshot(UserIdentityClaimSnapshot current, UserIdentityClaimSnapshot expected) {
+
+        if (current == null || expected == null) {
+            return current == expected;
+        }
+        // Versions are compared instead of references, as a distributed cache returns copies of the snapshots.
+        return current.isSameVersion(expected);
+    }
 }
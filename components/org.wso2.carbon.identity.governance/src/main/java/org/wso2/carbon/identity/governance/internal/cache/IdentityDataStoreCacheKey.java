@@ -35,6 +35,16 @@ public class IdentityDataStoreCacheKey extends CacheKey {
         this.username = username;
     }
 
+    public String getDomainName() {
+
+        return domainName;
+    }
+
+    public String getUsername() {
+
+        return username;
+    }
+
     @Override
     public boolean equals(Object o) {
 
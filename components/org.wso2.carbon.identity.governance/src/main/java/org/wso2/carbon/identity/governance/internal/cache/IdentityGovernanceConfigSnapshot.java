@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal.cache;
+
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.application.common.model.Property;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the identity governance configuration of a tenant, built from the properties of the resident
+ * identity provider. Properties are looked up by name through a hash index, and every read returns new
+ * {@link Property} instances so that callers can not modify the snapshot.
+ */
+public final class IdentityGovernanceConfigSnapshot implements Serializable {
+
+    private static final long serialVersionUID = -3209471562205866131L;
+
+    private final String[] propertyNames;
+    private final String[] propertyValues;
+    private final int propertyCount;
+    private final Map<String, Integer> propertyIndex;
+
+    private IdentityGovernanceConfigSnapshot(String[] propertyNames, String[] propertyValues, int propertyCount) {
+
+        this.propertyNames = propertyNames;
+        this.propertyValues = propertyValues;
+        this.propertyCount = propertyCount;
+        this.propertyIndex = new HashMap<>(propertyNames.length * 2);
+        for (int i = 0; i < propertyNames.length; i++) {
+            // The first property wins if the resident identity provider has duplicate properties.
+            this.propertyIndex.putIfAbsent(propertyNames[i], i);
+        }
+    }
+
+    /**
+     * Build a snapshot from the properties of the resident identity provider.
+     *
+     * @param idpProperties       Properties of the resident identity provider.
+     * @param excludedPropertyName Name of a property which should not be part of the configuration.
+     * @return Configuration snapshot.
+     */
+    public static IdentityGovernanceConfigSnapshot of(IdentityProviderProperty[] idpProperties,
+                                                      String excludedPropertyName) {
+
+        if (idpProperties == null) {
+            return new IdentityGovernanceConfigSnapshot(new String[0], new String[0], 0);
+        }
+        List<String> names = new ArrayList<>(idpProperties.length);
+        List<String> values = new ArrayList<>(idpProperties.length);
+        for (IdentityProviderProperty idpProperty : idpProperties) {
+            if (idpProperty == null || (excludedPropertyName != null &&
+                    excludedPropertyName.equals(idpProperty.getName()))) {
+                continue;
+            }
+            names.add(idpProperty.getName());
+            values.add(idpProperty.getValue());
+        }
+        return new IdentityGovernanceConfigSnapshot(names.toArray(new String[0]), values.toArray(new String[0]),
+                idpProperties.length);
+    }
+
+    /**
+     * Get all the properties. As with the resident identity provider properties, the returned array has one element
+     * per resident identity provider property, and the elements of the excluded properties are left null at the end.
+     *
+     * @return New property instances.
+     */
+    public Property[] getProperties() {
+
+        Property[] properties = new Property[propertyCount];
+        for (int i = 0; i < propertyNames.length; i++) {
+            properties[i] = newProperty(i);
+        }
+        return properties;
+    }
+
+    /**
+     * Get the properties with the given names, in the order of the names. Names which are not configured are skipped.
+     *
+     * @param names Property names.
+     * @return New property instances.
+     */
+    public Property[] getProperties(String[] names) {
+
+        List<Property> properties = new ArrayList<>(names.length);
+        for (String name : names) {
+            Integer index = propertyIndex.get(name);
+            if (index != null) {
+                properties.add(newProperty(index));
+            }
+        }
+        return properties.toArray(new Property[0]);
+    }
+
+    /**
+     * Get the value of a property.
+     *
+     * @param name Property name.
+     * @return Property value or null if the property is not configured.
+     */
+    public String getPropertyValue(String name) {
+
+        Integer index = propertyIndex.get(name);
+        return index == null ? null : propertyValues[index];
+    }
+
+    private Property newProperty(int index) {
+
+        Property property = new Property();
+        property.setName(propertyNames[index]);
+        property.setValue(propertyValues[index]);
+        return property;
+    }
+}
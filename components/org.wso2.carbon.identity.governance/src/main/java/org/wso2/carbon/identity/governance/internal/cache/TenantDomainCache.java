@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal.cache;
+
+import org.wso2.carbon.identity.core.cache.BaseCache;
+
+/**
+ * Cache to maintain the tenant domain of each tenant, keyed by the tenant id.
+ */
+public class TenantDomainCache extends BaseCache<Integer, String> {
+
+    private static final String TENANT_DOMAIN_CACHE = "TenantDomainCache";
+    private static volatile TenantDomainCache instance;
+
+    private TenantDomainCache() {
+
+        super(TENANT_DOMAIN_CACHE);
+    }
+
+    public static TenantDomainCache getInstance() {
+
+        if (instance == null) {
+            synchronized (TenantDomainCache.class) {
+                if (instance == null) {
+                    instance = new TenantDomainCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
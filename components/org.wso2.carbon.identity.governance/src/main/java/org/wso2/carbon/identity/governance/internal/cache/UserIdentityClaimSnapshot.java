@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal.cache;
+
+import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
+
+import java.io.Serializable;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshot of the identity claims of a user, kept in the {@link IdentityDataStoreCache}. The claims are
+ * held in two parallel arrays sorted by the claim URI, which is much lighter than a HashMap for the handful of
+ * identity claims a user has. Every update creates a new snapshot with a new version, so that the cached snapshot
+ * can be replaced only if it was not changed in the meantime. Versions are taken from a counter of the node, which
+ * only increases, together with an id of the node, so that a version is never reused for another snapshot of the
+ * user, even after the snapshot was removed from the cache or was created by another node.
+ */
+public final class UserIdentityClaimSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 5407219386650214871L;
+    private static final String[] EMPTY = new String[0];
+    private static final long NODE_ID = new SecureRandom().nextLong();
+    private static final AtomicLong VERSION_SEQUENCE = new AtomicLong();
+
+    private final String userName;
+    private final int tenantId;
+    private final long nodeId;
+    private final long version;
+    private final String[] claimUris;
+    private final String[] claimValues;
+
+    private UserIdentityClaimSnapshot(String userName, int tenantId, String[] claimUris, String[] claimValues) {
+
+        this.userName = userName;
+        this.tenantId = tenantId;
+        this.nodeId = NODE_ID;
+        this.version = VERSION_SEQUENCE.incrementAndGet();
+        this.claimUris = claimUris;
+        this.claimValues = claimValues;
+    }
+
+    /**
+     * Create the first snapshot of the given identity claims.
+     *
+     * @param userIdentityClaim Identity claims of the user.
+     * @return Snapshot of the identity claims.
+     */
+    public static UserIdentityClaimSnapshot of(UserIdentityClaim userIdentityClaim) {
+
+        UserIdentityClaimSnapshot emptySnapshot = new UserIdentityClaimSnapshot(userIdentityClaim.getUserName(),
+                userIdentityClaim.getTenantId(), EMPTY, EMPTY);
+        return emptySnapshot.merge(userIdentityClaim.getUserIdentityDataMap());
+    }
+
+    /**
+     * Create a new snapshot with the given claims added to or replacing the claims of this snapshot.
+     *
+     * @param claims Claims to be merged. Claims with a null claim URI are ignored.
+     * @return New snapshot with a new version.
+     */
+    public UserIdentityClaimSnapshot merge(Map<String, String> claims) {
+
+        String[] newClaimUris = new String[claimUris.length + claims.size()];
+        String[] newClaimValues = new String[newClaimUris.length];
+        System.arraycopy(claimUris, 0, newClaimUris, 0, claimUris.length);
+        System.arraycopy(claimValues, 0, newClaimValues, 0, claimValues.length);
+        int size = claimUris.length;
+
+        // Replace the existing claims in place and append the new ones, then sort only the appended claims in.
+        for (Map.Entry<String, String> claim : claims.entrySet()) {
+            if (claim.getKey() == null) {
+                continue;
+            }
+            int index = Arrays.binarySearch(claimUris, claim.getKey());
+            if (index >= 0) {
+                newClaimValues[index] = claim.getValue();
+            } else {
+                newClaimUris[size] = claim.getKey();
+                newClaimValues[size] = claim.getValue();
+                size++;
+            }
+        }
+        if (size > claimUris.length) {
+            sortByClaimUri(newClaimUris, newClaimValues, size);
+        }
+        if (size < newClaimUris.length) {
+            newClaimUris = Arrays.copyOf(newClaimUris, size);
+            newClaimValues = Arrays.copyOf(newClaimValues, size);
+        }
+        return new UserIdentityClaimSnapshot(userName, tenantId, newClaimUris, newClaimValues);
+    }
+
+    /**
+     * Get the value of the given claim.
+     *
+     * @param claimUri Claim URI.
+     * @return Value of the claim or null if the claim is not available.
+     */
+    public String getClaimValue(String claimUri) {
+
+        int index = Arrays.binarySearch(claimUris, claimUri);
+        if (index < 0) {
+            return null;
+        }
+        return claimValues[index];
+    }
+
+    /**
+     * Create a UserIdentityClaim out of this snapshot. The returned object is a copy, hence it can be modified by the
+     * caller without affecting the cache.
+     *
+     * @return UserIdentityClaim with the claims of this snapshot.
+     */
+    public UserIdentityClaim toUserIdentityClaim() {
+
+        Map<String, String> claims = new HashMap<>((int) (claimUris.length / 0.75f) + 1);
+        for (int i = 0; i < claimUris.length; i++) {
+            claims.put(claimUris[i], claimValues[i]);
+        }
+        UserIdentityClaim userIdentityClaim = new UserIdentityClaim(userName, claims);
+        userIdentityClaim.setTenantId(tenantId);
+        return userIdentityClaim;
+    }
+
+    public String getUserName() {
+
+        return userName;
+    }
+
+    public int getTenantId() {
+
+        return tenantId;
+    }
+
+    public long getVersion() {
+
+        return version;
+    }
+
+    /**
+     * Check whether this snapshot has the same version as the given snapshot, that is whether it is the same
+     * snapshot or a copy of it.
+     *
+     * @param snapshot Snapshot to compare with.
+     * @return True if the snapshots have the same version.
+     */
+    public boolean isSameVersion(UserIdentityClaimSnapshot snapshot) {
+
+        return snapshot != null && nodeId == snapshot.nodeId && version == snapshot.version;
+    }
+
+    public int size() {
+
+        return claimUris.length;
+    }
+
+    private static void sortByClaimUri(String[] uris, String[] values, int size) {
+
+        // Insertion sort, as a user has only a few identity claims and most of them are already in order.
+        for (int i = 1; i < size; i++) {
+            String uri = uris[i];
+            String value = values[i];
+            int j = i - 1;
+            while (j >= 0 && uris[j].compareTo(uri) > 0) {
+                uris[j + 1] = uris[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            uris[j + 1] = uri;
+            values[j + 1] = value;
+        }
+    }
+}
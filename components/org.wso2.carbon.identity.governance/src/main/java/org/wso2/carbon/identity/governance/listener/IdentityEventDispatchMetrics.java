@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.listener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per event counters of the events dispatched by the identity management event listener. The counters are logged
+ * periodically at the debug level by the IdentityMgtMetricsReporter.
+ */
+public class IdentityEventDispatchMetrics {
+
+    private final Map<String, EventMetrics> eventMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Record an event which was not dispatched since no event handler is subscribed to it.
+     *
+     * @param eventName Event name.
+     */
+    void recordSkipped(String eventName) {
+
+        getEventMetrics(eventName).skippedCount.increment();
+    }
+
+    /**
+     * Record a dispatched event.
+     *
+     * @param eventName    Event name.
+     * @param latencyNanos Time taken to dispatch the event in nanoseconds.
+     * @param failed       Whether the event handlers failed to handle the event.
+     */
+    void recordDispatched(String eventName, long latencyNanos, boolean failed) {
+
+        EventMetrics metrics = getEventMetrics(eventName);
+        metrics.dispatchedCount.increment();
+        if (failed) {
+            metrics.failedCount.increment();
+        }
+        metrics.totalLatencyNanos.add(latencyNanos);
+        metrics.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    /**
+     * Get the metrics of the events seen by the listener.
+     *
+     * @return Unmodifiable map of event metrics keyed by the event name.
+     */
+    public Map<String, EventMetrics> getEventMetrics() {
+
+        return Collections.unmodifiableMap(eventMetrics);
+    }
+
+    private EventMetrics getEventMetrics(String eventName) {
+
+        EventMetrics metrics = eventMetrics.get(eventName);
+        if (metrics == null) {
+            metrics = eventMetrics.computeIfAbsent(eventName, name -> new EventMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Counters of a single event.
+     */
+    public static final class EventMetrics {
+
+        private final LongAdder dispatchedCount = new LongAdder();
+        private final LongAdder skippedCount = new LongAdder();
+        private final LongAdder failedCount = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        /**
+         * Get the number of times the event was dispatched to the event handlers.
+         *
+         * @return Dispatched count.
+         */
+        public long getDispatchedCount() {
+
+            return dispatchedCount.sum();
+        }
+
+        /**
+         * Get the number of times the event was skipped since no event handler is subscribed to it.
+         *
+         * @return Skipped count.
+         */
+        public long getSkippedCount() {
+
+            return skippedCount.sum();
+        }
+
+        /**
+         * Get the number of times the event handlers failed to handle the event.
+         *
+         * @return Failed count.
+         */
+        public long getFailedCount() {
+
+            return failedCount.sum();
+        }
+
+        /**
+         * Get the average time taken to dispatch the event in nanoseconds.
+         *
+         * @return Average latency in nanoseconds, or 0 if the event was never dispatched.
+         */
+        public long getAverageLatencyNanos() {
+
+            long count = dispatchedCount.sum();
+            return count == 0 ? 0 : totalLatencyNanos.sum() / count;
+        }
+
+        /**
+         * Get the maximum time taken to dispatch the event in nanoseconds.
+         *
+         * @return Maximum latency in nanoseconds.
+         */
+        public long getMaxLatencyNanos() {
+
+            return maxLatencyNanos.get();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.bean.context.MessageContext;
+import org.wso2.carbon.identity.event.IdentityEventConfigBuilder;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.bean.ModuleConfiguration;
+import org.wso2.carbon.identity.event.bean.Subscription;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Index of the event names the registered event handlers are subscribed to. It is used by the identity management
+ * event listener to skip building events which no handler would handle.
+ * <p>
+ * A handler is considered subscribed to an event if the event is listed in the subscriptions of its module
+ * configuration. Handlers which override {@link AbstractEventHandler#canHandle(MessageContext)}, or whose
+ * subscriptions cannot be resolved, are considered subscribed to all the events. The index is rebuilt lazily whenever
+ * a handler is registered or unregistered.
+ */
+public class IdentityEventSubscriptionIndex {
+
+    private static final Log log = LogFactory.getLog(IdentityEventSubscriptionIndex.class);
+    private static final String CAN_HANDLE_METHOD = "canHandle";
+
+    private final List<AbstractEventHandler> eventHandlers = new CopyOnWriteArrayList<>();
+    private volatile Map<String, Boolean> subscribedEvents = new ConcurrentHashMap<>();
+    private volatile boolean initialized = false;
+
+    /**
+     * Add a registered event handler to the index.
+     *
+     * @param eventHandler Event handler.
+     */
+    public void addEventHandler(AbstractEventHandler eventHandler) {
+
+        eventHandlers.add(eventHandler);
+        initialized = true;
+        refresh();
+    }
+
+    /**
+     * Remove an unregistered event handler from the index.
+     *
+     * @param eventHandler Event handler.
+     */
+    public void removeEventHandler(AbstractEventHandler eventHandler) {
+
+        eventHandlers.remove(eventHandler);
+        refresh();
+    }
+
+    /**
+     * Discard the resolved subscriptions so that they are resolved again against the current event handlers.
+     */
+    public void refresh() {
+
+        subscribedEvents = new ConcurrentHashMap<>();
+        if (log.isDebugEnabled()) {
+            log.debug("Event subscription index is refreshed. Registered event handlers: " + eventHandlers.size());
+        }
+    }
+
+    /**
+     * Check whether any registered event handler is subscribed to the given event. Until the first event handler is
+     * registered, all the events are considered subscribed.
+     *
+     * @param eventName Event name.
+     * @return True if the event should be dispatched.
+     */
+    public boolean hasSubscribers(String eventName) {
+
+        if (!initialized || eventName == null) {
+            return true;
+        }
+        // Resolved subscriptions are put in to the map read here, so that a refresh in the meantime discards them.
+        Map<String, Boolean> resolvedSubscriptions = subscribedEvents;
+        Boolean subscribed = resolvedSubscriptions.get(eventName);
+        if (subscribed == null) {
+            subscribed = resolveSubscribers(eventName);
+            resolvedSubscriptions.put(eventName, subscribed);
+        }
+        return subscribed;
+    }
+
+    private boolean resolveSubscribers(String eventName) {
+
+        for (AbstractEventHandler eventHandler : eventHandlers) {
+            try {
+                if (isSubscribed(eventHandler, eventName)) {
+                    return true;
+                }
+            } catch (IdentityEventException | NoSuchMethodException | RuntimeException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Unable to resolve the subscriptions of the event handler: " +
+                            eventHandler.getClass().getName() + ". Event: " + eventName + " is considered subscribed.",
+                            e);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSubscribed(AbstractEventHandler eventHandler, String eventName)
+            throws IdentityEventException, NoSuchMethodException {
+
+        if (eventHandler.getClass().getMethod(CAN_HANDLE_METHOD, MessageContext.class).getDeclaringClass() !=
+                AbstractEventHandler.class) {
+            return true;
+        }
+        ModuleConfiguration moduleConfiguration = IdentityEventConfigBuilder.getInstance()
+                .getModuleConfigurations(eventHandler.getName());
+        if (moduleConfiguration == null || moduleConfiguration.getSubscriptions() == null) {
+            return true;
+        }
+        for (Subscription subscription : moduleConfiguration.getSubscriptions()) {
+            if (eventName.equals(subscription.getSubscriptionName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
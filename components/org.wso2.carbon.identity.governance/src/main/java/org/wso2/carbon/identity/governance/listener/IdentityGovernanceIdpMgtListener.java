@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.listener;
+
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.governance.IdentityGovernanceServiceImpl;
+import org.wso2.carbon.identity.governance.internal.IdentityMgtServiceDataHolder;
+import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
+import org.wso2.carbon.idp.mgt.listener.AbstractIdentityProviderMgtListener;
+
+/**
+ * Identity provider management listener which invalidates the cached identity governance configuration of a tenant
+ * when the resident identity provider of the tenant is added or updated.
+ */
+public class IdentityGovernanceIdpMgtListener extends AbstractIdentityProviderMgtListener {
+
+    private static final int DEFAULT_ORDER_ID = 95;
+
+    @Override
+    public int getDefaultOrderId() {
+
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostAddResidentIdP(IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+
+        invalidateConfiguration(tenantDomain);
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateResidentIdP(IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+
+        invalidateConfiguration(tenantDomain);
+        return true;
+    }
+
+    private void invalidateConfiguration(String tenantDomain) {
+
+        IdentityGovernanceServiceImpl identityGovernanceService =
+                IdentityMgtServiceDataHolder.getInstance().getIdentityGovernanceService();
+        if (identityGovernanceService != null) {
+            identityGovernanceService.invalidateConfiguration(tenantDomain);
+        }
+    }
+}
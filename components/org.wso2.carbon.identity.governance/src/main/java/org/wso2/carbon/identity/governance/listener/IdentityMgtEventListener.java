@@ -36,7 +36,6 @@ import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
 import org.wso2.carbon.identity.governance.service.notification.NotificationChannels;
 import org.wso2.carbon.tenant.mgt.util.TenantMgtUtil;
 import org.wso2.carbon.user.api.Permission;
-import org.wso2.carbon.user.api.TenantManager;
 import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserStoreClientException;
 import org.wso2.carbon.user.core.UserStoreException;
@@ -46,7 +45,6 @@ import org.wso2.carbon.user.core.common.LoginIdentifier;
 import org.wso2.carbon.user.core.common.User;
 import org.wso2.carbon.user.core.model.Condition;
 import org.wso2.carbon.user.core.model.UniqueIDUserClaimSearchEntry;
-import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
 import java.util.HashMap;
@@ -62,6 +60,10 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
 
     private static final Log log = LogFactory.getLog(IdentityMgtEventListener.class);
     IdentityEventService eventMgtService = IdentityMgtServiceDataHolder.getInstance().getIdentityEventService();
+    private final IdentityEventSubscriptionIndex subscriptionIndex =
+            IdentityMgtServiceDataHolder.getInstance().getIdentityEventSubscriptionIndex();
+    private final IdentityEventDispatchMetrics dispatchMetrics =
+            IdentityMgtServiceDataHolder.getInstance().getIdentityEventDispatchMetrics();
     private static String RE_CAPTCHA_USER_DOMAIN = "user-domain-recaptcha";
 
     /**
@@ -105,6 +107,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
                     .put(RE_CAPTCHA_USER_DOMAIN, IdentityGovernanceUtil.getUserStoreDomainName(userStoreManager));
         }
         String eventName = IdentityEventConstants.Event.PRE_AUTHENTICATION;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
         handleEvent(userName, userStoreManager, eventName, properties);
@@ -134,10 +139,12 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
         }
         IdentityUtil.threadLocalProperties.get().remove(IdentityCoreConstants.USER_ACCOUNT_STATE);
         String eventName = IdentityEventConstants.Event.POST_AUTHENTICATION;
-        HashMap<String, Object> properties = new HashMap<>();
-        properties.put(IdentityEventConstants.EventProperty.OPERATION_STATUS, authenticated);
+        if (isSubscribed(eventName)) {
+            HashMap<String, Object> properties = new HashMap<>();
+            properties.put(IdentityEventConstants.EventProperty.OPERATION_STATUS, authenticated);
 
-        handleEvent(userName, userStoreManager, eventName, properties);
+            handleEvent(userName, userStoreManager, eventName, properties);
+        }
 
         // This is not required for authenticated users.
         if (authenticated) {
@@ -158,6 +165,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
         }
         IdentityUtil.threadLocalProperties.get().remove(IdentityCoreConstants.USER_ACCOUNT_STATE);
         String eventName = IdentityEventConstants.Event.PRE_SET_USER_CLAIMS;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
         properties.put(IdentityEventConstants.EventProperty.PROFILE_NAME, profileName);
@@ -176,6 +186,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("Post set claims is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_SET_USER_CLAIMS;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
         properties.put(IdentityEventConstants.EventProperty.PROFILE_NAME, profileName);
@@ -195,6 +208,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("Pre add user is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_ADD_USER;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
         properties.put(IdentityEventConstants.EventProperty.ROLE_LIST, roleList);
@@ -218,6 +234,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
         }
 
         String eventName = IdentityEventConstants.Event.POST_ADD_USER;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
         properties.put(IdentityEventConstants.EventProperty.ROLE_LIST, roleList);
@@ -295,6 +314,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update credential is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_CREDENTIAL;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, newCredential);
         properties.put(IdentityEventConstants.EventProperty.OLD_CREDENTIAL, oldCredential);
@@ -312,6 +334,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update credential is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
         handleEvent(userName, userStoreManager, eventName, properties);
@@ -329,6 +354,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update credential by admin is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_CREDENTIAL_BY_ADMIN;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, newCredential);
         handleEvent(userName, userStoreManager, eventName, properties);
@@ -346,6 +374,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update credential by admin is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL_BY_ADMIN;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
         handleEvent(userName, userStoreManager, eventName, properties);
@@ -362,6 +393,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete user is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_DELETE_USER;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         handleEvent(userName, userStoreManager, eventName, new HashMap<String, Object>());
         return true;
     }
@@ -376,6 +410,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post delete user is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_DELETE_USER;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         handleEvent(userName, userStoreManager, eventName, new HashMap<String, Object>());
         return true;
     }
@@ -392,6 +429,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
         }
         IdentityUtil.threadLocalProperties.get().remove(IdentityCoreConstants.USER_ACCOUNT_STATE);
         String eventName = IdentityEventConstants.Event.PRE_SET_USER_CLAIM;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimURI);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, claimValue);
@@ -410,6 +450,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post set user claim value is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_SET_USER_CLAIM;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         handleEvent(userName, userStoreManager, eventName, new HashMap<String, Object>());
         return true;
     }
@@ -425,6 +468,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete user claim values is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_DELETE_USER_CLAIMS;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
         properties.put(IdentityEventConstants.EventProperty.PROFILE_NAME, profileName);
@@ -442,6 +488,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post delete user claim values is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_DELETE_USER_CLAIMS;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         handleEvent(userName, userStoreManager, eventName, new HashMap<String, Object>());
         return true;
     }
@@ -457,6 +506,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete user claim value is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_DELETE_USER_CLAIM;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimURI);
         properties.put(IdentityEventConstants.EventProperty.PROFILE_NAME, profileName);
@@ -474,6 +526,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post delete user claim value is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_DELETE_USER_CLAIM;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         handleEvent(userName, userStoreManager, eventName, new HashMap<String, Object>());
         return true;
     }
@@ -488,6 +543,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre add role is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_ADD_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_LIST, userList);
         properties.put(IdentityEventConstants.EventProperty.PERMISSIONS, permissions);
@@ -505,6 +563,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post add role is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_ADD_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_LIST, userList);
         properties.put(IdentityEventConstants.EventProperty.PERMISSIONS, permissions);
@@ -522,6 +583,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete role is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_DELETE_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         handleEvent(null, userStoreManager, eventName, roleName, new HashMap<String, Object>());
         return true;
     }
@@ -536,6 +600,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post delete role is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_DELETE_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         handleEvent(null, userStoreManager, eventName, roleName, new HashMap<String, Object>());
         return true;
     }
@@ -550,6 +617,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update role name is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.NEW_ROLE_NAME, newRoleName);
         handleEvent(null, userStoreManager, eventName, roleName, properties);
@@ -567,6 +637,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update role name is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.NEW_ROLE_NAME, newRoleName);
         handleEvent(null, userStoreManager, eventName, roleName, properties);
@@ -584,6 +657,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update user list of role is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_USER_LIST_OF_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.DELETED_USERS, deletedUsers);
         properties.put(IdentityEventConstants.EventProperty.NEW_USERS, newUsers);
@@ -602,6 +678,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update user list of role is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_USER_LIST_OF_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.DELETED_USERS, deletedUsers);
         properties.put(IdentityEventConstants.EventProperty.NEW_USERS, newUsers);
@@ -621,6 +700,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update user list of internal role is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_USER_LIST_OF_HYBRID_ROLE;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.DELETED_USERS, deletedUsers);
         properties.put(IdentityEventConstants.EventProperty.NEW_USERS, newUsers);
@@ -640,6 +722,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update role list of user is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_ROLE_LIST_OF_USER;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.DELETED_ROLES, deletedRoles);
         properties.put(IdentityEventConstants.EventProperty.NEW_ROLES, newRoles);
@@ -660,6 +745,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update role list of user is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_ROLE_LIST_OF_USER;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.DELETED_ROLES, deletedRoles);
         properties.put(IdentityEventConstants.EventProperty.NEW_ROLES, newRoles);
@@ -679,6 +767,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre add  internal role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_ADD_INTERNAL_ROLE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.USER_IDS, userIDs);
@@ -699,6 +790,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post add internal role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_ADD_INTERNAL_ROLE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.USER_IDS, userIDs);
@@ -719,6 +813,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre get user claim value with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_GET_USER_CLAIM_VALUE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claim);
@@ -739,6 +836,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre get user claim values with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_GET_USER_CLAIM_VALUES_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claims);
@@ -760,6 +860,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user claim value with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_CLAIM_VALUE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claim);
@@ -781,6 +884,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user claim values with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_CLAIM_VALUES_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claims);
@@ -802,6 +908,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre get user user list with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_GET_USER_LIST_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimUri);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, claimValue);
@@ -822,6 +931,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre get user user list condition with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_GET_USER_LIST_CONDITION_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CONDITION, condition);
         properties.put(IdentityEventConstants.EventProperty.USER_STORE_DOMAIN, domain);
@@ -846,6 +958,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre get user user list pagination with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_GET_USER_LIST_PAGINATION_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimUri);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, claimValue);
@@ -868,6 +983,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user user list with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_LIST_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimUri);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, claimValue);
@@ -888,6 +1006,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user user list pagination with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_LIST_PAGINATION_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimUri);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, claimValue);
@@ -911,6 +1032,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user user list condition with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_LIST_CONDITION_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CONDITION, condition);
         properties.put(IdentityEventConstants.EventProperty.USER_STORE_DOMAIN, domain);
@@ -935,6 +1059,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre get user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_GET_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, requestedClaims);
@@ -955,6 +1082,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, requestedClaims);
@@ -976,6 +1106,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get paginated user list with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_PAGINATED_USER_LIST_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimUri);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, claimValue);
@@ -996,6 +1129,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get list users with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_LIST_USERS_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.FILTER, filter);
         properties.put(IdentityEventConstants.EventProperty.OFFSET, offset);
@@ -1016,6 +1152,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get role list of user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_ROLE_LIST_OF_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_NAME, userName);
         properties.put(IdentityEventConstants.EventProperty.FILTER, filter);
@@ -1036,6 +1175,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user list of role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_ROLE_LIST_OF_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.USER_LIST, userList);
@@ -1056,6 +1198,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get users claim values with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USERS_CLAIM_VALUES_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_IDS, userIDs);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claims);
@@ -1077,6 +1222,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre authenticate with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_AUTHENTICATE_CLAIM_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, preferredUserNameValue);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, preferredUserNameValue);
@@ -1098,6 +1246,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post authenticate with id by claim is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_AUTHENTICATE_CLAIM_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, preferredUserNameValue);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, preferredUserNameValue);
@@ -1118,6 +1269,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre authenticate with id by login identifier is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_AUTHENTICATE_LOGIN_IDENTIFIER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
         properties.put(IdentityEventConstants.EventProperty.LOGIN_IDENTIFIERS, loginIdentifiers);
@@ -1138,6 +1292,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post authenticate with id by login identifier is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_AUTHENTICATE_LOGIN_IDENTIFIER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.AUTHENTICATION_RESULT, authenticationResult);
         properties.put(IdentityEventConstants.EventProperty.LOGIN_IDENTIFIERS, loginIdentifiers);
@@ -1157,6 +1314,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre authenticate with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_AUTHENTICATE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
@@ -1176,6 +1336,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post authenticate with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_AUTHENTICATE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.AUTHENTICATION_RESULT, authenticationResult);
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
@@ -1195,6 +1358,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre add user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_ADD_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_NAME, userName);
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
@@ -1217,6 +1383,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post add user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_ADD_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER, user);
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
@@ -1239,6 +1408,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update credential with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_CREDENTIAL_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, newCredential);
@@ -1259,6 +1431,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update credential with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
@@ -1278,6 +1453,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update credential by admin with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_CREDENTIAL_BY_ADMIN_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, newCredential);
@@ -1297,6 +1475,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update credential by admin with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL_BY_ADMIN_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CREDENTIAL, credential);
@@ -1315,6 +1496,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_DELETE_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
 
@@ -1332,6 +1516,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post delete user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_DELETE_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
 
@@ -1350,6 +1537,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre set user claim value with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_SET_USER_CLAIM_VALUE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimURI);
@@ -1371,6 +1561,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post set user claim value with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_SET_USER_CLAIM_VALUE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
 
@@ -1389,6 +1582,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre set user claim values with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_SET_USER_CLAIM_VALUES_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
@@ -1409,6 +1605,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post set user claim values with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_SET_USER_CLAIM_VALUES_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
@@ -1429,6 +1628,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete user claim values with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_DELETE_USER_CLAIM_VALUES_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claims);
@@ -1449,6 +1651,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete user claim values with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_DELETE_USER_CLAIM_VALUES_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
 
@@ -1467,6 +1672,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre delete user claim value with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_DELETE_USER_CLAIM_VALUE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claimURI);
@@ -1487,6 +1695,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post delete user claim value with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_DELETE_USER_CLAIM_VALUE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
 
@@ -1505,6 +1716,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre add role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_ADD_ROLE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.USER_IDS, userList);
@@ -1525,6 +1739,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post add role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_ADD_ROLE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.USER_IDS, userList);
@@ -1545,6 +1762,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update user list of role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_USER_LIST_OF_ROLE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.DELETED_USERS, deletedUsers);
@@ -1565,6 +1785,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update user list of role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_USER_LIST_OF_ROLE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.DELETED_USERS, deletedUsers);
@@ -1585,6 +1808,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update user list of role with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_USER_LIST_OF_HYBRID_ROLE_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.ROLE_NAME, roleName);
         properties.put(IdentityEventConstants.EventProperty.DELETED_USERS, deletedUsers);
@@ -1605,6 +1831,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("pre update role list of user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.PRE_UPDATE_ROLE_LIST_OF_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.DELETED_ROLES, deletedRoles);
@@ -1625,6 +1854,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post update role list of user with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_UPDATE_ROLE_LIST_OF_USER_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_ID, userID);
         properties.put(IdentityEventConstants.EventProperty.DELETED_ROLES, deletedRoles);
@@ -1645,6 +1877,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get role list of users with id is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_ROLE_LIST_OF_USERS_WITH_ID;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_IDS, userIDs);
         properties.put(IdentityEventConstants.EventProperty.ROLE_LIST, rolesOfUsersMap);
@@ -1679,9 +1914,8 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             int tenantId = userStoreManager.getTenantId();
             String userTenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
             try {
-                RealmService realmService = IdentityMgtServiceDataHolder.getInstance().getRealmService();
-                TenantManager tenantManager = realmService.getTenantManager();
-                userTenantDomain = tenantManager.getDomain(tenantId);
+                userTenantDomain = IdentityMgtServiceDataHolder.getInstance().getTenantDomainResolver()
+                        .getTenantDomain(tenantId);
             } catch (org.wso2.carbon.user.api.UserStoreException e) {
                 log.error("Unable to get the get the domain from realmService for tenant: " + tenantId, e);
             }
@@ -1692,7 +1926,7 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             properties.put(IdentityEventConstants.EventProperty.TENANT_DOMAIN, userTenantDomain);
 
             if (!TenantMgtUtil.isTenantAdminCreationOperation()) {
-                eventMgtService.handleEvent(identityMgtEvent);
+                dispatchEvent(identityMgtEvent);
             }
         } catch (IdentityEventException e) {
             String errorCode = e.getErrorCode();
@@ -1715,6 +1949,37 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
         }
     }
 
+    /**
+     * Check whether any event handler is subscribed to the given event. This is checked before building the event
+     * properties, so that an event no handler is interested in costs nothing more than the lookup.
+     *
+     * @param eventName Event name.
+     * @return True if the event should be dispatched.
+     */
+    private boolean isSubscribed(String eventName) {
+
+        if (subscriptionIndex.hasSubscribers(eventName)) {
+            return true;
+        }
+        dispatchMetrics.recordSkipped(eventName);
+        if (log.isDebugEnabled()) {
+            log.debug("Skipping the event: " + eventName + " since no event handler is subscribed to it.");
+        }
+        return false;
+    }
+
+    private void dispatchEvent(Event identityMgtEvent) throws IdentityEventException {
+
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        try {
+            eventMgtService.handleEvent(identityMgtEvent);
+            failed = false;
+        } finally {
+            dispatchMetrics.recordDispatched(identityMgtEvent.getEventName(), System.nanoTime() - startTime, failed);
+        }
+    }
+
     public boolean doPostGetUserClaimValue(String userName, String claim, List<String> claimValue, String profileName, UserStoreManager storeManager) throws UserStoreException {
 
         if (!isEnable()) {
@@ -1724,6 +1989,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user claim value is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_CLAIM;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.CLAIM_URI, claim);
         properties.put(IdentityEventConstants.EventProperty.CLAIM_VALUE, claimValue);
@@ -1742,6 +2010,9 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
             log.debug("post get user claim values is called in IdentityMgtEventListener");
         }
         String eventName = IdentityEventConstants.Event.POST_GET_USER_CLAIMS;
+        if (!isSubscribed(eventName)) {
+            return true;
+        }
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_CLAIMS, claimMap);
         properties.put(IdentityEventConstants.EventProperty.PROFILE_NAME, profileName);
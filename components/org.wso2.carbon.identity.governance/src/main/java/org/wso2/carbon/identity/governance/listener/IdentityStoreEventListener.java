@@ -17,7 +17,6 @@
 package org.wso2.carbon.identity.governance.listener;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.mutable.MutableBoolean;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
@@ -36,18 +35,20 @@ import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.model.Condition;
 import org.wso2.carbon.user.core.model.ExpressionCondition;
-import org.wso2.carbon.user.core.model.ExpressionOperation;
 import org.wso2.carbon.user.core.model.OperationalCondition;
+import org.wso2.carbon.user.core.model.OperationalOperation;
 import org.wso2.carbon.user.core.model.UserClaimSearchEntry;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class IdentityStoreEventListener extends AbstractIdentityUserOperationEventListener {
 
@@ -390,115 +391,134 @@ public class IdentityStoreEventListener extends AbstractIdentityUserOperationEve
             return true;
         }
 
-        MutableBoolean isFirstClaimFilter = new MutableBoolean(true);
-        filterUsers(condition, userStoreManager, domain, filteredUserNameList, isFirstClaimFilter);
+        filterUsers(condition, userStoreManager, filteredUserNameList);
         return true;
     }
 
     /**
-     * Recursively search within the condition for expression conditions that contain identity claims and filter users
-     * matched with each such claims. After filtering users for each claim, the common set of users will be retained in
-     * the final user list to be returned.
+     * Filter users that match the identity claims in the condition. The expression conditions with identity claims are
+     * removed from the condition and evaluated by the identity data store in a single query where possible. Otherwise
+     * users are filtered for each identity claim and the results are combined with hash sets. The identity data store
+     * lists only the users of the domain of the given user store manager.
      *
      * @param condition            Condition to be considered for filtering.
      * @param userManager          UserStoreManager.
-     * @param domain               User store domain.
      * @param filteredUserNameList Username list to be returned from the listener.
-     * @param isFirstClaimFilter   Whether this is the first claim being filtered. This is used to decide whether to
-     *                             add or retain username list to the final username list.
      * @throws UserStoreException
      */
-    private void filterUsers(Condition condition, UserStoreManager userManager, String domain,
-                             List<String> filteredUserNameList, MutableBoolean isFirstClaimFilter)
+    private void filterUsers(Condition condition, UserStoreManager userManager, List<String> filteredUserNameList)
             throws UserStoreException {
 
-        if (condition instanceof ExpressionCondition) {
-            ExpressionCondition expressionCondition = (ExpressionCondition) condition;
-            String claimUri = expressionCondition.getAttributeName();
-            if (claimUri.contains(UserCoreConstants.ClaimTypeURIs.IDENTITY_CLAIM_URI)) {
-                String claimValue = expressionCondition.getAttributeValue();
-
-                try {
-                    List<String> usernames = identityDataStore.list(claimUri, getClaimValueForOperation
-                            (expressionCondition.getOperation(), claimValue), userManager);
-
-                    updateUserList(usernames, filteredUserNameList, domain, isFirstClaimFilter);
+        Condition identityClaimCondition = extractIdentityClaimCondition(condition);
+        if (identityClaimCondition == null) {
+            return;
+        }
 
-                    if (log.isDebugEnabled()) {
-                        log.debug("Retrieved " + usernames.size() + " users for claim: " + claimUri);
-                    }
-                } catch (IdentityException e) {
-                    throw new UserStoreException("Error while listing the users for given claim: " + claimUri, e);
+        try {
+            int initialSize = filteredUserNameList.size();
+            if (identityDataStore.list(identityClaimCondition, 0, 0, userManager, filteredUserNameList::add)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Retrieved " + (filteredUserNameList.size() - initialSize) + " users for the " +
+                            "identity claim filters in a single query.");
                 }
-
-                // Remove expression conditions with identity claims from the condition.
-                ((ExpressionCondition) condition).setAttributeName(null);
-                ((ExpressionCondition) condition).setAttributeValue(null);
-                ((ExpressionCondition) condition).setOperation(null);
+                return;
             }
-        } else if (condition instanceof OperationalCondition) {
-            Condition leftCondition = ((OperationalCondition) condition).getLeftCondition();
-            filterUsers(leftCondition, userManager, domain, filteredUserNameList, isFirstClaimFilter);
-            Condition rightCondition = ((OperationalCondition) condition).getRightCondition();
-            filterUsers(rightCondition, userManager, domain, filteredUserNameList, isFirstClaimFilter);
+            filteredUserNameList.addAll(filterUsers(identityClaimCondition, userManager));
+        } catch (IdentityException e) {
+            throw new UserStoreException("Error while listing the users for the identity claim filters.", e);
         }
     }
 
     /**
-     * Update the username list to be returned, with each identity claim filtering result.
+     * Filter users for each identity claim in the given condition, and combine the results with hash set intersections
+     * for AND operations and unions for OR operations.
      *
-     * @param usernames            Usernames returned for an identity claim filter.
-     * @param filteredUserNameList Username list to be returned from the listener.
-     * @param userStoreDomain      User store domain.
-     * @param isFirstClaimFilter   Whether this is the first claim being filtered. This is used to decide whether to
-     *                             add or retain username list to the final username list.
+     * @param identityClaimCondition Condition with only identity claims.
+     * @param userManager            UserStoreManager.
+     * @return Usernames matching the condition.
+     * @throws IdentityException If an error occurred while listing the users.
      */
-    private void updateUserList(List<String> usernames, List<String> filteredUserNameList, String userStoreDomain,
-                                MutableBoolean isFirstClaimFilter) {
-
-         /* If this is the primary domain, all the users will be retrieved since the primary domain is
-         not appended to the user name in the IDN table. So we have to filter users belongs to primary
-         in Java level. */
-        if (StringUtils.equalsIgnoreCase(userStoreDomain, UserCoreConstants.PRIMARY_DEFAULT_DOMAIN_NAME)) {
-            List<String> usersInPrimaryDomain = new ArrayList<>();
-            for (String username : usernames) {
-                if (!StringUtils.contains(username, UserCoreConstants.DOMAIN_SEPARATOR) ||
-                        StringUtils.startsWith(username, UserCoreConstants.PRIMARY_DEFAULT_DOMAIN_NAME +
-                                UserCoreConstants.DOMAIN_SEPARATOR)) {
-                    usersInPrimaryDomain.add(username);
-                }
+    private Set<String> filterUsers(Condition identityClaimCondition, UserStoreManager userManager)
+            throws IdentityException {
+
+        if (identityClaimCondition instanceof OperationalCondition) {
+            OperationalCondition operationalCondition = (OperationalCondition) identityClaimCondition;
+            Set<String> usernames = filterUsers(operationalCondition.getLeftCondition(), userManager);
+            Set<String> rightUsernames = filterUsers(operationalCondition.getRightCondition(), userManager);
+            if (OperationalOperation.OR.toString().equals(operationalCondition.getOperation())) {
+                usernames.addAll(rightUsernames);
+            } else {
+                usernames.retainAll(rightUsernames);
             }
-            usernames = usersInPrimaryDomain;
+            return usernames;
         }
-        usernames = Arrays.asList(usernames.toArray(new String[0]));
 
-        /* If this is the first claim that was filtered, all users are added to the final user list.
-         Otherwise, final user list is updated with common users for all claims filtered so far. */
-        if (isFirstClaimFilter.booleanValue()) {
-            filteredUserNameList.addAll(usernames);
-            isFirstClaimFilter.setValue(false);
-        } else {
-            filteredUserNameList.retainAll(usernames);
+        ExpressionCondition expressionCondition = (ExpressionCondition) identityClaimCondition;
+        Set<String> usernames = new LinkedHashSet<>();
+        identityDataStore.list(expressionCondition.getAttributeName(), expressionCondition.getOperation(),
+                expressionCondition.getAttributeValue(), 0, 0, userManager, usernames::add);
+        if (log.isDebugEnabled()) {
+            log.debug("Retrieved " + usernames.size() + " users for claim: " + expressionCondition.getAttributeName());
         }
+        return usernames;
     }
 
     /**
-     * Add wildcards to the claim value to match the specified operation for filtering.
+     * Recursively search within the condition for expression conditions that contain identity claims, and build a
+     * condition with only those. The expression conditions with identity claims are removed from the given condition.
+     * An OR operation is kept only if both of its operands consist of identity claims, since the users matching the
+     * other claims are filtered separately and intersected with the returned users.
      *
-     * @param operation  Filtering operation specified.
-     * @param claimValue Attribute value.
-     * @return attribute value with wildcards.
+     * @param condition Condition to be considered for filtering.
+     * @return Condition with only identity claims or null if there are no identity claims in the condition.
      */
-    private String getClaimValueForOperation(String operation, String claimValue) {
+    private Condition extractIdentityClaimCondition(Condition condition) {
 
-        if (ExpressionOperation.EW.toString().equals(operation)) {
-            claimValue = "%" + claimValue;
-        } else if (ExpressionOperation.CO.toString().equals(operation)) {
-            claimValue = "%" + claimValue + "%";
-        } else if (ExpressionOperation.SW.toString().equals(operation)) {
-            claimValue = claimValue + "%";
+        if (condition instanceof ExpressionCondition) {
+            ExpressionCondition expressionCondition = (ExpressionCondition) condition;
+            if (!isIdentityClaimCondition(expressionCondition)) {
+                return null;
+            }
+            ExpressionCondition identityClaimCondition = new ExpressionCondition(expressionCondition.getOperation(),
+                    expressionCondition.getAttributeName(), expressionCondition.getAttributeValue());
+
+            // Remove expression conditions with identity claims from the condition.
+            expressionCondition.setAttributeName(null);
+            expressionCondition.setAttributeValue(null);
+            expressionCondition.setOperation(null);
+            return identityClaimCondition;
+        } else if (condition instanceof OperationalCondition) {
+            OperationalCondition operationalCondition = (OperationalCondition) condition;
+            boolean isIdentityClaimOperands = isIdentityClaimCondition(operationalCondition.getLeftCondition()) &&
+                    isIdentityClaimCondition(operationalCondition.getRightCondition());
+            Condition leftCondition = extractIdentityClaimCondition(operationalCondition.getLeftCondition());
+            Condition rightCondition = extractIdentityClaimCondition(operationalCondition.getRightCondition());
+            if (leftCondition == null) {
+                return rightCondition;
+            }
+            if (rightCondition == null) {
+                return leftCondition;
+            }
+            String operation = OperationalOperation.AND.toString();
+            if (isIdentityClaimOperands &&
+                    OperationalOperation.OR.toString().equals(operationalCondition.getOperation())) {
+                operation = OperationalOperation.OR.toString();
+            }
+            return new OperationalCondition(operation, leftCondition, rightCondition);
         }
-        return claimValue;
+        return null;
+    }
+
+    private boolean isIdentityClaimCondition(Condition condition) {
+
+        if (condition instanceof ExpressionCondition) {
+            String claimUri = ((ExpressionCondition) condition).getAttributeName();
+            return claimUri != null && claimUri.contains(UserCoreConstants.ClaimTypeURIs.IDENTITY_CLAIM_URI);
+        } else if (condition instanceof OperationalCondition) {
+            return isIdentityClaimCondition(((OperationalCondition) condition).getLeftCondition()) &&
+                    isIdentityClaimCondition(((OperationalCondition) condition).getRightCondition());
+        }
+        return false;
     }
 
     public boolean doPreGetPaginatedUserList(Condition condition, List<String> identityClaimFilteredUserNames,
@@ -689,6 +709,8 @@ public class IdentityStoreEventListener extends AbstractIdentityUserOperationEve
             return true;
         }
 
+        // Group the users by the user store domain so that identity claims can be loaded per user store at once.
+        Map<String, List<UserClaimSearchEntry>> userClaimSearchEntriesOfDomains = new LinkedHashMap<>();
         for (UserClaimSearchEntry userClaimSearchEntry : userClaimSearchEntries) {
 
             String username = userClaimSearchEntry.getUserName();
@@ -709,20 +731,35 @@ public class IdentityStoreEventListener extends AbstractIdentityUserOperationEve
             if (userClaimSearchEntry.getClaims() == null) {
                 userClaimSearchEntry.setClaims(new HashMap<String, String>());
             }
+            userClaimSearchEntriesOfDomains.computeIfAbsent(UserCoreUtil.extractDomainFromName(username),
+                    k -> new ArrayList<>()).add(userClaimSearchEntry);
+        }
 
-            // There is/are identity claim/s load the dto.
-            UserIdentityClaim identityDTO = identityDataStore.load(userClaimSearchEntry.getUserName(), userStoreManager
-                    .getSecondaryUserStoreManager(UserCoreUtil.extractDomainFromName(username)));
+        for (Map.Entry<String, List<UserClaimSearchEntry>> domainEntry : userClaimSearchEntriesOfDomains.entrySet()) {
 
-            // If no user identity data found, just continue.
-            if (identityDTO == null) {
-                continue;
+            List<UserClaimSearchEntry> domainUserClaimSearchEntries = domainEntry.getValue();
+            List<String> domainUsernames = new ArrayList<>(domainUserClaimSearchEntries.size());
+            for (UserClaimSearchEntry userClaimSearchEntry : domainUserClaimSearchEntries) {
+                domainUsernames.add(userClaimSearchEntry.getUserName());
             }
 
-            // Data found, add the values for security questions and identity claims.
-            for (String claim : claims) {
-                if (identityDTO.getUserIdentityDataMap().containsKey(claim)) {
-                    userClaimSearchEntry.getClaims().put(claim, identityDTO.getUserIdentityDataMap().get(claim));
+            // There is/are identity claim/s load the dtos.
+            Map<String, UserIdentityClaim> identityDTOs = identityDataStore.loadUserIdentityClaims(domainUsernames,
+                    userStoreManager.getSecondaryUserStoreManager(domainEntry.getKey()));
+
+            for (UserClaimSearchEntry userClaimSearchEntry : domainUserClaimSearchEntries) {
+                UserIdentityClaim identityDTO = identityDTOs.get(userClaimSearchEntry.getUserName());
+
+                // If no user identity data found, just continue.
+                if (identityDTO == null) {
+                    continue;
+                }
+
+                // Data found, add the values for security questions and identity claims.
+                for (String claim : claims) {
+                    if (identityDTO.getUserIdentityDataMap().containsKey(claim)) {
+                        userClaimSearchEntry.getClaims().put(claim, identityDTO.getUserIdentityDataMap().get(claim));
+                    }
                 }
             }
         }
@@ -736,7 +773,8 @@ public class IdentityStoreEventListener extends AbstractIdentityUserOperationEve
 
         UserRealm userRealm;
         try {
-            int tenantId = realmService.getTenantManager().getTenantId(tenantDomain);
+            int tenantId = IdentityMgtServiceDataHolder.getInstance().getTenantDomainResolver()
+                    .getTenantId(tenantDomain);
             userRealm = (UserRealm) realmService.getTenantUserRealm(tenantId);
         } catch (org.wso2.carbon.user.api.UserStoreException e) {
             throw new UserStoreException("Error occurred while retrieving user realm.", e);
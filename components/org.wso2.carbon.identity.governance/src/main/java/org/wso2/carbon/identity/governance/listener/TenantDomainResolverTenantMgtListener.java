@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.listener;
+
+import org.wso2.carbon.identity.core.AbstractIdentityTenantMgtListener;
+import org.wso2.carbon.identity.governance.internal.IdentityMgtServiceDataHolder;
+import org.wso2.carbon.stratos.common.beans.TenantInfoBean;
+
+/**
+ * Tenant management listener which invalidates the cached tenant domain of a tenant when the tenant is updated,
+ * renamed or deleted.
+ */
+public class TenantDomainResolverTenantMgtListener extends AbstractIdentityTenantMgtListener {
+
+    private static final int EXEC_ORDER = 42;
+
+    @Override
+    public int getListenerOrder() {
+
+        return EXEC_ORDER;
+    }
+
+    @Override
+    public void onTenantUpdate(TenantInfoBean tenantInfoBean) {
+
+        invalidate(tenantInfoBean.getTenantId());
+    }
+
+    @Override
+    public void onTenantRename(int tenantId, String oldDomainName, String newDomainName) {
+
+        invalidate(tenantId);
+        IdentityMgtServiceDataHolder.getInstance().getTenantDomainResolver().invalidate(oldDomainName);
+    }
+
+    @Override
+    public void onPreDelete(int tenantId) {
+
+        invalidate(tenantId);
+    }
+
+    @Override
+    public void onTenantDelete(int tenantId) {
+
+        invalidate(tenantId);
+    }
+
+    private void invalidate(int tenantId) {
+
+        IdentityMgtServiceDataHolder.getInstance().getTenantDomainResolver().invalidate(tenantId);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.governance.internal.cache.IdentityDataStoreCacheKey;
+import org.wso2.carbon.user.api.RealmConfiguration;
+import org.wso2.carbon.user.api.UserStoreManager;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Builds the identity data store cache keys of users. The rules used to normalize the usernames of a user store are
+ * resolved once per realm configuration of the user store. A user store manager is rebuilt with a new realm
+ * configuration when the user store configuration changes, hence the rules are resolved again after a change and the
+ * stale rules are released along with the old realm configuration.
+ */
+final class IdentityDataStoreCacheKeyResolver {
+
+    private static final Log log = LogFactory.getLog(IdentityDataStoreCacheKeyResolver.class);
+
+    private final Map<RealmConfiguration, KeyRule> keyRules = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Get the cache key of the given user.
+     *
+     * @param userName         Username of the user, with or without the user store domain.
+     * @param userStoreManager User store manager of the user.
+     * @return Cache key of the user.
+     */
+    IdentityDataStoreCacheKey getCacheKey(String userName, UserStoreManager userStoreManager) {
+
+        org.wso2.carbon.user.core.UserStoreManager store = (org.wso2.carbon.user.core.UserStoreManager)
+                userStoreManager;
+        RealmConfiguration realmConfiguration = store.getRealmConfiguration();
+        KeyRule keyRule = keyRules.get(realmConfiguration);
+        if (keyRule == null) {
+            keyRule = resolveKeyRule(store, realmConfiguration);
+            keyRules.put(realmConfiguration, keyRule);
+        }
+
+        userName = UserCoreUtil.removeDomainFromName(userName);
+        if (keyRule.isLowerCaseUsername()) {
+            userName = userName.toLowerCase(Locale.ENGLISH);
+        }
+        return new IdentityDataStoreCacheKey(keyRule.getDomainName(), userName);
+    }
+
+    private KeyRule resolveKeyRule(org.wso2.carbon.user.core.UserStoreManager store,
+                                   RealmConfiguration realmConfiguration) {
+
+        String domainName = realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig
+                .PROPERTY_DOMAIN_NAME);
+        boolean isLowerCaseUsername = false;
+        if (!IdentityUtil.isUserStoreCaseSensitive(store)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Case insensitive user store found: " + domainName + ". Usernames are lower cased in " +
+                        "the identity data store cache keys.");
+            }
+            isLowerCaseUsername = true;
+        } else if (!IdentityUtil.isUseCaseSensitiveUsernameForCacheKeys(store)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Case insensitive username for cache key is used in the user store: " + domainName +
+                        ". Usernames are lower cased in the identity data store cache keys.");
+            }
+            isLowerCaseUsername = true;
+        }
+        return new KeyRule(domainName, isLowerCaseUsername);
+    }
+
+    /**
+     * Username normalization rules of a user store.
+     */
+    private static final class KeyRule {
+
+        private final String domainName;
+        private final boolean isLowerCaseUsername;
+
+        private KeyRule(String domainName, boolean isLowerCaseUsername) {
+
+            this.domainName = domainName;
+            this.isLowerCaseUsername = isLowerCaseUsername;
+        }
+
+        private String getDomainName() {
+
+            return domainName;
+        }
+
+        private boolean isLowerCaseUsername() {
+
+            return isLowerCaseUsername;
+        }
+    }
+}
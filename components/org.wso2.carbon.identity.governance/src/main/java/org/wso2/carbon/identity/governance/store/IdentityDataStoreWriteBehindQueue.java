@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queue which holds identity data writes of users for a short time before persisting them, so that repeated writes
+ * for the same user are coalesced in to a single write. A pending write is kept in the queue until it is persisted,
+ * hence it can be used to serve the latest identity data of the user in the meantime. The write and flush lag
+ * metrics of the queue are logged periodically at the debug level by the IdentityMgtMetricsReporter.
+ */
+public class IdentityDataStoreWriteBehindQueue {
+
+    private static final Log log = LogFactory.getLog(IdentityDataStoreWriteBehindQueue.class);
+    private static final String FLUSH_THREAD_NAME = "IdentityDataStoreWriteBehindFlusher";
+    private static final int MAX_WRITES_PER_FLUSH_BATCH = 500;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+    private static final int MAX_FLUSH_ATTEMPTS = 5;
+
+    private final Map<PendingWriteKey, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final PendingWritesPersister persister;
+    private final int maxPendingUsers;
+    private final ScheduledExecutorService flushExecutor;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushTriggered = new AtomicBoolean(false);
+    private volatile boolean shutdown = false;
+
+    private final AtomicLong coalescedWriteCount = new AtomicLong();
+    private final AtomicLong persistedWriteCount = new AtomicLong();
+    private final AtomicLong failedWriteCount = new AtomicLong();
+    private final AtomicLong droppedWriteCount = new AtomicLong();
+    private final AtomicLong lastFlushLag = new AtomicLong();
+    private final AtomicLong maxFlushLag = new AtomicLong();
+
+    /**
+     * Persists a batch of pending writes.
+     */
+    @FunctionalInterface
+    interface PendingWritesPersister {
+
+        /**
+         * Persist the given writes.
+         *
+         * @param writes Pending writes to be persisted.
+         * @return Writes which could not be persisted.
+         */
+        List<PendingWrite> persist(List<PendingWrite> writes);
+    }
+
+    IdentityDataStoreWriteBehindQueue(PendingWritesPersister persister, long flushIntervalMillis,
+                                      int maxPendingUsers) {
+
+        this.persister = persister;
+        this.maxPendingUsers = maxPendingUsers;
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, FLUSH_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushExecutor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add the given identity data of the user to the queue. If there is a pending write for the same user, the given
+     * data is merged in to it.
+     *
+     * @param tenantId   Tenant id of the user.
+     * @param userName   Domain qualified username used to persist the data.
+     * @param lookupName Username used to identify the user in the queue.
+     * @param data       Identity data of the user.
+     * @return False if the queue is shut down and the data should be persisted by the caller.
+     */
+    boolean enqueue(int tenantId, String userName, String lookupName, Map<String, String> data) {
+
+        if (shutdown) {
+            return false;
+        }
+        PendingWriteKey key = new PendingWriteKey(tenantId, lookupName);
+        pendingWrites.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return new PendingWrite(tenantId, userName, lookupName, new HashMap<>(data),
+                        System.currentTimeMillis(), 0);
+            }
+            coalescedWriteCount.incrementAndGet();
+            Map<String, String> mergedData = new HashMap<>(existing.getData());
+            mergedData.putAll(data);
+            return new PendingWrite(tenantId, userName, lookupName, mergedData, existing.getEnqueuedTime(),
+                    existing.getFailedAttempts());
+        });
+
+        if (pendingWrites.size() >= maxPendingUsers && flushTriggered.compareAndSet(false, true)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Pending identity data writes reached the limit: " + maxPendingUsers +
+                        ". Triggering an early flush.");
+            }
+            try {
+                flushExecutor.execute(this::flushSafely);
+            } catch (RuntimeException e) {
+                flushTriggered.set(false);
+                log.error("Error while triggering a flush of pending identity data writes.", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the identity data of the user which is not persisted yet.
+     *
+     * @param tenantId   Tenant id of the user.
+     * @param lookupName Username used to identify the user in the queue.
+     * @return Pending identity data of the user or null if there is no pending write.
+     */
+    Map<String, String> getPendingData(int tenantId, String lookupName) {
+
+        PendingWrite pendingWrite = pendingWrites.get(new PendingWriteKey(tenantId, lookupName));
+        if (pendingWrite == null) {
+            return null;
+        }
+        return pendingWrite.getData();
+    }
+
+    /**
+     * Discard the pending write of the user. This is used when the identity data of the user is removed.
+     *
+     * @param tenantId   Tenant id of the user.
+     * @param lookupName Username used to identify the user in the queue.
+     */
+    void discard(int tenantId, String lookupName) {
+
+        flushLock.lock();
+        try {
+            pendingWrites.remove(new PendingWriteKey(tenantId, lookupName));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Persist all the pending writes. Only one flush runs at a time so that an older write of a user is never
+     * persisted after a newer one. A write which could not be persisted is kept in the queue and retried by the next
+     * flush, until it fails {@value #MAX_FLUSH_ATTEMPTS} times.
+     */
+    public void flush() {
+
+        flushLock.lock();
+        try {
+            flushTriggered.set(false);
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            List<PendingWrite> writes = new ArrayList<>(pendingWrites.values());
+            for (int start = 0; start < writes.size(); start += MAX_WRITES_PER_FLUSH_BATCH) {
+                List<PendingWrite> batch = writes.subList(start, Math.min(start + MAX_WRITES_PER_FLUSH_BATCH,
+                        writes.size()));
+                List<PendingWrite> failedWrites = persister.persist(batch);
+                Set<PendingWrite> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+                if (failedWrites != null) {
+                    failed.addAll(failedWrites);
+                }
+                long now = System.currentTimeMillis();
+                for (PendingWrite write : batch) {
+                    PendingWriteKey key = new PendingWriteKey(write.getTenantId(), write.getLookupName());
+                    if (failed.contains(write)) {
+                        retryOrDrop(key, write);
+                        continue;
+                    }
+                    // A newer write which arrived during the flush replaces the entry, and is kept for the next flush.
+                    pendingWrites.remove(key, write);
+                    long lag = now - write.getEnqueuedTime();
+                    lastFlushLag.set(lag);
+                    maxFlushLag.accumulateAndGet(lag, Math::max);
+                }
+                persistedWriteCount.addAndGet(batch.size() - failed.size());
+                failedWriteCount.addAndGet(failed.size());
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Flushed " + writes.size() + " pending identity data writes. Coalesced writes: " +
+                        coalescedWriteCount.get() + ", last flush lag: " + lastFlushLag.get() + "ms, max flush lag: " +
+                        maxFlushLag.get() + "ms.");
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Keep a write which could not be persisted in the queue for the next flush, or drop it if it has failed too many
+     * times. A newer write of the user which arrived during the flush already contains the failed data, hence it is
+     * kept as it is.
+     */
+    private void retryOrDrop(PendingWriteKey key, PendingWrite write) {
+
+        int failedAttempts = write.getFailedAttempts() + 1;
+        if (failedAttempts < MAX_FLUSH_ATTEMPTS) {
+            pendingWrites.replace(key, write, write.withFailedAttempts(failedAttempts));
+            return;
+        }
+        if (pendingWrites.remove(key, write)) {
+            drop(write, "it could not be persisted after " + failedAttempts + " attempts");
+        }
+    }
+
+    private void drop(PendingWrite write, String reason) {
+
+        droppedWriteCount.incrementAndGet();
+        log.error("Dropping identity data of user: " + write.getUserName() + " in tenant: " + write.getTenantId() +
+                " as " + reason + ". Dropped claims: " + write.getData().keySet());
+    }
+
+    /**
+     * Stop accepting writes and persist all the pending writes. Writes which still could not be persisted are
+     * dropped and logged.
+     */
+    public void shutdown() {
+
+        shutdown = true;
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                log.warn("Timed out while waiting for the scheduled flush of pending identity data writes.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+
+        flushLock.lock();
+        try {
+            for (PendingWrite write : pendingWrites.values()) {
+                drop(write, "the write behind queue is shut down");
+            }
+            pendingWrites.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushSafely() {
+
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Error while flushing pending identity data writes.", e);
+        }
+    }
+
+    /**
+     * Get the number of users having writes which are not persisted yet.
+     *
+     * @return Number of pending writes.
+     */
+    public int getPendingWriteCount() {
+
+        return pendingWrites.size();
+    }
+
+    /**
+     * Get the number of writes which were merged in to an already pending write of the same user.
+     *
+     * @return Number of coalesced writes.
+     */
+    public long getCoalescedWriteCount() {
+
+        return coalescedWriteCount.get();
+    }
+
+    /**
+     * Get the number of pending writes persisted successfully.
+     *
+     * @return Number of persisted writes.
+     */
+    public long getPersistedWriteCount() {
+
+        return persistedWriteCount.get();
+    }
+
+    /**
+     * Get the number of pending writes which could not be persisted.
+     *
+     * @return Number of failed writes.
+     */
+    public long getFailedWriteCount() {
+
+        return failedWriteCount.get();
+    }
+
+    /**
+     * Get the number of pending writes dropped after they could not be persisted.
+     *
+     * @return Number of dropped writes.
+     */
+    public long getDroppedWriteCount() {
+
+        return droppedWriteCount.get();
+    }
+
+    /**
+     * Get the time in milliseconds the last flushed write waited in the queue.
+     *
+     * @return Last flush lag in milliseconds.
+     */
+    public long getLastFlushLag() {
+
+        return lastFlushLag.get();
+    }
+
+    /**
+     * Get the maximum time in milliseconds a flushed write waited in the queue.
+     *
+     * @return Maximum flush lag in milliseconds.
+     */
+    public long getMaxFlushLag() {
+
+        return maxFlushLag.get();
+    }
+
+    /**
+     * Identity data of a user waiting to be persisted.
+     */
+    static final class PendingWrite {
+
+        private final int tenantId;
+        private final String userName;
+        private final String lookupName;
+        private final Map<String, String> data;
+        private final long enqueuedTime;
+        private final int failedAttempts;
+
+        private PendingWrite(int tenantId, String userName, String lookupName, Map<String, String> data,
+                             long enqueuedTime, int failedAttempts) {
+
+            this.tenantId = tenantId;
+            this.userName = userName;
+            this.lookupName = lookupName;
+            this.data = Collections.unmodifiableMap(data);
+            this.enqueuedTime = enqueuedTime;
+            this.failedAttempts = failedAttempts;
+        }
+
+        private PendingWrite withFailedAttempts(int failedAttempts) {
+
+            return new PendingWrite(tenantId, userName, lookupName, data, enqueuedTime, failedAttempts);
+        }
+
+        int getTenantId() {
+
+            return tenantId;
+        }
+
+        String getUserName() {
+
+            return userName;
+        }
+
+        Map<String, String> getData() {
+
+            return data;
+        }
+
+        long getEnqueuedTime() {
+
+            return enqueuedTime;
+        }
+
+        private String getLookupName() {
+
+            return lookupName;
+        }
+
+        private int getFailedAttempts() {
+
+            return failedAttempts;
+        }
+    }
+
+    private static final class PendingWriteKey {
+
+        private final int tenantId;
+        private final String lookupName;
+
+        private PendingWriteKey(int tenantId, String lookupName) {
+
+            this.tenantId = tenantId;
+            this.lookupName = lookupName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PendingWriteKey that = (PendingWriteKey) o;
+            return tenantId == that.tenantId && lookupName.equals(that.lookupName);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantId, lookupName);
+        }
+    }
+}
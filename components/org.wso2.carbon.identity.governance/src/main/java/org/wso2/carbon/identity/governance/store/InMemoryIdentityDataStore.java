@@ -19,16 +19,13 @@ package org.wso2.carbon.identity.governance.store;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.base.IdentityException;
-import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.governance.internal.cache.IdentityDataStoreCache;
 import org.wso2.carbon.identity.governance.internal.cache.IdentityDataStoreCacheKey;
+import org.wso2.carbon.identity.governance.internal.cache.UserIdentityClaimSnapshot;
 import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.api.UserStoreManager;
-import org.wso2.carbon.user.core.UserCoreConstants;
-import org.wso2.carbon.user.core.util.UserCoreUtil;
 
-import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -38,6 +35,7 @@ public class InMemoryIdentityDataStore extends UserIdentityDataStore {
 
     private static final Log log = LogFactory.getLog(InMemoryIdentityDataStore.class);
     private final IdentityDataStoreCache identityDataStoreCache = IdentityDataStoreCache.getInstance();
+    private final IdentityDataStoreCacheKeyResolver cacheKeyResolver = new IdentityDataStoreCacheKeyResolver();
 
     @Override
     public void store(UserIdentityClaim userIdentityDTO, UserStoreManager userStoreManager)
@@ -45,24 +43,9 @@ public class InMemoryIdentityDataStore extends UserIdentityDataStore {
 
         try {
             if (userIdentityDTO != null && userIdentityDTO.getUserName() != null) {
-                String userName = UserCoreUtil.removeDomainFromName(userIdentityDTO.getUserName());
-                if (userStoreManager instanceof org.wso2.carbon.user.core.UserStoreManager) {
-                    if (!IdentityUtil.isUserStoreCaseSensitive((org.wso2.carbon.user.core.UserStoreManager)
-                            userStoreManager)) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Case insensitive user store found. Changing username from : " + userName +
-                                    " to : " + userName.toLowerCase(Locale.ENGLISH));
-                        }
-                        userName = userName.toLowerCase(Locale.ENGLISH);
-                    } else if (!IdentityUtil.isUseCaseSensitiveUsernameForCacheKeys(
-                            (org.wso2.carbon.user.core.UserStoreManager) userStoreManager)) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Case insensitive username for cache key is used. Changing username from : "
-                                    + userName + " to : " + userName.toLowerCase(Locale.ENGLISH));
-                        }
-                        userName = userName.toLowerCase(Locale.ENGLISH);
-                    }
-                }
+                IdentityDataStoreCacheKey key = cacheKeyResolver.getCacheKey(userIdentityDTO.getUserName(),
+                        userStoreManager);
+                String userName = key.getUsername();
 
                 if (log.isDebugEnabled()) {
                     StringBuilder data = new StringBuilder("{");
@@ -78,18 +61,19 @@ public class InMemoryIdentityDataStore extends UserIdentityDataStore {
                     log.debug("Storing UserIdentityClaimsDO to cache for user: " + userName + " with claims: " + data);
                 }
 
-                org.wso2.carbon.user.core.UserStoreManager store = (org.wso2.carbon.user.core.UserStoreManager) userStoreManager;
-                String domainName = store.getRealmConfiguration().getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
-
-                IdentityDataStoreCacheKey key = new IdentityDataStoreCacheKey(domainName, userName);
                 int tenantId = userStoreManager.getTenantId();
-                UserIdentityClaim cachedUserIdentityDTO = identityDataStoreCache.getValueFromCache(key, tenantId);
-                if (cachedUserIdentityDTO != null) {
-                    cachedUserIdentityDTO.getUserIdentityDataMap().putAll(userIdentityDTO.getUserIdentityDataMap());
-                    identityDataStoreCache.addToCache(key, cachedUserIdentityDTO, tenantId);
-                } else {
-                    identityDataStoreCache.addToCache(key, userIdentityDTO, tenantId);
-                }
+                // The cached snapshot is never modified. A new snapshot is created and swapped in, retrying if a
+                // concurrent update replaced the snapshot in the meantime.
+                UserIdentityClaimSnapshot cachedSnapshot;
+                UserIdentityClaimSnapshot updatedSnapshot;
+                do {
+                    cachedSnapshot = identityDataStoreCache.getValueFromCache(key, tenantId);
+                    if (cachedSnapshot != null) {
+                        updatedSnapshot = cachedSnapshot.merge(userIdentityDTO.getUserIdentityDataMap());
+                    } else {
+                        updatedSnapshot = UserIdentityClaimSnapshot.of(userIdentityDTO);
+                    }
+                } while (!identityDataStoreCache.compareAndSet(key, cachedSnapshot, updatedSnapshot, tenantId));
             }
         } catch (UserStoreException e) {
             log.error("Error while obtaining tenant ID from user store manager", e);
@@ -101,34 +85,16 @@ public class InMemoryIdentityDataStore extends UserIdentityDataStore {
 
         try {
             if (userName != null) {
-                userName = UserCoreUtil.removeDomainFromName(userName);
-                if (userStoreManager instanceof org.wso2.carbon.user.core.UserStoreManager) {
-                    if (!IdentityUtil.isUserStoreCaseSensitive((org.wso2.carbon.user.core.UserStoreManager)
-                            userStoreManager)) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Case insensitive user store found. Changing username from : " + userName +
-                                    " to : " + userName.toLowerCase(Locale.ENGLISH));
-                        }
-                        userName = userName.toLowerCase(Locale.ENGLISH);
-                    } else if (!IdentityUtil.isUseCaseSensitiveUsernameForCacheKeys(
-                            (org.wso2.carbon.user.core.UserStoreManager) userStoreManager)) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Case insensitive username for cache key is used. Changing username from : "
-                                    + userName + " to : " + userName.toLowerCase(Locale.ENGLISH));
-                        }
-                        userName = userName.toLowerCase(Locale.ENGLISH);
-                    }
-                }
-
-                org.wso2.carbon.user.core.UserStoreManager store = (org.wso2.carbon.user.core.UserStoreManager) userStoreManager;
-
-                String domainName = store.getRealmConfiguration().getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
-
-                IdentityDataStoreCacheKey key = new IdentityDataStoreCacheKey(domainName, userName);
+                IdentityDataStoreCacheKey key = cacheKeyResolver.getCacheKey(userName, userStoreManager);
+                userName = key.getUsername();
                 int tenantId = userStoreManager.getTenantId();
-                UserIdentityClaim userIdentityDTO = identityDataStoreCache.getValueFromCache(key, tenantId);
+                UserIdentityClaimSnapshot snapshot = identityDataStoreCache.getValueFromCache(key, tenantId);
+                if (snapshot == null) {
+                    return null;
+                }
+                UserIdentityClaim userIdentityDTO = snapshot.toUserIdentityClaim();
 
-                if (userIdentityDTO != null && log.isDebugEnabled()) {
+                if (log.isDebugEnabled()) {
                     StringBuilder data = new StringBuilder("{");
                     if (userIdentityDTO.getUserIdentityDataMap() != null) {
                         for (Map.Entry<String, String> entry : userIdentityDTO.getUserIdentityDataMap().entrySet()) {
@@ -158,30 +124,7 @@ public class InMemoryIdentityDataStore extends UserIdentityDataStore {
             if (userName == null) {
                 return;
             }
-            userName = UserCoreUtil.removeDomainFromName(userName);
-            if (userStoreManager instanceof org.wso2.carbon.user.core.UserStoreManager) {
-                if (!IdentityUtil.isUserStoreCaseSensitive((org.wso2.carbon.user.core.UserStoreManager)
-                        userStoreManager)) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Case insensitive user store found. Changing username from : " + userName + " to : " +
-                                userName.toLowerCase(Locale.ENGLISH));
-                    }
-                    userName = userName.toLowerCase(Locale.ENGLISH);
-                } else if (!IdentityUtil.isUseCaseSensitiveUsernameForCacheKeys(
-                        (org.wso2.carbon.user.core.UserStoreManager) userStoreManager)) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Case insensitive username for cache key is used. Changing username from : "
-                                + userName + " to : " + userName.toLowerCase(Locale.ENGLISH));
-                    }
-                    userName = userName.toLowerCase(Locale.ENGLISH);
-                }
-            }
-            org.wso2.carbon.user.core.UserStoreManager store = (org.wso2.carbon.user.core.UserStoreManager)
-                    userStoreManager;
-            String domainName = store.getRealmConfiguration().getUserStoreProperty(UserCoreConstants.RealmConfig
-                    .PROPERTY_DOMAIN_NAME);
-
-            IdentityDataStoreCacheKey key = new IdentityDataStoreCacheKey(domainName, userName);
+            IdentityDataStoreCacheKey key = cacheKeyResolver.getCacheKey(userName, userStoreManager);
             identityDataStoreCache.clearCacheEntry(key, userStoreManager.getTenantId());
         } catch (UserStoreException e) {
             log.error("Error while obtaining tenant ID from user store manager");
@@ -22,10 +22,13 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.governance.IdentityMgtConstants;
+import org.wso2.carbon.identity.governance.internal.IdentityMgtServiceDataHolder;
 import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.api.UserStoreManager;
 import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.model.Condition;
 import org.wso2.carbon.user.core.model.ExpressionCondition;
 import org.wso2.carbon.user.core.model.ExpressionOperation;
 import org.wso2.carbon.user.core.model.SqlBuilder;
@@ -39,8 +42,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 /**
  *
@@ -57,6 +64,41 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
     private static final String ORACLE = "oracle";
     private static final String POSTGRE_SQL = "postgresql";
     private static final String MYSQL = "mysql";
+    // Keeps the IN clause of bulk user data loads well below the bind parameter limits of the supported databases.
+    private static final int MAX_USERS_PER_BULK_LOAD = 100;
+    private static final int LIST_USERS_FETCH_SIZE = 500;
+    private static final long DEFAULT_WRITE_BEHIND_FLUSH_INTERVAL = 1000L;
+    private static final int DEFAULT_WRITE_BEHIND_MAX_PENDING_USERS = 10000;
+
+    private final IdentityDataStoreWriteBehindQueue writeBehindQueue;
+    private volatile boolean isUpsertEnabled;
+    private volatile String databaseType;
+
+    public JDBCIdentityDataStore() {
+
+        String upsertEnabled = IdentityUtil.getProperty(
+                IdentityMgtConstants.PropertyConfig.IDENTITY_DATA_STORE_UPSERT_ENABLE);
+        isUpsertEnabled = Boolean.parseBoolean(StringUtils.trim(upsertEnabled));
+
+        if (Boolean.parseBoolean(IdentityUtil.getProperty(
+                IdentityMgtConstants.PropertyConfig.IDENTITY_DATA_STORE_WRITE_BEHIND_ENABLE))) {
+            long flushInterval = readPositiveLongProperty(
+                    IdentityMgtConstants.PropertyConfig.IDENTITY_DATA_STORE_WRITE_BEHIND_FLUSH_INTERVAL,
+                    DEFAULT_WRITE_BEHIND_FLUSH_INTERVAL);
+            int maxPendingUsers = (int) readPositiveLongProperty(
+                    IdentityMgtConstants.PropertyConfig.IDENTITY_DATA_STORE_WRITE_BEHIND_MAX_PENDING_USERS,
+                    DEFAULT_WRITE_BEHIND_MAX_PENDING_USERS);
+            writeBehindQueue = new IdentityDataStoreWriteBehindQueue(this::persistPendingWrites, flushInterval,
+                    maxPendingUsers);
+            IdentityMgtServiceDataHolder.getInstance().addIdentityDataStoreWriteBehindQueue(writeBehindQueue);
+            if (log.isDebugEnabled()) {
+                log.debug("Write behind is enabled for the JDBC identity data store with flush interval: " +
+                        flushInterval + "ms and max pending users: " + maxPendingUsers);
+            }
+        } else {
+            writeBehindQueue = null;
+        }
+    }
 
     @Override
     public void store(UserIdentityClaim userIdentityDTO, UserStoreManager userStoreManager)
@@ -73,6 +115,8 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         userName = UserCoreUtil.addDomainToName(userName, domainName);
         userIdentityDTO.setUserName(userName);
 
+        // The claims of the cached snapshot are already persisted, hence only the changed claims are upserted.
+        UserIdentityClaim cachedUserIdentityDTO = super.load(userName, userStoreManager);
         super.store(userIdentityDTO, userStoreManager);
 
         int tenantId = MultitenantConstants.SUPER_TENANT_ID;
@@ -84,44 +128,232 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
 
         Map<String, String> data = userIdentityDTO.getUserIdentityDataMap();
 
+        // In write behind mode the cache serves the latest data while the write waits to be coalesced and persisted.
+        if (writeBehindQueue != null &&
+                writeBehindQueue.enqueue(tenantId, userName, getWriteBehindLookupName(userName, tenantId), data)) {
+            return;
+        }
+
         Connection connection = IdentityDatabaseUtil.getDBConnection();
         try {
-            Map<String, String> existingDataValues = getUserDataValues(connection, userName, tenantId);
-            Map<String, String> newClaims = new HashMap<>();
-            Map<String, String> availableClaims = new HashMap<>();
-
-            // Divide claim list to already available claims (need to update those) and new claims (need to add those)
-            for (Map.Entry<String, String> entry : data.entrySet()) {
-                String key = entry.getKey();
-                String value = entry.getValue();
-                if (existingDataValues.containsKey(key)) {
-                    String existingValue = existingDataValues.get(key);
-                    if (existingValue == null || !existingValue.equals(value)) {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Key:" + key + ", Value:" + value + " to be updated for user:" + userName
-                                    + " in JDBCIdentityDataStore");
-                        }
-                        availableClaims.put(key, value);
-                    }
-                } else {
+            // With write behind, the cached snapshot may hold writes which are still queued.
+            persistUserDataValues(connection, userName, tenantId, data,
+                    writeBehindQueue == null && cachedUserIdentityDTO != null ?
+                            cachedUserIdentityDTO.getUserIdentityDataMap() : null);
+            IdentityDatabaseUtil.commitTransaction(connection);
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            log.error("Error while persisting user identity data", e);
+            // The cache must not hold claims which are not persisted, since the later upserts are diffed against it.
+            super.remove(userName, userStoreManager);
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Persist the identity data of a user.
+     *
+     * @param connection    Database connection.
+     * @param userName      Domain qualified username.
+     * @param tenantId      Tenant id.
+     * @param data          Identity data to be persisted.
+     * @param persistedData Identity data known to be persisted, or null if it is not known.
+     * @throws SQLException If the identity data could not be persisted.
+     */
+    private void persistUserDataValues(Connection connection, String userName, int tenantId,
+                                       Map<String, String> data, Map<String, String> persistedData)
+            throws SQLException {
+
+        String upsertQuery = getUpsertUserDataQuery(connection, userName, tenantId);
+        if (upsertQuery != null) {
+            Map<String, String> changedData = getChangedDataValues(data, persistedData);
+            if (!changedData.isEmpty()) {
+                upsertUserDataValues(connection, upsertQuery, userName, tenantId, changedData);
+            }
+            return;
+        }
+
+        Map<String, String> existingDataValues = getUserDataValues(connection, userName, tenantId);
+        Map<String, String> newClaims = new HashMap<>();
+        Map<String, String> availableClaims = new HashMap<>();
+
+        // Divide claim list to already available claims (need to update those) and new claims (need to add those)
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            if (existingDataValues.containsKey(key)) {
+                String existingValue = existingDataValues.get(key);
+                if (existingValue == null || !existingValue.equals(value)) {
                     if (log.isDebugEnabled()) {
-                        log.debug("Key:" + key + ", Value:" + value + " to be added for user:" + userName + " in "
-                                + "JDBCIdentityDataStore");
+                        log.debug("Key:" + key + ", Value:" + value + " to be updated for user:" + userName
+                                + " in JDBCIdentityDataStore");
                     }
-                    newClaims.put(key, value);
+                    availableClaims.put(key, value);
                 }
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug("Key:" + key + ", Value:" + value + " to be added for user:" + userName + " in "
+                            + "JDBCIdentityDataStore");
+                }
+                newClaims.put(key, value);
             }
+        }
 
-            addUserDataValues(connection, userName, tenantId, newClaims);
-            updateUserDataValues(connection, userName, tenantId, availableClaims);
+        addUserDataValues(connection, userName, tenantId, newClaims);
+        updateUserDataValues(connection, userName, tenantId, availableClaims);
+    }
 
-            IdentityDatabaseUtil.commitTransaction(connection);
-        } catch (SQLException e) {
-            IdentityDatabaseUtil.rollbackTransaction(connection);
-            log.error("Error while persisting user identity data", e);
+    /**
+     * Get the identity data which is new or differs from the persisted identity data.
+     *
+     * @param data          Identity data to be persisted.
+     * @param persistedData Identity data known to be persisted, or null if it is not known.
+     * @return Identity data to be upserted.
+     */
+    static Map<String, String> getChangedDataValues(Map<String, String> data, Map<String, String> persistedData) {
+
+        if (persistedData == null || persistedData.isEmpty()) {
+            return data;
+        }
+        Map<String, String> changedData = new HashMap<>();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (!persistedData.containsKey(entry.getKey()) ||
+                    !StringUtils.equals(persistedData.get(entry.getKey()), entry.getValue())) {
+                changedData.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changedData;
+    }
+
+    /**
+     * Resolve the single statement upsert query for the database. Upserts match the username exactly, hence the
+     * read-modify-write flow is used for user stores with case insensitive usernames and for unsupported databases.
+     *
+     * @param connection Database connection.
+     * @param userName   Domain qualified username.
+     * @param tenantId   Tenant id.
+     * @return Upsert query or null if the read-modify-write flow should be used.
+     */
+    private String getUpsertUserDataQuery(Connection connection, String userName, int tenantId) {
+
+        if (!isUpsertEnabled || !IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId)) {
+            return null;
+        }
+        try {
+            return UserDataUpsertQueries.getUpsertQuery(getDatabaseType(connection));
+        } catch (Exception e) {
+            log.warn("Error while resolving the database type. Identity data is persisted without upserts.", e);
+            isUpsertEnabled = false;
+            return null;
+        }
+    }
+
+    private String getDatabaseType(Connection connection) throws Exception {
+
+        if (databaseType == null) {
+            databaseType = DatabaseCreator.getDatabaseType(connection);
+        }
+        return databaseType;
+    }
+
+    private void upsertUserDataValues(Connection connection, String upsertQuery, String userName, int tenantId,
+                                      Map<String, String> properties) throws SQLException {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Upserting " + properties.size() + " identity claims for user:" + userName +
+                    " in JDBCIdentityDataStore");
+        }
+        try (PreparedStatement prepStmt = connection.prepareStatement(upsertQuery)) {
+            for (Map.Entry<String, String> entry : properties.entrySet()) {
+                prepStmt.setInt(1, tenantId);
+                prepStmt.setString(2, userName);
+                prepStmt.setString(3, entry.getKey());
+                prepStmt.setString(4, entry.getValue());
+                prepStmt.addBatch();
+            }
+            prepStmt.executeBatch();
+        }
+    }
+
+    /**
+     * Persist the coalesced writes of the write behind queue using a single connection. Each user is committed
+     * separately so that a failure of one user does not discard the writes of the others.
+     *
+     * @param writes Pending writes to be persisted.
+     * @return Writes which could not be persisted.
+     */
+    private List<IdentityDataStoreWriteBehindQueue.PendingWrite> persistPendingWrites(
+            List<IdentityDataStoreWriteBehindQueue.PendingWrite> writes) {
+
+        List<IdentityDataStoreWriteBehindQueue.PendingWrite> failedWrites = new ArrayList<>();
+        Connection connection;
+        try {
+            connection = IdentityDatabaseUtil.getDBConnection();
+        } catch (RuntimeException e) {
+            log.error("Error while getting a database connection to persist pending identity data writes.", e);
+            return writes;
+        }
+        try {
+            for (IdentityDataStoreWriteBehindQueue.PendingWrite write : writes) {
+                try {
+                    // The cache already holds the pending writes, hence the coalesced data is upserted as a whole.
+                    persistUserDataValues(connection, write.getUserName(), write.getTenantId(), write.getData(),
+                            null);
+                    IdentityDatabaseUtil.commitTransaction(connection);
+                } catch (SQLException e) {
+                    IdentityDatabaseUtil.rollbackTransaction(connection);
+                    failedWrites.add(write);
+                    log.error("Error while persisting identity data of user: " + write.getUserName() +
+                            " in tenant: " + write.getTenantId(), e);
+                }
+            }
         } finally {
             IdentityDatabaseUtil.closeConnection(connection);
         }
+        return failedWrites;
+    }
+
+    /**
+     * Overlay the identity data which is waiting in the write behind queue on the data read from the database.
+     */
+    private void addPendingWrites(Map<String, String> data, String userName, int tenantId) {
+
+        if (writeBehindQueue == null) {
+            return;
+        }
+        Map<String, String> pendingData = writeBehindQueue.getPendingData(tenantId,
+                getWriteBehindLookupName(userName, tenantId));
+        if (pendingData != null) {
+            data.putAll(pendingData);
+        }
+    }
+
+    private String getWriteBehindLookupName(String userName, int tenantId) {
+
+        if (IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId)) {
+            return userName;
+        }
+        return userName.toLowerCase(Locale.ENGLISH);
+    }
+
+    private long readPositiveLongProperty(String propertyName, long defaultValue) {
+
+        String value = IdentityUtil.getProperty(propertyName);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            long parsedValue = Long.parseLong(value.trim());
+            if (parsedValue > 0) {
+                return parsedValue;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below by falling back to the default value.
+        }
+        log.warn("Invalid value: " + value + " configured for " + propertyName + ". Using the default value: " +
+                defaultValue);
+        return defaultValue;
     }
 
     private Map<String, String> getUserDataValues(Connection connection, String userName, int tenantId)
@@ -214,6 +446,7 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
             int tenantId = userStoreManager.getTenantId();
             Map<String, String> data = getUserDataValues(connection, userName, tenantId);
             IdentityDatabaseUtil.commitTransaction(connection);
+            addPendingWrites(data, userName, tenantId);
             if (log.isDebugEnabled()) {
                 log.debug("Retrieved identity data for:" + tenantId + ":" + userName);
                 for (Map.Entry<String, String> dataEntry : data.entrySet()) {
@@ -238,6 +471,133 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         return null;
     }
 
+    @Override
+    public Map<String, UserIdentityClaim> loadUserIdentityClaims(List<String> userNames,
+                                                                 UserStoreManager userStoreManager) {
+
+        Map<String, UserIdentityClaim> userIdentityClaims = new HashMap<>();
+        if (userNames == null || userNames.isEmpty()) {
+            return userIdentityClaims;
+        }
+
+        String domainName = ((org.wso2.carbon.user.core.UserStoreManager) userStoreManager).getRealmConfiguration().
+                getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
+
+        // Serve the users available in the cache and collect the rest to be loaded from the database.
+        Map<String, String> usersToLoad = new LinkedHashMap<>();
+        for (String userName : userNames) {
+            String userNameWithDomain = UserCoreUtil.addDomainToName(userName, domainName);
+            UserIdentityClaim dto = super.load(userNameWithDomain, userStoreManager);
+            if (dto != null) {
+                userIdentityClaims.put(userName, dto);
+            } else {
+                usersToLoad.put(userNameWithDomain, userName);
+            }
+        }
+        if (usersToLoad.isEmpty()) {
+            return userIdentityClaims;
+        }
+
+        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        try {
+            int tenantId = userStoreManager.getTenantId();
+            Map<String, Map<String, String>> data = getUsersDataValues(connection,
+                    new ArrayList<>(usersToLoad.keySet()), tenantId);
+            IdentityDatabaseUtil.commitTransaction(connection);
+            if (log.isDebugEnabled()) {
+                log.debug("Retrieved identity data of " + usersToLoad.size() + " users in tenant: " + tenantId +
+                        " and user store domain: " + domainName);
+            }
+
+            for (Map.Entry<String, String> userEntry : usersToLoad.entrySet()) {
+                String userNameWithDomain = userEntry.getKey();
+                Map<String, String> userData = data.get(userNameWithDomain);
+                if (userData == null) {
+                    userData = new HashMap<>();
+                }
+                addPendingWrites(userData, userNameWithDomain, tenantId);
+                UserIdentityClaim dto = new UserIdentityClaim(userNameWithDomain, userData);
+                dto.setTenantId(tenantId);
+                try {
+                    super.store(dto, userStoreManager);
+                } catch (IdentityException e) {
+                    log.error("Error while caching user identity data of user: " + userNameWithDomain, e);
+                }
+                userIdentityClaims.put(userEntry.getValue(), dto);
+            }
+        } catch (SQLException | UserStoreException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            log.error("Error while reading identity data of users", e);
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+        return userIdentityClaims;
+    }
+
+    /**
+     * Retrieve the identity data of the given users with a chunked IN query. All the users should belong to the same
+     * user store domain.
+     *
+     * @param connection Database connection.
+     * @param userNames  Domain qualified usernames.
+     * @param tenantId   Tenant id.
+     * @return Map of the domain qualified username to the identity data of the user.
+     * @throws SQLException If an error occurred while retrieving data.
+     */
+    static Map<String, Map<String, String>> getUsersDataValues(Connection connection, List<String> userNames,
+                                                               int tenantId) throws SQLException {
+
+        Map<String, Map<String, String>> dataValues = new HashMap<>();
+        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userNames.get(0), tenantId);
+
+        // Case insensitive lookups are resolved against the lower cased usernames returned from the database.
+        Map<String, String> resolvedUserNames = new HashMap<>();
+        if (!isUsernameCaseSensitive) {
+            for (String userName : userNames) {
+                resolvedUserNames.put(userName.toLowerCase(Locale.ENGLISH), userName);
+            }
+        }
+
+        for (int start = 0; start < userNames.size(); start += MAX_USERS_PER_BULK_LOAD) {
+            List<String> chunk = userNames.subList(start, Math.min(start + MAX_USERS_PER_BULK_LOAD,
+                    userNames.size()));
+            String query = buildLoadUsersDataQuery(chunk.size(), isUsernameCaseSensitive);
+            try (PreparedStatement prepStmt = connection.prepareStatement(query)) {
+                prepStmt.setInt(1, tenantId);
+                for (int i = 0; i < chunk.size(); i++) {
+                    prepStmt.setString(i + 2, chunk.get(i));
+                }
+                try (ResultSet results = prepStmt.executeQuery()) {
+                    while (results.next()) {
+                        String userName = results.getString(1);
+                        if (!isUsernameCaseSensitive) {
+                            userName = resolvedUserNames.get(userName.toLowerCase(Locale.ENGLISH));
+                        }
+                        if (userName == null) {
+                            continue;
+                        }
+                        dataValues.computeIfAbsent(userName, k -> new HashMap<>())
+                                .put(results.getString(2), results.getString(3));
+                    }
+                }
+            }
+        }
+        return dataValues;
+    }
+
+    private static String buildLoadUsersDataQuery(int userCount, boolean isUsernameCaseSensitive) {
+
+        String placeholder = isUsernameCaseSensitive ? QUERY_BINDING_SYMBOL : "LOWER(" + QUERY_BINDING_SYMBOL + ")";
+        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < userCount; i++) {
+            placeholders.add(placeholder);
+        }
+        if (isUsernameCaseSensitive) {
+            return SQLQuery.LOAD_USERS_DATA + placeholders;
+        }
+        return SQLQuery.LOAD_USERS_DATA_CASE_INSENSITIVE + placeholders;
+    }
+
     @Override
     public void remove(String userName, UserStoreManager userStoreManager) throws IdentityException {
 
@@ -249,6 +609,9 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         PreparedStatement prepStmt = null;
         try {
             int tenantId = userStoreManager.getTenantId();
+            if (writeBehindQueue != null) {
+                writeBehindQueue.discard(tenantId, getWriteBehindLookupName(userName, tenantId));
+            }
             boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId);
             String query;
             if (isUsernameCaseSensitive) {
@@ -274,8 +637,6 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
     public List<String> list(String claimUri, String claimValue,
                              org.wso2.carbon.user.core.UserStoreManager userStoreManager) throws IdentityException {
 
-        List<String> userNames = new ArrayList<>();
-
         if (claimValue.contains(QUERY_FILTER_STRING_ANY)) {
             // This is to support LDAP like queries. Value having only * is restricted except one *.
             if (!claimValue.matches("(\\*)\\1+")) {
@@ -284,50 +645,101 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
             }
         }
 
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
-
-            // We are limiting users for current tenant and user store domain.
-            int tenantId = userStoreManager.getTenantId();
-            String userStoreDomain = UserCoreUtil.getDomainName(userStoreManager.getRealmConfiguration());
-
-            String query = SQLQuery.LIST_USERS_FROM_CLAIM;
-
-            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        List<String> userNames = new ArrayList<>();
+        try {
+            UserDataListQuery listQuery = new UserDataListQuery(userStoreManager.getTenantId(), claimUri,
+                    UserCoreUtil.getDomainName(userStoreManager.getRealmConfiguration())).matchPattern(claimValue);
+            listUserNames(listQuery, 0, 0, userNames::add);
+        } catch (UserStoreException e) {
+            throw new IdentityException("Error occurred while retrieving users from claim URI: " + claimUri, e);
+        }
+        return userNames;
+    }
 
-                preparedStatement.setString(1, claimUri);
-                preparedStatement.setString(2, claimValue);
-                preparedStatement.setInt(3, tenantId);
+    @Override
+    public void list(String claimUri, String operation, String claimValue, int limit, int offset,
+                     org.wso2.carbon.user.core.UserStoreManager userStoreManager, Consumer<String> userNameConsumer)
+            throws IdentityException {
 
-                // If the user has a domain, domain name is appended to the user name in the user name column. If
-                // we need to select user names only for current domain, we have to do a SQL like.
-                String userNameWithDomain;
-                if (StringUtils.equalsIgnoreCase(userStoreDomain, UserCoreConstants.PRIMARY_DEFAULT_DOMAIN_NAME)) {
-                    userNameWithDomain = SQL_FILTER_STRING_ANY;
-                } else {
-                    userNameWithDomain = userStoreDomain + UserCoreConstants.DOMAIN_SEPARATOR + SQL_FILTER_STRING_ANY;
-                }
+        try {
+            UserDataListQuery listQuery = new UserDataListQuery(userStoreManager.getTenantId(), claimUri,
+                    UserCoreUtil.getDomainName(userStoreManager.getRealmConfiguration()))
+                    .matchValue(operation, claimValue);
+            listUserNames(listQuery, limit, offset, userNameConsumer);
+        } catch (UserStoreException e) {
+            throw new IdentityException("Error occurred while retrieving users from claim URI: " + claimUri, e);
+        }
+    }
 
-                preparedStatement.setString(4, userNameWithDomain);
+    @Override
+    public boolean list(Condition condition, int limit, int offset,
+                        org.wso2.carbon.user.core.UserStoreManager userStoreManager,
+                        Consumer<String> userNameConsumer) throws IdentityException {
 
+        try {
+            UserDataListQuery listQuery = UserDataListQuery.forCondition(userStoreManager.getTenantId(),
+                    UserCoreUtil.getDomainName(userStoreManager.getRealmConfiguration()), condition);
+            if (listQuery == null) {
                 if (log.isDebugEnabled()) {
-                    log.debug("Listing users with claim URI: " + claimUri + " with value: " + claimValue +
-                            " having username pattern: " + userNameWithDomain + " in tenant: " + tenantId);
+                    log.debug("Identity claim filters cannot be evaluated in a single query.");
                 }
+                return false;
+            }
+            listUserNames(listQuery, limit, offset, userNameConsumer);
+            return true;
+        } catch (UserStoreException e) {
+            throw new IdentityException("Error occurred while retrieving users for the identity claim filters.", e);
+        }
+    }
 
+    /**
+     * Run the given list query and pass the usernames to the consumer as they are read, without holding all of them
+     * in memory.
+     *
+     * @param listQuery        List query.
+     * @param limit            Maximum number of users. A non positive value lists all the users.
+     * @param offset           Number of users to skip.
+     * @param userNameConsumer Consumer of the usernames.
+     * @throws IdentityException If an error occurred while reading the usernames.
+     */
+    private void listUserNames(UserDataListQuery listQuery, int limit, int offset,
+                               Consumer<String> userNameConsumer) throws IdentityException {
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+            String databaseType;
+            try {
+                databaseType = getDatabaseType(connection);
+            } catch (Exception e) {
+                throw new IdentityException("Error while resolving the database type to list the users.", e);
+            }
+            if (limit > 0 || offset > 0) {
+                listQuery.paginate(limit, offset, databaseType);
+            }
+            String query = listQuery.getQuery(databaseType);
+            if (log.isDebugEnabled()) {
+                log.debug("Listing users with the query: " + query);
+            }
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                preparedStatement.setFetchSize(LIST_USERS_FETCH_SIZE);
+                listQuery.bindParameters(preparedStatement);
                 try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    int rowsToSkip = listQuery.getRowsToSkip();
                     while (resultSet.next()) {
-                        userNames.add(resultSet.getString("USER_NAME"));
+                        if (rowsToSkip > 0) {
+                            rowsToSkip--;
+                            continue;
+                        }
+                        userNameConsumer.accept(resultSet.getString("USER_NAME"));
                     }
                 }
                 IdentityDatabaseUtil.commitTransaction(connection);
             } catch (SQLException e) {
                 IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw new IdentityException("Error occurred while listing users from the identity data store.", e);
             }
-        } catch (SQLException | UserStoreException e) {
-            throw new IdentityException("Error occurred while retrieving users from claim URI: " + claimUri, e);
+        } catch (SQLException e) {
+            throw new IdentityException("Error occurred while listing users from the identity data store.", e);
         }
-
-        return userNames;
     }
 
     @Override
@@ -549,16 +961,17 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         public static final String LOAD_USER_DATA_CASE_INSENSITIVE = "SELECT " + "DATA_KEY, DATA_VALUE FROM " +
                 "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) = LOWER(?)";
 
+        // The IN clause with the username placeholders is appended at runtime.
+        static final String LOAD_USERS_DATA = "SELECT USER_NAME, DATA_KEY, DATA_VALUE FROM " +
+                "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND USER_NAME IN ";
+        static final String LOAD_USERS_DATA_CASE_INSENSITIVE = "SELECT USER_NAME, DATA_KEY, DATA_VALUE FROM " +
+                "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) IN ";
+
         public static final String DELETE_USER_DATA = "DELETE FROM IDN_IDENTITY_USER_DATA WHERE " +
                 "TENANT_ID = ? AND USER_NAME = ?";
         public static final String DELETE_USER_DATA_CASE_INSENSITIVE = "DELETE FROM IDN_IDENTITY_USER_DATA WHERE " +
                 "TENANT_ID = ? AND LOWER(USER_NAME) = LOWER(?)";
 
-        static final String LIST_USERS_FROM_CLAIM =
-                "SELECT DISTINCT USER_NAME " +
-                "FROM IDN_IDENTITY_USER_DATA " +
-                "WHERE DATA_KEY = ? AND DATA_VALUE LIKE ? AND TENANT_ID = ? AND USER_NAME LIKE ?";
-
         private SQLQuery() {
         }
     }
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.model.Condition;
+import org.wso2.carbon.user.core.model.ExpressionCondition;
+import org.wso2.carbon.user.core.model.ExpressionOperation;
+import org.wso2.carbon.user.core.model.OperationalCondition;
+import org.wso2.carbon.user.core.model.OperationalOperation;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the query which lists the users of a user store domain having a given value for an identity claim, or
+ * matching a tree of identity claim filters joined with AND and OR.
+ * <ul>
+ * <li>Values without wildcards are matched with an equality instead of a LIKE.</li>
+ * <li>The user store domain is matched as an escaped prefix of the username, so that a domain name containing LIKE
+ * wildcards cannot match users of other domains.</li>
+ * <li>GE, LE, GT and LT operations are matched as ranges. Claim values are stored as text, hence a range of a whole
+ * number compares the length of the value before the value, so that the values are ordered as numbers.</li>
+ * <li>In a filter tree, one filter is matched against the rows of the outer query and the rest are matched with
+ * EXISTS sub queries on the primary key of the user, so that the whole tree is evaluated in a single query.</li>
+ * <li>Limit and offset are pushed down to the database.</li>
+ * </ul>
+ */
+final class UserDataListQuery {
+
+    private static final String LIKE_ESCAPE_CHARACTER = "!";
+    private static final String QUERY_FILTER_STRING_ANY = "*";
+    private static final String SQL_FILTER_STRING_ANY = "%";
+
+    private static final String LIST_USERS = "SELECT USER_NAME FROM IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ?";
+    private static final String LIST_DISTINCT_USERS = "SELECT DISTINCT USER_NAME FROM IDN_IDENTITY_USER_DATA T " +
+            "WHERE TENANT_ID = ?";
+    private static final String LIST_FILTERED_USERS = "SELECT USER_NAME FROM IDN_IDENTITY_USER_DATA T " +
+            "WHERE TENANT_ID = ?";
+    private static final String USER_DATA_EXISTS = "EXISTS (SELECT 1 FROM IDN_IDENTITY_USER_DATA D WHERE " +
+            "D.TENANT_ID = T.TENANT_ID AND D.USER_NAME = T.USER_NAME AND ";
+    private static final String CLAIM_CONDITION = "DATA_KEY = ?";
+    private static final String DATA_VALUE = "DATA_VALUE";
+    private static final String SUB_QUERY_ALIAS = "D.";
+    // Usernames of a secondary user store domain are matched with an anchored prefix, which the database can match as
+    // a range of the username. The usernames of the primary user store domain have no common prefix, hence they are
+    // matched by not containing the domain separator, which cannot be matched as a range. The condition is only
+    // checked on the rows which match the tenant and the claim conditions.
+    private static final String PRIMARY_DOMAIN_CONDITION = " AND (USER_NAME NOT LIKE '%/%' OR USER_NAME LIKE ? " +
+            "ESCAPE '" + LIKE_ESCAPE_CHARACTER + "')";
+    private static final String SECONDARY_DOMAIN_CONDITION = " AND USER_NAME LIKE ? ESCAPE '" +
+            LIKE_ESCAPE_CHARACTER + "'";
+    private static final String AND = " AND ";
+    private static final String OR = " OR ";
+    private static final String EQUALS = " = ?";
+    private static final String LIKE = " LIKE ?";
+    private static final String LIKE_ESCAPED = " LIKE ? ESCAPE '" + LIKE_ESCAPE_CHARACTER + "'";
+    private static final String GREATER_OR_EQUAL = " >= ?";
+    private static final String LESS_OR_EQUAL = " <= ?";
+    private static final String GREATER_THAN = " > ?";
+    private static final String LESS_THAN = " < ?";
+    private static final String ORDER_BY_USER_NAME = " ORDER BY USER_NAME";
+    private static final String OFFSET_FETCH = " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    private static final String LIMIT_OFFSET = " LIMIT ? OFFSET ?";
+    private static final String LENGTH_FUNCTION = "LENGTH(";
+    private static final String MSSQL_LENGTH_FUNCTION = "LEN(";
+    // Whole numbers without leading zeros, as the numeric identity claims such as timestamps are stored.
+    private static final Pattern WHOLE_NUMBER = Pattern.compile("0|[1-9][0-9]*");
+
+    private final StringBuilder query;
+    private final List<Object> parameters = new ArrayList<>();
+    private int rowsToSkip;
+
+    /**
+     * Create a query listing the users of the given user store domain having the given claim.
+     *
+     * @param tenantId        Tenant id.
+     * @param claimUri        Identity claim URI.
+     * @param userStoreDomain User store domain.
+     */
+    UserDataListQuery(int tenantId, String claimUri, String userStoreDomain) {
+
+        this(LIST_USERS, tenantId, userStoreDomain);
+        query.append(AND).append(CLAIM_CONDITION);
+        parameters.add(claimUri);
+    }
+
+    private UserDataListQuery(String listUsersQuery, int tenantId, String userStoreDomain) {
+
+        query = new StringBuilder(listUsersQuery);
+        parameters.add(tenantId);
+        // Usernames of the primary user store are stored without the domain.
+        if (StringUtils.isBlank(userStoreDomain) ||
+                StringUtils.equalsIgnoreCase(userStoreDomain, UserCoreConstants.PRIMARY_DEFAULT_DOMAIN_NAME)) {
+            query.append(PRIMARY_DOMAIN_CONDITION);
+            parameters.add(escapeLikePattern(UserCoreConstants.PRIMARY_DEFAULT_DOMAIN_NAME +
+                    UserCoreConstants.DOMAIN_SEPARATOR) + SQL_FILTER_STRING_ANY);
+        } else {
+            query.append(SECONDARY_DOMAIN_CONDITION);
+            parameters.add(escapeLikePattern(userStoreDomain.toUpperCase(Locale.ENGLISH) +
+                    UserCoreConstants.DOMAIN_SEPARATOR) + SQL_FILTER_STRING_ANY);
+        }
+    }
+
+    /**
+     * Match the claim value with the given filter operation. Unescaped '*' in a value of an EQ operation are treated
+     * as wildcards to support LDAP like filters.
+     *
+     * @param operation  Filter operation.
+     * @param claimValue Claim value.
+     * @return This query.
+     */
+    UserDataListQuery matchValue(String operation, String claimValue) {
+
+        query.append(AND);
+        appendValueCondition(query, parameters, DATA_VALUE, operation, claimValue);
+        return this;
+    }
+
+    /**
+     * Create a query listing the users of the given user store domain matching the given tree of identity claim
+     * filters.
+     *
+     * @param tenantId        Tenant id.
+     * @param userStoreDomain User store domain.
+     * @param condition       Identity claim filters joined with AND and OR operations.
+     * @return List query or null if the filters cannot be evaluated in the database.
+     */
+    static UserDataListQuery forCondition(int tenantId, String userStoreDomain, Condition condition) {
+
+        ConditionCompiler compiler = new ConditionCompiler();
+        if (!compiler.compile(condition, true)) {
+            return null;
+        }
+        // A user may have several rows matching the filters matched against the outer query only under an OR.
+        UserDataListQuery listQuery = new UserDataListQuery(compiler.isDistinct ? LIST_DISTINCT_USERS :
+                LIST_FILTERED_USERS, tenantId, userStoreDomain);
+        listQuery.query.append(AND).append(compiler.filter);
+        listQuery.parameters.addAll(compiler.parameters);
+        return listQuery;
+    }
+
+    /**
+     * Match the claim value with the given SQL LIKE pattern. A pattern without any wildcards is matched with an
+     * equality.
+     *
+     * @param likePattern SQL LIKE pattern.
+     * @return This query.
+     */
+    UserDataListQuery matchPattern(String likePattern) {
+
+        query.append(AND).append(DATA_VALUE);
+        if (StringUtils.containsAny(likePattern, "%_\\")) {
+            query.append(LIKE);
+        } else {
+            query.append(EQUALS);
+        }
+        parameters.add(likePattern);
+        return this;
+    }
+
+    /**
+     * Return only a page of the users, ordered by the username.
+     *
+     * @param limit        Maximum number of users. A non positive value returns all the users after the offset.
+     * @param offset       Number of users to skip.
+     * @param databaseType Database type as returned by DatabaseCreator.getDatabaseType.
+     * @return This query.
+     */
+    UserDataListQuery paginate(int limit, int offset, String databaseType) {
+
+        offset = Math.max(offset, 0);
+        query.append(ORDER_BY_USER_NAME);
+        if (limit <= 0) {
+            // Not every database accepts an offset without a limit, hence the rows are skipped while reading.
+            rowsToSkip = offset;
+        } else if (UserDataUpsertQueries.MSSQL.equals(databaseType) ||
+                UserDataUpsertQueries.ORACLE.equals(databaseType) ||
+                UserDataUpsertQueries.POSTGRE_SQL.equals(databaseType) ||
+                UserDataUpsertQueries.DB2.equals(databaseType)) {
+            query.append(OFFSET_FETCH);
+            parameters.add(offset);
+            parameters.add(limit);
+        } else {
+            query.append(LIMIT_OFFSET);
+            parameters.add(limit);
+            parameters.add(offset);
+        }
+        return this;
+    }
+
+    String getQuery() {
+
+        return query.toString();
+    }
+
+    /**
+     * Get the query for the given database type.
+     *
+     * @param databaseType Database type as returned by DatabaseCreator.getDatabaseType.
+     * @return Query.
+     */
+    String getQuery(String databaseType) {
+
+        if (UserDataUpsertQueries.MSSQL.equals(databaseType)) {
+            return StringUtils.replace(query.toString(), LENGTH_FUNCTION, MSSQL_LENGTH_FUNCTION);
+        }
+        return query.toString();
+    }
+
+    /**
+     * Get the number of rows to be skipped while reading the result, when the offset could not be pushed down.
+     *
+     * @return Number of rows to skip.
+     */
+    int getRowsToSkip() {
+
+        return rowsToSkip;
+    }
+
+    void bindParameters(PreparedStatement preparedStatement) throws SQLException {
+
+        for (int i = 0; i < parameters.size(); i++) {
+            Object parameter = parameters.get(i);
+            if (parameter instanceof Integer) {
+                preparedStatement.setInt(i + 1, (Integer) parameter);
+            } else {
+                preparedStatement.setString(i + 1, (String) parameter);
+            }
+        }
+    }
+
+    /**
+     * Append the condition matching the given column with the claim value for the given filter operation. Unescaped
+     * '*' in a value of an EQ operation are treated as wildcards to support LDAP like filters.
+     */
+    private static void appendValueCondition(StringBuilder sql, List<Object> sqlParameters, String column,
+                                             String operation, String claimValue) {
+
+        if (ExpressionOperation.GE.toString().equals(operation)) {
+            appendRangeCondition(sql, sqlParameters, column, GREATER_OR_EQUAL, GREATER_THAN, claimValue);
+            return;
+        } else if (ExpressionOperation.LE.toString().equals(operation)) {
+            appendRangeCondition(sql, sqlParameters, column, LESS_OR_EQUAL, LESS_THAN, claimValue);
+            return;
+        } else if (ExpressionOperation.GT.toString().equals(operation)) {
+            appendRangeCondition(sql, sqlParameters, column, GREATER_THAN, GREATER_THAN, claimValue);
+            return;
+        } else if (ExpressionOperation.LT.toString().equals(operation)) {
+            appendRangeCondition(sql, sqlParameters, column, LESS_THAN, LESS_THAN, claimValue);
+            return;
+        }
+
+        sql.append(column);
+        if (ExpressionOperation.SW.toString().equals(operation)) {
+            sql.append(LIKE_ESCAPED);
+            sqlParameters.add(escapeLikePattern(claimValue) + SQL_FILTER_STRING_ANY);
+        } else if (ExpressionOperation.EW.toString().equals(operation)) {
+            sql.append(LIKE_ESCAPED);
+            sqlParameters.add(SQL_FILTER_STRING_ANY + escapeLikePattern(claimValue));
+        } else if (ExpressionOperation.CO.toString().equals(operation)) {
+            sql.append(LIKE_ESCAPED);
+            sqlParameters.add(SQL_FILTER_STRING_ANY + escapeLikePattern(claimValue) + SQL_FILTER_STRING_ANY);
+        } else if (claimValue.contains(QUERY_FILTER_STRING_ANY) && !claimValue.matches("(\\*)\\1+")) {
+            // This is to support LDAP like queries. Value having only * is restricted except one *.
+            sql.append(LIKE_ESCAPED);
+            sqlParameters.add(toLikePattern(claimValue));
+        } else {
+            sql.append(EQUALS);
+            sqlParameters.add(claimValue);
+        }
+    }
+
+    /**
+     * Append the condition matching the given column with a range of the claim value. A whole number is compared
+     * with a longer value by the length of the value, and with a value of the same length as text, which orders the
+     * values as numbers without casting the text of the other claims.
+     */
+    private static void appendRangeCondition(StringBuilder sql, List<Object> sqlParameters, String column,
+                                             String comparison, String lengthComparison, String claimValue) {
+
+        if (!WHOLE_NUMBER.matcher(claimValue).matches()) {
+            sql.append(column).append(comparison);
+            sqlParameters.add(claimValue);
+            return;
+        }
+        sql.append("(").append(LENGTH_FUNCTION).append(column).append(")").append(lengthComparison).append(OR)
+                .append("(").append(LENGTH_FUNCTION).append(column).append(")").append(EQUALS).append(AND)
+                .append(column).append(comparison).append("))");
+        sqlParameters.add(claimValue.length());
+        sqlParameters.add(claimValue.length());
+        sqlParameters.add(claimValue);
+    }
+
+    private static boolean isSupportedOperation(String operation) {
+
+        return ExpressionOperation.EQ.toString().equals(operation) ||
+                ExpressionOperation.GE.toString().equals(operation) ||
+                ExpressionOperation.LE.toString().equals(operation) ||
+                ExpressionOperation.GT.toString().equals(operation) ||
+                ExpressionOperation.LT.toString().equals(operation) ||
+                ExpressionOperation.SW.toString().equals(operation) ||
+                ExpressionOperation.EW.toString().equals(operation) ||
+                ExpressionOperation.CO.toString().equals(operation);
+    }
+
+    /**
+     * Convert an LDAP like value to a LIKE pattern, where unescaped '*' match any characters.
+     */
+    private static String toLikePattern(String claimValue) {
+
+        StringBuilder pattern = new StringBuilder(claimValue.length() + 8);
+        for (int i = 0; i < claimValue.length(); i++) {
+            char character = claimValue.charAt(i);
+            if (character == '\\' && i + 1 < claimValue.length() && claimValue.charAt(i + 1) == '*') {
+                pattern.append('*');
+                i++;
+            } else if (QUERY_FILTER_STRING_ANY.charAt(0) == character) {
+                pattern.append(SQL_FILTER_STRING_ANY);
+            } else {
+                appendEscaped(pattern, character);
+            }
+        }
+        return pattern.toString();
+    }
+
+    private static String escapeLikePattern(String value) {
+
+        StringBuilder pattern = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            appendEscaped(pattern, value.charAt(i));
+        }
+        return pattern.toString();
+    }
+
+    private static void appendEscaped(StringBuilder pattern, char character) {
+
+        if (character == '%' || character == '_' || character == LIKE_ESCAPE_CHARACTER.charAt(0)) {
+            pattern.append(LIKE_ESCAPE_CHARACTER);
+        }
+        pattern.append(character);
+    }
+
+    /**
+     * Compiles a tree of identity claim filters to a SQL condition. A node compiled against the rows of the outer
+     * query is matched by a single row of the user, hence only one child of an AND node is compiled against the rows
+     * and the other is compiled to EXISTS sub queries.
+     */
+    private static final class ConditionCompiler {
+
+        private final StringBuilder filter = new StringBuilder();
+        private final List<Object> parameters = new ArrayList<>();
+        private boolean isDistinct;
+
+        private boolean compile(Condition condition, boolean isRowCondition) {
+
+            if (condition instanceof ExpressionCondition) {
+                ExpressionCondition expressionCondition = (ExpressionCondition) condition;
+                if (expressionCondition.getAttributeName() == null || expressionCondition.getAttributeValue() == null
+                        || !isSupportedOperation(expressionCondition.getOperation())) {
+                    return false;
+                }
+                String alias = isRowCondition ? StringUtils.EMPTY : SUB_QUERY_ALIAS;
+                filter.append(isRowCondition ? "(" : USER_DATA_EXISTS);
+                filter.append(alias).append(CLAIM_CONDITION).append(AND);
+                parameters.add(expressionCondition.getAttributeName());
+                appendValueCondition(filter, parameters, alias + DATA_VALUE, expressionCondition.getOperation(),
+                        expressionCondition.getAttributeValue());
+                filter.append(")");
+                return true;
+            }
+            if (condition instanceof OperationalCondition) {
+                OperationalCondition operationalCondition = (OperationalCondition) condition;
+                boolean isAnd = OperationalOperation.AND.toString().equals(operationalCondition.getOperation());
+                if (!isAnd && !OperationalOperation.OR.toString().equals(operationalCondition.getOperation())) {
+                    return false;
+                }
+                if (!isAnd && isRowCondition) {
+                    isDistinct = true;
+                }
+                filter.append("(");
+                if (!compile(operationalCondition.getLeftCondition(), isRowCondition)) {
+                    return false;
+                }
+                filter.append(isAnd ? AND : OR);
+                // The left condition already restricts the rows of the outer query under an AND.
+                if (!compile(operationalCondition.getRightCondition(), isRowCondition && !isAnd)) {
+                    return false;
+                }
+                filter.append(")");
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dialect specific queries which insert or update a row of IDN_IDENTITY_USER_DATA in a single statement.
+ * All the queries bind the parameters in the order TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE. Only the dialects
+ * which can be verified against H2 are supported; the other databases use the read-modify-write flow.
+ */
+final class UserDataUpsertQueries {
+
+    static final String H2 = "h2";
+    static final String MYSQL = "mysql";
+    static final String MARIADB = "mariadb";
+    static final String POSTGRE_SQL = "postgresql";
+    static final String ORACLE = "oracle";
+    static final String MSSQL = "mssql";
+    static final String DB2 = "db2";
+
+    static final String UPSERT_USER_DATA_H2 = "MERGE INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, DATA_KEY, " +
+            "DATA_VALUE) KEY (TENANT_ID, USER_NAME, DATA_KEY) VALUES (?,?,?,?)";
+
+    static final String UPSERT_USER_DATA_MYSQL = "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, " +
+            "DATA_KEY, DATA_VALUE) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE DATA_VALUE = VALUES(DATA_VALUE)";
+
+    static final String UPSERT_USER_DATA_ORACLE = "MERGE INTO IDN_IDENTITY_USER_DATA T USING (SELECT CAST(? AS " +
+            "INTEGER) AS TENANT_ID, CAST(? AS VARCHAR2(255)) AS USER_NAME, CAST(? AS VARCHAR2(255)) AS DATA_KEY, " +
+            "CAST(? AS VARCHAR2(2048)) AS DATA_VALUE FROM DUAL) S ON (T.TENANT_ID = S.TENANT_ID AND T.USER_NAME = " +
+            "S.USER_NAME AND T.DATA_KEY = S.DATA_KEY) WHEN MATCHED THEN UPDATE SET T.DATA_VALUE = S.DATA_VALUE WHEN " +
+            "NOT MATCHED THEN INSERT (TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE) VALUES (S.TENANT_ID, S.USER_NAME, " +
+            "S.DATA_KEY, S.DATA_VALUE)";
+
+    static final String UPSERT_USER_DATA_DB2 = "MERGE INTO IDN_IDENTITY_USER_DATA T USING (VALUES (CAST(? AS " +
+            "INTEGER), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(2048)))) AS S " +
+            "(TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE) ON (T.TENANT_ID = S.TENANT_ID AND T.USER_NAME = " +
+            "S.USER_NAME AND T.DATA_KEY = S.DATA_KEY) WHEN MATCHED THEN UPDATE SET T.DATA_VALUE = S.DATA_VALUE WHEN " +
+            "NOT MATCHED THEN INSERT (TENANT_ID, USER_NAME, DATA_KEY, DATA_VALUE) VALUES (S.TENANT_ID, S.USER_NAME, " +
+            "S.DATA_KEY, S.DATA_VALUE)";
+
+    private static final Map<String, String> UPSERT_QUERIES = new HashMap<>();
+
+    static {
+        UPSERT_QUERIES.put(H2, UPSERT_USER_DATA_H2);
+        UPSERT_QUERIES.put(MYSQL, UPSERT_USER_DATA_MYSQL);
+        UPSERT_QUERIES.put(MARIADB, UPSERT_USER_DATA_MYSQL);
+        UPSERT_QUERIES.put(ORACLE, UPSERT_USER_DATA_ORACLE);
+        UPSERT_QUERIES.put(DB2, UPSERT_USER_DATA_DB2);
+    }
+
+    private UserDataUpsertQueries() {
+
+    }
+
+    /**
+     * Get the upsert query for the given database type.
+     *
+     * @param databaseType Database type as returned by DatabaseCreator.getDatabaseType.
+     * @return Upsert query or null if the database type does not support a single statement upsert.
+     */
+    static String getUpsertQuery(String databaseType) {
+
+        if (databaseType == null) {
+            return null;
+        }
+        return UPSERT_QUERIES.get(databaseType);
+    }
+}
@@ -20,10 +20,15 @@ import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
 import org.wso2.carbon.user.api.UserStoreManager;
 import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.model.Condition;
 import org.wso2.carbon.user.core.model.ExpressionCondition;
+import org.wso2.carbon.user.core.model.ExpressionOperation;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * This interface provides to plug module for preferred persistence store.
@@ -70,6 +75,28 @@ public abstract class UserIdentityDataStore {
      */
     public abstract UserIdentityClaim load(String userName, UserStoreManager userStoreManager);
 
+    /**
+     * Loads the identity claims of multiple users belonging to the same user store.
+     *
+     * @param userNames        Usernames of the users.
+     * @param userStoreManager UserStoreManager instance of the user store the users belong to.
+     * @return Map of the given username to the identity claims of the user. Users without identity data are not
+     * included in the map.
+     */
+    public Map<String, UserIdentityClaim> loadUserIdentityClaims(List<String> userNames,
+                                                                 UserStoreManager userStoreManager) {
+
+        // Sub classes which can load claims of many users at once should override this. Falls back to loading
+        // users one by one to give backward compatibility.
+        Map<String, UserIdentityClaim> userIdentityClaims = new HashMap<>();
+        for (String userName : userNames) {
+            UserIdentityClaim userIdentityClaim = load(userName, userStoreManager);
+            if (userIdentityClaim != null) {
+                userIdentityClaims.put(userName, userIdentityClaim);
+            }
+        }
+        return userIdentityClaims;
+    }
 
     /**
      * Removes
@@ -95,6 +122,59 @@ public abstract class UserIdentityDataStore {
         return Collections.emptyList();
     }
 
+    /**
+     * List users having a value matching the given filter operation for the given claim URI. The usernames are passed
+     * to the given consumer as they are read, instead of collecting all of them in to a list.
+     *
+     * @param claimUri         Claim URI.
+     * @param operation        Filter operation, one of EQ, SW, EW, CO, GE and LE.
+     * @param claimValue       Value to be matched with the claim value.
+     * @param limit            Maximum number of users. A non positive value lists all the users.
+     * @param offset           Number of users to skip.
+     * @param userStoreManager UserStoreManager instance.
+     * @param userNameConsumer Consumer of the usernames.
+     * @throws IdentityException Identity Exception.
+     */
+    public void list(String claimUri, String operation, String claimValue, int limit, int offset,
+                     org.wso2.carbon.user.core.UserStoreManager userStoreManager, Consumer<String> userNameConsumer)
+            throws IdentityException {
+
+        // Sub classes which do not override this method are served by matching the claim value as a LIKE pattern.
+        if (ExpressionOperation.EW.toString().equals(operation)) {
+            claimValue = "%" + claimValue;
+        } else if (ExpressionOperation.CO.toString().equals(operation)) {
+            claimValue = "%" + claimValue + "%";
+        } else if (ExpressionOperation.SW.toString().equals(operation)) {
+            claimValue = claimValue + "%";
+        }
+        List<String> userNames = list(claimUri, claimValue, userStoreManager);
+        int end = limit > 0 ? (int) Math.min((long) offset + limit, userNames.size()) : userNames.size();
+        for (int i = Math.max(offset, 0); i < end; i++) {
+            userNameConsumer.accept(userNames.get(i));
+        }
+    }
+
+    /**
+     * List users matching the given tree of identity claim filters joined with AND and OR operations, evaluating the
+     * whole tree at once. The usernames are passed to the given consumer as they are read.
+     *
+     * @param condition        Identity claim filters.
+     * @param limit            Maximum number of users. A non positive value lists all the users.
+     * @param offset           Number of users to skip.
+     * @param userStoreManager UserStoreManager instance.
+     * @param userNameConsumer Consumer of the usernames.
+     * @return False if the filters cannot be evaluated at once, in which case no users are listed and the filters
+     * should be evaluated claim by claim.
+     * @throws IdentityException Identity Exception.
+     */
+    public boolean list(Condition condition, int limit, int offset,
+                        org.wso2.carbon.user.core.UserStoreManager userStoreManager,
+                        Consumer<String> userNameConsumer) throws IdentityException {
+
+        // Sub classes which can evaluate the filters at once should override this method.
+        return false;
+    }
+
     /**
      * List users according to the given claim URI and value and pagination parameters.
      *
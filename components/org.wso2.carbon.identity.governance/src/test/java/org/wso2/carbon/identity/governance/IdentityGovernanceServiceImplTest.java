@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.governance.internal.IdentityMgtServiceDataHolder;
+import org.wso2.carbon.identity.governance.internal.TenantDomainResolver;
+import org.wso2.carbon.identity.governance.internal.cache.IdentityGovernanceConfigCache;
+import org.wso2.carbon.identity.governance.internal.cache.IdentityGovernanceConfigSnapshot;
+import org.wso2.carbon.idp.mgt.IdpManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class IdentityGovernanceServiceImplTest {
+
+    private static final String TENANT_DOMAIN = "abc.com";
+    private static final int TENANT_ID = 1;
+    private static final String PROPERTY_NAME = "Recovery.Notification.Password.Enable";
+
+    private IdpManager idpManager;
+    private Map<String, IdentityGovernanceConfigSnapshot> cachedSnapshots;
+    private MockedStatic<IdentityGovernanceConfigCache> mockedConfigCache;
+    private IdentityGovernanceServiceImpl identityGovernanceService;
+    private Runnable beforeAddToCache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        idpManager = mock(IdpManager.class);
+        IdentityMgtServiceDataHolder.getInstance().setIdpManager(idpManager);
+        TenantDomainResolver tenantDomainResolver = mock(TenantDomainResolver.class);
+        when(tenantDomainResolver.getTenantId(TENANT_DOMAIN)).thenReturn(TENANT_ID);
+        IdentityMgtServiceDataHolder.getInstance().setTenantDomainResolver(tenantDomainResolver);
+
+        cachedSnapshots = new ConcurrentHashMap<>();
+        beforeAddToCache = () -> {
+        };
+        IdentityGovernanceConfigCache configCache = mock(IdentityGovernanceConfigCache.class);
+        doAnswer(invocation -> cachedSnapshots.get(invocation.getArgument(0))).when(configCache)
+                .getValueFromCache(anyString(), anyInt());
+        doAnswer(invocation -> {
+            beforeAddToCache.run();
+            return cachedSnapshots.put(invocation.getArgument(0), invocation.getArgument(1));
+        }).when(configCache).addToCache(anyString(), any(IdentityGovernanceConfigSnapshot.class), anyInt());
+        doAnswer(invocation -> cachedSnapshots.remove(invocation.getArgument(0))).when(configCache)
+                .clearCacheEntry(anyString(), anyInt());
+        mockedConfigCache = Mockito.mockStatic(IdentityGovernanceConfigCache.class);
+        mockedConfigCache.when(IdentityGovernanceConfigCache::getInstance).thenReturn(configCache);
+
+        identityGovernanceService = new IdentityGovernanceServiceImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        mockedConfigCache.close();
+        IdentityMgtServiceDataHolder.getInstance().setTenantDomainResolver(new TenantDomainResolver());
+    }
+
+    @Test(description = "Test whether the configuration is loaded once and served from the cache.")
+    public void testGetConfiguration() throws Exception {
+
+        mockResidentIdp("true");
+
+        assertEquals(identityGovernanceService.getConfiguration(TENANT_DOMAIN)[0].getValue(), "true");
+        assertEquals(identityGovernanceService.getConfiguration(TENANT_DOMAIN)[0].getValue(), "true");
+        verify(idpManager, times(1)).getResidentIdP(TENANT_DOMAIN);
+        assertTrue(cachedSnapshots.containsKey(TENANT_DOMAIN));
+    }
+
+    @Test(description = "Test whether a snapshot is not kept when the configuration is invalidated while the "
+            + "snapshot is being cached.")
+    public void testInvalidationWhileCaching() throws Exception {
+
+        mockResidentIdp("true");
+        // The configuration is updated after the snapshot was loaded, just before it is cached.
+        beforeAddToCache = () -> identityGovernanceService.invalidateConfiguration(TENANT_DOMAIN);
+
+        assertEquals(identityGovernanceService.getConfiguration(TENANT_DOMAIN)[0].getValue(), "true");
+        assertFalse(cachedSnapshots.containsKey(TENANT_DOMAIN));
+
+        beforeAddToCache = () -> {
+        };
+        mockResidentIdp("false");
+        assertEquals(identityGovernanceService.getConfiguration(TENANT_DOMAIN)[0].getValue(), "false");
+        assertTrue(cachedSnapshots.containsKey(TENANT_DOMAIN));
+    }
+
+    private void mockResidentIdp(String propertyValue) throws Exception {
+
+        IdentityProviderProperty property = new IdentityProviderProperty();
+        property.setName(PROPERTY_NAME);
+        property.setValue(propertyValue);
+        IdentityProvider residentIdp = new IdentityProvider();
+        residentIdp.setIdpProperties(new IdentityProviderProperty[]{property});
+        when(idpManager.getResidentIdP(TENANT_DOMAIN)).thenReturn(residentIdp);
+    }
+}
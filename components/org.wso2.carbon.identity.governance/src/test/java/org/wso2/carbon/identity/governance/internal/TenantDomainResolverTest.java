@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.governance.internal.cache.TenantDomainCache;
+import org.wso2.carbon.identity.governance.internal.cache.TenantIdCache;
+import org.wso2.carbon.user.api.TenantManager;
+import org.wso2.carbon.user.core.service.RealmService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TenantDomainResolverTest {
+
+    private static final int SUPER_TENANT_ID = -1234;
+
+    private TenantManager tenantManager;
+    private TenantDomainCache tenantDomainCache;
+    private TenantIdCache tenantIdCache;
+    private Map<Integer, String> cachedTenantDomains;
+    private Map<String, Integer> cachedTenantIds;
+    private MockedStatic<TenantDomainCache> mockedTenantDomainCache;
+    private MockedStatic<TenantIdCache> mockedTenantIdCache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        tenantManager = mock(TenantManager.class);
+        RealmService realmService = mock(RealmService.class);
+        when(realmService.getTenantManager()).thenReturn(tenantManager);
+        IdentityMgtServiceDataHolder.getInstance().setRealmService(realmService);
+
+        when(tenantManager.getDomain(1)).thenReturn("abc.com");
+        when(tenantManager.getDomain(2)).thenReturn("xyz.com");
+        when(tenantManager.getTenantId("abc.com")).thenReturn(1);
+
+        cachedTenantDomains = new ConcurrentHashMap<>();
+        tenantDomainCache = mock(TenantDomainCache.class);
+        doAnswer(invocation -> cachedTenantDomains.get(invocation.getArgument(0))).when(tenantDomainCache)
+                .getValueFromCache(anyInt(), anyInt());
+        doAnswer(invocation -> cachedTenantDomains.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(tenantDomainCache).addToCache(anyInt(), anyString(), anyInt());
+        doAnswer(invocation -> cachedTenantDomains.remove(invocation.getArgument(0))).when(tenantDomainCache)
+                .clearCacheEntry(anyInt(), anyInt());
+        mockedTenantDomainCache = Mockito.mockStatic(TenantDomainCache.class);
+        mockedTenantDomainCache.when(TenantDomainCache::getInstance).thenReturn(tenantDomainCache);
+
+        cachedTenantIds = new ConcurrentHashMap<>();
+        tenantIdCache = mock(TenantIdCache.class);
+        doAnswer(invocation -> cachedTenantIds.get(invocation.getArgument(0))).when(tenantIdCache)
+                .getValueFromCache(anyString(), anyInt());
+        doAnswer(invocation -> cachedTenantIds.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(tenantIdCache).addToCache(anyString(), any(Integer.class), anyInt());
+        doAnswer(invocation -> cachedTenantIds.remove(invocation.getArgument(0))).when(tenantIdCache)
+                .clearCacheEntry(anyString(), anyInt());
+        mockedTenantIdCache = Mockito.mockStatic(TenantIdCache.class);
+        mockedTenantIdCache.when(TenantIdCache::getInstance).thenReturn(tenantIdCache);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        mockedTenantDomainCache.close();
+        mockedTenantIdCache.close();
+    }
+
+    @Test(description = "Test whether the tenant domains are resolved once and invalidated on request.")
+    public void testGetTenantDomain() throws Exception {
+
+        TenantDomainResolver tenantDomainResolver = new TenantDomainResolver();
+        assertEquals(tenantDomainResolver.getTenantDomain(1), "abc.com");
+        assertEquals(tenantDomainResolver.getTenantDomain(1), "abc.com");
+        assertEquals(tenantDomainResolver.getTenantId("abc.com"), 1);
+        verify(tenantManager, times(1)).getDomain(1);
+        verify(tenantManager, times(0)).getTenantId("abc.com");
+        assertEquals(tenantDomainResolver.getHitCount(), 2);
+        assertEquals(tenantDomainResolver.getMissCount(), 1);
+        assertEquals(tenantDomainResolver.getHitRate(), 2.0 / 3);
+
+        tenantDomainResolver.invalidate(1);
+        assertTrue(cachedTenantDomains.isEmpty());
+        assertTrue(cachedTenantIds.isEmpty());
+        assertEquals(tenantDomainResolver.getTenantId("abc.com"), 1);
+        verify(tenantManager, times(1)).getTenantId("abc.com");
+    }
+
+    @Test(description = "Test whether the mappings are kept under the super tenant and invalidated across the "
+            + "cluster.")
+    public void testInvalidateAcrossCluster() throws Exception {
+
+        TenantDomainResolver tenantDomainResolver = new TenantDomainResolver();
+        tenantDomainResolver.getTenantDomain(2);
+        verify(tenantDomainCache).addToCache(2, "xyz.com", SUPER_TENANT_ID);
+        verify(tenantIdCache).addToCache("xyz.com", 2, SUPER_TENANT_ID);
+
+        tenantDomainResolver.invalidate("xyz.com");
+        verify(tenantIdCache).clearCacheEntry("xyz.com", SUPER_TENANT_ID);
+        verify(tenantDomainCache).clearCacheEntry(2, SUPER_TENANT_ID);
+    }
+
+    @Test(description = "Test whether the tenant id of a tenant not resolved by this node is invalidated.")
+    public void testInvalidateTenantNotResolvedLocally() {
+
+        TenantDomainResolver tenantDomainResolver = new TenantDomainResolver();
+        tenantDomainResolver.invalidate(1);
+        verify(tenantDomainCache).clearCacheEntry(1, SUPER_TENANT_ID);
+        verify(tenantIdCache).clearCacheEntry("abc.com", SUPER_TENANT_ID);
+    }
+
+    @Test(description = "Test whether the super tenant is resolved without a lookup.")
+    public void testSuperTenant() throws Exception {
+
+        TenantDomainResolver tenantDomainResolver = new TenantDomainResolver();
+        assertEquals(tenantDomainResolver.getTenantDomain(SUPER_TENANT_ID), "carbon.super");
+        assertEquals(tenantDomainResolver.getTenantId("carbon.super"), SUPER_TENANT_ID);
+        verify(tenantManager, times(0)).getDomain(anyInt());
+        verify(tenantManager, times(0)).getTenantId(anyString());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.IdentityProviderProperty;
+import org.wso2.carbon.identity.application.common.model.Property;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class IdentityGovernanceConfigSnapshotTest {
+
+    private static final String ALREADY_WRITTEN_PROPERTY = "AlreadyWritten";
+    private static final String ACCOUNT_LOCK_ENABLE = "account.lock.handler.enable";
+    private static final String MAX_FAILED_ATTEMPTS = "account.lock.handler.On.Failure.Max.Attempts";
+
+    @Test(description = "Test whether the properties are looked up by name in the order of the requested names.")
+    public void testGetProperties() {
+
+        IdentityGovernanceConfigSnapshot snapshot = IdentityGovernanceConfigSnapshot.of(new IdentityProviderProperty[]{
+                idpProperty(ACCOUNT_LOCK_ENABLE, "true"),
+                idpProperty(ALREADY_WRITTEN_PROPERTY, "true"),
+                idpProperty(MAX_FAILED_ATTEMPTS, "5")}, ALREADY_WRITTEN_PROPERTY);
+
+        Property[] properties = snapshot.getProperties(new String[]{MAX_FAILED_ATTEMPTS, "unknown",
+                ACCOUNT_LOCK_ENABLE});
+        assertEquals(properties.length, 2);
+        assertEquals(properties[0].getName(), MAX_FAILED_ATTEMPTS);
+        assertEquals(properties[0].getValue(), "5");
+        assertEquals(properties[1].getName(), ACCOUNT_LOCK_ENABLE);
+        assertEquals(snapshot.getPropertyValue(ACCOUNT_LOCK_ENABLE), "true");
+        assertNull(snapshot.getPropertyValue(ALREADY_WRITTEN_PROPERTY));
+
+        // Modifying a returned property does not modify the snapshot.
+        properties[0].setValue("10");
+        assertEquals(snapshot.getPropertyValue(MAX_FAILED_ATTEMPTS), "5");
+    }
+
+    @Test(description = "Test whether all the properties are returned in the order of the resident IdP properties.")
+    public void testGetAllProperties() {
+
+        IdentityGovernanceConfigSnapshot snapshot = IdentityGovernanceConfigSnapshot.of(new IdentityProviderProperty[]{
+                idpProperty(ALREADY_WRITTEN_PROPERTY, "true"),
+                idpProperty(ACCOUNT_LOCK_ENABLE, "true"),
+                idpProperty(MAX_FAILED_ATTEMPTS, "5")}, ALREADY_WRITTEN_PROPERTY);
+
+        Property[] properties = snapshot.getProperties();
+        assertEquals(properties.length, 3);
+        assertEquals(properties[0].getName(), ACCOUNT_LOCK_ENABLE);
+        assertEquals(properties[1].getName(), MAX_FAILED_ATTEMPTS);
+        assertNull(properties[2]);
+    }
+
+    private IdentityProviderProperty idpProperty(String name, String value) {
+
+        IdentityProviderProperty property = new IdentityProviderProperty();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+}
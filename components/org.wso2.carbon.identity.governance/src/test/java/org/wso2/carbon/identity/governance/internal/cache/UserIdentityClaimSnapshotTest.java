@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal.cache;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class UserIdentityClaimSnapshotTest {
+
+    private static final String FAILED_ATTEMPTS_CLAIM = "http://wso2.org/claims/identity/failedLoginAttempts";
+    private static final String ACCOUNT_LOCKED_CLAIM = "http://wso2.org/claims/identity/accountLocked";
+    private static final String LAST_LOGON_CLAIM = "http://wso2.org/claims/identity/lastLogonTime";
+
+    @Test(description = "Test whether merging claims creates a new snapshot without modifying the existing one.")
+    public void testMerge() {
+
+        Map<String, String> claims = new HashMap<>();
+        claims.put(FAILED_ATTEMPTS_CLAIM, "1");
+        claims.put(LAST_LOGON_CLAIM, "1700000000000");
+        UserIdentityClaim userIdentityClaim = new UserIdentityClaim("PRIMARY/john", claims);
+        userIdentityClaim.setTenantId(1);
+
+        UserIdentityClaimSnapshot snapshot = UserIdentityClaimSnapshot.of(userIdentityClaim);
+        claims.put(FAILED_ATTEMPTS_CLAIM, "2");
+        assertEquals(snapshot.getClaimValue(FAILED_ATTEMPTS_CLAIM), "1");
+
+        Map<String, String> updatedClaims = new HashMap<>();
+        updatedClaims.put(FAILED_ATTEMPTS_CLAIM, "2");
+        updatedClaims.put(ACCOUNT_LOCKED_CLAIM, "true");
+        UserIdentityClaimSnapshot updatedSnapshot = snapshot.merge(updatedClaims);
+
+        assertEquals(snapshot.size(), 2);
+        assertNull(snapshot.getClaimValue(ACCOUNT_LOCKED_CLAIM));
+        assertEquals(updatedSnapshot.size(), 3);
+        assertTrue(updatedSnapshot.getVersion() > snapshot.getVersion());
+        assertFalse(updatedSnapshot.isSameVersion(snapshot));
+        assertEquals(updatedSnapshot.getClaimValue(FAILED_ATTEMPTS_CLAIM), "2");
+        assertEquals(updatedSnapshot.getClaimValue(ACCOUNT_LOCKED_CLAIM), "true");
+        assertEquals(updatedSnapshot.getClaimValue(LAST_LOGON_CLAIM), "1700000000000");
+    }
+
+    @Test(description = "Test whether a snapshot recreated with the same claims does not get a version used before.")
+    public void testVersionIsNotReused() {
+
+        Map<String, String> claims = new HashMap<>();
+        claims.put(FAILED_ATTEMPTS_CLAIM, "1");
+        UserIdentityClaim userIdentityClaim = new UserIdentityClaim("PRIMARY/john", claims);
+        userIdentityClaim.setTenantId(1);
+
+        // A snapshot read before the user was removed from the cache must not match the snapshot cached afterwards.
+        UserIdentityClaimSnapshot removedSnapshot = UserIdentityClaimSnapshot.of(userIdentityClaim);
+        UserIdentityClaimSnapshot recreatedSnapshot = UserIdentityClaimSnapshot.of(userIdentityClaim);
+
+        assertTrue(removedSnapshot.isSameVersion(removedSnapshot));
+        assertFalse(recreatedSnapshot.isSameVersion(removedSnapshot));
+        assertFalse(removedSnapshot.merge(new HashMap<>()).isSameVersion(recreatedSnapshot));
+    }
+
+    @Test(description = "Test whether the UserIdentityClaim created out of a snapshot is a modifiable copy.")
+    public void testToUserIdentityClaim() {
+
+        Map<String, String> claims = new HashMap<>();
+        claims.put(FAILED_ATTEMPTS_CLAIM, "1");
+        UserIdentityClaim userIdentityClaim = new UserIdentityClaim("PRIMARY/john", claims);
+        userIdentityClaim.setTenantId(1);
+        UserIdentityClaimSnapshot snapshot = UserIdentityClaimSnapshot.of(userIdentityClaim);
+
+        UserIdentityClaim copy = snapshot.toUserIdentityClaim();
+        copy.setUserIdentityDataClaim(ACCOUNT_LOCKED_CLAIM, "true");
+
+        assertEquals(copy.getUserName(), "PRIMARY/john");
+        assertEquals(copy.getTenantId(), 1);
+        assertEquals(copy.getUserIdentityDataMap().size(), 2);
+        assertNull(snapshot.getClaimValue(ACCOUNT_LOCKED_CLAIM));
+    }
+}
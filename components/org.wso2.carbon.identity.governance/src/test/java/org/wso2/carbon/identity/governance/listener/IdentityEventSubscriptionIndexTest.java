@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.listener;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.bean.context.MessageContext;
+import org.wso2.carbon.identity.event.IdentityEventConfigBuilder;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.carbon.identity.event.bean.ModuleConfiguration;
+import org.wso2.carbon.identity.event.bean.Subscription;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class IdentityEventSubscriptionIndexTest {
+
+    private static final String HANDLER_NAME = "testHandler";
+
+    private MockedStatic<IdentityEventConfigBuilder> mockedConfigBuilder;
+    private IdentityEventConfigBuilder configBuilder;
+
+    @BeforeMethod
+    public void setUp() {
+
+        configBuilder = mock(IdentityEventConfigBuilder.class);
+        mockedConfigBuilder = Mockito.mockStatic(IdentityEventConfigBuilder.class);
+        mockedConfigBuilder.when(IdentityEventConfigBuilder::getInstance).thenReturn(configBuilder);
+
+        Subscription subscription = mock(Subscription.class);
+        when(subscription.getSubscriptionName()).thenReturn(IdentityEventConstants.Event.PRE_AUTHENTICATION);
+        ModuleConfiguration moduleConfiguration = mock(ModuleConfiguration.class);
+        when(moduleConfiguration.getSubscriptions()).thenReturn(Collections.singletonList(subscription));
+        when(configBuilder.getModuleConfigurations(HANDLER_NAME)).thenReturn(moduleConfiguration);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        mockedConfigBuilder.close();
+    }
+
+    @Test(description = "Test whether only the subscribed events are dispatched once the handlers are registered.")
+    public void testHasSubscribers() {
+
+        IdentityEventSubscriptionIndex subscriptionIndex = new IdentityEventSubscriptionIndex();
+        assertTrue(subscriptionIndex.hasSubscribers(IdentityEventConstants.Event.POST_GET_USER_CLAIMS));
+
+        TestEventHandler eventHandler = new TestEventHandler();
+        subscriptionIndex.addEventHandler(eventHandler);
+        assertTrue(subscriptionIndex.hasSubscribers(IdentityEventConstants.Event.PRE_AUTHENTICATION));
+        assertFalse(subscriptionIndex.hasSubscribers(IdentityEventConstants.Event.POST_GET_USER_CLAIMS));
+        assertFalse(subscriptionIndex.hasSubscribers(IdentityEventConstants.Event.POST_GET_USER_CLAIMS));
+        verify(configBuilder, times(2)).getModuleConfigurations(HANDLER_NAME);
+
+        subscriptionIndex.removeEventHandler(eventHandler);
+        assertFalse(subscriptionIndex.hasSubscribers(IdentityEventConstants.Event.PRE_AUTHENTICATION));
+    }
+
+    @Test(description = "Test whether a handler overriding canHandle is considered subscribed to all the events.")
+    public void testHandlerOverridingCanHandle() {
+
+        IdentityEventSubscriptionIndex subscriptionIndex = new IdentityEventSubscriptionIndex();
+        subscriptionIndex.addEventHandler(new TestEventHandler());
+        assertFalse(subscriptionIndex.hasSubscribers(IdentityEventConstants.Event.POST_GET_USER_CLAIMS));
+
+        subscriptionIndex.addEventHandler(new TestEventHandler() {
+
+            @Override
+            public boolean canHandle(MessageContext messageContext) {
+
+                return true;
+            }
+        });
+        assertTrue(subscriptionIndex.hasSubscribers(IdentityEventConstants.Event.POST_GET_USER_CLAIMS));
+    }
+
+    private static class TestEventHandler extends AbstractEventHandler {
+
+        @Override
+        public void handleEvent(Event event) {
+
+        }
+
+        @Override
+        public String getName() {
+
+            return HANDLER_NAME;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.governance.internal.cache.IdentityDataStoreCacheKey;
+import org.wso2.carbon.user.api.RealmConfiguration;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.jdbc.JDBCUserStoreManager;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.testng.Assert.assertEquals;
+
+public class IdentityDataStoreCacheKeyResolverTest {
+
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+    private UserStoreManager userStoreManager;
+
+    @BeforeMethod
+    public void setUp() {
+
+        mockedIdentityUtil = Mockito.mockStatic(IdentityUtil.class);
+        userStoreManager = mock(JDBCUserStoreManager.class);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        mockedIdentityUtil.close();
+    }
+
+    @Test(description = "Test whether the username normalization rules are resolved once per realm configuration.")
+    public void testGetCacheKey() {
+
+        RealmConfiguration realmConfiguration = mockRealmConfiguration("SECONDARY");
+        Mockito.when(userStoreManager.getRealmConfiguration()).thenReturn(realmConfiguration);
+        mockedIdentityUtil.when(() -> IdentityUtil.isUserStoreCaseSensitive(userStoreManager)).thenReturn(false);
+
+        IdentityDataStoreCacheKeyResolver cacheKeyResolver = new IdentityDataStoreCacheKeyResolver();
+        IdentityDataStoreCacheKey key = cacheKeyResolver.getCacheKey("SECONDARY/John", userStoreManager);
+        assertEquals(key, new IdentityDataStoreCacheKey("SECONDARY", "john"));
+        assertEquals(cacheKeyResolver.getCacheKey("JOHN", userStoreManager), key);
+        mockedIdentityUtil.verify(() -> IdentityUtil.isUserStoreCaseSensitive(userStoreManager), times(1));
+
+        // A user store configuration change replaces the realm configuration of the user store manager.
+        RealmConfiguration updatedRealmConfiguration = mockRealmConfiguration("SECONDARY");
+        Mockito.when(userStoreManager.getRealmConfiguration()).thenReturn(updatedRealmConfiguration);
+        mockedIdentityUtil.when(() -> IdentityUtil.isUserStoreCaseSensitive(userStoreManager)).thenReturn(true);
+        mockedIdentityUtil.when(() -> IdentityUtil.isUseCaseSensitiveUsernameForCacheKeys(userStoreManager))
+                .thenReturn(true);
+
+        assertEquals(cacheKeyResolver.getCacheKey("SECONDARY/John", userStoreManager),
+                new IdentityDataStoreCacheKey("SECONDARY", "John"));
+        mockedIdentityUtil.verify(() -> IdentityUtil.isUserStoreCaseSensitive(userStoreManager), times(2));
+    }
+
+    private RealmConfiguration mockRealmConfiguration(String domainName) {
+
+        RealmConfiguration realmConfiguration = mock(RealmConfiguration.class);
+        Mockito.when(realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME))
+                .thenReturn(domainName);
+        return realmConfiguration;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+public class IdentityDataStoreWriteBehindQueueTest {
+
+    private static final int TENANT_ID = -1234;
+    private static final String FAILED_ATTEMPTS_CLAIM = "http://wso2.org/claims/identity/failedLoginAttempts";
+    private static final String LAST_LOGON_CLAIM = "http://wso2.org/claims/identity/lastLogonTime";
+
+    private List<IdentityDataStoreWriteBehindQueue.PendingWrite> persistedWrites;
+    private IdentityDataStoreWriteBehindQueue writeBehindQueue;
+
+    @BeforeMethod
+    public void setUp() {
+
+        persistedWrites = Collections.synchronizedList(new ArrayList<>());
+        // A long flush interval keeps the scheduled flush out of the way of the tests.
+        writeBehindQueue = new IdentityDataStoreWriteBehindQueue(writes -> {
+            persistedWrites.addAll(writes);
+            return Collections.emptyList();
+        }, 600000L, 1000);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        writeBehindQueue.shutdown();
+    }
+
+    @Test(description = "Test whether repeated writes of the same user are coalesced in to a single write.")
+    public void testCoalesceWrites() {
+
+        writeBehindQueue.enqueue(TENANT_ID, "admin", "admin", claims(FAILED_ATTEMPTS_CLAIM, "1"));
+        writeBehindQueue.enqueue(TENANT_ID, "admin", "admin", claims(FAILED_ATTEMPTS_CLAIM, "2"));
+        writeBehindQueue.enqueue(TENANT_ID, "admin", "admin", claims(LAST_LOGON_CLAIM, "1700000000000"));
+
+        Map<String, String> pendingData = writeBehindQueue.getPendingData(TENANT_ID, "admin");
+        assertEquals(pendingData.get(FAILED_ATTEMPTS_CLAIM), "2");
+        assertEquals(pendingData.get(LAST_LOGON_CLAIM), "1700000000000");
+        assertEquals(writeBehindQueue.getCoalescedWriteCount(), 2);
+
+        writeBehindQueue.flush();
+        assertEquals(persistedWrites.size(), 1);
+        assertEquals(persistedWrites.get(0).getData().size(), 2);
+        assertEquals(writeBehindQueue.getPersistedWriteCount(), 1);
+        assertEquals(writeBehindQueue.getPendingWriteCount(), 0);
+        assertNull(writeBehindQueue.getPendingData(TENANT_ID, "admin"));
+    }
+
+    @Test(description = "Test whether discarded writes are not persisted.")
+    public void testDiscard() {
+
+        writeBehindQueue.enqueue(TENANT_ID, "admin", "admin", claims(FAILED_ATTEMPTS_CLAIM, "1"));
+        writeBehindQueue.enqueue(1, "admin", "admin", claims(FAILED_ATTEMPTS_CLAIM, "1"));
+        writeBehindQueue.discard(TENANT_ID, "admin");
+
+        writeBehindQueue.flush();
+        assertEquals(persistedWrites.size(), 1);
+        assertEquals(persistedWrites.get(0).getTenantId(), 1);
+    }
+
+    @Test(description = "Test whether pending writes are persisted and new writes are rejected on shutdown.")
+    public void testShutdown() {
+
+        writeBehindQueue.enqueue(TENANT_ID, "admin", "admin", claims(FAILED_ATTEMPTS_CLAIM, "1"));
+        writeBehindQueue.shutdown();
+
+        assertEquals(persistedWrites.size(), 1);
+        assertFalse(writeBehindQueue.enqueue(TENANT_ID, "admin", "admin", claims(FAILED_ATTEMPTS_CLAIM, "2")));
+    }
+
+    @Test(description = "Test whether writes which could not be persisted are retried and then dropped.")
+    public void testFailedWritesAreRetried() {
+
+        List<IdentityDataStoreWriteBehindQueue.PendingWrite> attemptedWrites =
+                Collections.synchronizedList(new ArrayList<>());
+        IdentityDataStoreWriteBehindQueue failingQueue = new IdentityDataStoreWriteBehindQueue(writes -> {
+            attemptedWrites.addAll(writes);
+            List<IdentityDataStoreWriteBehindQueue.PendingWrite> failedWrites = new ArrayList<>();
+            for (IdentityDataStoreWriteBehindQueue.PendingWrite write : writes) {
+                if ("locked".equals(write.getUserName())) {
+                    failedWrites.add(write);
+                }
+            }
+            return failedWrites;
+        }, 600000L, 1000);
+        try {
+            failingQueue.enqueue(TENANT_ID, "admin", "admin", claims(FAILED_ATTEMPTS_CLAIM, "1"));
+            failingQueue.enqueue(TENANT_ID, "locked", "locked", claims(FAILED_ATTEMPTS_CLAIM, "5"));
+
+            failingQueue.flush();
+            assertEquals(failingQueue.getPersistedWriteCount(), 1);
+            assertEquals(failingQueue.getFailedWriteCount(), 1);
+            assertNull(failingQueue.getPendingData(TENANT_ID, "admin"));
+            assertEquals(failingQueue.getPendingData(TENANT_ID, "locked").get(FAILED_ATTEMPTS_CLAIM), "5");
+
+            // A newer write merged in to the failed write keeps the failed data.
+            failingQueue.enqueue(TENANT_ID, "locked", "locked", claims(LAST_LOGON_CLAIM, "1700000000000"));
+            Map<String, String> pendingData = failingQueue.getPendingData(TENANT_ID, "locked");
+            assertEquals(pendingData.get(FAILED_ATTEMPTS_CLAIM), "5");
+            assertEquals(pendingData.get(LAST_LOGON_CLAIM), "1700000000000");
+
+            for (int i = 0; i < 4; i++) {
+                failingQueue.flush();
+            }
+            assertEquals(attemptedWrites.size(), 6);
+            assertEquals(failingQueue.getDroppedWriteCount(), 1);
+            assertEquals(failingQueue.getPendingWriteCount(), 0);
+        } finally {
+            failingQueue.shutdown();
+        }
+    }
+
+    private Map<String, String> claims(String claimUri, String value) {
+
+        Map<String, String> claims = new HashMap<>();
+        claims.put(claimUri, value);
+        return claims;
+    }
+}
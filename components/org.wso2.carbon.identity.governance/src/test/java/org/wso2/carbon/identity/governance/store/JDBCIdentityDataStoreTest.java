@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class JDBCIdentityDataStoreTest {
+
+    private static final String FAILED_ATTEMPTS_CLAIM = "http://wso2.org/claims/identity/failedLoginAttempts";
+    private static final String ACCOUNT_LOCKED_CLAIM = "http://wso2.org/claims/identity/accountLocked";
+    private static final String LAST_LOGON_CLAIM = "http://wso2.org/claims/identity/lastLogonTime";
+    private static final int TENANT_ID = -1234;
+    private static final int OTHER_TENANT_ID = 1;
+    private static final int USER_COUNT = 150;
+    private static final String CREATE_TABLE = "CREATE TABLE IDN_IDENTITY_USER_DATA (TENANT_ID INTEGER DEFAULT " +
+            "-1234, USER_NAME VARCHAR(255) NOT NULL, DATA_KEY VARCHAR(255) NOT NULL, DATA_VALUE VARCHAR(2048), " +
+            "PRIMARY KEY (TENANT_ID, USER_NAME, DATA_KEY))";
+    private static final String INSERT_USER_DATA = "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, " +
+            "DATA_KEY, DATA_VALUE) VALUES (?,?,?,?)";
+
+    private Connection connection;
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+
+    @BeforeClass
+    public void setUpDatabase() throws SQLException {
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:jdbc_identity_data_store");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+        for (int i = 0; i < USER_COUNT; i++) {
+            addUserData(TENANT_ID, "user" + i, FAILED_ATTEMPTS_CLAIM, String.valueOf(i));
+        }
+        addUserData(TENANT_ID, "user0", ACCOUNT_LOCKED_CLAIM, "true");
+        addUserData(OTHER_TENANT_ID, "user0", LAST_LOGON_CLAIM, "1700000000000");
+        addUserData(TENANT_ID, "MY_DOMAIN/Alex", ACCOUNT_LOCKED_CLAIM, "false");
+    }
+
+    @AfterClass
+    public void tearDownDatabase() throws SQLException {
+
+        connection.close();
+    }
+
+    @BeforeMethod
+    public void setUp() {
+
+        mockedIdentityUtil = Mockito.mockStatic(IdentityUtil.class);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        mockedIdentityUtil.close();
+    }
+
+    @Test
+    public void testChangedDataValues() {
+
+        Map<String, String> persistedData = new HashMap<>();
+        persistedData.put(FAILED_ATTEMPTS_CLAIM, "1");
+        persistedData.put(ACCOUNT_LOCKED_CLAIM, "false");
+        persistedData.put(LAST_LOGON_CLAIM, null);
+
+        Map<String, String> data = new HashMap<>(persistedData);
+        data.put(FAILED_ATTEMPTS_CLAIM, "2");
+        data.put(LAST_LOGON_CLAIM, "1700000000000");
+        data.put("http://wso2.org/claims/identity/unlockTime", "0");
+
+        Map<String, String> expectedData = new HashMap<>();
+        expectedData.put(FAILED_ATTEMPTS_CLAIM, "2");
+        expectedData.put(LAST_LOGON_CLAIM, "1700000000000");
+        expectedData.put("http://wso2.org/claims/identity/unlockTime", "0");
+        assertEquals(JDBCIdentityDataStore.getChangedDataValues(data, persistedData), expectedData);
+    }
+
+    @Test
+    public void testChangedDataValuesWithoutPersistedData() {
+
+        Map<String, String> data = new HashMap<>();
+        data.put(FAILED_ATTEMPTS_CLAIM, "1");
+
+        assertSame(JDBCIdentityDataStore.getChangedDataValues(data, null), data);
+        assertEquals(JDBCIdentityDataStore.getChangedDataValues(data, data).size(), 0);
+    }
+
+    @Test(description = "Test whether the identity data of the users are loaded with a query per chunk of users.")
+    public void testLoadUsersDataInChunks() throws SQLException {
+
+        mockedIdentityUtil.when(() -> IdentityUtil.isUserStoreInUsernameCaseSensitive(anyString(), anyInt()))
+                .thenReturn(true);
+        List<String> userNames = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            userNames.add("user" + i);
+        }
+        userNames.add("unknownUser");
+
+        AtomicInteger queryCount = new AtomicInteger();
+        Map<String, Map<String, String>> usersData = JDBCIdentityDataStore.getUsersDataValues(
+                countQueries(queryCount), userNames, TENANT_ID);
+
+        assertEquals(queryCount.get(), 2);
+        assertEquals(usersData.size(), USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            assertEquals(usersData.get("user" + i).get(FAILED_ATTEMPTS_CLAIM), String.valueOf(i));
+        }
+        Map<String, String> expectedData = new HashMap<>();
+        expectedData.put(FAILED_ATTEMPTS_CLAIM, "0");
+        expectedData.put(ACCOUNT_LOCKED_CLAIM, "true");
+        assertEquals(usersData.get("user0"), expectedData, "Identity data of another tenant is loaded.");
+    }
+
+    @Test
+    public void testLoadUsersDataCaseInsensitive() throws SQLException {
+
+        mockedIdentityUtil.when(() -> IdentityUtil.isUserStoreInUsernameCaseSensitive(anyString(), anyInt()))
+                .thenReturn(false);
+        Map<String, Map<String, String>> usersData = JDBCIdentityDataStore.getUsersDataValues(connection,
+                Arrays.asList("MY_DOMAIN/alex", "user1"), TENANT_ID);
+
+        assertEquals(usersData.keySet().size(), 2);
+        assertEquals(usersData.get("MY_DOMAIN/alex"), Collections.singletonMap(ACCOUNT_LOCKED_CLAIM, "false"));
+        assertEquals(usersData.get("user1"), Collections.singletonMap(FAILED_ATTEMPTS_CLAIM, "1"));
+    }
+
+    @Test
+    public void testLoadUsersDataCaseSensitive() throws SQLException {
+
+        mockedIdentityUtil.when(() -> IdentityUtil.isUserStoreInUsernameCaseSensitive(anyString(), anyInt()))
+                .thenReturn(true);
+        Map<String, Map<String, String>> usersData = JDBCIdentityDataStore.getUsersDataValues(connection,
+                Collections.singletonList("MY_DOMAIN/alex"), TENANT_ID);
+
+        assertTrue(usersData.isEmpty());
+    }
+
+    private void addUserData(int tenantId, String userName, String claimUri, String value) throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_USER_DATA)) {
+            statement.setInt(1, tenantId);
+            statement.setString(2, userName);
+            statement.setString(3, claimUri);
+            statement.setString(4, value);
+            statement.executeUpdate();
+        }
+    }
+
+    private Connection countQueries(AtomicInteger queryCount) {
+
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("prepareStatement".equals(method.getName())) {
+                        queryCount.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
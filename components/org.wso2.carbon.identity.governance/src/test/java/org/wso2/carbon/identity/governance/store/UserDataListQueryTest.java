@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.user.core.model.Condition;
+import org.wso2.carbon.user.core.model.ExpressionCondition;
+import org.wso2.carbon.user.core.model.OperationalCondition;
+import org.wso2.carbon.user.core.model.OperationalOperation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class UserDataListQueryTest {
+
+    private static final int TENANT_ID = -1234;
+    private static final String ACCOUNT_LOCKED_CLAIM = "http://wso2.org/claims/identity/accountLocked";
+    private static final String LAST_LOGIN_TIME_CLAIM = "http://wso2.org/claims/identity/lastLoginTime";
+    private static final String FAILED_ATTEMPTS_CLAIM = "http://wso2.org/claims/identity/failedLoginAttempts";
+    private static final String CREATE_TABLE = "CREATE TABLE IDN_IDENTITY_USER_DATA (TENANT_ID INTEGER DEFAULT " +
+            "-1234, USER_NAME VARCHAR(255) NOT NULL, DATA_KEY VARCHAR(255) NOT NULL, DATA_VALUE VARCHAR(2048), " +
+            "PRIMARY KEY (TENANT_ID, USER_NAME, DATA_KEY))";
+    private static final String INSERT_USER_DATA = "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, " +
+            "DATA_KEY, DATA_VALUE) VALUES (?,?,?,?)";
+
+    private Connection connection;
+
+    @BeforeClass
+    public void setUp() throws SQLException {
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:user_data_list");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+        addUser("alex", "true", "1700000000000");
+        addUser("bob", "false", "1700000500000");
+        addUser("PRIMARY/carol", "true", "1700001000000");
+        addUser("MY_DOMAIN/dave", "true", "1700000000000");
+        addUser("MYXDOMAIN/erin", "true", "1700000000000");
+        addUser("MY_DOMAIN/frank", "50%", "1700002000000");
+        addUserData("alex", FAILED_ATTEMPTS_CLAIM, "9");
+        addUserData("bob", FAILED_ATTEMPTS_CLAIM, "10");
+        addUserData("PRIMARY/carol", FAILED_ATTEMPTS_CLAIM, "100");
+    }
+
+    @AfterClass
+    public void tearDown() throws SQLException {
+
+        connection.close();
+    }
+
+    @DataProvider(name = "listQueries")
+    public Object[][] listQueries() {
+
+        return new Object[][]{
+                {"PRIMARY", ACCOUNT_LOCKED_CLAIM, "EQ", "true", Arrays.asList("PRIMARY/carol", "alex")},
+                {"MY_DOMAIN", ACCOUNT_LOCKED_CLAIM, "EQ", "true", Arrays.asList("MY_DOMAIN/dave")},
+                {"my_domain", ACCOUNT_LOCKED_CLAIM, "EQ", "t*", Arrays.asList("MY_DOMAIN/dave")},
+                {"MY_DOMAIN", ACCOUNT_LOCKED_CLAIM, "SW", "50%", Arrays.asList("MY_DOMAIN/frank")},
+                {"MY_DOMAIN", ACCOUNT_LOCKED_CLAIM, "SW", "5_", Arrays.asList()},
+                {"PRIMARY", ACCOUNT_LOCKED_CLAIM, "CO", "ru", Arrays.asList("PRIMARY/carol", "alex")},
+                {"PRIMARY", LAST_LOGIN_TIME_CLAIM, "GE", "1700000500000", Arrays.asList("PRIMARY/carol", "bob")},
+                {"PRIMARY", LAST_LOGIN_TIME_CLAIM, "LE", "1700000500000", Arrays.asList("alex", "bob")}
+        };
+    }
+
+    @Test(dataProvider = "listQueries")
+    public void testMatchValue(String domain, String claimUri, String operation, String claimValue,
+                               List<String> expectedUserNames) throws SQLException {
+
+        UserDataListQuery listQuery = new UserDataListQuery(TENANT_ID, claimUri, domain)
+                .matchValue(operation, claimValue)
+                .paginate(0, 0, UserDataUpsertQueries.H2);
+        assertEquals(list(listQuery), expectedUserNames);
+    }
+
+    @DataProvider(name = "numericRanges")
+    public Object[][] numericRanges() {
+
+        return new Object[][]{
+                {"GT", "9", Arrays.asList("PRIMARY/carol", "bob")},
+                {"GE", "10", Arrays.asList("PRIMARY/carol", "bob")},
+                {"LT", "100", Arrays.asList("alex", "bob")},
+                {"LE", "9", Arrays.asList("alex")},
+                {"LT", "10", Arrays.asList("alex")},
+                {"GE", "0", Arrays.asList("PRIMARY/carol", "alex", "bob")}
+        };
+    }
+
+    @Test(dataProvider = "numericRanges", description = "Test whether whole numbers are ordered as numbers, rather "
+            + "than as text.")
+    public void testNumericRange(String operation, String claimValue, List<String> expectedUserNames)
+            throws SQLException {
+
+        UserDataListQuery listQuery = new UserDataListQuery(TENANT_ID, FAILED_ATTEMPTS_CLAIM, "PRIMARY")
+                .matchValue(operation, claimValue)
+                .paginate(0, 0, UserDataUpsertQueries.H2);
+        assertEquals(list(listQuery), expectedUserNames);
+
+        ExpressionCondition condition = new ExpressionCondition(operation, FAILED_ATTEMPTS_CLAIM, claimValue);
+        assertEquals(list(UserDataListQuery.forCondition(TENANT_ID, "PRIMARY", and(condition, condition))
+                .paginate(0, 0, UserDataUpsertQueries.H2)), expectedUserNames);
+    }
+
+    @Test
+    public void testLengthFunctionOfDatabase() {
+
+        UserDataListQuery listQuery = new UserDataListQuery(TENANT_ID, FAILED_ATTEMPTS_CLAIM, "PRIMARY")
+                .matchValue("GT", "9");
+        assertTrue(listQuery.getQuery(UserDataUpsertQueries.H2).contains("LENGTH(DATA_VALUE)"));
+        assertTrue(listQuery.getQuery(UserDataUpsertQueries.MSSQL).contains("LEN(DATA_VALUE)"));
+        assertFalse(listQuery.getQuery(UserDataUpsertQueries.MSSQL).contains("LENGTH("));
+    }
+
+    @Test
+    public void testMatchPattern() throws SQLException {
+
+        assertEquals(list(new UserDataListQuery(TENANT_ID, ACCOUNT_LOCKED_CLAIM, "PRIMARY").matchPattern("fa%")
+                .paginate(0, 0, UserDataUpsertQueries.H2)), Arrays.asList("bob"));
+        assertEquals(list(new UserDataListQuery(TENANT_ID, ACCOUNT_LOCKED_CLAIM, "MY_DOMAIN").matchPattern("%")
+                .paginate(0, 0, UserDataUpsertQueries.H2)), Arrays.asList("MY_DOMAIN/dave", "MY_DOMAIN/frank"));
+    }
+
+    @DataProvider(name = "conditions")
+    public Object[][] conditions() {
+
+        ExpressionCondition locked = new ExpressionCondition("EQ", ACCOUNT_LOCKED_CLAIM, "true");
+        ExpressionCondition unlocked = new ExpressionCondition("EQ", ACCOUNT_LOCKED_CLAIM, "false");
+        ExpressionCondition loggedInBefore = new ExpressionCondition("LT", LAST_LOGIN_TIME_CLAIM, "1700001000000");
+        ExpressionCondition loggedInAfter = new ExpressionCondition("GT", LAST_LOGIN_TIME_CLAIM, "1700000000000");
+        return new Object[][]{
+                {"PRIMARY", locked, Arrays.asList("PRIMARY/carol", "alex")},
+                {"PRIMARY", and(locked, loggedInBefore), Arrays.asList("alex")},
+                {"PRIMARY", or(locked, unlocked), Arrays.asList("PRIMARY/carol", "alex", "bob")},
+                {"PRIMARY", and(or(locked, unlocked), loggedInAfter), Arrays.asList("PRIMARY/carol", "bob")},
+                {"PRIMARY", and(loggedInAfter, or(locked, unlocked)), Arrays.asList("PRIMARY/carol", "bob")},
+                {"PRIMARY", or(and(locked, loggedInAfter), and(unlocked, loggedInBefore)),
+                        Arrays.asList("PRIMARY/carol", "bob")},
+                {"MY_DOMAIN", or(locked, loggedInAfter), Arrays.asList("MY_DOMAIN/dave", "MY_DOMAIN/frank")}
+        };
+    }
+
+    @Test(dataProvider = "conditions")
+    public void testForCondition(String domain, Condition condition, List<String> expectedUserNames)
+            throws SQLException {
+
+        UserDataListQuery listQuery = UserDataListQuery.forCondition(TENANT_ID, domain, condition)
+                .paginate(0, 0, UserDataUpsertQueries.H2);
+        assertEquals(list(listQuery), expectedUserNames);
+    }
+
+    @Test
+    public void testForUnsupportedCondition() {
+
+        ExpressionCondition locked = new ExpressionCondition("EQ", ACCOUNT_LOCKED_CLAIM, "true");
+        ExpressionCondition unsupported = new ExpressionCondition("NE", LAST_LOGIN_TIME_CLAIM, "0");
+        assertNull(UserDataListQuery.forCondition(TENANT_ID, "PRIMARY", and(locked, unsupported)));
+        assertNull(UserDataListQuery.forCondition(TENANT_ID, "PRIMARY", new OperationalCondition("NOT", locked,
+                locked)));
+    }
+
+    @DataProvider(name = "databaseTypes")
+    public Object[][] databaseTypes() {
+
+        return new Object[][]{
+                {UserDataUpsertQueries.H2},
+                {UserDataUpsertQueries.POSTGRE_SQL}
+        };
+    }
+
+    @Test(dataProvider = "databaseTypes")
+    public void testPaginate(String databaseType) throws SQLException {
+
+        UserDataListQuery listQuery = new UserDataListQuery(TENANT_ID, LAST_LOGIN_TIME_CLAIM, "PRIMARY")
+                .matchValue("GE", "0")
+                .paginate(2, 1, databaseType);
+        assertEquals(list(listQuery), Arrays.asList("alex", "bob"));
+
+        listQuery = new UserDataListQuery(TENANT_ID, LAST_LOGIN_TIME_CLAIM, "PRIMARY")
+                .matchValue("GE", "0")
+                .paginate(0, 2, databaseType);
+        assertEquals(list(listQuery), Arrays.asList("bob"));
+    }
+
+    private List<String> list(UserDataListQuery listQuery) throws SQLException {
+
+        List<String> userNames = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(listQuery.getQuery())) {
+            listQuery.bindParameters(preparedStatement);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                int rowsToSkip = listQuery.getRowsToSkip();
+                while (resultSet.next()) {
+                    if (rowsToSkip-- > 0) {
+                        continue;
+                    }
+                    userNames.add(resultSet.getString("USER_NAME"));
+                }
+            }
+        }
+        return userNames;
+    }
+
+    private Condition and(Condition leftCondition, Condition rightCondition) {
+
+        return new OperationalCondition(OperationalOperation.AND.toString(), leftCondition, rightCondition);
+    }
+
+    private Condition or(Condition leftCondition, Condition rightCondition) {
+
+        return new OperationalCondition(OperationalOperation.OR.toString(), leftCondition, rightCondition);
+    }
+
+    private void addUserData(String userName, String claimUri, String claimValue) throws SQLException {
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_USER_DATA)) {
+            preparedStatement.setInt(1, TENANT_ID);
+            preparedStatement.setString(2, userName);
+            preparedStatement.setString(3, claimUri);
+            preparedStatement.setString(4, claimValue);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private void addUser(String userName, String accountLocked, String lastLoginTime) throws SQLException {
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(INSERT_USER_DATA)) {
+            preparedStatement.setInt(1, TENANT_ID);
+            preparedStatement.setString(2, userName);
+            preparedStatement.setString(3, ACCOUNT_LOCKED_CLAIM);
+            preparedStatement.setString(4, accountLocked);
+            preparedStatement.addBatch();
+            preparedStatement.setInt(1, TENANT_ID);
+            preparedStatement.setString(2, userName);
+            preparedStatement.setString(3, LAST_LOGIN_TIME_CLAIM);
+            preparedStatement.setString(4, lastLoginTime);
+            preparedStatement.addBatch();
+            preparedStatement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.governance.store;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class UserDataUpsertQueriesTest {
+
+    private static final String CREATE_TABLE = "CREATE TABLE IDN_IDENTITY_USER_DATA (TENANT_ID INTEGER DEFAULT " +
+            "-1234, USER_NAME VARCHAR(255) NOT NULL, DATA_KEY VARCHAR(255) NOT NULL, DATA_VALUE VARCHAR(2048), " +
+            "PRIMARY KEY (TENANT_ID, USER_NAME, DATA_KEY))";
+    private static final String LOAD_USER_DATA = "SELECT DATA_KEY, DATA_VALUE FROM IDN_IDENTITY_USER_DATA WHERE " +
+            "TENANT_ID = ? AND USER_NAME = ? ORDER BY DATA_KEY";
+    private static final String FAILED_ATTEMPTS_CLAIM = "http://wso2.org/claims/identity/failedLoginAttempts";
+    private static final String ACCOUNT_LOCKED_CLAIM = "http://wso2.org/claims/identity/accountLocked";
+
+    @DataProvider(name = "compatibilityModes")
+    public Object[][] compatibilityModes() {
+
+        return new Object[][]{
+                {"", UserDataUpsertQueries.H2},
+                {"MySQL", UserDataUpsertQueries.MYSQL},
+                {"MariaDB", UserDataUpsertQueries.MARIADB},
+                {"Oracle", UserDataUpsertQueries.ORACLE},
+                {"DB2", UserDataUpsertQueries.DB2}
+        };
+    }
+
+    @Test(dataProvider = "compatibilityModes")
+    public void testUpsert(String mode, String databaseType) throws SQLException {
+
+        String url = "jdbc:h2:mem:upsert_" + databaseType + (mode.isEmpty() ? "" : ";MODE=" + mode);
+        try (Connection connection = DriverManager.getConnection(url)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_TABLE);
+            }
+            String upsertQuery = UserDataUpsertQueries.getUpsertQuery(databaseType);
+
+            upsert(connection, upsertQuery, "DOMAIN/john", FAILED_ATTEMPTS_CLAIM, "1", ACCOUNT_LOCKED_CLAIM, "false");
+            upsert(connection, upsertQuery, "DOMAIN/john", FAILED_ATTEMPTS_CLAIM, "2", ACCOUNT_LOCKED_CLAIM, "true");
+
+            try (PreparedStatement prepStmt = connection.prepareStatement(LOAD_USER_DATA)) {
+                prepStmt.setInt(1, -1234);
+                prepStmt.setString(2, "DOMAIN/john");
+                try (ResultSet resultSet = prepStmt.executeQuery()) {
+                    resultSet.next();
+                    assertEquals(resultSet.getString(1), ACCOUNT_LOCKED_CLAIM);
+                    assertEquals(resultSet.getString(2), "true");
+                    resultSet.next();
+                    assertEquals(resultSet.getString(1), FAILED_ATTEMPTS_CLAIM);
+                    assertEquals(resultSet.getString(2), "2");
+                    assertEquals(resultSet.next(), false, "Upsert created duplicate rows.");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedDatabase() {
+
+        assertNull(UserDataUpsertQueries.getUpsertQuery("informix"));
+        // H2 can not verify the upserts of these databases, hence they use the read-modify-write flow.
+        assertNull(UserDataUpsertQueries.getUpsertQuery(UserDataUpsertQueries.POSTGRE_SQL));
+        assertNull(UserDataUpsertQueries.getUpsertQuery(UserDataUpsertQueries.MSSQL));
+        assertNull(UserDataUpsertQueries.getUpsertQuery(null));
+    }
+
+    private void upsert(Connection connection, String upsertQuery, String userName, String... claims)
+            throws SQLException {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(upsertQuery)) {
+            for (int i = 0; i < claims.length; i += 2) {
+                prepStmt.setInt(1, -1234);
+                prepStmt.setString(2, userName);
+                prepStmt.setString(3, claims[i]);
+                prepStmt.setString(4, claims[i + 1]);
+                prepStmt.addBatch();
+            }
+            prepStmt.executeBatch();
+        }
+    }
+}
@@ -22,6 +22,13 @@ public class PasswordHistoryConstants {
     public static final String PW_HISTORY_COUNT = "passwordHistory.count";
     public static final String PW_HISTORY_HASHING_ALGORITHM = "passwordHistory.hashingAlgorithm";
     public static final String PW_HISTORY_DATA_STORE = "passwordHistory.dataStore";
+    public static final String PW_HISTORY_HASHER = "passwordHistory.hasher";
+    public static final String PW_HISTORY_HASHING_ITERATIONS = "passwordHistory.hashingIterations";
+    public static final String PW_HISTORY_LEGACY_HASHING_ALGORITHM = "passwordHistory.legacyHashingAlgorithm";
+    public static final int DEFAULT_PW_HISTORY_HASHING_ITERATIONS = 10000;
+    // Upper bound of the iterations of a hash, including the iterations read from a stored record.
+    public static final int MAX_PW_HISTORY_HASHING_ITERATIONS = 1000000;
+    public static final String DEFAULT_PW_HISTORY_LEGACY_HASHING_ALGORITHM = "SHA-256";
 
 
     public static class SQLQueries {
@@ -32,8 +39,24 @@ public class PasswordHistoryConstants {
         public static final String LOAD_HISTORY_DATA = "SELECT * FROM IDN_PASSWORD_HISTORY_DATA WHERE USER_NAME= ? AND " +
                 "USER_DOMAIN = ? AND TENANT_ID = ? ORDER BY TIME_CREATED DESC  ";
 
+        public static final String LOAD_RECENT_HISTORY_DATA = "SELECT ID, SALT_VALUE, HASH, TIME_CREATED FROM " +
+                "IDN_PASSWORD_HISTORY_DATA WHERE USER_NAME = ? AND USER_DOMAIN = ? AND TENANT_ID = ? ORDER BY " +
+                "TIME_CREATED DESC, ID DESC";
+
+        public static final String LOAD_RECENT_HISTORY_DATA_LIMIT = LOAD_RECENT_HISTORY_DATA + " LIMIT ?";
+
+        public static final String LOAD_RECENT_HISTORY_DATA_FETCH_FIRST = LOAD_RECENT_HISTORY_DATA +
+                " FETCH FIRST ? ROWS ONLY";
+
+        public static final String LOAD_RECENT_HISTORY_DATA_OFFSET_FETCH = LOAD_RECENT_HISTORY_DATA +
+                " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+
         public static final String DELETE_HISTORY_RECORD = "DELETE FROM IDN_PASSWORD_HISTORY_DATA WHERE ID=?";
 
+        public static final String DELETE_OLDER_HISTORY_DATA = "DELETE FROM IDN_PASSWORD_HISTORY_DATA WHERE " +
+                "USER_NAME = ? AND USER_DOMAIN = ? AND TENANT_ID = ? AND (TIME_CREATED < ? OR (TIME_CREATED = ? " +
+                "AND ID < ?))";
+
         public static final String DELETE_USER_HISTORY = "DELETE FROM IDN_PASSWORD_HISTORY_DATA WHERE USER_NAME = ? " +
                 "AND USER_DOMAIN =? AND TENANT_ID =?";
 
@@ -32,6 +32,8 @@ import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
 import org.wso2.carbon.identity.password.history.Util.Utils;
 import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
 import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasherFactory;
 import org.wso2.carbon.identity.password.history.internal.IdentityPasswordHistoryServiceDataHolder;
 import org.wso2.carbon.identity.password.history.store.PasswordHistoryDataStore;
 import org.wso2.carbon.user.core.UserCoreConstants;
@@ -51,6 +53,8 @@ public class PasswordHistoryValidationHandler extends AbstractEventHandler imple
 
     private static final Log log = LogFactory.getLog(PasswordHistoryValidationHandler.class);
 
+    private volatile PasswordHistoryHasher passwordHistoryHasher;
+
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
 
@@ -111,12 +115,21 @@ public class PasswordHistoryValidationHandler extends AbstractEventHandler imple
         PasswordHistoryDataStore passwordHistoryDataStore;
         try {
             Class<?> cls = Class.forName(passwordHistoryDataStoreClass);
-            Class[] parameterTypes = new Class[]{String.class, Integer.TYPE};
-            Constructor<?> cons = cls.getConstructor(parameterTypes);
-            Object[] arguments = {hashingAlgorithm, historyCount};
+            Constructor<?> cons;
+            Object[] arguments;
+            try {
+                // Data stores which support pluggable hashers are given the configured hasher.
+                cons = cls.getConstructor(PasswordHistoryHasher.class, Integer.TYPE);
+                arguments = new Object[]{getPasswordHistoryHasher(), historyCount};
+            } catch (NoSuchMethodException e) {
+                Class[] parameterTypes = new Class[]{String.class, Integer.TYPE};
+                cons = cls.getConstructor(parameterTypes);
+                arguments = new Object[]{hashingAlgorithm, historyCount};
+            }
             passwordHistoryDataStore = (PasswordHistoryDataStore) cons.newInstance(arguments);
         } catch (ClassNotFoundException | InvocationTargetException | SecurityException | NoSuchMethodException |
-                InstantiationException | IllegalArgumentException | IllegalAccessException e) {
+                InstantiationException | IllegalArgumentException | IllegalAccessException |
+                IdentityPasswordHistoryException e) {
             throw Utils.handleEventException(
                     PasswordHistoryConstants.ErrorMessages.ERROR_CODE_LOADING_HISTORY_DATA_SOURCE, null, e);
         }
@@ -163,6 +176,21 @@ public class PasswordHistoryValidationHandler extends AbstractEventHandler imple
         }
     }
 
+    /**
+     * Get the password history hasher. The hasher is created once from the module properties, since the module
+     * properties do not change.
+     *
+     * @return Password history hasher.
+     * @throws IdentityPasswordHistoryException If the configured hasher could not be created.
+     */
+    private PasswordHistoryHasher getPasswordHistoryHasher() throws IdentityPasswordHistoryException {
+
+        if (passwordHistoryHasher == null) {
+            passwordHistoryHasher = PasswordHistoryHasherFactory.createHasher(configs.getModuleProperties());
+        }
+        return passwordHistoryHasher;
+    }
+
     @Override
     public String getName() {
 
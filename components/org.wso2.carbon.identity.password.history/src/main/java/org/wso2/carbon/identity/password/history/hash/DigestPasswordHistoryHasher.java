@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.apache.axiom.om.util.Base64;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+import org.wso2.carbon.user.core.UserCoreConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hashes the passwords with a single message digest round over the password and the salt value. Passwords are kept in
+ * plain text if the digest function is not set or is the plain text hash method.
+ */
+public class DigestPasswordHistoryHasher implements PasswordHistoryHasher {
+
+    private static final Log log = LogFactory.getLog(DigestPasswordHistoryHasher.class);
+
+    private final String digestFunction;
+
+    public DigestPasswordHistoryHasher(String digestFunction) {
+
+        this.digestFunction = digestFunction;
+    }
+
+    @Override
+    public String hash(String password, String saltValue) throws IdentityPasswordHistoryException {
+
+        if (digestFunction == null ||
+                digestFunction.equals(UserCoreConstants.RealmConfig.PASSWORD_HASH_METHOD_PLAIN_TEXT)) {
+            return password;
+        }
+        String digestInput = password;
+        if (saltValue != null) {
+            digestInput = password + saltValue;
+        }
+        try {
+            MessageDigest dgst = MessageDigest.getInstance(digestFunction);
+            byte[] byteValue = dgst.digest(digestInput.getBytes(StandardCharsets.UTF_8));
+            return Base64.encode(byteValue);
+        } catch (NoSuchAlgorithmException e) {
+            String msg = "Error occurred while preparing password.";
+            if (log.isDebugEnabled()) {
+                log.debug(msg, e);
+            }
+            throw new IdentityPasswordHistoryException(msg, e);
+        }
+    }
+
+    @Override
+    public boolean verify(String password, String saltValue, String storedHash)
+            throws IdentityPasswordHistoryException {
+
+        return storedHash != null && storedHash.equals(hash(password, saltValue));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.apache.axiom.om.util.Base64;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hashes the passwords with PBKDF2. The algorithm and the iteration count are stored with each hash, in the format
+ * $algorithm$iterations$hash, so that records keep verifying after the cost is tuned. Records which are not in this
+ * format were stored before PBKDF2 was enabled and are verified with the legacy hasher. The iteration count of a
+ * stored record is not trusted beyond {@link PasswordHistoryConstants#MAX_PW_HISTORY_HASHING_ITERATIONS}, so that a
+ * tampered record can not make a validation hash for an unbounded time.
+ */
+public class PBKDF2PasswordHistoryHasher implements PasswordHistoryHasher {
+
+    private static final Log log = LogFactory.getLog(PBKDF2PasswordHistoryHasher.class);
+
+    private static final String SEPARATOR = "$";
+    private static final int KEY_LENGTH = 256;
+    private static final int MAX_ITERATIONS_DIGITS = 9;
+
+    private final String algorithm;
+    private final int iterations;
+    private final PasswordHistoryHasher legacyHasher;
+    private final String hashPrefix;
+
+    /**
+     * Create a PBKDF2 password history hasher.
+     *
+     * @param algorithm    PBKDF2 algorithm, such as PBKDF2WithHmacSHA256.
+     * @param iterations   Number of iterations of a hash.
+     * @param legacyHasher Hasher of the records stored before PBKDF2 was enabled.
+     * @throws IdentityPasswordHistoryException If the iteration count is out of range or the algorithm is not
+     *                                          supported.
+     */
+    public PBKDF2PasswordHistoryHasher(String algorithm, int iterations, PasswordHistoryHasher legacyHasher)
+            throws IdentityPasswordHistoryException {
+
+        if (iterations <= 0 || iterations > PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS) {
+            throw new IdentityPasswordHistoryException("Invalid PBKDF2 iteration count: " + iterations +
+                    ". The iteration count should be between 1 and " +
+                    PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS);
+        }
+        getSecretKeyFactory(algorithm);
+        this.algorithm = algorithm;
+        this.iterations = iterations;
+        this.legacyHasher = legacyHasher;
+        this.hashPrefix = SEPARATOR + algorithm + SEPARATOR + iterations + SEPARATOR;
+    }
+
+    @Override
+    public String hash(String password, String saltValue) throws IdentityPasswordHistoryException {
+
+        return hashPrefix + Base64.encode(deriveKey(algorithm, iterations, password, saltValue));
+    }
+
+    @Override
+    public boolean verify(String password, String saltValue, String storedHash)
+            throws IdentityPasswordHistoryException {
+
+        if (storedHash == null) {
+            return false;
+        }
+        String[] hashParts = storedHash.startsWith(SEPARATOR) ? StringUtils.split(storedHash, SEPARATOR) : null;
+        if (hashParts == null || hashParts.length != 3 || !StringUtils.isNumeric(hashParts[1]) ||
+                hashParts[1].length() > MAX_ITERATIONS_DIGITS) {
+            return legacyHasher != null && legacyHasher.verify(password, saltValue, storedHash);
+        }
+        int storedIterations = Integer.parseInt(hashParts[1]);
+        if (storedIterations <= 0 || storedIterations > PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS) {
+            log.warn("Password history record with " + storedIterations + " iterations is not verified, as the " +
+                    "iteration count is out of range.");
+            return false;
+        }
+        byte[] derivedKey = deriveKey(hashParts[0], storedIterations, password, saltValue);
+        return MessageDigest.isEqual(derivedKey, Base64.decode(hashParts[2]));
+    }
+
+    @Override
+    public boolean isOutdated(String storedHash) {
+
+        return storedHash == null || !storedHash.startsWith(hashPrefix);
+    }
+
+    @Override
+    public int getCost() {
+
+        return iterations;
+    }
+
+    private static byte[] deriveKey(String algorithm, int iterations, String password, String saltValue)
+            throws IdentityPasswordHistoryException {
+
+        byte[] salt = saltValue == null ? new byte[0] : saltValue.getBytes(StandardCharsets.UTF_8);
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_LENGTH);
+        try {
+            return getSecretKeyFactory(algorithm).generateSecret(keySpec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new IdentityPasswordHistoryException("Error occurred while preparing password.", e);
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+
+    private static SecretKeyFactory getSecretKeyFactory(String algorithm) throws IdentityPasswordHistoryException {
+
+        try {
+            return SecretKeyFactory.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IdentityPasswordHistoryException("Password hashing algorithm: " + algorithm +
+                    " is not supported.", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+
+import java.util.Properties;
+
+/**
+ * Hashes the passwords kept in the password history. Implementations must be thread safe, since the history records
+ * of a user may be verified in parallel.
+ */
+public interface PasswordHistoryHasher {
+
+    /**
+     * Initialize the hasher with the password history module properties.
+     *
+     * @param properties Module properties.
+     * @throws IdentityPasswordHistoryException If the properties are not valid.
+     */
+    default void init(Properties properties) throws IdentityPasswordHistoryException {
+
+    }
+
+    /**
+     * Hash a password to be stored in the history.
+     *
+     * @param password  Password.
+     * @param saltValue Salt value of the history record.
+     * @return Hash to be stored.
+     * @throws IdentityPasswordHistoryException If an error occurred while hashing.
+     */
+    String hash(String password, String saltValue) throws IdentityPasswordHistoryException;
+
+    /**
+     * Check whether a password is the one of a history record.
+     *
+     * @param password   Password.
+     * @param saltValue  Salt value of the history record.
+     * @param storedHash Hash of the history record.
+     * @return True if the password matches the record.
+     * @throws IdentityPasswordHistoryException If an error occurred while hashing.
+     */
+    boolean verify(String password, String saltValue, String storedHash) throws IdentityPasswordHistoryException;
+
+    /**
+     * Check whether a history record is hashed with a different scheme or cost than the ones the hasher stores.
+     *
+     * @param storedHash Hash of the history record.
+     * @return True if the record is hashed differently.
+     */
+    default boolean isOutdated(String storedHash) {
+
+        return false;
+    }
+
+    /**
+     * Get the cost of hashing a password, in hash rounds.
+     *
+     * @return Cost of a hash.
+     */
+    default int getCost() {
+
+        return 1;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Creates the password history hasher configured in the password history module properties. A custom hasher class
+ * takes precedence. Otherwise PBKDF2 is used when the hashing algorithm is a PBKDF2 algorithm, and a single message
+ * digest round is used for any other algorithm.
+ */
+public class PasswordHistoryHasherFactory {
+
+    private static final Log log = LogFactory.getLog(PasswordHistoryHasherFactory.class);
+    private static final String PBKDF2_ALGORITHM_PREFIX = "PBKDF2";
+
+    private PasswordHistoryHasherFactory() {
+
+    }
+
+    /**
+     * Create the password history hasher.
+     *
+     * @param moduleProperties Password history module properties.
+     * @return Password history hasher.
+     * @throws IdentityPasswordHistoryException If the configured hasher could not be created.
+     */
+    public static PasswordHistoryHasher createHasher(Properties moduleProperties)
+            throws IdentityPasswordHistoryException {
+
+        String hasherClass = moduleProperties.getProperty(PasswordHistoryConstants.PW_HISTORY_HASHER);
+        if (StringUtils.isNotBlank(hasherClass)) {
+            PasswordHistoryHasher hasher;
+            try {
+                hasher = (PasswordHistoryHasher) Class.forName(hasherClass.trim()).newInstance();
+            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException |
+                    ClassCastException e) {
+                throw new IdentityPasswordHistoryException("Error while loading the password history hasher: " +
+                        hasherClass, e);
+            }
+            hasher.init(moduleProperties);
+            return hasher;
+        }
+
+        String hashingAlgorithm = moduleProperties.getProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ALGORITHM);
+        if (hashingAlgorithm == null ||
+                !hashingAlgorithm.toUpperCase(Locale.ENGLISH).startsWith(PBKDF2_ALGORITHM_PREFIX)) {
+            return new DigestPasswordHistoryHasher(hashingAlgorithm);
+        }
+
+        int iterations = PasswordHistoryConstants.DEFAULT_PW_HISTORY_HASHING_ITERATIONS;
+        String iterationsValue = moduleProperties.getProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ITERATIONS);
+        if (StringUtils.isNotBlank(iterationsValue)) {
+            try {
+                int configuredIterations = Integer.parseInt(iterationsValue.trim());
+                if (configuredIterations > 0 &&
+                        configuredIterations <= PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS) {
+                    iterations = configuredIterations;
+                } else {
+                    log.warn("Password history hashing iterations should be between 1 and " +
+                            PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS + " hence using default " +
+                            "value: " + iterations);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Password history hashing iterations is not correct hence using default value: " +
+                        iterations);
+            }
+        }
+        String legacyHashingAlgorithm = moduleProperties.getProperty(
+                PasswordHistoryConstants.PW_HISTORY_LEGACY_HASHING_ALGORITHM,
+                PasswordHistoryConstants.DEFAULT_PW_HISTORY_LEGACY_HASHING_ALGORITHM);
+        if (log.isDebugEnabled()) {
+            log.debug("Password history is hashed with " + hashingAlgorithm + " and " + iterations +
+                    " iterations. Legacy records are verified with " + legacyHashingAlgorithm);
+        }
+        return new PBKDF2PasswordHistoryHasher(hashingAlgorithm, iterations,
+                new DigestPasswordHistoryHasher(legacyHashingAlgorithm));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the cost of hashing the password history, so that the CPU needed by the password history validations can be
+ * sized. The cost of a hash is the number of hash rounds of the hasher. While debug logs are enabled, the totals are
+ * logged as the hashing is recorded, at most once in five minutes.
+ */
+public class PasswordHistoryHashingMetrics {
+
+    private static final Log log = LogFactory.getLog(PasswordHistoryHashingMetrics.class);
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final PasswordHistoryHashingMetrics instance = new PasswordHistoryHashingMetrics();
+
+    private final AtomicLong validationCount = new AtomicLong();
+    private final AtomicLong hashCount = new AtomicLong();
+    private final AtomicLong hashingCost = new AtomicLong();
+    private final AtomicLong hashingTimeNanos = new AtomicLong();
+    private final AtomicLong maxValidationTimeNanos = new AtomicLong();
+    private final AtomicLong outdatedRecordCount = new AtomicLong();
+    private final AtomicLong lastReportTimeNanos = new AtomicLong(System.nanoTime());
+
+    private PasswordHistoryHashingMetrics() {
+
+    }
+
+    public static PasswordHistoryHashingMetrics getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Record the hashing of a password history validation.
+     *
+     * @param hashes          Number of hashes computed.
+     * @param costPerHash     Cost of a hash.
+     * @param timeNanos       Time spent hashing, in nanoseconds.
+     * @param outdatedRecords Number of records verified which are hashed with an outdated scheme or cost.
+     */
+    public void recordValidation(int hashes, int costPerHash, long timeNanos, int outdatedRecords) {
+
+        validationCount.incrementAndGet();
+        recordHashing(hashes, costPerHash, timeNanos);
+        maxValidationTimeNanos.accumulateAndGet(timeNanos, Math::max);
+        outdatedRecordCount.addAndGet(outdatedRecords);
+        reportIfDue();
+    }
+
+    /**
+     * Record the hashing of a password stored in the history.
+     *
+     * @param costPerHash Cost of the hash.
+     * @param timeNanos   Time spent hashing, in nanoseconds.
+     */
+    public void recordStore(int costPerHash, long timeNanos) {
+
+        recordHashing(1, costPerHash, timeNanos);
+        reportIfDue();
+    }
+
+    private void recordHashing(int hashes, int costPerHash, long timeNanos) {
+
+        hashCount.addAndGet(hashes);
+        hashingCost.addAndGet((long) hashes * costPerHash);
+        hashingTimeNanos.addAndGet(timeNanos);
+    }
+
+    private void reportIfDue() {
+
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long lastReportTime = lastReportTimeNanos.get();
+        if (now - lastReportTime < REPORT_INTERVAL_NANOS || !lastReportTimeNanos.compareAndSet(lastReportTime, now)) {
+            return;
+        }
+        log.debug("Password history hashing validations: " + getValidationCount() + ", hashes: " + getHashCount() +
+                ", hashing cost: " + getHashingCost() + ", hashing time: " +
+                TimeUnit.NANOSECONDS.toMillis(getHashingTimeNanos()) + "ms, max validation time: " +
+                TimeUnit.NANOSECONDS.toMillis(getMaxValidationTimeNanos()) + "ms, outdated records: " +
+                getOutdatedRecordCount());
+    }
+
+    public long getValidationCount() {
+
+        return validationCount.get();
+    }
+
+    public long getHashCount() {
+
+        return hashCount.get();
+    }
+
+    public long getHashingCost() {
+
+        return hashingCost.get();
+    }
+
+    public long getHashingTimeNanos() {
+
+        return hashingTimeNanos.get();
+    }
+
+    public long getMaxValidationTimeNanos() {
+
+        return maxValidationTimeNanos.get();
+    }
+
+    public long getOutdatedRecordCount() {
+
+        return outdatedRecordCount.get();
+    }
+}
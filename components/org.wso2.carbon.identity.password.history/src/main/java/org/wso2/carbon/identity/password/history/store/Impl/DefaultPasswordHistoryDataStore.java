@@ -24,12 +24,12 @@ import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
 import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+import org.wso2.carbon.identity.password.history.hash.DigestPasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHashingMetrics;
 import org.wso2.carbon.identity.password.history.store.PasswordHistoryDataStore;
-import org.wso2.carbon.user.core.UserCoreConstants;
-import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.utils.dbcreator.DatabaseCreator;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.sql.Connection;
@@ -40,6 +40,16 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This interface provides to plug module for preferred persistence store.
@@ -47,16 +57,39 @@ import java.util.Locale;
 public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore {
     private static final String SHA_1_PRNG = "SHA1PRNG";
     private static final Log log = LogFactory.getLog(DefaultPasswordHistoryDataStore.class);
-    private String digestFunction;
+    private static final String H2 = "h2";
+    private static final String MYSQL = "mysql";
+    private static final String MARIADB = "mariadb";
+    private static final String POSTGRE_SQL = "postgresql";
+    private static final String ORACLE = "oracle";
+    private static final String MSSQL = "mssql";
+    private static final String DB2 = "db2";
+    private static final String UNKNOWN_DATABASE_TYPE = "unknown";
+    // Records are verified in parallel only when a hash is costly enough to outweigh the parallelization overhead.
+    private static final int PARALLEL_VERIFICATION_MIN_COST = 1000;
+    private static final String VERIFICATION_THREAD_NAME_PREFIX = "PasswordHistoryVerification-";
+    private static final int VERIFICATION_POOL_SIZE = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+    private static final int VERIFICATION_QUEUE_CAPACITY = VERIFICATION_POOL_SIZE * 16;
+    // Costly hashes are verified on a dedicated pool rather than the common fork join pool, which is shared with the
+    // rest of the server. When the pool is saturated, the validating thread verifies the records itself.
+    private static final ThreadPoolExecutor verificationExecutor = createVerificationExecutor();
+    private static final SecureRandom secureRandom = createSecureRandom();
+    // A data store is created for each event, hence the database type is resolved once for all the data stores.
+    private static volatile String databaseType;
+    private PasswordHistoryHasher hasher;
     private int maxHistoryCount;
 
     public DefaultPasswordHistoryDataStore(String digestFunction, int maxHistoryCount) {
-        this.digestFunction = digestFunction;
+        this(new DigestPasswordHistoryHasher(digestFunction), maxHistoryCount);
+    }
+
+    public DefaultPasswordHistoryDataStore(PasswordHistoryHasher hasher, int maxHistoryCount) {
+        this.hasher = hasher;
         this.maxHistoryCount = maxHistoryCount;
     }
 
     public DefaultPasswordHistoryDataStore() {
-
+        this.hasher = new DigestPasswordHistoryHasher(null);
     }
 
     @Override
@@ -68,60 +101,92 @@ public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore
             return;
         }
         String saltValue = generateSaltValue();
+        long hashingStartTime = System.nanoTime();
+        String hash = hasher.hash(credential.toString(), saltValue);
+        PasswordHistoryHashingMetrics.getInstance().recordStore(hasher.getCost(),
+                System.nanoTime() - hashingStartTime);
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
 
         Connection connection = IdentityDatabaseUtil.getDBConnection();
-        List<Integer> recordsToDelete = new ArrayList<>();
-        int storedHistoryCount = 0;
-        PreparedStatement prepStmt1 = null;
-        PreparedStatement prepStmt2 = null;
-        PreparedStatement prepStmt3 = null;
-
-        ResultSet resultSet = null;
         try {
-            prepStmt1 = connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_HISTORY_DATA);
-            prepStmt1.setString(1, user.getUserName());
-            prepStmt1.setString(2, user.getUserStoreDomain());
-            prepStmt1.setInt(3, IdentityTenantUtil.getTenantId(user.getTenantDomain()));
-
-            resultSet = prepStmt1.executeQuery();
-
-            while (resultSet.next()) {
-                storedHistoryCount++;
-                if (storedHistoryCount >= maxHistoryCount) {
-                    recordsToDelete.add(resultSet.getInt("ID"));
-                }
-            }
-
-            if (recordsToDelete.size() > 0) {
-                for (int i = 0; i < recordsToDelete.size(); i++) {
-                    prepStmt2 = connection.prepareStatement(
-                            PasswordHistoryConstants.SQLQueries.DELETE_HISTORY_RECORD);
-                    prepStmt2.setInt(1, recordsToDelete.get(i));
-                    prepStmt2.execute();
-                }
+            // The stale history is pruned and the new password is stored in the same transaction.
+            pruneHistory(connection, user, tenantId);
+            try (PreparedStatement prepStmt = connection.prepareStatement(
+                    PasswordHistoryConstants.SQLQueries.STORE_HISTORY_DATA)) {
+                prepStmt.setString(1, user.getUserName());
+                prepStmt.setString(2, user.getUserStoreDomain().toUpperCase(Locale.ENGLISH));
+                prepStmt.setInt(3, tenantId);
+                prepStmt.setString(4, saltValue);
+                prepStmt.setString(5, hash);
+                prepStmt.setTimestamp(6, new Timestamp(new java.util.Date().getTime()));
+                prepStmt.execute();
             }
-
-            prepStmt3 = connection.prepareStatement(PasswordHistoryConstants.SQLQueries.STORE_HISTORY_DATA);
-            prepStmt3.setString(1, user.getUserName());
-            prepStmt3.setString(2, user.getUserStoreDomain().toUpperCase(Locale.ENGLISH));
-            prepStmt3.setInt(3, IdentityTenantUtil.getTenantId(user.getTenantDomain()));
-            prepStmt3.setString(4, saltValue);
-            prepStmt3.setString(5, preparePassword(credential.toString(), saltValue));
-            prepStmt3.setTimestamp(6, new Timestamp(new java.util.Date().getTime()));
-            prepStmt3.execute();
             IdentityDatabaseUtil.commitTransaction(connection);
         } catch (SQLException e) {
             IdentityDatabaseUtil.rollbackTransaction(connection);
             throw new IdentityPasswordHistoryException("Error while storing password history", e);
         } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt1);
-            IdentityDatabaseUtil.closeStatement(prepStmt2);
-            IdentityDatabaseUtil.closeStatement(prepStmt3);
-            IdentityDatabaseUtil.closeResultSet(resultSet);
             IdentityDatabaseUtil.closeConnection(connection);
         }
     }
 
+    /**
+     * Delete the history records of the user which are older than the newest maxHistoryCount - 1 records, so that
+     * only maxHistoryCount records are kept once the new password is stored. The records are deleted with a single
+     * statement, bounded by the oldest record which is kept.
+     *
+     * @param connection Database connection of the transaction.
+     * @param user       User.
+     * @param tenantId   Tenant id of the user.
+     * @throws SQLException If an error occurred while pruning the history.
+     */
+    private void pruneHistory(Connection connection, User user, int tenantId) throws SQLException {
+
+        if (maxHistoryCount <= 1) {
+            try (PreparedStatement prepStmt = connection.prepareStatement(
+                    PasswordHistoryConstants.SQLQueries.DELETE_USER_HISTORY)) {
+                prepStmt.setString(1, user.getUserName());
+                prepStmt.setString(2, user.getUserStoreDomain());
+                prepStmt.setInt(3, tenantId);
+                prepStmt.execute();
+            }
+            return;
+        }
+
+        int historyCount = 0;
+        int oldestKeptId = 0;
+        Timestamp oldestKeptTimeCreated = null;
+        try (PreparedStatement prepStmt = prepareLoadRecentHistory(connection, user, tenantId, maxHistoryCount);
+             ResultSet resultSet = prepStmt.executeQuery()) {
+            while (historyCount < maxHistoryCount && resultSet.next()) {
+                historyCount++;
+                if (historyCount == maxHistoryCount - 1) {
+                    oldestKeptId = resultSet.getInt("ID");
+                    oldestKeptTimeCreated = resultSet.getTimestamp("TIME_CREATED");
+                }
+            }
+        }
+        if (historyCount < maxHistoryCount) {
+            // There are fewer records than the ones to be kept.
+            return;
+        }
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(
+                PasswordHistoryConstants.SQLQueries.DELETE_OLDER_HISTORY_DATA)) {
+            prepStmt.setString(1, user.getUserName());
+            prepStmt.setString(2, user.getUserStoreDomain());
+            prepStmt.setInt(3, tenantId);
+            prepStmt.setTimestamp(4, oldestKeptTimeCreated);
+            prepStmt.setTimestamp(5, oldestKeptTimeCreated);
+            prepStmt.setInt(6, oldestKeptId);
+            int deletedCount = prepStmt.executeUpdate();
+            if (log.isDebugEnabled()) {
+                log.debug("Deleted " + deletedCount + " stale password history records of the user: " +
+                        user.getUserName());
+            }
+        }
+    }
+
     @Override
     public void remove(User user) throws IdentityPasswordHistoryException {
         Connection connection = IdentityDatabaseUtil.getDBConnection();
@@ -173,51 +238,181 @@ public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore
 
     @Override
     public boolean validate(User user, Object credential) throws IdentityPasswordHistoryException {
-        //History not validate if password is empty
-        if (credential == null) {
+        //History not validate if password is empty or no history is kept
+        if (credential == null || maxHistoryCount <= 0) {
             return true;
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+        String password = credential.toString();
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
+        boolean parallelVerification = maxHistoryCount > 1 && hasher.getCost() >= PARALLEL_VERIFICATION_MIN_COST;
+        List<HistoryRecord> historyRecords = new ArrayList<>();
+        HashingCounter hashingCounter = new HashingCounter();
+        boolean historyExists = false;
         int storedHistoryCount = 0;
-        PreparedStatement prepStmt = null;
-        ResultSet resultSet = null;
-        try {
-            prepStmt = connection.prepareStatement(PasswordHistoryConstants.SQLQueries
-                    .LOAD_HISTORY_DATA);
-            prepStmt.setString(1, user.getUserName());
-            prepStmt.setString(2, user.getUserStoreDomain());
-            prepStmt.setInt(3, IdentityTenantUtil.getTenantId(user.getTenantDomain()));
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+             PreparedStatement prepStmt = prepareLoadRecentHistory(connection, user, tenantId, maxHistoryCount);
+             ResultSet resultSet = prepStmt.executeQuery()) {
+            while (storedHistoryCount < maxHistoryCount && resultSet.next()) {
+                storedHistoryCount++;
+                HistoryRecord historyRecord = new HistoryRecord(resultSet.getString("SALT_VALUE"),
+                        resultSet.getString("HASH"));
+                if (parallelVerification) {
+                    historyRecords.add(historyRecord);
+                } else if (verify(password, historyRecord, hashingCounter)) {
+                    // Stop hashing once the password is found.
+                    historyExists = true;
+                    break;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IdentityPasswordHistoryException("Error while validating password history", e);
+        }
+
+        if (parallelVerification) {
+            historyExists = verifyInParallel(password, historyRecords, hashingCounter);
+        }
+        hashingCounter.record(user);
+        return !historyExists;
+    }
 
-            resultSet = prepStmt.executeQuery();
+    /**
+     * Verify the password against the history records in parallel, on the bounded verification pool. Records not yet
+     * verified are skipped once the password is found.
+     *
+     * @param password       Password.
+     * @param historyRecords History records.
+     * @param hashingCounter Counter of the hashing cost of the validation.
+     * @return True if the password matches a history record.
+     * @throws IdentityPasswordHistoryException If the password could not be verified and is not found.
+     */
+    private boolean verifyInParallel(String password, List<HistoryRecord> historyRecords,
+                                     HashingCounter hashingCounter) throws IdentityPasswordHistoryException {
 
-            while (resultSet.next()) {
-                storedHistoryCount++;
-                if (storedHistoryCount <= maxHistoryCount) {
-                    if (isHistoryExists(resultSet.getString("SALT_VALUE"), resultSet.getString("HASH"), credential)) {
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(verificationExecutor);
+        List<Future<Boolean>> verifications = new ArrayList<>();
+        AtomicBoolean historyExists = new AtomicBoolean();
+        IdentityPasswordHistoryException error = null;
+        try {
+            for (HistoryRecord historyRecord : historyRecords) {
+                verifications.add(completionService.submit(() -> {
+                    if (historyExists.get()) {
                         return false;
                     }
+                    if (verify(password, historyRecord, hashingCounter)) {
+                        historyExists.set(true);
+                        return true;
+                    }
+                    return false;
+                }));
+            }
+            for (int i = 0; i < verifications.size(); i++) {
+                try {
+                    if (completionService.take().get()) {
+                        return true;
+                    }
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof IdentityPasswordHistoryException)) {
+                        throw new IdentityPasswordHistoryException("Error while verifying password history", e);
+                    }
+                    if (error == null) {
+                        error = (IdentityPasswordHistoryException) e.getCause();
+                    }
                 }
             }
-        } catch (SQLException e) {
-            throw new IdentityPasswordHistoryException("Error while validating password history", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityPasswordHistoryException("Interrupted while verifying password history", e);
+        } finally {
+            // Verifications still running are not needed anymore.
+            for (Future<Boolean> verification : verifications) {
+                verification.cancel(true);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return false;
+    }
+
+    private boolean verify(String password, HistoryRecord historyRecord, HashingCounter hashingCounter)
+            throws IdentityPasswordHistoryException {
+
+        long startTime = System.nanoTime();
+        try {
+            return hasher.verify(password, historyRecord.saltValue, historyRecord.hash);
         } finally {
+            hashingCounter.add(System.nanoTime() - startTime, hasher.isOutdated(historyRecord.hash));
+        }
+    }
+
+    /**
+     * Prepare the statement which loads only the newest history records of the user, newest first. The number of
+     * records is limited in the query when the database type is known, and by the maximum rows of the statement
+     * otherwise.
+     *
+     * @param connection   Database connection.
+     * @param user         User.
+     * @param tenantId     Tenant id of the user.
+     * @param historyCount Number of records to load.
+     * @return Prepared statement.
+     * @throws SQLException If an error occurred while preparing the statement.
+     */
+    private PreparedStatement prepareLoadRecentHistory(Connection connection, User user, int tenantId,
+                                                       int historyCount) throws SQLException {
+
+        String query = getLoadRecentHistoryQuery(connection);
+        PreparedStatement prepStmt = connection.prepareStatement(query);
+        try {
+            prepStmt.setString(1, user.getUserName());
+            prepStmt.setString(2, user.getUserStoreDomain());
+            prepStmt.setInt(3, tenantId);
+            if (!PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA.equals(query)) {
+                prepStmt.setInt(4, historyCount);
+            }
+            prepStmt.setMaxRows(historyCount);
+            prepStmt.setFetchSize(historyCount);
+        } catch (SQLException e) {
             IdentityDatabaseUtil.closeStatement(prepStmt);
-            IdentityDatabaseUtil.closeResultSet(resultSet);
-            IdentityDatabaseUtil.closeConnection(connection);
+            throw e;
         }
-        return true;
+        return prepStmt;
     }
 
-    private boolean isHistoryExists(String saltValue, String storedPassword, Object credential) throws
-            IdentityPasswordHistoryException {
+    private static String getLoadRecentHistoryQuery(Connection connection) {
 
-        String password;
-        password = this.preparePassword(credential.toString(), saltValue);
-        if ((storedPassword != null) && (storedPassword.equals(password))) {
-            return true;
+        String dbType = getDatabaseType(connection);
+        if (dbType == null) {
+            return PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA;
         }
-        return false;
+        switch (dbType) {
+            case MYSQL:
+            case MARIADB:
+            case H2:
+            case POSTGRE_SQL:
+                return PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT;
+            case ORACLE:
+            case DB2:
+                return PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_FETCH_FIRST;
+            case MSSQL:
+                return PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_OFFSET_FETCH;
+            default:
+                return PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA;
+        }
+    }
+
+    private static String getDatabaseType(Connection connection) {
+
+        if (databaseType == null) {
+            try {
+                databaseType = DatabaseCreator.getDatabaseType(connection);
+            } catch (Exception e) {
+                log.warn("Error while resolving the database type. Password history records are not limited in " +
+                        "the query.", e);
+                databaseType = UNKNOWN_DATABASE_TYPE;
+            }
+        }
+        return UNKNOWN_DATABASE_TYPE.equals(databaseType) ? null : databaseType;
     }
 
     /**
@@ -226,50 +421,75 @@ public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore
      * @return saltValue
      */
     private String generateSaltValue() {
-        String saltValue;
+
+        byte[] bytes = new byte[16];
+        //secureRandom is automatically seeded by calling nextBytes
+        secureRandom.nextBytes(bytes);
+        return Base64.encode(bytes);
+    }
+
+    private static ThreadPoolExecutor createVerificationExecutor() {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(VERIFICATION_POOL_SIZE, VERIFICATION_POOL_SIZE, 60L,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(VERIFICATION_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable,
+                            VERIFICATION_THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static SecureRandom createSecureRandom() {
+
         try {
-            SecureRandom secureRandom = SecureRandom.getInstance(SHA_1_PRNG);
-            byte[] bytes = new byte[16];
-            //secureRandom is automatically seeded by calling nextBytes
-            secureRandom.nextBytes(bytes);
-            saltValue = Base64.encode(bytes);
+            return SecureRandom.getInstance(SHA_1_PRNG);
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("SHA1PRNG algorithm could not be found.");
         }
-        return saltValue;
+    }
+
+    private static final class HistoryRecord {
+
+        private final String saltValue;
+        private final String hash;
+
+        private HistoryRecord(String saltValue, String hash) {
+
+            this.saltValue = saltValue;
+            this.hash = hash;
+        }
     }
 
     /**
-     * @param password
-     * @param saltValue
-     * @return
-     * @throws UserStoreException
+     * Counts the hashes computed by a validation, which may be computed in parallel.
      */
-    private String preparePassword(String password, String saltValue) throws
-            IdentityPasswordHistoryException {
-        try {
-            String digestInput = password;
-            if (saltValue != null) {
-                digestInput = password + saltValue;
-            }
+    private final class HashingCounter {
 
-            if (digestFunction != null) {
+        private final AtomicInteger hashCount = new AtomicInteger();
+        private final AtomicInteger outdatedRecordCount = new AtomicInteger();
+        private final AtomicLong hashingTimeNanos = new AtomicLong();
 
-                if (digestFunction.equals(UserCoreConstants.RealmConfig.PASSWORD_HASH_METHOD_PLAIN_TEXT)) {
-                    return password;
-                }
+        private void add(long timeNanos, boolean outdated) {
 
-                MessageDigest dgst = MessageDigest.getInstance(digestFunction);
-                byte[] byteValue = dgst.digest(digestInput.getBytes(StandardCharsets.UTF_8));
-                password = Base64.encode(byteValue);
+            hashCount.incrementAndGet();
+            hashingTimeNanos.addAndGet(timeNanos);
+            if (outdated) {
+                outdatedRecordCount.incrementAndGet();
             }
-            return password;
-        } catch (NoSuchAlgorithmException e) {
-            String msg = "Error occurred while preparing password.";
+        }
+
+        private void record(User user) {
+
+            PasswordHistoryHashingMetrics.getInstance().recordValidation(hashCount.get(), hasher.getCost(),
+                    hashingTimeNanos.get(), outdatedRecordCount.get());
             if (log.isDebugEnabled()) {
-                log.debug(msg, e);
+                log.debug("Password history validation of the user: " + user.getUserName() + " computed " +
+                        hashCount.get() + " hashes of cost " + hasher.getCost() + " in " +
+                        hashingTimeNanos.get() / 1000000 + " ms.");
             }
-            throw new IdentityPasswordHistoryException(msg, e);
         }
     }
 }
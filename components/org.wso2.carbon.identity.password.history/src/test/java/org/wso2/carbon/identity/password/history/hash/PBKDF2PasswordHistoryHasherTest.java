@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class PBKDF2PasswordHistoryHasherTest {
+
+    private static final String PASSWORD = "Password@123";
+    private static final String SALT_VALUE = "salt";
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+
+    private Properties moduleProperties;
+
+    @BeforeMethod
+    public void setUp() {
+
+        moduleProperties = new Properties();
+        moduleProperties.setProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ALGORITHM, PBKDF2_ALGORITHM);
+        moduleProperties.setProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ITERATIONS, "1000");
+    }
+
+    @Test
+    public void testHashAndVerify() throws Exception {
+
+        PasswordHistoryHasher hasher = PasswordHistoryHasherFactory.createHasher(moduleProperties);
+        String hash = hasher.hash(PASSWORD, SALT_VALUE);
+
+        assertTrue(hash.startsWith("$" + PBKDF2_ALGORITHM + "$1000$"));
+        assertNotEquals(hasher.hash(PASSWORD, "otherSalt"), hash);
+        assertTrue(hasher.verify(PASSWORD, SALT_VALUE, hash));
+        assertFalse(hasher.verify("Password@124", SALT_VALUE, hash));
+        assertFalse(hasher.isOutdated(hash));
+        assertEquals(hasher.getCost(), 1000);
+    }
+
+    @Test
+    public void testVerifyAfterCostIsTuned() throws Exception {
+
+        String hash = PasswordHistoryHasherFactory.createHasher(moduleProperties).hash(PASSWORD, SALT_VALUE);
+        moduleProperties.setProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ITERATIONS, "2000");
+        PasswordHistoryHasher hasher = PasswordHistoryHasherFactory.createHasher(moduleProperties);
+
+        assertTrue(hasher.verify(PASSWORD, SALT_VALUE, hash), "A record is not verified after the cost is tuned.");
+        assertTrue(hasher.isOutdated(hash));
+    }
+
+    @Test
+    public void testVerifyLegacyRecord() throws Exception {
+
+        String legacyHash = new DigestPasswordHistoryHasher("SHA-256").hash(PASSWORD, SALT_VALUE);
+        PasswordHistoryHasher hasher = PasswordHistoryHasherFactory.createHasher(moduleProperties);
+
+        assertTrue(hasher.verify(PASSWORD, SALT_VALUE, legacyHash), "A legacy record is not verified.");
+        assertFalse(hasher.verify("Password@124", SALT_VALUE, legacyHash));
+        assertTrue(hasher.isOutdated(legacyHash));
+    }
+
+    @Test
+    public void testVerifyRecordWithExcessiveIterations() throws Exception {
+
+        PasswordHistoryHasher hasher = PasswordHistoryHasherFactory.createHasher(moduleProperties);
+        String hash = hasher.hash(PASSWORD, SALT_VALUE);
+        String tamperedHash = hash.replace("$1000$", "$" +
+                (PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS + 1) + "$");
+
+        long startTime = System.nanoTime();
+        assertFalse(hasher.verify(PASSWORD, SALT_VALUE, tamperedHash));
+        assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(1),
+                "A record with more iterations than the maximum is hashed.");
+        assertFalse(hasher.verify(PASSWORD, SALT_VALUE, hash.replace("$1000$", "$0$")));
+    }
+
+    @Test
+    public void testConfiguredIterationsAboveMaximum() throws Exception {
+
+        moduleProperties.setProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ITERATIONS,
+                String.valueOf(PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS + 1));
+        PasswordHistoryHasher hasher = PasswordHistoryHasherFactory.createHasher(moduleProperties);
+
+        assertEquals(hasher.getCost(), PasswordHistoryConstants.DEFAULT_PW_HISTORY_HASHING_ITERATIONS);
+    }
+
+    @Test(expectedExceptions = IdentityPasswordHistoryException.class)
+    public void testIterationsAboveMaximum() throws Exception {
+
+        new PBKDF2PasswordHistoryHasher(PBKDF2_ALGORITHM,
+                PasswordHistoryConstants.MAX_PW_HISTORY_HASHING_ITERATIONS + 1, null);
+    }
+
+    @Test
+    public void testDigestHasherIsCreatedForDigestAlgorithm() throws Exception {
+
+        moduleProperties.setProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ALGORITHM, "SHA-256");
+        PasswordHistoryHasher hasher = PasswordHistoryHasherFactory.createHasher(moduleProperties);
+
+        assertTrue(hasher instanceof DigestPasswordHistoryHasher);
+        assertEquals(hasher.getCost(), 1);
+    }
+
+    @Test(expectedExceptions = IdentityPasswordHistoryException.class)
+    public void testUnsupportedAlgorithm() throws Exception {
+
+        moduleProperties.setProperty(PasswordHistoryConstants.PW_HISTORY_HASHING_ALGORITHM, "PBKDF2WithUnknown");
+        PasswordHistoryHasherFactory.createHasher(moduleProperties);
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.store.Impl;
+
+import org.apache.axiom.om.util.Base64;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.User;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+import org.wso2.carbon.identity.password.history.hash.DigestPasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.hash.PBKDF2PasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHashingMetrics;
+import org.wso2.carbon.utils.dbcreator.DatabaseCreator;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class DefaultPasswordHistoryDataStoreTest {
+
+    private static final String DIGEST_FUNCTION = "SHA-256";
+    private static final String PASSWORD = "Password@123";
+    private static final int HISTORY_COUNT = 5;
+    private static final int LONG_HISTORY_SIZE = 10000;
+    private static final int TENANT_ID = 1;
+
+    private MockedStatic<IdentityDatabaseUtil> identityDatabaseUtil;
+    private MockedStatic<IdentityTenantUtil> identityTenantUtil;
+    private MockedStatic<DatabaseCreator> databaseCreator;
+    private Connection connection;
+    private User user;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        Field databaseType = DefaultPasswordHistoryDataStore.class.getDeclaredField("databaseType");
+        databaseType.setAccessible(true);
+        databaseType.set(null, null);
+
+        connection = mock(Connection.class);
+        identityDatabaseUtil = mockStatic(IdentityDatabaseUtil.class);
+        identityDatabaseUtil.when(IdentityDatabaseUtil::getDBConnection).thenReturn(connection);
+        identityDatabaseUtil.when(() -> IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenReturn(connection);
+        identityTenantUtil = mockStatic(IdentityTenantUtil.class);
+        identityTenantUtil.when(() -> IdentityTenantUtil.getTenantId(anyString())).thenReturn(TENANT_ID);
+        databaseCreator = mockStatic(DatabaseCreator.class);
+        databaseCreator.when(() -> DatabaseCreator.getDatabaseType(connection)).thenReturn("mysql");
+
+        user = new User();
+        user.setUserName("testUser");
+        user.setUserStoreDomain("PRIMARY");
+        user.setTenantDomain("carbon.super");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        identityDatabaseUtil.close();
+        identityTenantUtil.close();
+        databaseCreator.close();
+    }
+
+    @Test
+    public void testValidateReadsOnlyRecentHistory() throws Exception {
+
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(LONG_HISTORY_SIZE, HISTORY_COUNT + 1, readRows);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT))
+                .thenReturn(loadStatement);
+
+        DefaultPasswordHistoryDataStore dataStore = new DefaultPasswordHistoryDataStore(DIGEST_FUNCTION,
+                HISTORY_COUNT);
+        assertTrue(dataStore.validate(user, PASSWORD), "A password older than the history count is rejected.");
+        assertEquals(readRows.get(), HISTORY_COUNT, "More records than the history count are read.");
+        verify(loadStatement).setInt(4, HISTORY_COUNT);
+        verify(loadStatement).setMaxRows(HISTORY_COUNT);
+    }
+
+    @Test
+    public void testValidateRejectsRecentPassword() throws Exception {
+
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(LONG_HISTORY_SIZE, 2, readRows);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT))
+                .thenReturn(loadStatement);
+
+        DefaultPasswordHistoryDataStore dataStore = new DefaultPasswordHistoryDataStore(DIGEST_FUNCTION,
+                HISTORY_COUNT);
+        assertFalse(dataStore.validate(user, PASSWORD), "A password in the recent history is accepted.");
+        assertEquals(readRows.get(), 3, "Records are read after the password is found.");
+    }
+
+    @Test
+    public void testValidateWithUnknownDatabaseType() throws Exception {
+
+        databaseCreator.when(() -> DatabaseCreator.getDatabaseType(connection)).thenThrow(new Exception("Unknown"));
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(LONG_HISTORY_SIZE, -1, readRows);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA))
+                .thenReturn(loadStatement);
+
+        DefaultPasswordHistoryDataStore dataStore = new DefaultPasswordHistoryDataStore(DIGEST_FUNCTION,
+                HISTORY_COUNT);
+        assertTrue(dataStore.validate(user, PASSWORD));
+        assertEquals(readRows.get(), HISTORY_COUNT, "More records than the history count are read.");
+        verify(loadStatement, never()).setInt(4, HISTORY_COUNT);
+        verify(loadStatement).setMaxRows(HISTORY_COUNT);
+    }
+
+    @Test
+    public void testStorePrunesLongHistoryWithSingleDelete() throws Exception {
+
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(LONG_HISTORY_SIZE, -1, readRows);
+        PreparedStatement deleteStatement = mock(PreparedStatement.class);
+        PreparedStatement storeStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT))
+                .thenReturn(loadStatement);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.DELETE_OLDER_HISTORY_DATA))
+                .thenReturn(deleteStatement);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.STORE_HISTORY_DATA))
+                .thenReturn(storeStatement);
+
+        DefaultPasswordHistoryDataStore dataStore = new DefaultPasswordHistoryDataStore(DIGEST_FUNCTION,
+                HISTORY_COUNT);
+        dataStore.store(user, PASSWORD);
+
+        assertEquals(readRows.get(), HISTORY_COUNT, "More records than the history count are read.");
+        // The oldest record kept is the newest record but HISTORY_COUNT - 2.
+        int oldestKeptId = LONG_HISTORY_SIZE - (HISTORY_COUNT - 2);
+        verify(deleteStatement).setTimestamp(4, new Timestamp(oldestKeptId));
+        verify(deleteStatement).setInt(6, oldestKeptId);
+        verify(deleteStatement, times(1)).executeUpdate();
+        verify(connection, never()).prepareStatement(PasswordHistoryConstants.SQLQueries.DELETE_HISTORY_RECORD);
+        verify(storeStatement).execute();
+        identityDatabaseUtil.verify(() -> IdentityDatabaseUtil.commitTransaction(connection), times(1));
+    }
+
+    @Test
+    public void testStoreDoesNotPruneShortHistory() throws Exception {
+
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(HISTORY_COUNT - 1, -1, readRows);
+        PreparedStatement storeStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT))
+                .thenReturn(loadStatement);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.STORE_HISTORY_DATA))
+                .thenReturn(storeStatement);
+
+        DefaultPasswordHistoryDataStore dataStore = new DefaultPasswordHistoryDataStore(DIGEST_FUNCTION,
+                HISTORY_COUNT);
+        dataStore.store(user, PASSWORD);
+
+        verify(connection, never()).prepareStatement(PasswordHistoryConstants.SQLQueries.DELETE_OLDER_HISTORY_DATA);
+        verify(storeStatement).execute();
+    }
+
+    @Test
+    public void testValidateVerifiesCostlyHashesInParallel() throws Exception {
+
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(LONG_HISTORY_SIZE, HISTORY_COUNT - 1, readRows);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT))
+                .thenReturn(loadStatement);
+        PasswordHistoryHasher hasher = new PBKDF2PasswordHistoryHasher("PBKDF2WithHmacSHA256", 1000,
+                new DigestPasswordHistoryHasher(DIGEST_FUNCTION));
+        PasswordHistoryHashingMetrics metrics = PasswordHistoryHashingMetrics.getInstance();
+        long validationCount = metrics.getValidationCount();
+        long outdatedRecordCount = metrics.getOutdatedRecordCount();
+
+        DefaultPasswordHistoryDataStore dataStore = new DefaultPasswordHistoryDataStore(hasher, HISTORY_COUNT);
+        assertFalse(dataStore.validate(user, PASSWORD), "A password in a legacy record is accepted.");
+        assertEquals(readRows.get(), HISTORY_COUNT, "More records than the history count are read.");
+        assertEquals(metrics.getValidationCount(), validationCount + 1);
+        assertTrue(metrics.getOutdatedRecordCount() > outdatedRecordCount);
+    }
+
+    @Test
+    public void testValidateVerifiesOnDedicatedPool() throws Exception {
+
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(HISTORY_COUNT, -1, readRows);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT))
+                .thenReturn(loadStatement);
+        Set<String> verificationThreads = ConcurrentHashMap.newKeySet();
+        PasswordHistoryHasher digestHasher = new DigestPasswordHistoryHasher(DIGEST_FUNCTION);
+        PasswordHistoryHasher hasher = new PasswordHistoryHasher() {
+
+            @Override
+            public String hash(String password, String saltValue) throws IdentityPasswordHistoryException {
+
+                return digestHasher.hash(password, saltValue);
+            }
+
+            @Override
+            public boolean verify(String password, String saltValue, String storedHash)
+                    throws IdentityPasswordHistoryException {
+
+                verificationThreads.add(Thread.currentThread().getName());
+                return digestHasher.verify(password, saltValue, storedHash);
+            }
+
+            @Override
+            public int getCost() {
+
+                return 1000;
+            }
+        };
+
+        assertTrue(new DefaultPasswordHistoryDataStore(hasher, HISTORY_COUNT).validate(user, PASSWORD));
+        assertFalse(verificationThreads.isEmpty());
+        for (String verificationThread : verificationThreads) {
+            assertTrue(verificationThread.startsWith("PasswordHistoryVerification-") ||
+                            verificationThread.equals(Thread.currentThread().getName()),
+                    "A record is verified on a thread of a shared pool: " + verificationThread);
+        }
+    }
+
+    @Test
+    public void testStoreUsesHasher() throws Exception {
+
+        AtomicInteger readRows = new AtomicInteger();
+        PreparedStatement loadStatement = mockLoadStatement(0, -1, readRows);
+        PreparedStatement storeStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA_LIMIT))
+                .thenReturn(loadStatement);
+        when(connection.prepareStatement(PasswordHistoryConstants.SQLQueries.STORE_HISTORY_DATA))
+                .thenReturn(storeStatement);
+        PasswordHistoryHasher hasher = new PBKDF2PasswordHistoryHasher("PBKDF2WithHmacSHA256", 1000, null);
+
+        new DefaultPasswordHistoryDataStore(hasher, HISTORY_COUNT).store(user, PASSWORD);
+
+        ArgumentCaptor<String> salt = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(storeStatement).setString(eq(4), salt.capture());
+        verify(storeStatement).setString(eq(5), hash.capture());
+        assertTrue(hasher.verify(PASSWORD, salt.getValue(), hash.getValue()));
+    }
+
+    /**
+     * Mock the statement which loads the history, newest record first. The record of index i, counted from the
+     * newest, has the ID and creation time historySize - i.
+     *
+     * @param historySize   Number of records of the user.
+     * @param passwordIndex Index of the record of the password, or -1 if the password is not in the history.
+     * @param readRows      Counter of the records read.
+     * @return Statement.
+     */
+    private PreparedStatement mockLoadStatement(int historySize, int passwordIndex, AtomicInteger readRows)
+            throws Exception {
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenAnswer(invocation -> readRows.incrementAndGet() <= historySize);
+        when(resultSet.getInt("ID")).thenAnswer(invocation -> historySize - (readRows.get() - 1));
+        when(resultSet.getTimestamp("TIME_CREATED"))
+                .thenAnswer(invocation -> new Timestamp(historySize - (readRows.get() - 1)));
+        when(resultSet.getString("SALT_VALUE")).thenAnswer(invocation -> "salt" + readRows.get());
+        when(resultSet.getString("HASH")).thenAnswer(invocation -> {
+            String salt = "salt" + readRows.get();
+            String password = readRows.get() - 1 == passwordIndex ? PASSWORD : "Other@" + readRows.get();
+            return hash(password, salt);
+        });
+        return statement;
+    }
+
+    private static String hash(String password, String salt) throws Exception {
+
+        MessageDigest digest = MessageDigest.getInstance(DIGEST_FUNCTION);
+        return Base64.encode(digest.digest((password + salt).getBytes(StandardCharsets.UTF_8)));
+    }
+}
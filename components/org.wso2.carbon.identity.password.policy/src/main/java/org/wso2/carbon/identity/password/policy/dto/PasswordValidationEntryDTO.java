@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.identity.password.policy.dto;
+
+/**
+ * Object class that represents a password to be validated against the password policies.
+ */
+public class PasswordValidationEntryDTO {
+
+    private String userName;
+    private String credential;
+
+    public PasswordValidationEntryDTO() {
+
+    }
+
+    public PasswordValidationEntryDTO(String userName, String credential) {
+
+        this.userName = userName;
+        this.credential = credential;
+    }
+
+    /**
+     * Returns the username of the password owner.
+     *
+     * @return username
+     */
+    public String getUserName() {
+
+        return userName;
+    }
+
+    /**
+     * Sets the username of the password owner.
+     *
+     * @param userName username
+     */
+    public void setUserName(String userName) {
+
+        this.userName = userName;
+    }
+
+    /**
+     * Returns the password.
+     *
+     * @return password
+     */
+    public String getCredential() {
+
+        return credential;
+    }
+
+    /**
+     * Sets the password.
+     *
+     * @param credential password
+     */
+    public void setCredential(String credential) {
+
+        this.credential = credential;
+    }
+}
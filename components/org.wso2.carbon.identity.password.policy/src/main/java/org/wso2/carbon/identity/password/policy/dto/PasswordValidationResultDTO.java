@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.identity.password.policy.dto;
+
+/**
+ * Object class that represents the result of validating a password against the password policies. The error code is
+ * one of the codes of {@link org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants.ErrorMessages}.
+ */
+public class PasswordValidationResultDTO {
+
+    private final String userName;
+    private final boolean valid;
+    private final String errorCode;
+    private final String errorMessage;
+
+    public PasswordValidationResultDTO(String userName, boolean valid, String errorCode, String errorMessage) {
+
+        this.userName = userName;
+        this.valid = valid;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Returns the username of the password owner.
+     *
+     * @return username
+     */
+    public String getUserName() {
+
+        return userName;
+    }
+
+    /**
+     * Returns whether the password satisfies the password policies.
+     *
+     * @return true if the password is valid
+     */
+    public boolean isValid() {
+
+        return valid;
+    }
+
+    /**
+     * Returns the error code of the policy violation.
+     *
+     * @return error code, or null if the password is valid
+     */
+    public String getErrorCode() {
+
+        return errorCode;
+    }
+
+    /**
+     * Returns the error message of the policy violation.
+     *
+     * @return error message, or null if the password is valid
+     */
+    public String getErrorMessage() {
+
+        return errorMessage;
+    }
+}
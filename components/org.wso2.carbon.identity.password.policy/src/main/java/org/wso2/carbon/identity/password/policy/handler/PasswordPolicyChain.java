@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.identity.password.policy.handler;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.mgt.policy.AbstractPasswordPolicyEnforcer;
+import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
+import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordLengthPolicy;
+import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordNamePolicy;
+import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordPatternPolicy;
+import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
+import org.wso2.carbon.identity.password.policy.util.Utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Password policies of a tenant, built from the resolved password policy properties. The default policies are
+ * compiled once when the chain is built, with the lengths parsed and the pattern compiled, and keep no state between
+ * enforcements. The policies of any other configured class keep the error of the last violation in their state, hence
+ * a new instance of such a policy is created for each enforcement. A chain is immutable and can be shared by
+ * concurrent validations.
+ */
+public final class PasswordPolicyChain {
+
+    private static final String MIN_LENGTH_PARAM = "min.length";
+    private static final String MAX_LENGTH_PARAM = "max.length";
+    private static final String PATTERN_PARAM = "pattern";
+    private static final String ERROR_MSG_PARAM = "errorMsg";
+
+    private final Map<String, String> policyProperties;
+    private final boolean enabled;
+    private final List<PasswordPolicy> policies;
+
+    private PasswordPolicyChain(Map<String, String> policyProperties, boolean enabled, List<PasswordPolicy> policies) {
+
+        this.policyProperties = policyProperties;
+        this.enabled = enabled;
+        this.policies = policies;
+    }
+
+    /**
+     * Build a password policy chain.
+     *
+     * @param policyProperties Resolved password policy properties, including the policy class names.
+     * @return Password policy chain.
+     * @throws IdentityEventException If the policy classes could not be loaded or initialized.
+     */
+    static PasswordPolicyChain build(Map<String, String> policyProperties) throws IdentityEventException {
+
+        Map<String, String> properties = Collections.unmodifiableMap(new LinkedHashMap<>(policyProperties));
+        boolean enabled = Boolean.parseBoolean(properties.get(PasswordPolicyConstants.PW_POLICY_ENABLE));
+        if (!enabled) {
+            return new PasswordPolicyChain(properties, false, Collections.emptyList());
+        }
+        try {
+            List<PasswordPolicy> policies = new ArrayList<>();
+
+            Class<? extends DefaultPasswordLengthPolicy> lengthPolicyClass = loadPolicyClass(
+                    properties.get(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS), DefaultPasswordLengthPolicy.class);
+            if (lengthPolicyClass == DefaultPasswordLengthPolicy.class) {
+                policies.add(new LengthPolicy(
+                        Integer.parseInt(properties.get(PasswordPolicyConstants.PW_POLICY_MIN_LENGTH)),
+                        Integer.parseInt(properties.get(PasswordPolicyConstants.PW_POLICY_MAX_LENGTH))));
+            } else if (lengthPolicyClass != null) {
+                Map<String, String> lengthParams = new HashMap<>();
+                lengthParams.put(MIN_LENGTH_PARAM, properties.get(PasswordPolicyConstants.PW_POLICY_MIN_LENGTH));
+                lengthParams.put(MAX_LENGTH_PARAM, properties.get(PasswordPolicyConstants.PW_POLICY_MAX_LENGTH));
+                policies.add(new ConfiguredPolicy(lengthPolicyClass, lengthParams));
+            }
+
+            Class<? extends DefaultPasswordNamePolicy> namePolicyClass = loadPolicyClass(
+                    properties.get(PasswordPolicyConstants.PW_POLICY_NAME_CLASS), DefaultPasswordNamePolicy.class);
+            if (namePolicyClass == DefaultPasswordNamePolicy.class) {
+                policies.add(new NamePolicy());
+            } else if (namePolicyClass != null) {
+                policies.add(new ConfiguredPolicy(namePolicyClass, null));
+            }
+
+            Class<? extends DefaultPasswordPatternPolicy> patternPolicyClass = loadPolicyClass(
+                    properties.get(PasswordPolicyConstants.PW_POLICY_PATTERN_CLASS),
+                    DefaultPasswordPatternPolicy.class);
+            if (patternPolicyClass == DefaultPasswordPatternPolicy.class) {
+                policies.add(new PatternPolicy(
+                        Pattern.compile(properties.get(PasswordPolicyConstants.PW_POLICY_PATTERN)),
+                        properties.get(PasswordPolicyConstants.PW_POLICY_ERROR_MSG)));
+            } else if (patternPolicyClass != null) {
+                Map<String, String> patternParams = new HashMap<>();
+                patternParams.put(PATTERN_PARAM, properties.get(PasswordPolicyConstants.PW_POLICY_PATTERN));
+                patternParams.put(ERROR_MSG_PARAM, properties.get(PasswordPolicyConstants.PW_POLICY_ERROR_MSG));
+                policies.add(new ConfiguredPolicy(patternPolicyClass, patternParams));
+            }
+
+            // Create the configured policies once, so that invalid policies fail the build.
+            for (PasswordPolicy policy : policies) {
+                if (policy instanceof ConfiguredPolicy) {
+                    ((ConfiguredPolicy) policy).createPolicy();
+                }
+            }
+            return new PasswordPolicyChain(properties, true, Collections.unmodifiableList(policies));
+        } catch (Exception e) {
+            throw Utils.handleEventException(
+                    PasswordPolicyConstants.ErrorMessages.ERROR_CODE_LOADING_PASSWORD_POLICY_CLASSES, null, e);
+        }
+    }
+
+    /**
+     * Check whether the chain is built from the given password policy properties.
+     *
+     * @param policyProperties Resolved password policy properties.
+     * @return True if the properties are the same.
+     */
+    boolean isBuiltFrom(Map<String, String> policyProperties) {
+
+        return this.policyProperties.equals(policyProperties);
+    }
+
+    /**
+     * Check whether the password policy validation is enabled.
+     *
+     * @return True if the passwords are validated.
+     */
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Enforce the password policies on a credential.
+     *
+     * @param credential Credential.
+     * @param userName   Username of the credential owner.
+     * @throws PolicyViolationException If the credential violates a policy.
+     */
+    public void enforce(String credential, String userName) throws PolicyViolationException {
+
+        for (PasswordPolicy policy : policies) {
+            policy.enforce(credential, userName);
+        }
+    }
+
+    private static <T> Class<? extends T> loadPolicyClass(String className, Class<T> policyType)
+            throws ClassNotFoundException {
+
+        if (StringUtils.isBlank(className)) {
+            return null;
+        }
+        return Class.forName(className).asSubclass(policyType);
+    }
+
+    /**
+     * A password policy of the chain.
+     */
+    private interface PasswordPolicy {
+
+        void enforce(String credential, String userName) throws PolicyViolationException;
+    }
+
+    /**
+     * Compiled form of {@link DefaultPasswordLengthPolicy}.
+     */
+    private static final class LengthPolicy implements PasswordPolicy {
+
+        private final int minLength;
+        private final int maxLength;
+
+        private LengthPolicy(int minLength, int maxLength) {
+
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void enforce(String credential, String userName) throws PolicyViolationException {
+
+            if (credential.length() < minLength) {
+                throw new PolicyViolationException("Password at least should have " + minLength + " characters");
+            }
+            if (credential.length() > maxLength) {
+                throw new PolicyViolationException("Password cannot have more than " + maxLength + " characters");
+            }
+        }
+    }
+
+    /**
+     * Compiled form of {@link DefaultPasswordNamePolicy}.
+     */
+    private static final class NamePolicy implements PasswordPolicy {
+
+        @Override
+        public void enforce(String credential, String userName) throws PolicyViolationException {
+
+            if (credential.equalsIgnoreCase(userName)) {
+                throw new PolicyViolationException("Password cannot be equal to username");
+            }
+        }
+    }
+
+    /**
+     * Compiled form of {@link DefaultPasswordPatternPolicy}.
+     */
+    private static final class PatternPolicy implements PasswordPolicy {
+
+        private final Pattern pattern;
+        private final String errorMessage;
+
+        private PatternPolicy(Pattern pattern, String errorMessage) {
+
+            this.pattern = pattern;
+            this.errorMessage = errorMessage;
+        }
+
+        @Override
+        public void enforce(String credential, String userName) throws PolicyViolationException {
+
+            if (!pattern.matcher(credential).matches()) {
+                throw new PolicyViolationException(errorMessage);
+            }
+        }
+    }
+
+    /**
+     * A policy of a configured class other than the default one, created for each enforcement.
+     */
+    private static final class ConfiguredPolicy implements PasswordPolicy {
+
+        private final Class<? extends AbstractPasswordPolicyEnforcer> policyClass;
+        private final Map<String, String> initParams;
+
+        private ConfiguredPolicy(Class<? extends AbstractPasswordPolicyEnforcer> policyClass,
+                                 Map<String, String> initParams) {
+
+            this.policyClass = policyClass;
+            this.initParams = initParams == null ? null : Collections.unmodifiableMap(initParams);
+        }
+
+        private AbstractPasswordPolicyEnforcer createPolicy() throws ReflectiveOperationException {
+
+            AbstractPasswordPolicyEnforcer policy = policyClass.newInstance();
+            if (initParams != null) {
+                // The policy may keep the given map, hence it gets a copy of its own.
+                policy.init(new HashMap<>(initParams));
+            }
+            return policy;
+        }
+
+        @Override
+        public void enforce(String credential, String userName) throws PolicyViolationException {
+
+            AbstractPasswordPolicyEnforcer policy;
+            try {
+                policy = createPolicy();
+            } catch (ReflectiveOperationException e) {
+                // The policy is created once while building the chain, hence this is not expected.
+                throw new IllegalStateException("Error while creating the password policy: " + policyClass, e);
+            }
+            if (!policy.enforce(credential, userName)) {
+                throw new PolicyViolationException(policy.getErrorMessage());
+            }
+        }
+    }
+}
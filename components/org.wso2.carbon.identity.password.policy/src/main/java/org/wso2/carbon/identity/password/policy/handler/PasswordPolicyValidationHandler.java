@@ -29,11 +29,7 @@ import org.wso2.carbon.identity.event.event.Event;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceException;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
-import org.wso2.carbon.identity.mgt.policy.PolicyRegistry;
 import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
-import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordLengthPolicy;
-import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordNamePolicy;
-import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordPatternPolicy;
 import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
 import org.wso2.carbon.identity.password.policy.internal.IdentityPasswordPolicyServiceDataHolder;
 import org.wso2.carbon.identity.password.policy.util.Utils;
@@ -41,13 +37,20 @@ import org.wso2.carbon.user.core.util.UserCoreUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PasswordPolicyValidationHandler extends AbstractEventHandler implements IdentityConnectorConfig {
 
     private static final Log log = LogFactory.getLog(PasswordPolicyValidationHandler.class);
+    // Upper bound of the tenants whose password policy chains are kept, so that deleted or rarely used tenants do
+    // not accumulate.
+    private static final int MAX_PASSWORD_POLICY_CHAINS = 1000;
+
+    private final Map<String, PasswordPolicyChain> passwordPolicyChains = new ConcurrentHashMap<>();
 
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
@@ -63,6 +66,36 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
         String tenantDomain = (String) eventProperties.get(IdentityEventConstants.EventProperty.TENANT_DOMAIN);
         Object credentials = eventProperties.get(IdentityEventConstants.EventProperty.CREDENTIAL);
 
+        PasswordPolicyChain passwordPolicyChain = getPasswordPolicyChain(tenantDomain);
+        if (!passwordPolicyChain.isEnabled()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Password Policy validation is disabled");
+            }
+            return;
+        }
+
+        try {
+            passwordPolicyChain.enforce(credentials.toString(), userName);
+        } catch (PolicyViolationException e) {
+            throw Utils.handleEventException(
+                    PasswordPolicyConstants.ErrorMessages.ERROR_CODE_VALIDATING_PASSWORD_POLICY, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the password policy chain of a tenant. The chain is built once for the password policy configuration of the
+     * tenant and reused by the validations until the configuration is changed. The chains of at most
+     * {@value #MAX_PASSWORD_POLICY_CHAINS} tenants are kept.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Password policy chain of the tenant.
+     * @throws IdentityEventException If the configuration could not be retrieved or the policies could not be loaded.
+     */
+    public PasswordPolicyChain getPasswordPolicyChain(String tenantDomain) throws IdentityEventException {
+
+        if (configs == null) {
+            throw new IdentityEventException("Password policy validation handler is not initialized.");
+        }
         Property[] identityProperties;
         try {
             identityProperties = IdentityPasswordPolicyServiceDataHolder.getInstance()
@@ -71,8 +104,35 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
             throw new IdentityEventException("Error while retrieving password policy properties.", e);
         }
 
+        Map<String, String> policyProperties = resolvePolicyProperties(identityProperties);
+        if (tenantDomain == null) {
+            return PasswordPolicyChain.build(policyProperties);
+        }
+        PasswordPolicyChain passwordPolicyChain = passwordPolicyChains.get(tenantDomain);
+        if (passwordPolicyChain == null || !passwordPolicyChain.isBuiltFrom(policyProperties)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Building the password policy chain of the tenant: " + tenantDomain);
+            }
+            // Concurrent validations may build the chain more than once, in which case the last one built is kept.
+            passwordPolicyChain = PasswordPolicyChain.build(policyProperties);
+            if (passwordPolicyChains.size() >= MAX_PASSWORD_POLICY_CHAINS
+                    && !passwordPolicyChains.containsKey(tenantDomain)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Clearing the password policy chains as " + MAX_PASSWORD_POLICY_CHAINS
+                            + " tenants are cached.");
+                }
+                passwordPolicyChains.clear();
+            }
+            passwordPolicyChains.put(tenantDomain, passwordPolicyChain);
+        }
+        return passwordPolicyChain;
+    }
+
+    private Map<String, String> resolvePolicyProperties(Property[] identityProperties) {
+
         // initialize to default values
-        boolean passwordPolicyValidation;
+        Map<String, String> policyProperties = new LinkedHashMap<>();
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_ENABLE, Boolean.TRUE.toString());
         String pwMinLength = "6";
         String pwMaxLength = "12";
         String pwPattern = "^((?=.*\\\\d)(?=.*[a-z])(?=.*[A-Z])(?=.*[!@#$%&*])).{0,100}$";
@@ -89,12 +149,9 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
             String propertyValue = identityProperty.getValue();
 
             if (PasswordPolicyConstants.PW_POLICY_ENABLE.equals(propertyName)) {
-                passwordPolicyValidation = BooleanUtils.toBoolean(propertyValue);
-                if (!passwordPolicyValidation) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Password Policy validation is disabled");
-                    }
-                    return;
+                if (!BooleanUtils.toBoolean(propertyValue)) {
+                    policyProperties.put(PasswordPolicyConstants.PW_POLICY_ENABLE, Boolean.FALSE.toString());
+                    return policyProperties;
                 }
             } else if (PasswordPolicyConstants.PW_POLICY_MIN_LENGTH.equals(propertyName)) {
                 if (NumberUtils.isNumber(propertyValue) && Integer.parseInt(propertyValue) > 0) {
@@ -123,51 +180,17 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
             }
         }
 
-        PolicyRegistry policyRegistry = new PolicyRegistry();
-
-        String pwLengthPolicyCls = configs.getModuleProperties().
-                getProperty(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS);
-        String pwNamePolicyCls = configs.getModuleProperties().
-                getProperty(PasswordPolicyConstants.PW_POLICY_NAME_CLASS);
-        String pwPatternPolicyCls = configs.getModuleProperties().
-                getProperty(PasswordPolicyConstants.PW_POLICY_PATTERN_CLASS);
-        try {
-            if (StringUtils.isNotBlank(pwLengthPolicyCls)) {
-                DefaultPasswordLengthPolicy defaultPasswordLengthPolicy = (DefaultPasswordLengthPolicy) Class.
-                        forName(pwLengthPolicyCls).newInstance();
-                HashMap pwPolicyLengthParams = new HashMap<String, String>();
-                pwPolicyLengthParams.put("min.length", pwMinLength);
-                pwPolicyLengthParams.put("max.length", pwMaxLength);
-                defaultPasswordLengthPolicy.init(pwPolicyLengthParams);
-                policyRegistry.addPolicy(defaultPasswordLengthPolicy);
-            }
-
-            if (StringUtils.isNotBlank(pwNamePolicyCls)) {
-                DefaultPasswordNamePolicy defaultPasswordNamePolicy = (DefaultPasswordNamePolicy) Class.
-                        forName(pwNamePolicyCls).newInstance();
-                policyRegistry.addPolicy(defaultPasswordNamePolicy);
-            }
-
-            if (StringUtils.isNotBlank(pwPatternPolicyCls)) {
-                DefaultPasswordPatternPolicy defaultPasswordPatternPolicy = (DefaultPasswordPatternPolicy) Class.
-                        forName(pwPatternPolicyCls).newInstance();
-                HashMap pwPolicyPatternParams = new HashMap<String, String>();
-                pwPolicyPatternParams.put("pattern", pwPattern);
-                pwPolicyPatternParams.put("errorMsg", errorMsg);
-                defaultPasswordPatternPolicy.init(pwPolicyPatternParams);
-                policyRegistry.addPolicy(defaultPasswordPatternPolicy);
-            }
-        } catch (Exception e) {
-            throw Utils.handleEventException(
-                    PasswordPolicyConstants.ErrorMessages.ERROR_CODE_LOADING_PASSWORD_POLICY_CLASSES, null, e);
-        }
-
-        try {
-            policyRegistry.enforcePasswordPolicies(credentials.toString(), userName);
-        } catch (PolicyViolationException e) {
-            throw Utils.handleEventException(
-                    PasswordPolicyConstants.ErrorMessages.ERROR_CODE_VALIDATING_PASSWORD_POLICY, e.getMessage(), e);
-        }
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_MIN_LENGTH, pwMinLength);
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_MAX_LENGTH, pwMaxLength);
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_PATTERN, pwPattern);
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_ERROR_MSG, errorMsg);
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS, configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS));
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_NAME_CLASS, configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_NAME_CLASS));
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_PATTERN_CLASS, configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_PATTERN_CLASS));
+        return policyProperties;
     }
 
     @Override
@@ -22,6 +22,7 @@ import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 import org.wso2.carbon.identity.password.policy.handler.PasswordPolicyValidationHandler;
+import org.wso2.carbon.identity.password.policy.service.PasswordPolicyValidationService;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -36,6 +37,8 @@ public class IdentityPasswordPolicyServiceComponent {
 
     private static final Log log = LogFactory.getLog(IdentityPasswordPolicyServiceComponent.class);
 
+    private PasswordPolicyValidationServiceImpl passwordPolicyValidationService;
+
     @Activate
     protected void activate(ComponentContext context) {
 
@@ -47,6 +50,9 @@ public class IdentityPasswordPolicyServiceComponent {
             IdentityPasswordPolicyServiceDataHolder.getInstance().setBundleContext(bundleContext);
             PasswordPolicyValidationHandler handler = new PasswordPolicyValidationHandler();
             context.getBundleContext().registerService(AbstractEventHandler.class.getName(), handler, null);
+            passwordPolicyValidationService = new PasswordPolicyValidationServiceImpl(handler);
+            context.getBundleContext().registerService(PasswordPolicyValidationService.class.getName(),
+                    passwordPolicyValidationService, null);
         } catch (Exception e) {
             log.error("Error while activating password policy component.", e);
         }
@@ -55,6 +61,9 @@ public class IdentityPasswordPolicyServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        if (passwordPolicyValidationService != null) {
+            passwordPolicyValidationService.shutdown();
+        }
         if (log.isDebugEnabled()) {
             log.debug("Password Policy Service component is de-activated");
         }
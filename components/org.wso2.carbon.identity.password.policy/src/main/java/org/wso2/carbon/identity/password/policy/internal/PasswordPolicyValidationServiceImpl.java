@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.identity.password.policy.internal;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
+import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
+import org.wso2.carbon.identity.password.policy.dto.PasswordValidationEntryDTO;
+import org.wso2.carbon.identity.password.policy.dto.PasswordValidationResultDTO;
+import org.wso2.carbon.identity.password.policy.exeption.IdentityPasswordPolicyException;
+import org.wso2.carbon.identity.password.policy.handler.PasswordPolicyChain;
+import org.wso2.carbon.identity.password.policy.handler.PasswordPolicyValidationHandler;
+import org.wso2.carbon.identity.password.policy.service.PasswordPolicyValidationService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates passwords against the password policy chain of the tenant, which is shared with the password policy
+ * validation handler. Batches validated in parallel are split into one slice per thread of a dedicated, bounded
+ * pool, rather than the common fork join pool which is shared with the rest of the server. When the pool is
+ * saturated, the requesting thread validates the slice itself.
+ */
+public class PasswordPolicyValidationServiceImpl implements PasswordPolicyValidationService {
+
+    private static final Log log = LogFactory.getLog(PasswordPolicyValidationServiceImpl.class);
+    private static final String THREAD_NAME_PREFIX = "PasswordPolicyValidation-";
+    private static final int DEFAULT_POOL_SIZE = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+    private static final int QUEUE_CAPACITY_PER_THREAD = 4;
+
+    private final PasswordPolicyValidationHandler passwordPolicyValidationHandler;
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+
+    public PasswordPolicyValidationServiceImpl(PasswordPolicyValidationHandler passwordPolicyValidationHandler) {
+
+        this(passwordPolicyValidationHandler, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Create a password policy validation service.
+     *
+     * @param passwordPolicyValidationHandler Password policy validation handler, which holds the policy chains.
+     * @param poolSize                        Maximum number of threads validating the batches in parallel.
+     */
+    public PasswordPolicyValidationServiceImpl(PasswordPolicyValidationHandler passwordPolicyValidationHandler,
+                                               int poolSize) {
+
+        this.passwordPolicyValidationHandler = passwordPolicyValidationHandler;
+        this.poolSize = poolSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * QUEUE_CAPACITY_PER_THREAD), runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> {
+                    // Unlike the caller runs policy, the slice is also validated once the pool is shut down, so that
+                    // the requesting thread never waits for a slice which is discarded.
+                    runnable.run();
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public List<PasswordValidationResultDTO> validatePasswords(List<PasswordValidationEntryDTO> entries,
+                                                               String tenantDomain, boolean parallel)
+            throws IdentityPasswordPolicyException {
+
+        if (entries == null || entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        PasswordPolicyChain passwordPolicyChain;
+        try {
+            passwordPolicyChain = passwordPolicyValidationHandler.getPasswordPolicyChain(tenantDomain);
+        } catch (IdentityEventException e) {
+            throw new IdentityPasswordPolicyException("Error while loading the password policies of the tenant: " +
+                    tenantDomain, e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Validating " + entries.size() + " passwords of the tenant: " + tenantDomain +
+                    (parallel ? " in parallel." : "."));
+        }
+
+        PasswordValidationResultDTO[] results = new PasswordValidationResultDTO[entries.size()];
+        if (parallel && entries.size() > 1) {
+            validateInParallel(passwordPolicyChain, entries, results);
+        } else {
+            validateSlice(passwordPolicyChain, entries, results, 0, entries.size());
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Stop the threads of the service. Batches submitted afterwards are validated by the requesting thread.
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    private void validateInParallel(PasswordPolicyChain passwordPolicyChain, List<PasswordValidationEntryDTO> entries,
+                                    PasswordValidationResultDTO[] results) throws IdentityPasswordPolicyException {
+
+        int sliceSize = (entries.size() + poolSize - 1) / poolSize;
+        List<Future<?>> slices = new ArrayList<>();
+        try {
+            for (int start = 0; start < entries.size(); start += sliceSize) {
+                int sliceStart = start;
+                int sliceEnd = Math.min(start + sliceSize, entries.size());
+                slices.add(executor.submit(
+                        () -> validateSlice(passwordPolicyChain, entries, results, sliceStart, sliceEnd)));
+            }
+            for (Future<?> slice : slices) {
+                slice.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityPasswordPolicyException("Interrupted while validating the passwords.", e);
+        } catch (ExecutionException e) {
+            throw new IdentityPasswordPolicyException("Error while validating the passwords.", e.getCause());
+        } finally {
+            for (Future<?> slice : slices) {
+                slice.cancel(true);
+            }
+        }
+    }
+
+    private void validateSlice(PasswordPolicyChain passwordPolicyChain, List<PasswordValidationEntryDTO> entries,
+                               PasswordValidationResultDTO[] results, int start, int end) {
+
+        for (int index = start; index < end; index++) {
+            results[index] = validatePassword(passwordPolicyChain, entries.get(index));
+        }
+    }
+
+    private PasswordValidationResultDTO validatePassword(PasswordPolicyChain passwordPolicyChain,
+                                                         PasswordValidationEntryDTO entry) {
+
+        String userName = entry == null ? null : entry.getUserName();
+        if (!passwordPolicyChain.isEnabled()) {
+            return new PasswordValidationResultDTO(userName, true, null, null);
+        }
+        PasswordPolicyConstants.ErrorMessages error =
+                PasswordPolicyConstants.ErrorMessages.ERROR_CODE_VALIDATING_PASSWORD_POLICY;
+        if (entry == null || entry.getCredential() == null) {
+            return new PasswordValidationResultDTO(userName, false, error.getCode(), error.getMessage());
+        }
+        try {
+            passwordPolicyChain.enforce(entry.getCredential(), userName);
+            return new PasswordValidationResultDTO(userName, true, null, null);
+        } catch (PolicyViolationException e) {
+            return new PasswordValidationResultDTO(userName, false, error.getCode(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.identity.password.policy.service;
+
+import org.wso2.carbon.identity.password.policy.dto.PasswordValidationEntryDTO;
+import org.wso2.carbon.identity.password.policy.dto.PasswordValidationResultDTO;
+import org.wso2.carbon.identity.password.policy.exeption.IdentityPasswordPolicyException;
+
+import java.util.List;
+
+/**
+ * Service interface for validating passwords against the password policies of a tenant, without updating the
+ * credentials of the users.
+ */
+public interface PasswordPolicyValidationService {
+
+    /**
+     * Validates a batch of passwords against the password policies of a tenant. The policies of the tenant are loaded
+     * once for the batch.
+     *
+     * @param entries      passwords to validate, with the usernames of their owners
+     * @param tenantDomain tenant domain of the users
+     * @param parallel     whether the passwords are validated in parallel
+     * @return validation results, in the order of the entries
+     * @throws IdentityPasswordPolicyException if the password policies of the tenant could not be loaded
+     */
+    List<PasswordValidationResultDTO> validatePasswords(List<PasswordValidationEntryDTO> entries, String tenantDomain,
+                                                        boolean parallel) throws IdentityPasswordPolicyException;
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.identity.password.policy.handler;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.bean.ModuleConfiguration;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
+import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordLengthPolicy;
+import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
+import org.wso2.carbon.identity.password.policy.internal.IdentityPasswordPolicyServiceDataHolder;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class PasswordPolicyChainTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String LENGTH_POLICY_CLASS =
+            "org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordLengthPolicy";
+    private static final String NAME_POLICY_CLASS =
+            "org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordNamePolicy";
+    private static final String PATTERN_POLICY_CLASS =
+            "org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordPatternPolicy";
+    private static final String PATTERN = "^((?=.*\\d)(?=.*[a-z])(?=.*[A-Z])(?=.*[!@#$%&*])).{0,100}$";
+
+    private IdentityGovernanceService identityGovernanceService;
+    private PasswordPolicyValidationHandler passwordPolicyValidationHandler;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        identityGovernanceService = mock(IdentityGovernanceService.class);
+        IdentityPasswordPolicyServiceDataHolder.getInstance().setIdentityGovernanceService(identityGovernanceService);
+
+        Properties moduleProperties = new Properties();
+        moduleProperties.setProperty(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS, LENGTH_POLICY_CLASS);
+        moduleProperties.setProperty(PasswordPolicyConstants.PW_POLICY_NAME_CLASS, NAME_POLICY_CLASS);
+        moduleProperties.setProperty(PasswordPolicyConstants.PW_POLICY_PATTERN_CLASS, PATTERN_POLICY_CLASS);
+        ModuleConfiguration moduleConfiguration = mock(ModuleConfiguration.class);
+        when(moduleConfiguration.getModuleProperties()).thenReturn(moduleProperties);
+
+        passwordPolicyValidationHandler = new PasswordPolicyValidationHandler();
+        Field configs = AbstractEventHandler.class.getDeclaredField("configs");
+        configs.setAccessible(true);
+        configs.set(passwordPolicyValidationHandler, moduleConfiguration);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        IdentityPasswordPolicyServiceDataHolder.getInstance().setIdentityGovernanceService(null);
+    }
+
+    @Test
+    public void testChainIsReusedUntilConfigurationChanges() throws Exception {
+
+        mockConfiguration("true", "6");
+        PasswordPolicyChain passwordPolicyChain = passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN);
+        assertSame(passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN), passwordPolicyChain,
+                "Password policy chain is rebuilt for an unchanged configuration.");
+
+        mockConfiguration("true", "8");
+        PasswordPolicyChain changedPasswordPolicyChain =
+                passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN);
+        assertNotSame(changedPasswordPolicyChain, passwordPolicyChain,
+                "Password policy chain is not rebuilt for a changed configuration.");
+        assertSame(passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN), changedPasswordPolicyChain);
+    }
+
+    @Test
+    public void testDisabledChain() throws Exception {
+
+        mockConfiguration("false", "6");
+        PasswordPolicyChain passwordPolicyChain = passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN);
+        assertFalse(passwordPolicyChain.isEnabled());
+        passwordPolicyChain.enforce("a", "testUser");
+    }
+
+    @Test
+    public void testEnforce() throws Exception {
+
+        mockConfiguration("true", "6");
+        PasswordPolicyChain passwordPolicyChain = passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN);
+        assertTrue(passwordPolicyChain.isEnabled());
+        passwordPolicyChain.enforce("Pass@12", "testUser");
+        try {
+            passwordPolicyChain.enforce("pass", "testUser");
+            fail("A password violating the policies is accepted.");
+        } catch (PolicyViolationException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testEnforceNamePolicy() throws Exception {
+
+        mockConfiguration("true", "6");
+        PasswordPolicyChain passwordPolicyChain = passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN);
+        try {
+            passwordPolicyChain.enforce("Test@User1", "test@user1");
+            fail("A password equal to the username is accepted.");
+        } catch (PolicyViolationException e) {
+            assertEquals(e.getMessage(), "Password cannot be equal to username");
+        }
+    }
+
+    @Test
+    public void testEnforceConfiguredPolicyClass() throws Exception {
+
+        Map<String, String> policyProperties = new HashMap<>();
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_ENABLE, "true");
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_MIN_LENGTH, "6");
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_MAX_LENGTH, "12");
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS, EvenLengthPolicy.class.getName());
+        PasswordPolicyChain passwordPolicyChain = PasswordPolicyChain.build(policyProperties);
+
+        passwordPolicyChain.enforce("abcdef", "testUser");
+        try {
+            passwordPolicyChain.enforce("abcdefg", "testUser");
+            fail("A password violating the configured policy is accepted.");
+        } catch (PolicyViolationException e) {
+            assertEquals(e.getMessage(), EvenLengthPolicy.ERROR_MESSAGE);
+        }
+    }
+
+    @Test
+    public void testChainsAreBounded() throws Exception {
+
+        mockConfiguration("true", "6");
+        PasswordPolicyChain passwordPolicyChain = passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN);
+        for (int i = 0; i < 1000; i++) {
+            passwordPolicyValidationHandler.getPasswordPolicyChain("tenant" + i + ".com");
+        }
+        assertNotSame(passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN), passwordPolicyChain,
+                "Password policy chains of more tenants than the limit are kept.");
+    }
+
+    @Test(expectedExceptions = IdentityEventException.class)
+    public void testBuildWithInvalidPolicyClass() throws Exception {
+
+        Map<String, String> policyProperties = new HashMap<>();
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_ENABLE, "true");
+        policyProperties.put(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS, "org.wso2.carbon.NoSuchPolicy");
+        PasswordPolicyChain.build(policyProperties);
+    }
+
+    @Test
+    public void testConcurrentEnforcement() throws Exception {
+
+        mockConfiguration("true", "6");
+        PasswordPolicyChain passwordPolicyChain = passwordPolicyValidationHandler.getPasswordPolicyChain(TENANT_DOMAIN);
+        Set<String> shortPasswordErrors = ConcurrentHashMap.newKeySet();
+        Set<String> longPasswordErrors = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                boolean shortPassword = i % 2 == 0;
+                futures.add(executorService.submit(() -> {
+                    try {
+                        passwordPolicyChain.enforce(shortPassword ? "P@1a" : "Password@12345", "testUser");
+                    } catch (PolicyViolationException e) {
+                        (shortPassword ? shortPasswordErrors : longPasswordErrors).add(e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+            executorService.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(shortPasswordErrors.size(), 1, "Violations of a short password are reported differently.");
+        assertEquals(longPasswordErrors.size(), 1, "Violations of a long password are reported differently.");
+        assertNotEquals(shortPasswordErrors, longPasswordErrors);
+    }
+
+    private void mockConfiguration(String enable, String minLength) throws Exception {
+
+        Property[] properties = new Property[]{
+                property(PasswordPolicyConstants.PW_POLICY_ENABLE, enable),
+                property(PasswordPolicyConstants.PW_POLICY_MIN_LENGTH, minLength),
+                property(PasswordPolicyConstants.PW_POLICY_MAX_LENGTH, "12"),
+                property(PasswordPolicyConstants.PW_POLICY_PATTERN, PATTERN),
+                property(PasswordPolicyConstants.PW_POLICY_ERROR_MSG, "Password pattern policy violated.")
+        };
+        when(identityGovernanceService.getConfiguration(any(String[].class), anyString())).thenReturn(properties);
+    }
+
+    private static Property property(String name, String value) {
+
+        Property property = new Property();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+
+    public static class EvenLengthPolicy extends DefaultPasswordLengthPolicy {
+
+        static final String ERROR_MESSAGE = "Password should have an even number of characters";
+
+        @Override
+        public boolean enforce(Object... args) {
+
+            return args[0].toString().length() % 2 == 0;
+        }
+
+        @Override
+        public String getErrorMessage() {
+
+            return ERROR_MESSAGE;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.identity.password.policy.internal;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.event.bean.ModuleConfiguration;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+import org.wso2.carbon.identity.governance.IdentityGovernanceException;
+import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
+import org.wso2.carbon.identity.password.policy.dto.PasswordValidationEntryDTO;
+import org.wso2.carbon.identity.password.policy.dto.PasswordValidationResultDTO;
+import org.wso2.carbon.identity.password.policy.exeption.IdentityPasswordPolicyException;
+import org.wso2.carbon.identity.password.policy.handler.PasswordPolicyValidationHandler;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class PasswordPolicyValidationServiceImplTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String VALID_PASSWORD = "Pass@12";
+    private static final String SHORT_PASSWORD = "P@1a";
+    private static final int BATCH_SIZE = 1000;
+
+    private IdentityGovernanceService identityGovernanceService;
+    private PasswordPolicyValidationServiceImpl passwordPolicyValidationService;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        identityGovernanceService = mock(IdentityGovernanceService.class);
+        IdentityPasswordPolicyServiceDataHolder.getInstance().setIdentityGovernanceService(identityGovernanceService);
+
+        Properties moduleProperties = new Properties();
+        moduleProperties.setProperty(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS,
+                "org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordLengthPolicy");
+        moduleProperties.setProperty(PasswordPolicyConstants.PW_POLICY_PATTERN_CLASS,
+                "org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordPatternPolicy");
+        ModuleConfiguration moduleConfiguration = mock(ModuleConfiguration.class);
+        when(moduleConfiguration.getModuleProperties()).thenReturn(moduleProperties);
+
+        PasswordPolicyValidationHandler passwordPolicyValidationHandler = new PasswordPolicyValidationHandler();
+        Field configs = AbstractEventHandler.class.getDeclaredField("configs");
+        configs.setAccessible(true);
+        configs.set(passwordPolicyValidationHandler, moduleConfiguration);
+        passwordPolicyValidationService = new PasswordPolicyValidationServiceImpl(passwordPolicyValidationHandler, 2);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        passwordPolicyValidationService.shutdown();
+        IdentityPasswordPolicyServiceDataHolder.getInstance().setIdentityGovernanceService(null);
+    }
+
+    @DataProvider(name = "parallel")
+    public Object[][] parallel() {
+
+        return new Object[][]{{false}, {true}};
+    }
+
+    @Test(dataProvider = "parallel")
+    public void testValidatePasswords(boolean parallel) throws Exception {
+
+        mockConfiguration("true");
+        List<PasswordValidationEntryDTO> entries = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            entries.add(new PasswordValidationEntryDTO("user" + i, i % 3 == 0 ? SHORT_PASSWORD : VALID_PASSWORD));
+        }
+        entries.add(new PasswordValidationEntryDTO("noPasswordUser", null));
+
+        List<PasswordValidationResultDTO> results = passwordPolicyValidationService.validatePasswords(entries,
+                TENANT_DOMAIN, parallel);
+
+        assertEquals(results.size(), entries.size());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            PasswordValidationResultDTO result = results.get(i);
+            assertEquals(result.getUserName(), "user" + i, "Results are not in the order of the entries.");
+            if (i % 3 == 0) {
+                assertFalse(result.isValid());
+                assertEquals(result.getErrorCode(),
+                        PasswordPolicyConstants.ErrorMessages.ERROR_CODE_VALIDATING_PASSWORD_POLICY.getCode());
+                assertNotNull(result.getErrorMessage());
+            } else {
+                assertTrue(result.isValid());
+                assertNull(result.getErrorCode());
+            }
+        }
+        assertFalse(results.get(BATCH_SIZE).isValid(), "A missing password is accepted.");
+        // The policy configuration is looked up once for the batch.
+        verify(identityGovernanceService, times(1)).getConfiguration(any(String[].class), anyString());
+    }
+
+    @Test(timeOut = 10000)
+    public void testValidatePasswordsAfterShutdown() throws Exception {
+
+        mockConfiguration("true");
+        List<PasswordValidationEntryDTO> entries = new ArrayList<>();
+        entries.add(new PasswordValidationEntryDTO("user1", VALID_PASSWORD));
+        entries.add(new PasswordValidationEntryDTO("user2", SHORT_PASSWORD));
+        passwordPolicyValidationService.shutdown();
+
+        List<PasswordValidationResultDTO> results = passwordPolicyValidationService.validatePasswords(entries,
+                TENANT_DOMAIN, true);
+        assertTrue(results.get(0).isValid());
+        assertFalse(results.get(1).isValid());
+    }
+
+    @Test
+    public void testValidatePasswordsWhenPolicyIsDisabled() throws Exception {
+
+        mockConfiguration("false");
+        List<PasswordValidationEntryDTO> entries = new ArrayList<>();
+        entries.add(new PasswordValidationEntryDTO("user", SHORT_PASSWORD));
+
+        List<PasswordValidationResultDTO> results = passwordPolicyValidationService.validatePasswords(entries,
+                TENANT_DOMAIN, false);
+        assertTrue(results.get(0).isValid());
+    }
+
+    @Test(expectedExceptions = IdentityPasswordPolicyException.class)
+    public void testValidatePasswordsWithUnavailableConfiguration() throws Exception {
+
+        when(identityGovernanceService.getConfiguration(any(String[].class), anyString()))
+                .thenThrow(new IdentityGovernanceException("Unavailable"));
+        List<PasswordValidationEntryDTO> entries = new ArrayList<>();
+        entries.add(new PasswordValidationEntryDTO("user", VALID_PASSWORD));
+        passwordPolicyValidationService.validatePasswords(entries, TENANT_DOMAIN, false);
+    }
+
+    private void mockConfiguration(String enable) throws Exception {
+
+        Property[] properties = new Property[]{
+                property(PasswordPolicyConstants.PW_POLICY_ENABLE, enable),
+                property(PasswordPolicyConstants.PW_POLICY_PATTERN,
+                        "^((?=.*\\d)(?=.*[a-z])(?=.*[A-Z])(?=.*[!@#$%&*])).{0,100}$")
+        };
+        when(identityGovernanceService.getConfiguration(any(String[].class), anyString())).thenReturn(properties);
+    }
+
+    private static Property property(String name, String value) {
+
+        Property property = new Property();
+        property.setName(name);
+        property.setValue(value);
+        return property;
+    }
+}
@@ -167,6 +167,15 @@ public class IdentityRecoveryConstants {
     // Recovery code given at the username and password recovery initiation.
     public static final int RECOVERY_CODE_DEFAULT_EXPIRY_TIME = 1;
     public static final int RESEND_CODE_DEFAULT_EXPIRY_TIME = 1;
+    // Interval in minutes and batch size of the purge of the expired recovery data.
+    public static final int RECOVERY_DATA_PURGE_DEFAULT_INTERVAL = 60;
+    public static final int RECOVERY_DATA_PURGE_DEFAULT_BATCH_SIZE = 1000;
+    // Pool size and per user store timeout in milliseconds of the parallel user search by claims.
+    public static final int USER_SEARCH_DEFAULT_POOL_SIZE = 8;
+    public static final int USER_SEARCH_DEFAULT_TIMEOUT = 10000;
+    // Time in seconds a claim to attribute mapping is kept, when searching users by claims. Mappings are not kept by
+    // default, since changes to the claim mappings are not propagated to the kept mappings.
+    public static final int USER_SEARCH_ATTRIBUTE_NAME_CACHE_DEFAULT_TIMEOUT = 0;
 
     public static final String RECOVERY_QUESTION_PASSWORD_SKIP_ON_INSUFFICIENT_ANSWERS =
             "Recovery.Question.Password.SkipOnInsufficientAnswers";
@@ -367,6 +376,9 @@ public class IdentityRecoveryConstants {
                 + "password reset code"),
         ERROR_CODE_ERROR_RETRIEVING_RECOVERY_DATA("UAR-15007","Error while retrieving the user recovery data: '%s'"),
         ERROR_CODE_ERROR_UPDATING_RECOVERY_DATA("UAR-15008", "Error while updating recovery data: '%s'"),
+        ERROR_CODE_USER_SEARCH_TIMED_OUT("UAR-15009", "Timed out while searching users in the user stores: '%s'"),
+        ERROR_CODE_USER_SEARCH_REJECTED("UAR-15010", "Too many concurrent user searches to search the user "
+                + "store: '%s'"),
 
         // PWR - Password Recovery.
         ERROR_CODE_INVALID_TENANT_DOMAIN_PASSWORD_RESET("PWR-10001", "User's tenant domain does "
@@ -515,6 +527,15 @@ public class IdentityRecoveryConstants {
         public static final String PASSWORD_RECOVERY_SMS_OTP_REGEX = "Recovery.Notification.Password.smsOtp.Regex";
         public static final String RESEND_CODE_EXPIRY_TIME = "Recovery.Notification.ExpiryTime.ResendCode";
         public static final String RECOVERY_CODE_EXPIRY_TIME = "Recovery.Notification.ExpiryTime.RecoveryCode";
+        public static final String RECOVERY_DATA_PURGE_ENABLE = "Recovery.DataPurge.Enable";
+        public static final String RECOVERY_DATA_PURGE_INTERVAL = "Recovery.DataPurge.Interval";
+        public static final String RECOVERY_DATA_PURGE_BATCH_SIZE = "Recovery.DataPurge.BatchSize";
+        public static final String RECOVERY_DATA_PURGE_DRY_RUN = "Recovery.DataPurge.DryRun";
+        public static final String USER_SEARCH_PARALLEL_ENABLE = "Recovery.UserSearch.Parallel.Enable";
+        public static final String USER_SEARCH_PARALLEL_POOL_SIZE = "Recovery.UserSearch.Parallel.PoolSize";
+        public static final String USER_SEARCH_PARALLEL_TIMEOUT = "Recovery.UserSearch.Parallel.Timeout";
+        public static final String USER_SEARCH_ATTRIBUTE_NAME_CACHE_TIMEOUT =
+                "Recovery.UserSearch.AttributeNameCache.Timeout";
         public static final String ENABLE_ACCOUNT_LOCK_FOR_VERIFIED_PREFERRED_CHANNEL =
                 "SelfRegistration.EnableAccountLockForVerifiedPreferredChannel";
         public static final String NOTIFICATION_INTERNALLY_MANAGE = "Recovery.Notification.InternallyManage";
@@ -643,6 +664,23 @@ public class IdentityRecoveryConstants {
 
         public static final String DELETE_USER_RECOVERY_DATA_BY_TENANT_ID = "DELETE FROM IDN_RECOVERY_DATA WHERE TENANT_ID = ?";
 
+        public static final String LOAD_RECOVERY_DATA_GROUPS = "SELECT DISTINCT TENANT_ID, SCENARIO, STEP FROM " +
+                "IDN_RECOVERY_DATA WHERE SCENARIO IN (?, ?, ?)";
+
+        public static final String LOAD_EXPIRED_RECOVERY_CODES = "SELECT CODE, USER_NAME, USER_DOMAIN FROM " +
+                "IDN_RECOVERY_DATA WHERE TENANT_ID = ? AND SCENARIO = ? AND STEP = ? AND TIME_CREATED < ?";
+
+        public static final String COUNT_EXPIRED_RECOVERY_CODES = "SELECT COUNT(*) FROM IDN_RECOVERY_DATA WHERE " +
+                "TENANT_ID = ? AND SCENARIO = ? AND STEP = ? AND TIME_CREATED < ?";
+
+        public static final String EXPIRED_RECOVERY_CODES_OF_CHANNEL_FILTER = " AND REMAINING_SETS = ?";
+
+        public static final String EXPIRED_RECOVERY_CODES_OF_OTHER_CHANNELS_FILTER = " AND (REMAINING_SETS IS NULL " +
+                "OR REMAINING_SETS <> ?)";
+
+        public static final String DELETE_EXPIRED_RECOVERY_CODE = "DELETE FROM IDN_RECOVERY_DATA WHERE CODE = ? AND " +
+                "TIME_CREATED < ?";
+
         public static final String LOAD_RECOVERY_DATA_OF_USER =
                 "SELECT * FROM IDN_RECOVERY_DATA WHERE USER_NAME = ? AND USER_DOMAIN = ? AND TENANT_ID = ? " +
                 "AND SCENARIO <> 'EMAIL_VERIFICATION_ON_UPDATE' AND SCENARIO <> 'MOBILE_VERIFICATION_ON_UPDATE'";
@@ -18,6 +18,7 @@
 
 package org.wso2.carbon.identity.recovery.internal;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleContext;
@@ -35,6 +36,7 @@ import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementServic
 import org.wso2.carbon.identity.configuration.mgt.core.ConfigurationManager;
 import org.wso2.carbon.identity.consent.mgt.services.ConsentUtilityService;
 import org.wso2.carbon.identity.core.persistence.registry.RegistryResourceMgtService;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
@@ -45,6 +47,7 @@ import org.wso2.carbon.identity.input.validation.mgt.services.InputValidationMan
 import org.wso2.carbon.identity.input.validation.mgt.services.InputValidationManagementServiceImpl;
 import org.wso2.carbon.identity.multi.attribute.login.mgt.MultiAttributeLoginService;
 import org.wso2.carbon.identity.recovery.ChallengeQuestionManager;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
 import org.wso2.carbon.identity.recovery.IdentityRecoveryException;
 import org.wso2.carbon.identity.recovery.confirmation.ResendConfirmationManager;
 import org.wso2.carbon.identity.recovery.connector.AdminForcedPasswordResetConfigImpl;
@@ -64,21 +67,29 @@ import org.wso2.carbon.identity.recovery.handler.UserEmailVerificationHandler;
 import org.wso2.carbon.identity.recovery.handler.LiteUserRegistrationHandler;
 import org.wso2.carbon.identity.recovery.handler.UserSelfRegistrationHandler;
 import org.wso2.carbon.identity.recovery.handler.request.PostAuthnMissingChallengeQuestionsHandler;
+import org.wso2.carbon.identity.recovery.internal.service.impl.UserStoreSearchExecutor;
 import org.wso2.carbon.identity.recovery.internal.service.impl.password.PasswordRecoveryManagerImpl;
 import org.wso2.carbon.identity.recovery.internal.service.impl.username.UsernameRecoveryManagerImpl;
+import org.wso2.carbon.identity.recovery.listener.RecoveryCodeExpiryIdpMgtListener;
 import org.wso2.carbon.identity.recovery.listener.TenantManagementListener;
 import org.wso2.carbon.identity.recovery.password.NotificationPasswordRecoveryManager;
 import org.wso2.carbon.identity.recovery.password.SecurityQuestionPasswordRecoveryManager;
 import org.wso2.carbon.identity.recovery.services.password.PasswordRecoveryManager;
 import org.wso2.carbon.identity.recovery.services.username.UsernameRecoveryManager;
 import org.wso2.carbon.identity.recovery.signup.UserSelfRegistrationManager;
+import org.wso2.carbon.identity.recovery.store.RecoveryDataPurger;
 import org.wso2.carbon.identity.recovery.username.NotificationUsernameRecoveryManager;
 import org.wso2.carbon.identity.user.functionality.mgt.UserFunctionalityManager;
+import org.wso2.carbon.idp.mgt.listener.IdentityProviderMgtListener;
 import org.wso2.carbon.registry.core.service.RegistryService;
 import org.wso2.carbon.stratos.common.listeners.TenantMgtListener;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 @Component(
         name = "org.wso2.carbon.identity.recovery.internal.IdentityRecoveryServiceComponent",
         immediate = true)
@@ -86,7 +97,10 @@ public class IdentityRecoveryServiceComponent {
 
     private static final Log log = LogFactory.getLog(IdentityRecoveryServiceComponent.class);
 
+    private static final String RECOVERY_DATA_PURGE_THREAD_NAME = "RecoveryDataPurger";
+
     private IdentityRecoveryServiceDataHolder dataHolder = IdentityRecoveryServiceDataHolder.getInstance();
+    private ScheduledExecutorService recoveryDataPurgeExecutor;
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -148,6 +162,8 @@ public class IdentityRecoveryServiceComponent {
                     new ChallengeAnswerValidationHandler(), null);
             bundleContext.registerService(InputValidationManagementService.class.getName(),
                     new InputValidationManagementServiceImpl(), null);
+            bundleContext.registerService(IdentityProviderMgtListener.class.getName(),
+                    new RecoveryCodeExpiryIdpMgtListener(), null);
         } catch (Exception e) {
             log.error("Error while activating identity governance component.", e);
         }
@@ -164,16 +180,92 @@ public class IdentityRecoveryServiceComponent {
         } catch (IdentityRecoveryException e) {
             log.error("Error persisting challenge question for super tenant.", e);
         }
+        scheduleRecoveryDataPurge();
+        initUserStoreSearchExecutor();
     }
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        if (recoveryDataPurgeExecutor != null) {
+            recoveryDataPurgeExecutor.shutdownNow();
+            recoveryDataPurgeExecutor = null;
+            dataHolder.setRecoveryDataPurger(null);
+        }
+        UserStoreSearchExecutor userStoreSearchExecutor = dataHolder.getUserStoreSearchExecutor();
+        if (userStoreSearchExecutor != null) {
+            dataHolder.setUserStoreSearchExecutor(null);
+            userStoreSearchExecutor.shutdown();
+        }
         if (log.isDebugEnabled()) {
             log.debug("Identity Management bundle is de-activated");
         }
     }
 
+    private void scheduleRecoveryDataPurge() {
+
+        if (!Boolean.parseBoolean(IdentityUtil.getProperty(
+                IdentityRecoveryConstants.ConnectorConfig.RECOVERY_DATA_PURGE_ENABLE))) {
+            return;
+        }
+        int interval = readPositiveIntProperty(IdentityRecoveryConstants.ConnectorConfig.RECOVERY_DATA_PURGE_INTERVAL,
+                IdentityRecoveryConstants.RECOVERY_DATA_PURGE_DEFAULT_INTERVAL);
+        int batchSize = readPositiveIntProperty(
+                IdentityRecoveryConstants.ConnectorConfig.RECOVERY_DATA_PURGE_BATCH_SIZE,
+                IdentityRecoveryConstants.RECOVERY_DATA_PURGE_DEFAULT_BATCH_SIZE);
+        boolean dryRun = Boolean.parseBoolean(IdentityUtil.getProperty(
+                IdentityRecoveryConstants.ConnectorConfig.RECOVERY_DATA_PURGE_DRY_RUN));
+
+        RecoveryDataPurger recoveryDataPurger = new RecoveryDataPurger(batchSize, dryRun);
+        dataHolder.setRecoveryDataPurger(recoveryDataPurger);
+        recoveryDataPurgeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, RECOVERY_DATA_PURGE_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        recoveryDataPurgeExecutor.scheduleWithFixedDelay(recoveryDataPurger, interval, interval, TimeUnit.MINUTES);
+        if (log.isDebugEnabled()) {
+            log.debug("Scheduled the purge of the expired recovery data with interval: " + interval +
+                    " minutes, batch size: " + batchSize + " and dry run: " + dryRun);
+        }
+    }
+
+    private void initUserStoreSearchExecutor() {
+
+        if (!Boolean.parseBoolean(IdentityUtil.getProperty(
+                IdentityRecoveryConstants.ConnectorConfig.USER_SEARCH_PARALLEL_ENABLE))) {
+            return;
+        }
+        int poolSize = readPositiveIntProperty(IdentityRecoveryConstants.ConnectorConfig.USER_SEARCH_PARALLEL_POOL_SIZE,
+                IdentityRecoveryConstants.USER_SEARCH_DEFAULT_POOL_SIZE);
+        int timeout = readPositiveIntProperty(IdentityRecoveryConstants.ConnectorConfig.USER_SEARCH_PARALLEL_TIMEOUT,
+                IdentityRecoveryConstants.USER_SEARCH_DEFAULT_TIMEOUT);
+        dataHolder.setUserStoreSearchExecutor(new UserStoreSearchExecutor(poolSize, timeout));
+        if (log.isDebugEnabled()) {
+            log.debug("Enabled the parallel search of the user stores with pool size: " + poolSize +
+                    " and timeout: " + timeout + " milliseconds");
+        }
+    }
+
+    private int readPositiveIntProperty(String propertyName, int defaultValue) {
+
+        String value = IdentityUtil.getProperty(propertyName);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int parsedValue = Integer.parseInt(value.trim());
+            if (parsedValue > 0) {
+                return parsedValue;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below by falling back to the default value.
+        }
+        log.warn("Invalid value: " + value + " configured for " + propertyName + ". Using the default value: " +
+                defaultValue);
+        return defaultValue;
+    }
+
     @Reference(
             name = "realm.service",
             service = org.wso2.carbon.user.core.service.RealmService.class,
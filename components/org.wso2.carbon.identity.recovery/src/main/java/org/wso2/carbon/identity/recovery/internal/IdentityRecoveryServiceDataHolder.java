@@ -30,6 +30,8 @@ import org.wso2.carbon.identity.governance.service.otp.OTPGenerator;
 import org.wso2.carbon.identity.handler.event.account.lock.service.AccountLockService;
 import org.wso2.carbon.identity.input.validation.mgt.services.InputValidationManagementService;
 import org.wso2.carbon.identity.multi.attribute.login.mgt.MultiAttributeLoginService;
+import org.wso2.carbon.identity.recovery.internal.service.impl.UserStoreSearchExecutor;
+import org.wso2.carbon.identity.recovery.store.RecoveryDataPurger;
 import org.wso2.carbon.identity.user.functionality.mgt.UserFunctionalityManager;
 import org.wso2.carbon.idp.mgt.IdpManager;
 import org.wso2.carbon.registry.core.service.RegistryService;
@@ -54,6 +56,8 @@ public class IdentityRecoveryServiceDataHolder {
     private MultiAttributeLoginService multiAttributeLoginService;
     private InputValidationManagementService inputValidationMgtService;
     private AuthAttributeHandlerManager authAttributeHandlerManager;
+    private RecoveryDataPurger recoveryDataPurger;
+    private UserStoreSearchExecutor userStoreSearchExecutor;
     public static IdentityRecoveryServiceDataHolder getInstance() {
 
         return instance;
@@ -315,4 +319,44 @@ public class IdentityRecoveryServiceDataHolder {
 
         this.inputValidationMgtService = inputValidationMgtService;
     }
+
+    /**
+     * Get the purger of the expired recovery data.
+     *
+     * @return Recovery data purger, or null if the purge is not enabled.
+     */
+    public RecoveryDataPurger getRecoveryDataPurger() {
+
+        return recoveryDataPurger;
+    }
+
+    /**
+     * Set the purger of the expired recovery data.
+     *
+     * @param recoveryDataPurger Recovery data purger.
+     */
+    public void setRecoveryDataPurger(RecoveryDataPurger recoveryDataPurger) {
+
+        this.recoveryDataPurger = recoveryDataPurger;
+    }
+
+    /**
+     * Get the executor used to search the user stores in parallel.
+     *
+     * @return User store search executor, or null if the parallel search is not enabled.
+     */
+    public UserStoreSearchExecutor getUserStoreSearchExecutor() {
+
+        return userStoreSearchExecutor;
+    }
+
+    /**
+     * Set the executor used to search the user stores in parallel.
+     *
+     * @param userStoreSearchExecutor User store search executor.
+     */
+    public void setUserStoreSearchExecutor(UserStoreSearchExecutor userStoreSearchExecutor) {
+
+        this.userStoreSearchExecutor = userStoreSearchExecutor;
+    }
 }
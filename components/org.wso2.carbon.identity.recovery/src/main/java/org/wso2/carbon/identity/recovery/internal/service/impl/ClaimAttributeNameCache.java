@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.internal.service.impl;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.user.api.UserStoreException;
+import org.wso2.carbon.user.core.claim.ClaimManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the user store attributes mapped to the claims of each user store domain of a tenant for a limited time, so
+ * that searching users by claims does not resolve the mappings on every search. Claims which are not mapped are not
+ * kept.
+ */
+class ClaimAttributeNameCache {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    private final long timeoutNanos;
+    private final Map<String, CachedAttributeName> attributeNames = new ConcurrentHashMap<>();
+
+    /**
+     * Create a claim attribute name cache.
+     *
+     * @param timeoutSeconds Time a mapping is kept, in seconds. Mappings are not kept if the time is not positive.
+     */
+    ClaimAttributeNameCache(long timeoutSeconds) {
+
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    }
+
+    /**
+     * Get the user store attribute mapped to a claim.
+     *
+     * @param tenantId     Tenant id.
+     * @param domain       User store domain.
+     * @param claimUri     Claim URI.
+     * @param claimManager Claim manager of the tenant, used to resolve the mappings which are not kept.
+     * @return Attribute name.
+     * @throws UserStoreException If an error occurred while resolving the mapping.
+     */
+    String getAttributeName(int tenantId, String domain, String claimUri, ClaimManager claimManager)
+            throws UserStoreException {
+
+        if (timeoutNanos <= 0) {
+            return claimManager.getAttributeName(domain, claimUri);
+        }
+        String key = tenantId + ":" + domain + ":" + claimUri;
+        CachedAttributeName cachedAttributeName = attributeNames.get(key);
+        long now = System.nanoTime();
+        if (cachedAttributeName != null && now - cachedAttributeName.cachedTime < timeoutNanos) {
+            return cachedAttributeName.attributeName;
+        }
+        String attributeName = claimManager.getAttributeName(domain, claimUri);
+        if (StringUtils.isNotEmpty(attributeName)) {
+            if (attributeNames.size() >= MAX_ENTRIES) {
+                attributeNames.clear();
+            }
+            attributeNames.put(key, new CachedAttributeName(attributeName, now));
+        } else if (cachedAttributeName != null) {
+            attributeNames.remove(key, cachedAttributeName);
+        }
+        return attributeName;
+    }
+
+    private static final class CachedAttributeName {
+
+        private final String attributeName;
+        private final long cachedTime;
+
+        private CachedAttributeName(String attributeName, long cachedTime) {
+
+            this.attributeName = attributeName;
+            this.cachedTime = cachedTime;
+        }
+    }
+}
@@ -67,6 +67,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -87,11 +88,14 @@ public class UserAccountRecoveryManager {
     private static final boolean PER_USER_FUNCTIONALITY_LOCKING_ENABLED = Utils.isPerUserFunctionalityLockingEnabled();
     private static final String FUNCTIONALITY_PREFIX = "FUNCTIONALITY_";
 
+    private final ClaimAttributeNameCache claimAttributeNameCache;
+
     /**
      * Constructor.
      */
     private UserAccountRecoveryManager() {
 
+        claimAttributeNameCache = new ClaimAttributeNameCache(getAttributeNameCacheTimeout());
     }
 
     /**
@@ -300,26 +304,38 @@ public class UserAccountRecoveryManager {
             ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(tenantId).getClaimManager();
             ArrayList<org.wso2.carbon.user.core.common.User> resultedUserList = new ArrayList<>();
 
+            Map<String, Condition> conditions = new LinkedHashMap<>();
             for (String domain : userStoreDomainNames) {
                 List<ExpressionCondition> expressionConditionList =
-                        getExpressionConditionList(claims, domain, claimManager);
-                if (expressionConditionList.isEmpty()) {
-                    continue;
+                        getExpressionConditionList(claims, domain, claimManager, tenantId);
+                if (!expressionConditionList.isEmpty()) {
+                    conditions.put(domain, getOperationalCondition(expressionConditionList));
                 }
-                Condition operationalCondition = getOperationalCondition(expressionConditionList);
-                /* Get the users list that matches with the condition
-                   limit : 2, offset : 1, sortBy : null, sortOrder : null */
-                resultedUserList.addAll(abstractUserStoreManager.getUserListWithID(operationalCondition, domain,
-                        UserCoreConstants.DEFAULT_PROFILE, 2, 1, null, null));
-                if (resultedUserList.size() > 1) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Multiple users matched for given claims set : " +
-                                Arrays.toString(resultedUserList.toArray()));
+            }
+            UserStoreSearchExecutor userStoreSearchExecutor =
+                    IdentityRecoveryServiceDataHolder.getInstance().getUserStoreSearchExecutor();
+            if (userStoreSearchExecutor != null && conditions.size() > 1) {
+                resultedUserList.addAll(userStoreSearchExecutor.search(abstractUserStoreManager, conditions,
+                        tenantId, tenantDomain));
+            } else {
+                for (Map.Entry<String, Condition> condition : conditions.entrySet()) {
+                    /* Get the users list that matches with the condition
+                       limit : 2, offset : 1, sortBy : null, sortOrder : null */
+                    resultedUserList.addAll(abstractUserStoreManager.getUserListWithID(condition.getValue(),
+                            condition.getKey(), UserCoreConstants.DEFAULT_PROFILE, 2, 1, null, null));
+                    if (resultedUserList.size() > 1) {
+                        break;
                     }
-                    throw Utils.handleClientException(
-                            IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_MULTIPLE_MATCHING_USERS, null);
                 }
             }
+            if (resultedUserList.size() > 1) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Multiple users matched for given claims set : " +
+                            Arrays.toString(resultedUserList.toArray()));
+                }
+                throw Utils.handleClientException(
+                        IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_MULTIPLE_MATCHING_USERS, null);
+            }
             // Return empty when no users are found.
             if (resultedUserList.isEmpty()) {
                 return StringUtils.EMPTY;
@@ -343,16 +359,18 @@ public class UserAccountRecoveryManager {
      * @param claims   List of UserClaims
      * @param domain   User store domain
      * @param claimManager   Claim manager
+     * @param tenantId Tenant id
      * @return expressionConditionList of the claims.
      * @throws UserStoreException Error while get attribute name.
      */
     private List<ExpressionCondition> getExpressionConditionList (Map<String, String> claims, String domain,
-                                                                 ClaimManager claimManager)
+                                                                 ClaimManager claimManager, int tenantId)
             throws UserStoreException {
 
         List<ExpressionCondition> expressionConditionList = new ArrayList<>();
         for (Map.Entry<String,String> entry : claims.entrySet()) {
-            String attributeName = claimManager.getAttributeName(domain, entry.getKey());
+            String attributeName = claimAttributeNameCache.getAttributeName(tenantId, domain, entry.getKey(),
+                    claimManager);
             if (StringUtils.isNotEmpty(entry.getKey()) && StringUtils.isNotEmpty(entry.getValue()) &&
                     StringUtils.isNotEmpty(attributeName)) {
                 expressionConditionList.add(new ExpressionCondition(ExpressionOperation.EQ.toString(), attributeName,
@@ -380,6 +398,33 @@ public class UserAccountRecoveryManager {
         return operationalCondition;
     }
 
+    /**
+     * Get the time a claim to attribute mapping is kept, when searching users by claims.
+     *
+     * @return Time in seconds. Mappings are not kept if the time is zero.
+     */
+    private static int getAttributeNameCacheTimeout() {
+
+        String timeout = IdentityUtil.getProperty(
+                IdentityRecoveryConstants.ConnectorConfig.USER_SEARCH_ATTRIBUTE_NAME_CACHE_TIMEOUT);
+        if (StringUtils.isBlank(timeout)) {
+            return IdentityRecoveryConstants.USER_SEARCH_ATTRIBUTE_NAME_CACHE_DEFAULT_TIMEOUT;
+        }
+        try {
+            int parsedTimeout = Integer.parseInt(timeout.trim());
+            if (parsedTimeout >= 0) {
+                return parsedTimeout;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below by falling back to the default value.
+        }
+        log.warn("Invalid value: " + timeout + " configured for " +
+                IdentityRecoveryConstants.ConnectorConfig.USER_SEARCH_ATTRIBUTE_NAME_CACHE_TIMEOUT +
+                ". Using the default value: " +
+                IdentityRecoveryConstants.USER_SEARCH_ATTRIBUTE_NAME_CACHE_DEFAULT_TIMEOUT);
+        return IdentityRecoveryConstants.USER_SEARCH_ATTRIBUTE_NAME_CACHE_DEFAULT_TIMEOUT;
+    }
+
     /**
      * Get the notification channel list when the notification channel is external.
      *
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.internal.service.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryServerException;
+import org.wso2.carbon.identity.recovery.util.Utils;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
+import org.wso2.carbon.user.core.common.User;
+import org.wso2.carbon.user.core.model.Condition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches the users matching a condition in several user stores of a tenant in parallel, on a bounded pool of
+ * threads. The search stops as soon as two users are matched, since the claims then do not identify a single user.
+ * Searches which do not fit in the queue of the pool are rejected, rather than run by the requesting thread, so that
+ * a request never waits for a user store longer than the timeout.
+ */
+public class UserStoreSearchExecutor {
+
+    private static final Log log = LogFactory.getLog(UserStoreSearchExecutor.class);
+    private static final String THREAD_NAME_PREFIX = "UserStoreSearch-";
+    private static final int QUEUE_CAPACITY_PER_THREAD = 16;
+    // Two matched users are enough to tell that the claims do not identify a single user.
+    private static final int MAX_MATCHED_USERS = 2;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    /**
+     * Create a user store search executor.
+     *
+     * @param poolSize      Maximum number of user stores searched at once.
+     * @param timeoutMillis Time to wait for the search of a user store, in milliseconds.
+     */
+    public UserStoreSearchExecutor(int poolSize, long timeoutMillis) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * QUEUE_CAPACITY_PER_THREAD), runnable -> {
+                    Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Search the users matching the condition of each user store domain.
+     *
+     * @param userStoreManager User store manager of the tenant.
+     * @param conditions       Conditions keyed by the user store domain.
+     * @param tenantId         Tenant id.
+     * @param tenantDomain     Tenant domain.
+     * @return Matched users. The search stops once two users are matched.
+     * @throws UserStoreException              If the search of a user store failed.
+     * @throws IdentityRecoveryServerException If the search of a user store timed out, was interrupted or could not
+     *                                         be started as the pool is saturated.
+     */
+    public List<User> search(AbstractUserStoreManager userStoreManager, Map<String, Condition> conditions,
+                             int tenantId, String tenantDomain)
+            throws UserStoreException, IdentityRecoveryServerException {
+
+        CompletionService<List<User>> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<List<User>>, String> pendingSearches = new LinkedHashMap<>();
+        List<User> matchedUsers = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (Map.Entry<String, Condition> condition : conditions.entrySet()) {
+                String domain = condition.getKey();
+                try {
+                    pendingSearches.put(completionService.submit(() -> searchUsers(userStoreManager,
+                            condition.getValue(), domain, tenantId, tenantDomain)), domain);
+                } catch (RejectedExecutionException e) {
+                    throw Utils.handleServerException(
+                            IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_USER_SEARCH_REJECTED, domain, e);
+                }
+            }
+            while (!pendingSearches.isEmpty() && matchedUsers.size() < MAX_MATCHED_USERS) {
+                Future<List<User>> future = completionService.poll(deadline - System.nanoTime(),
+                        TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Timed out while searching users in the user stores: " + pendingSearches.values()
+                                + " of the tenant: " + tenantDomain);
+                    }
+                    throw Utils.handleServerException(
+                            IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_USER_SEARCH_TIMED_OUT,
+                            String.valueOf(pendingSearches.values()));
+                }
+                pendingSearches.remove(future);
+                matchedUsers.addAll(getMatchedUsers(future));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Utils.handleServerException(IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_UNEXPECTED_ERROR,
+                    null, e);
+        } finally {
+            // Searches still running are not needed anymore.
+            for (Future<List<User>> future : pendingSearches.keySet()) {
+                future.cancel(true);
+            }
+        }
+        return matchedUsers;
+    }
+
+    /**
+     * Stop the threads of the executor.
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    private List<User> searchUsers(AbstractUserStoreManager userStoreManager, Condition condition, String domain,
+                                   int tenantId, String tenantDomain) throws UserStoreException {
+
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantId(tenantId);
+            carbonContext.setTenantDomain(tenantDomain);
+            /* Get the users list that matches with the condition
+               limit : 2, offset : 1, sortBy : null, sortOrder : null */
+            return userStoreManager.getUserListWithID(condition, domain, UserCoreConstants.DEFAULT_PROFILE,
+                    MAX_MATCHED_USERS, 1, null, null);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private List<User> getMatchedUsers(Future<List<User>> future)
+            throws UserStoreException, InterruptedException, IdentityRecoveryServerException {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UserStoreException) {
+                throw (UserStoreException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw Utils.handleServerException(IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_UNEXPECTED_ERROR,
+                    null, cause);
+        }
+    }
+}
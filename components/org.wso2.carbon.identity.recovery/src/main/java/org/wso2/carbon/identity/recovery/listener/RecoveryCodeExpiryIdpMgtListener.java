@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.listener;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.base.IdentityRuntimeException;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.recovery.store.RecoveryCodeExpiryPolicyCache;
+import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
+import org.wso2.carbon.idp.mgt.listener.AbstractIdentityProviderMgtListener;
+
+/**
+ * Identity provider management listener which discards the recovery code expiry policy of a tenant when the resident
+ * identity provider, which holds the recovery configurations, is added or updated.
+ */
+public class RecoveryCodeExpiryIdpMgtListener extends AbstractIdentityProviderMgtListener {
+
+    private static final Log log = LogFactory.getLog(RecoveryCodeExpiryIdpMgtListener.class);
+    // Runs after the identity governance configuration of the tenant is invalidated.
+    private static final int DEFAULT_ORDER_ID = 96;
+
+    @Override
+    public int getDefaultOrderId() {
+
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostAddResidentIdP(IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+
+        invalidateExpiryPolicy(tenantDomain);
+        return true;
+    }
+
+    @Override
+    public boolean doPostUpdateResidentIdP(IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+
+        invalidateExpiryPolicy(tenantDomain);
+        return true;
+    }
+
+    private void invalidateExpiryPolicy(String tenantDomain) {
+
+        if (StringUtils.isBlank(tenantDomain)) {
+            return;
+        }
+        try {
+            RecoveryCodeExpiryPolicyCache.getInstance().clearCacheEntry(tenantDomain,
+                    IdentityTenantUtil.getTenantId(tenantDomain));
+        } catch (IdentityRuntimeException e) {
+            log.error("Error while invalidating the recovery code expiry policy of the tenant: " + tenantDomain, e);
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidated the recovery code expiry policy of the tenant: " + tenantDomain);
+        }
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.common.model.User;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryException;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+import org.wso2.carbon.identity.recovery.RecoverySteps;
+import org.wso2.carbon.identity.recovery.model.UserRecoveryData;
+import org.wso2.carbon.identity.recovery.util.Utils;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.wso2.carbon.identity.event.IdentityEventConstants.Event.POST_GET_USER_RECOVERY_DATA;
+import static org.wso2.carbon.identity.event.IdentityEventConstants.Event.PRE_GET_USER_RECOVERY_DATA;
+import static org.wso2.carbon.identity.event.IdentityEventConstants.EventProperty.GET_USER_RECOVERY_DATA_SCENARIO_WITHOUT_CODE_EXPIRY_VALIDATION;
+import static org.wso2.carbon.identity.event.IdentityEventConstants.EventProperty.GET_USER_RECOVERY_DATA_SCENARIO_WITH_CODE_EXPIRY_VALIDATION;
+import static org.wso2.carbon.identity.recovery.IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_EXPIRED_CODE;
+import static org.wso2.carbon.identity.recovery.IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_INVALID_CODE;
+
+/**
+ * Recovery data store which serves the recovery data loaded by the code, or by the user, scenario and step, from the
+ * {@link RecoveryDataCache}, so that a flow which loads the same recovery data several times reads it from the
+ * database once.
+ * <p>
+ * The recovery data of a user is cached under a version, which is cached by the user. A change of the recovery data
+ * of a user clears the version of the user, and a change of a code clears the row of the code, on all the nodes of
+ * the cluster. A row is only used while it has the version of its user and, when it is looked up by the user, while
+ * the row of its code is cached. The version is taken before the recovery data is read from the database, hence
+ * recovery data changed by any node while it is being read is not used from the cache. The expiry of the codes is
+ * validated, and the recovery data events are published, on every load as done by {@link JDBCRecoveryDataStore}.
+ * The cached recovery data of the codes deleted by the {@link RecoveryDataPurger} is cleared in the same way.
+ */
+public class CachingRecoveryDataStore implements UserRecoveryDataStore {
+
+    private static final Log log = LogFactory.getLog(CachingRecoveryDataStore.class);
+
+    private final JDBCRecoveryDataStore recoveryDataStore;
+
+    CachingRecoveryDataStore(JDBCRecoveryDataStore recoveryDataStore) {
+
+        this.recoveryDataStore = recoveryDataStore;
+    }
+
+    @Override
+    public void store(UserRecoveryData recoveryDataDO) throws IdentityRecoveryException {
+
+        try {
+            recoveryDataStore.store(recoveryDataDO);
+        } finally {
+            clearUserVersion(recoveryDataDO.getUser());
+        }
+    }
+
+    @Override
+    public UserRecoveryData load(User user, Enum recoveryScenario, Enum recoveryStep, String code)
+            throws IdentityRecoveryException {
+
+        RecoveryDataCacheEntry entry = getEntryByCode(code);
+        if (entry == null || !matches(entry, user, recoveryScenario, recoveryStep)) {
+            return recoveryDataStore.load(user, recoveryScenario, recoveryStep, code);
+        }
+
+        recoveryDataStore.handleRecoveryDataEventPublishing(PRE_GET_USER_RECOVERY_DATA,
+                GET_USER_RECOVERY_DATA_SCENARIO_WITH_CODE_EXPIRY_VALIDATION, null, null, code, user,
+                new UserRecoveryData(user, code, recoveryScenario, recoveryStep));
+        UserRecoveryData userRecoveryData = new UserRecoveryData(user, code, recoveryScenario, recoveryStep);
+        if (StringUtils.isNotBlank(entry.getRemainingSetIds())) {
+            userRecoveryData.setRemainingSetIds(entry.getRemainingSetIds());
+        }
+        boolean isOperationSuccess = false;
+        Enum description = ERROR_CODE_INVALID_CODE;
+        try {
+            if (recoveryDataStore.isCodeExpired(user.getTenantDomain(), recoveryScenario, recoveryStep,
+                    entry.getTimeCreated(), entry.getRemainingSetIds())) {
+                description = ERROR_CODE_EXPIRED_CODE;
+                throw Utils.handleClientException(ERROR_CODE_EXPIRED_CODE, code);
+            }
+            isOperationSuccess = true;
+            description = null;
+            return userRecoveryData;
+        } finally {
+            recoveryDataStore.handleRecoveryDataEventPublishing(POST_GET_USER_RECOVERY_DATA,
+                    GET_USER_RECOVERY_DATA_SCENARIO_WITH_CODE_EXPIRY_VALIDATION, isOperationSuccess, description,
+                    code, user, userRecoveryData);
+        }
+    }
+
+    @Override
+    public UserRecoveryData load(String code) throws IdentityRecoveryException {
+
+        return load(code, false);
+    }
+
+    @Override
+    public UserRecoveryData load(String code, boolean skipExpiryValidation) throws IdentityRecoveryException {
+
+        RecoveryDataCacheEntry entry = getEntryByCode(code);
+        if (entry == null) {
+            UserRecoveryData userRecoveryData = recoveryDataStore.load(code, skipExpiryValidation);
+            addCodeToCache(code, userRecoveryData);
+            return userRecoveryData;
+        }
+
+        recoveryDataStore.handleRecoveryDataEventPublishing(PRE_GET_USER_RECOVERY_DATA,
+                GET_USER_RECOVERY_DATA_SCENARIO_WITH_CODE_EXPIRY_VALIDATION, null, null, code, null,
+                new UserRecoveryData(null, code, null, null));
+        User user = new User();
+        user.setUserName(entry.getUserName());
+        user.setTenantDomain(entry.getTenantDomain());
+        user.setUserStoreDomain(entry.getUserStoreDomain());
+        UserRecoveryData userRecoveryData = newUserRecoveryData(user, entry);
+        boolean isOperationSuccess = false;
+        Enum description = ERROR_CODE_INVALID_CODE;
+        try {
+            boolean isCodeExpired = recoveryDataStore.isCodeExpired(user.getTenantDomain(),
+                    userRecoveryData.getRecoveryScenario(), userRecoveryData.getRecoveryStep(),
+                    entry.getTimeCreated(), userRecoveryData.getRemainingSetIds());
+            if (skipExpiryValidation) {
+                userRecoveryData.setCodeExpired(isCodeExpired);
+                return userRecoveryData;
+            }
+            if (isCodeExpired) {
+                description = ERROR_CODE_EXPIRED_CODE;
+                throw Utils.handleClientException(ERROR_CODE_EXPIRED_CODE, code);
+            }
+            isOperationSuccess = true;
+            description = null;
+            return userRecoveryData;
+        } finally {
+            recoveryDataStore.handleRecoveryDataEventPublishing(POST_GET_USER_RECOVERY_DATA,
+                    GET_USER_RECOVERY_DATA_SCENARIO_WITH_CODE_EXPIRY_VALIDATION, isOperationSuccess, description,
+                    code, user, userRecoveryData);
+        }
+    }
+
+    @Override
+    public UserRecoveryData load(User user) throws IdentityRecoveryException {
+
+        return recoveryDataStore.load(user);
+    }
+
+    @Override
+    public UserRecoveryData loadWithoutCodeExpiryValidation(User user) throws IdentityRecoveryException {
+
+        return recoveryDataStore.loadWithoutCodeExpiryValidation(user);
+    }
+
+    @Override
+    public UserRecoveryData loadWithoutCodeExpiryValidation(User user, Enum recoveryScenario)
+            throws IdentityRecoveryException {
+
+        // The recovery data of any step of the scenario may be loaded, hence it is not served from the cache.
+        String version = getUserVersion(user);
+        UserRecoveryData userRecoveryData = recoveryDataStore.loadWithoutCodeExpiryValidation(user, recoveryScenario);
+        addToCache(userRecoveryData, version);
+        return userRecoveryData;
+    }
+
+    @Override
+    public UserRecoveryData loadWithoutCodeExpiryValidation(User user, Enum recoveryScenario, Enum recoveryStep)
+            throws IdentityRecoveryException {
+
+        RecoveryDataCacheEntry entry = getEntryByRecoveryStep(user, recoveryScenario, recoveryStep);
+        if (entry == null) {
+            String version = getUserVersion(user);
+            UserRecoveryData userRecoveryData = recoveryDataStore.loadWithoutCodeExpiryValidation(user,
+                    recoveryScenario, recoveryStep);
+            addToCache(userRecoveryData, version);
+            return userRecoveryData;
+        }
+
+        UserRecoveryData userRecoveryData = newUserRecoveryData(user, entry);
+        recoveryDataStore.handleRecoveryDataEventPublishing(POST_GET_USER_RECOVERY_DATA,
+                GET_USER_RECOVERY_DATA_SCENARIO_WITHOUT_CODE_EXPIRY_VALIDATION, true, null, entry.getCode(), user,
+                userRecoveryData);
+        return userRecoveryData;
+    }
+
+    @Override
+    public void invalidate(String code) throws IdentityRecoveryException {
+
+        try {
+            recoveryDataStore.invalidate(code);
+        } finally {
+            clearCodeEntry(code);
+        }
+    }
+
+    @Override
+    public void invalidate(User user) throws IdentityRecoveryException {
+
+        try {
+            recoveryDataStore.invalidate(user);
+        } finally {
+            clearUserVersion(user);
+        }
+    }
+
+    @Override
+    public void invalidate(User user, Enum recoveryScenario, Enum recoveryStep) throws IdentityRecoveryException {
+
+        try {
+            recoveryDataStore.invalidate(user, recoveryScenario, recoveryStep);
+        } finally {
+            clearUserVersion(user);
+        }
+    }
+
+    @Override
+    public void deleteRecoveryDataByTenantId(int tenantId) throws IdentityRecoveryException {
+
+        try {
+            recoveryDataStore.deleteRecoveryDataByTenantId(tenantId);
+        } finally {
+            // The rows of the codes are not used once the versions of the users are cleared.
+            RecoveryDataCache.getInstance().clear(tenantId);
+        }
+    }
+
+    @Override
+    public void invalidateWithoutChangeTimeCreated(String oldCode, String code, Enum recoveryStep, String channelList)
+            throws IdentityRecoveryException {
+
+        try {
+            recoveryDataStore.invalidateWithoutChangeTimeCreated(oldCode, code, recoveryStep, channelList);
+        } finally {
+            clearCodeEntry(oldCode);
+        }
+    }
+
+    private RecoveryDataCacheEntry getEntryByCode(String code) {
+
+        if (StringUtils.isBlank(code)) {
+            return null;
+        }
+        RecoveryDataCacheEntry entry = getCachedEntry(RecoveryDataCacheKey.forCode(code),
+                MultitenantConstants.SUPER_TENANT_ID);
+        if (entry == null) {
+            return null;
+        }
+        int tenantId = IdentityTenantUtil.getTenantId(entry.getTenantDomain());
+        RecoveryDataCacheEntry userVersion = getCachedEntry(getUserKey(tenantId, entry.getUserStoreDomain(),
+                entry.getUserName()), tenantId);
+        return userVersion != null && entry.getVersion().equals(userVersion.getVersion()) ? entry : null;
+    }
+
+    private RecoveryDataCacheEntry getEntryByRecoveryStep(User user, Enum recoveryScenario, Enum recoveryStep) {
+
+        if (!isValidUser(user)) {
+            return null;
+        }
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
+        RecoveryDataCacheEntry entry = getCachedEntry(getRecoveryStepKey(tenantId, user.getUserStoreDomain(),
+                user.getUserName(), String.valueOf(recoveryScenario), String.valueOf(recoveryStep)), tenantId);
+        if (entry == null) {
+            return null;
+        }
+        RecoveryDataCacheEntry userVersion = getCachedEntry(getUserKey(tenantId, user.getUserStoreDomain(),
+                user.getUserName()), tenantId);
+        if (userVersion == null || !entry.getVersion().equals(userVersion.getVersion())) {
+            return null;
+        }
+        // A change of the code clears the row of the code, even on the nodes which do not know the user of the code.
+        RecoveryDataCacheEntry codeEntry = getCachedEntry(RecoveryDataCacheKey.forCode(entry.getCode()),
+                MultitenantConstants.SUPER_TENANT_ID);
+        return codeEntry != null && entry.getVersion().equals(codeEntry.getVersion()) ? entry : null;
+    }
+
+    private RecoveryDataCacheEntry getCachedEntry(RecoveryDataCacheKey key, int tenantId) {
+
+        return RecoveryDataCache.getInstance().getValueFromCache(key, tenantId);
+    }
+
+    /**
+     * Get the version the recovery data of a user is cached under, starting a new version if the user has none.
+     *
+     * @param user User.
+     * @return Version of the recovery data of the user, or null if the recovery data of the user is not cached.
+     */
+    private String getUserVersion(User user) {
+
+        if (!isValidUser(user)) {
+            return null;
+        }
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
+        RecoveryDataCacheKey userKey = getUserKey(tenantId, user.getUserStoreDomain(), user.getUserName());
+        RecoveryDataCacheEntry userVersion = getCachedEntry(userKey, tenantId);
+        if (userVersion == null) {
+            userVersion = new RecoveryDataCacheEntry(UUID.randomUUID().toString());
+            RecoveryDataCache.getInstance().addToCache(userKey, userVersion, tenantId);
+        }
+        return userVersion.getVersion();
+    }
+
+    private void addCodeToCache(String code, UserRecoveryData userRecoveryData) {
+
+        if (userRecoveryData == null || !isValidUser(userRecoveryData.getUser())) {
+            return;
+        }
+        // The user of the code is only known once the code is loaded, hence the code is loaded again under the
+        // version of the user.
+        String version = getUserVersion(userRecoveryData.getUser());
+        try {
+            addToCache(recoveryDataStore.loadRecoveryData(code), version);
+        } catch (IdentityRecoveryException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while loading the recovery data of the code to be cached.", e);
+            }
+        }
+    }
+
+    private void addToCache(UserRecoveryData userRecoveryData, String version) {
+
+        if (version == null || userRecoveryData == null || !isValidUser(userRecoveryData.getUser()) ||
+                userRecoveryData.getTimeCreated() == null || StringUtils.isBlank(userRecoveryData.getSecret())) {
+            return;
+        }
+        User user = userRecoveryData.getUser();
+        RecoveryDataCacheEntry entry = new RecoveryDataCacheEntry(userRecoveryData.getSecret(),
+                user.getTenantDomain(), user.getUserStoreDomain().toUpperCase(Locale.ENGLISH), user.getUserName(),
+                String.valueOf(userRecoveryData.getRecoveryScenario()),
+                String.valueOf(userRecoveryData.getRecoveryStep()), userRecoveryData.getTimeCreated().getTime(),
+                userRecoveryData.getRemainingSetIds(), version);
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
+        RecoveryDataCache recoveryDataCache = RecoveryDataCache.getInstance();
+        recoveryDataCache.addToCache(RecoveryDataCacheKey.forCode(entry.getCode()), entry,
+                MultitenantConstants.SUPER_TENANT_ID);
+        recoveryDataCache.addToCache(getRecoveryStepKey(tenantId, entry.getUserStoreDomain(), entry.getUserName(),
+                entry.getRecoveryScenario(), entry.getRecoveryStep()), entry, tenantId);
+    }
+
+    /**
+     * Clear the cached recovery data of a code which was deleted without going through the store, such as by the
+     * purge of the expired recovery data.
+     *
+     * @param tenantId        Tenant id of the user of the code.
+     * @param userStoreDomain User store domain of the user of the code.
+     * @param userName        Username of the user of the code.
+     * @param code            Deleted code.
+     */
+    static void clearCachedRecoveryData(int tenantId, String userStoreDomain, String userName, String code) {
+
+        clearCodeEntry(code);
+        if (StringUtils.isNotBlank(userStoreDomain) && StringUtils.isNotBlank(userName)) {
+            RecoveryDataCache.getInstance().clearCacheEntry(getUserKey(tenantId, userStoreDomain, userName),
+                    tenantId);
+        }
+    }
+
+    private static void clearCodeEntry(String code) {
+
+        if (StringUtils.isNotBlank(code)) {
+            RecoveryDataCache.getInstance().clearCacheEntry(RecoveryDataCacheKey.forCode(code),
+                    MultitenantConstants.SUPER_TENANT_ID);
+        }
+    }
+
+    private void clearUserVersion(User user) {
+
+        if (!isValidUser(user)) {
+            return;
+        }
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
+        RecoveryDataCache.getInstance().clearCacheEntry(getUserKey(tenantId, user.getUserStoreDomain(),
+                user.getUserName()), tenantId);
+        if (log.isDebugEnabled()) {
+            log.debug("Cleared the cached recovery data of the user: " + user.getUserName());
+        }
+    }
+
+    private boolean isValidUser(User user) {
+
+        return user != null && StringUtils.isNotBlank(user.getUserName()) &&
+                StringUtils.isNotBlank(user.getUserStoreDomain()) && StringUtils.isNotBlank(user.getTenantDomain());
+    }
+
+    private boolean matches(RecoveryDataCacheEntry entry, User user, Enum recoveryScenario, Enum recoveryStep) {
+
+        if (user == null || StringUtils.isBlank(user.getUserName()) ||
+                StringUtils.isBlank(user.getUserStoreDomain()) ||
+                !StringUtils.equals(user.getTenantDomain(), entry.getTenantDomain()) ||
+                !String.valueOf(recoveryScenario).equals(entry.getRecoveryScenario()) ||
+                !String.valueOf(recoveryStep).equals(entry.getRecoveryStep()) ||
+                !user.getUserStoreDomain().equalsIgnoreCase(entry.getUserStoreDomain())) {
+            return false;
+        }
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
+        return normalizeUserName(user.getUserName(), entry.getUserStoreDomain(), tenantId).equals(
+                normalizeUserName(entry.getUserName(), entry.getUserStoreDomain(), tenantId));
+    }
+
+    private static RecoveryDataCacheKey getUserKey(int tenantId, String userStoreDomain, String userName) {
+
+        String domain = userStoreDomain.toUpperCase(Locale.ENGLISH);
+        return RecoveryDataCacheKey.forUser(tenantId, domain, normalizeUserName(userName, domain, tenantId));
+    }
+
+    private RecoveryDataCacheKey getRecoveryStepKey(int tenantId, String userStoreDomain, String userName,
+                                                    String recoveryScenario, String recoveryStep) {
+
+        String domain = userStoreDomain.toUpperCase(Locale.ENGLISH);
+        return RecoveryDataCacheKey.forRecoveryStep(tenantId, domain, normalizeUserName(userName, domain, tenantId),
+                recoveryScenario, recoveryStep);
+    }
+
+    private static String normalizeUserName(String userName, String userStoreDomain, int tenantId) {
+
+        // Codes of a case insensitive user store are looked up and invalidated ignoring the case of the username.
+        return IdentityUtil.isUserStoreCaseSensitive(userStoreDomain, tenantId) ? userName :
+                userName.toLowerCase(Locale.ENGLISH);
+    }
+
+    private UserRecoveryData newUserRecoveryData(User user, RecoveryDataCacheEntry entry) {
+
+        UserRecoveryData userRecoveryData = new UserRecoveryData(user, entry.getCode(),
+                RecoveryScenarios.valueOf(entry.getRecoveryScenario()), RecoverySteps.valueOf(entry.getRecoveryStep()),
+                new Timestamp(entry.getTimeCreated()));
+        if (StringUtils.isNotBlank(entry.getRemainingSetIds())) {
+            userRecoveryData.setRemainingSetIds(entry.getRemainingSetIds());
+        }
+        return userRecoveryData;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.wso2.carbon.identity.recovery.IdentityRecoveryServerException;
+
+/**
+ * Resolves the time a recovery code stays valid after it is created.
+ */
+@FunctionalInterface
+interface ExpiryTimeResolver {
+
+    /**
+     * Get the expiry time of the codes of a scenario and step.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param recoveryScenario Recovery scenario.
+     * @param recoveryStep     Recovery step.
+     * @param recoveryData     Notification channel stored with the code.
+     * @return Expiry time in minutes, or Integer.MAX_VALUE if the codes never expire.
+     * @throws IdentityRecoveryServerException If an error occurred while reading the configurations.
+     */
+    int getExpiryTime(String tenantDomain, Enum recoveryScenario, Enum recoveryStep, String recoveryData)
+            throws IdentityRecoveryServerException;
+}
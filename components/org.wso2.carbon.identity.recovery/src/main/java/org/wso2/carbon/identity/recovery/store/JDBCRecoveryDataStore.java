@@ -22,6 +22,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.wso2.carbon.identity.application.common.model.User;
+import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -64,7 +65,8 @@ import static org.wso2.carbon.identity.recovery.IdentityRecoveryConstants.ErrorM
 
 public class JDBCRecoveryDataStore implements UserRecoveryDataStore {
 
-    private static UserRecoveryDataStore jdbcRecoveryDataStore = new JDBCRecoveryDataStore();
+    private static JDBCRecoveryDataStore jdbcRecoveryDataStore = new JDBCRecoveryDataStore();
+    private static UserRecoveryDataStore cachingRecoveryDataStore = new CachingRecoveryDataStore(jdbcRecoveryDataStore);
     private static final Log log = LogFactory.getLog(JDBCRecoveryDataStore.class);
     private static final String UTC = "UTC";
 
@@ -72,7 +74,23 @@ public class JDBCRecoveryDataStore implements UserRecoveryDataStore {
 
     }
 
+    /**
+     * Get the recovery data store. Recovery data loaded through the returned store is cached in the
+     * {@link RecoveryDataCache}.
+     *
+     * @return Recovery data store.
+     */
     public static UserRecoveryDataStore getInstance() {
+        return cachingRecoveryDataStore;
+    }
+
+    /**
+     * Get the recovery data store which reads the recovery data directly from the database.
+     *
+     * @return JDBC recovery data store.
+     */
+    static JDBCRecoveryDataStore getJDBCInstance() {
+
         return jdbcRecoveryDataStore;
     }
 
@@ -244,6 +262,45 @@ public class JDBCRecoveryDataStore implements UserRecoveryDataStore {
         throw Utils.handleClientException(ERROR_CODE_INVALID_CODE, code);
     }
 
+    /**
+     * Load the recovery data of a code as stored, without validating the expiry of the code or publishing the
+     * recovery data events.
+     *
+     * @param code Code.
+     * @return Recovery data of the code, or null if the code is not found.
+     * @throws IdentityRecoveryException If an error occurred while loading the recovery data.
+     */
+    UserRecoveryData loadRecoveryData(String code) throws IdentityRecoveryException {
+
+        PreparedStatement prepStmt = null;
+        ResultSet resultSet = null;
+        Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+        try {
+            prepStmt = connection.prepareStatement(IdentityRecoveryConstants.SQLQueries.LOAD_RECOVERY_DATA_FROM_CODE);
+            prepStmt.setString(1, code);
+            resultSet = prepStmt.executeQuery();
+            if (!resultSet.next()) {
+                return null;
+            }
+            User user = new User();
+            user.setUserName(resultSet.getString("USER_NAME"));
+            user.setTenantDomain(IdentityTenantUtil.getTenantDomain(resultSet.getInt("TENANT_ID")));
+            user.setUserStoreDomain(resultSet.getString("USER_DOMAIN"));
+            UserRecoveryData userRecoveryData = new UserRecoveryData(user, code,
+                    RecoveryScenarios.valueOf(resultSet.getString("SCENARIO")),
+                    RecoverySteps.valueOf(resultSet.getString("STEP")),
+                    resultSet.getTimestamp("TIME_CREATED", Calendar.getInstance(TimeZone.getTimeZone(UTC))));
+            if (StringUtils.isNotBlank(resultSet.getString("REMAINING_SETS"))) {
+                userRecoveryData.setRemainingSetIds(resultSet.getString("REMAINING_SETS"));
+            }
+            return userRecoveryData;
+        } catch (SQLException e) {
+            throw Utils.handleServerException(ERROR_CODE_UNEXPECTED, null, e);
+        } finally {
+            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+        }
+    }
+
     @Override
     public void invalidate(String code) throws IdentityRecoveryException {
 
@@ -635,9 +692,62 @@ public class JDBCRecoveryDataStore implements UserRecoveryDataStore {
      * @return Whether the code has expired or not
      * @throws IdentityRecoveryServerException Error while reading the configs
      */
-    private boolean isCodeExpired(String tenantDomain, Enum recoveryScenario, Enum recoveryStep, long createdTimestamp,
+    boolean isCodeExpired(String tenantDomain, Enum recoveryScenario, Enum recoveryStep, long createdTimestamp,
             String recoveryData) throws IdentityRecoveryServerException {
 
+        int notificationExpiryTimeInMinutes = getCachedNotificationExpiryTime(tenantDomain, recoveryScenario,
+                recoveryStep, recoveryData);
+        long expiryTime = createdTimestamp + TimeUnit.MINUTES.toMillis(notificationExpiryTimeInMinutes);
+        return System.currentTimeMillis() > expiryTime;
+    }
+
+    /**
+     * Get the time a code stays valid after it is created, from the expiry policy of the tenant.
+     *
+     * @param tenantDomain     Tenant domain
+     * @param recoveryScenario Recovery scenario
+     * @param recoveryStep     Recovery step
+     * @param recoveryData     Additional data for validate the code
+     * @return Expiry time of the code in minutes, or Integer.MAX_VALUE if the code never expires
+     * @throws IdentityRecoveryServerException Error while reading the configs
+     */
+    private int getCachedNotificationExpiryTime(String tenantDomain, Enum recoveryScenario, Enum recoveryStep,
+                                                String recoveryData) throws IdentityRecoveryServerException {
+
+        if (StringUtils.isBlank(tenantDomain) || !(recoveryScenario instanceof RecoveryScenarios) ||
+                !(recoveryStep instanceof RecoverySteps)) {
+            return getNotificationExpiryTime(tenantDomain, recoveryScenario, recoveryStep, recoveryData);
+        }
+        int tenantId;
+        try {
+            tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+        } catch (IdentityRuntimeException e) {
+            // Let the configuration lookup report the invalid tenant.
+            return getNotificationExpiryTime(tenantDomain, recoveryScenario, recoveryStep, recoveryData);
+        }
+        RecoveryCodeExpiryPolicyCache expiryPolicyCache = RecoveryCodeExpiryPolicyCache.getInstance();
+        RecoveryCodeExpiryPolicy expiryPolicy = expiryPolicyCache.getValueFromCache(tenantDomain, tenantId);
+        if (expiryPolicy == null) {
+            expiryPolicy = new RecoveryCodeExpiryPolicy();
+            expiryPolicyCache.addToCache(tenantDomain, expiryPolicy, tenantId);
+        }
+        return expiryPolicy.getExpiryTime(tenantDomain, (RecoveryScenarios) recoveryScenario,
+                (RecoverySteps) recoveryStep, recoveryData, this::getNotificationExpiryTime);
+    }
+
+    /**
+     * Get the time a code stays valid after it is created. The same rules are used to purge the expired codes.
+     *
+     * @param tenantDomain     Tenant domain
+     * @param recoveryScenario Recovery scenario
+     * @param recoveryStep     Recovery step
+     * @param recoveryData     Additional data for validate the code
+     * @return Expiry time of the code in minutes, or Integer.MAX_VALUE if the code never expires
+     * @throws IdentityRecoveryServerException Error while reading the configs
+     */
+    int getNotificationExpiryTime(String tenantDomain, Enum recoveryScenario, Enum recoveryStep, String recoveryData)
+            throws IdentityRecoveryServerException {
+
         int notificationExpiryTimeInMinutes = 0;
         // Self sign up scenario has two sub scenarios as verification via email or verification via SMS.
         if (RecoveryScenarios.SELF_SIGN_UP.equals(recoveryScenario) && RecoverySteps.CONFIRM_SIGN_UP
@@ -755,8 +865,7 @@ public class JDBCRecoveryDataStore implements UserRecoveryDataStore {
             // Make the code valid infinitely in case of negative value.
             notificationExpiryTimeInMinutes = Integer.MAX_VALUE;
         }
-        long expiryTime = createdTimestamp + TimeUnit.MINUTES.toMillis(notificationExpiryTimeInMinutes);
-        return System.currentTimeMillis() > expiryTime;
+        return notificationExpiryTimeInMinutes;
     }
 
     /**
@@ -809,8 +918,8 @@ public class JDBCRecoveryDataStore implements UserRecoveryDataStore {
         }
     }
 
-    private void handleRecoveryDataEventPublishing(String eventName, String scenario, Boolean status, Enum description,
-                                                   String code, User user, UserRecoveryData userRecoveryData)
+    void handleRecoveryDataEventPublishing(String eventName, String scenario, Boolean status, Enum description,
+                                           String code, User user, UserRecoveryData userRecoveryData)
             throws IdentityRecoveryException {
 
         Map<String, Object> eventProperties = new HashMap<>();
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.wso2.carbon.identity.governance.service.notification.NotificationChannels;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryServerException;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+import org.wso2.carbon.identity.recovery.RecoverySteps;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Expiry times of the recovery codes of a tenant, per scenario, step and notification channel. The expiry rules only
+ * distinguish the SMS channel from the rest, hence two expiry times are kept for each scenario and step.
+ * <p>
+ * An expiry time is resolved from the configurations the first time it is needed and then kept, so that validating a
+ * code does not read the configurations again. Concurrent resolutions of the same expiry time produce the same value,
+ * hence they are not synchronized. A policy is discarded as a whole when the configurations of the tenant change.
+ */
+public final class RecoveryCodeExpiryPolicy implements Serializable {
+
+    private static final long serialVersionUID = 6407216573186720381L;
+
+    private static final int UNRESOLVED = Integer.MIN_VALUE;
+    private static final int CHANNEL_COUNT = 2;
+    private static final int SMS_CHANNEL_INDEX = 0;
+    private static final int OTHER_CHANNELS_INDEX = 1;
+    private static final int STEP_COUNT = RecoverySteps.values().length;
+
+    // The map is fully populated at construction and only the array elements change afterwards.
+    private final Map<RecoveryScenarios, int[]> expiryTimes = new EnumMap<>(RecoveryScenarios.class);
+
+    RecoveryCodeExpiryPolicy() {
+
+        for (RecoveryScenarios recoveryScenario : RecoveryScenarios.values()) {
+            int[] scenarioExpiryTimes = new int[STEP_COUNT * CHANNEL_COUNT];
+            Arrays.fill(scenarioExpiryTimes, UNRESOLVED);
+            expiryTimes.put(recoveryScenario, scenarioExpiryTimes);
+        }
+    }
+
+    /**
+     * Get the expiry time of the codes of a scenario and step.
+     *
+     * @param tenantDomain       Tenant domain.
+     * @param recoveryScenario   Recovery scenario.
+     * @param recoveryStep       Recovery step.
+     * @param recoveryData       Notification channel stored with the code.
+     * @param expiryTimeResolver Resolver of the expiry times which are not resolved yet.
+     * @return Expiry time in minutes, or Integer.MAX_VALUE if the codes never expire.
+     * @throws IdentityRecoveryServerException If an error occurred while reading the configurations.
+     */
+    int getExpiryTime(String tenantDomain, RecoveryScenarios recoveryScenario, RecoverySteps recoveryStep,
+                      String recoveryData, ExpiryTimeResolver expiryTimeResolver)
+            throws IdentityRecoveryServerException {
+
+        int[] scenarioExpiryTimes = expiryTimes.get(recoveryScenario);
+        int index = recoveryStep.ordinal() * CHANNEL_COUNT +
+                (NotificationChannels.SMS_CHANNEL.getChannelType().equals(recoveryData) ? SMS_CHANNEL_INDEX :
+                        OTHER_CHANNELS_INDEX);
+        int expiryTime = scenarioExpiryTimes[index];
+        if (expiryTime == UNRESOLVED) {
+            expiryTime = expiryTimeResolver.getExpiryTime(tenantDomain, recoveryScenario, recoveryStep,
+                    recoveryData);
+            scenarioExpiryTimes[index] = expiryTime;
+        }
+        return expiryTime;
+    }
+}
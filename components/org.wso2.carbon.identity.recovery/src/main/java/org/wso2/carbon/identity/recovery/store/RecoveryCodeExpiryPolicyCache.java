@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.wso2.carbon.identity.core.cache.BaseCache;
+
+/**
+ * Cache to maintain the recovery code expiry policy of each tenant, keyed by the tenant domain.
+ */
+public class RecoveryCodeExpiryPolicyCache extends BaseCache<String, RecoveryCodeExpiryPolicy> {
+
+    private static final String RECOVERY_CODE_EXPIRY_POLICY_CACHE = "RecoveryCodeExpiryPolicyCache";
+    private static volatile RecoveryCodeExpiryPolicyCache instance;
+
+    private RecoveryCodeExpiryPolicyCache() {
+
+        super(RECOVERY_CODE_EXPIRY_POLICY_CACHE);
+    }
+
+    public static RecoveryCodeExpiryPolicyCache getInstance() {
+
+        if (instance == null) {
+            synchronized (RecoveryCodeExpiryPolicyCache.class) {
+                if (instance == null) {
+                    instance = new RecoveryCodeExpiryPolicyCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.wso2.carbon.identity.core.cache.BaseCache;
+
+/**
+ * Cache to maintain the recovery data rows, keyed by the code and by the user, scenario and step, and the versions
+ * of the recovery data of the users.
+ */
+public class RecoveryDataCache extends BaseCache<RecoveryDataCacheKey, RecoveryDataCacheEntry> {
+
+    private static final String RECOVERY_DATA_CACHE = "RecoveryDataCache";
+    private static volatile RecoveryDataCache instance;
+
+    private RecoveryDataCache() {
+
+        super(RECOVERY_DATA_CACHE);
+    }
+
+    public static RecoveryDataCache getInstance() {
+
+        if (instance == null) {
+            synchronized (RecoveryDataCache.class) {
+                if (instance == null) {
+                    instance = new RecoveryDataCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
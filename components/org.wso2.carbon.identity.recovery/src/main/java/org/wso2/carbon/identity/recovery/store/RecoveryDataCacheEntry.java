@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import java.io.Serializable;
+
+/**
+ * Recovery data row kept in the recovery data cache, or the version of the recovery data of a user. A row is only
+ * used while the version it was loaded under is the cached version of its user.
+ */
+public final class RecoveryDataCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 6418802516354912784L;
+
+    private final String code;
+    private final String tenantDomain;
+    private final String userStoreDomain;
+    private final String userName;
+    private final String recoveryScenario;
+    private final String recoveryStep;
+    private final long timeCreated;
+    private final String remainingSetIds;
+    private final String version;
+
+    RecoveryDataCacheEntry(String version) {
+
+        this(null, null, null, null, null, null, 0L, null, version);
+    }
+
+    RecoveryDataCacheEntry(String code, String tenantDomain, String userStoreDomain, String userName,
+                           String recoveryScenario, String recoveryStep, long timeCreated, String remainingSetIds,
+                           String version) {
+
+        this.code = code;
+        this.tenantDomain = tenantDomain;
+        this.userStoreDomain = userStoreDomain;
+        this.userName = userName;
+        this.recoveryScenario = recoveryScenario;
+        this.recoveryStep = recoveryStep;
+        this.timeCreated = timeCreated;
+        this.remainingSetIds = remainingSetIds;
+        this.version = version;
+    }
+
+    String getCode() {
+
+        return code;
+    }
+
+    String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    String getUserStoreDomain() {
+
+        return userStoreDomain;
+    }
+
+    String getUserName() {
+
+        return userName;
+    }
+
+    String getRecoveryScenario() {
+
+        return recoveryScenario;
+    }
+
+    String getRecoveryStep() {
+
+        return recoveryStep;
+    }
+
+    long getTimeCreated() {
+
+        return timeCreated;
+    }
+
+    String getRemainingSetIds() {
+
+        return remainingSetIds;
+    }
+
+    String getVersion() {
+
+        return version;
+    }
+}
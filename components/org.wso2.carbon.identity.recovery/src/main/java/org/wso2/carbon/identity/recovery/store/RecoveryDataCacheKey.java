@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Key of the recovery data cache. Recovery data is cached both by the code and by the user, scenario and step. The
+ * version of the recovery data of a user is cached by the user.
+ */
+public final class RecoveryDataCacheKey implements Serializable {
+
+    private static final long serialVersionUID = 3127954802863413795L;
+
+    private final String code;
+    private final int tenantId;
+    private final String userStoreDomain;
+    private final String userName;
+    private final String recoveryScenario;
+    private final String recoveryStep;
+
+    private RecoveryDataCacheKey(String code, int tenantId, String userStoreDomain, String userName,
+                                 String recoveryScenario, String recoveryStep) {
+
+        this.code = code;
+        this.tenantId = tenantId;
+        this.userStoreDomain = userStoreDomain;
+        this.userName = userName;
+        this.recoveryScenario = recoveryScenario;
+        this.recoveryStep = recoveryStep;
+    }
+
+    static RecoveryDataCacheKey forCode(String code) {
+
+        return new RecoveryDataCacheKey(code, 0, null, null, null, null);
+    }
+
+    static RecoveryDataCacheKey forUser(int tenantId, String userStoreDomain, String userName) {
+
+        return new RecoveryDataCacheKey(null, tenantId, userStoreDomain, userName, null, null);
+    }
+
+    static RecoveryDataCacheKey forRecoveryStep(int tenantId, String userStoreDomain, String userName,
+                                                String recoveryScenario, String recoveryStep) {
+
+        return new RecoveryDataCacheKey(null, tenantId, userStoreDomain, userName, recoveryScenario, recoveryStep);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RecoveryDataCacheKey)) {
+            return false;
+        }
+        RecoveryDataCacheKey that = (RecoveryDataCacheKey) o;
+        return tenantId == that.tenantId && Objects.equals(code, that.code) &&
+                Objects.equals(userStoreDomain, that.userStoreDomain) && Objects.equals(userName, that.userName) &&
+                Objects.equals(recoveryScenario, that.recoveryScenario) &&
+                Objects.equals(recoveryStep, that.recoveryStep);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(code, tenantId, userStoreDomain, userName, recoveryScenario, recoveryStep);
+    }
+}
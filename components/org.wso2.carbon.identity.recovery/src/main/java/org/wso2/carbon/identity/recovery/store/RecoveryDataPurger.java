@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.governance.service.notification.NotificationChannels;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryException;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryServerException;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+import org.wso2.carbon.identity.recovery.RecoverySteps;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Deletes the expired rows of IDN_RECOVERY_DATA. The rows are grouped by tenant, scenario and step, and the expiry
+ * time of each group is resolved with the same rules used to validate a code when it is loaded. Since the expiry time
+ * of some scenarios depends on the notification channel, the SMS codes of a group are purged separately from the rest.
+ * <p>
+ * Only the scenarios whose flow ends once the code expires are purged. The rows of the other scenarios, such as the
+ * self sign up and the verification of updated claims, hold a pending state which is read without validating the
+ * expiry of the code, hence they are kept until their flow removes them.
+ * <p>
+ * Rows are deleted in batches, each committed separately, so that the table is never locked for long. The cached
+ * recovery data of the deleted codes, and of their users, is cleared once a batch is committed. In dry run mode the
+ * expired rows are only counted and reported. The totals of all the runs are logged at the debug level after each run.
+ */
+public class RecoveryDataPurger implements Runnable {
+
+    private static final Log log = LogFactory.getLog(RecoveryDataPurger.class);
+    private static final String UTC = "UTC";
+    private static final String SMS_CHANNEL = NotificationChannels.SMS_CHANNEL.getChannelType();
+    // Scenarios whose recovery data is of no use once the code expires. The order matches the parameters of the
+    // query which loads the recovery data groups.
+    static final List<RecoveryScenarios> PURGED_SCENARIOS = Collections.unmodifiableList(Arrays.asList(
+            RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoveryScenarios.QUESTION_BASED_PWD_RECOVERY,
+            RecoveryScenarios.USERNAME_RECOVERY));
+
+    private final ExpiryTimeResolver expiryTimeResolver;
+    private final Supplier<Connection> connectionSupplier;
+    private final int batchSize;
+    private final boolean dryRun;
+
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong failedRunCount = new AtomicLong();
+    private final AtomicLong purgedRowCount = new AtomicLong();
+
+    /**
+     * Create a purger which resolves the expiry time of the codes through {@link JDBCRecoveryDataStore}.
+     *
+     * @param batchSize Maximum number of rows deleted in a transaction.
+     * @param dryRun    Whether the expired rows should only be reported.
+     */
+    public RecoveryDataPurger(int batchSize, boolean dryRun) {
+
+        this(JDBCRecoveryDataStore.getJDBCInstance()::getNotificationExpiryTime,
+                () -> IdentityDatabaseUtil.getDBConnection(true), batchSize, dryRun);
+    }
+
+    RecoveryDataPurger(ExpiryTimeResolver expiryTimeResolver, Supplier<Connection> connectionSupplier,
+                       int batchSize, boolean dryRun) {
+
+        this.expiryTimeResolver = expiryTimeResolver;
+        this.connectionSupplier = connectionSupplier;
+        this.batchSize = batchSize;
+        this.dryRun = dryRun;
+    }
+
+    @Override
+    public void run() {
+
+        try {
+            purge();
+        } catch (IdentityRecoveryException | RuntimeException e) {
+            log.error("Error while purging the expired recovery data.", e);
+        }
+    }
+
+    /**
+     * Purge the expired recovery data of all the tenants, or only count it in dry run mode.
+     *
+     * @return Report of the run.
+     * @throws IdentityRecoveryException If the recovery data could not be read.
+     */
+    public PurgeReport purge() throws IdentityRecoveryException {
+
+        long startTime = System.currentTimeMillis();
+        runCount.incrementAndGet();
+        PurgeReport report = new PurgeReport(dryRun, startTime);
+        List<RecoveryDataGroup> groups;
+        try {
+            groups = loadRecoveryDataGroups();
+        } catch (SQLException e) {
+            failedRunCount.incrementAndGet();
+            throw new IdentityRecoveryServerException("Error while loading the recovery data to be purged.", e);
+        }
+
+        for (RecoveryDataGroup group : groups) {
+            try {
+                purge(group, report);
+            } catch (IdentityRecoveryException | SQLException | RuntimeException e) {
+                report.failedGroupCount++;
+                log.error("Error while purging the expired recovery data of the tenant: " + group.tenantId +
+                        ", scenario: " + group.scenario + " and step: " + group.step, e);
+            }
+        }
+        report.durationMillis = System.currentTimeMillis() - startTime;
+        if (!dryRun) {
+            purgedRowCount.addAndGet(report.expiredRowCount);
+        }
+        if (dryRun) {
+            log.info("Dry run of the recovery data purge found " + report.expiredRowCount + " expired rows in " +
+                    report.durationMillis + "ms: " + report.expiredRowCounts);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Purged " + report.expiredRowCount + " expired recovery data rows in " + report.durationMillis +
+                    "ms: " + report.expiredRowCounts);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Recovery data purge runs: " + runCount.get() + ", failed runs: " + failedRunCount.get() +
+                    ", purged rows: " + purgedRowCount.get());
+        }
+        return report;
+    }
+
+    private List<RecoveryDataGroup> loadRecoveryDataGroups() throws SQLException {
+
+        List<RecoveryDataGroup> groups = new ArrayList<>();
+        Connection connection = connectionSupplier.get();
+        PreparedStatement prepStmt = null;
+        ResultSet resultSet = null;
+        try {
+            prepStmt = connection.prepareStatement(IdentityRecoveryConstants.SQLQueries.LOAD_RECOVERY_DATA_GROUPS);
+            for (int i = 0; i < PURGED_SCENARIOS.size(); i++) {
+                prepStmt.setString(i + 1, PURGED_SCENARIOS.get(i).name());
+            }
+            resultSet = prepStmt.executeQuery();
+            while (resultSet.next()) {
+                groups.add(new RecoveryDataGroup(resultSet.getInt("TENANT_ID"), resultSet.getString("SCENARIO"),
+                        resultSet.getString("STEP")));
+            }
+            IdentityDatabaseUtil.commitTransaction(connection);
+        } finally {
+            IdentityDatabaseUtil.closeAllConnections(connection, resultSet, prepStmt);
+        }
+        return groups;
+    }
+
+    private void purge(RecoveryDataGroup group, PurgeReport report) throws IdentityRecoveryException, SQLException {
+
+        Enum recoveryScenario;
+        Enum recoveryStep;
+        try {
+            recoveryScenario = RecoveryScenarios.valueOf(group.scenario);
+            recoveryStep = RecoverySteps.valueOf(group.step);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Skipping the recovery data of the unknown scenario: " + group.scenario + " and step: " +
+                        group.step);
+            }
+            return;
+        }
+        String tenantDomain = IdentityTenantUtil.getTenantDomain(group.tenantId);
+        int smsExpiryTime = expiryTimeResolver.getExpiryTime(tenantDomain, recoveryScenario, recoveryStep,
+                SMS_CHANNEL);
+        int expiryTime = expiryTimeResolver.getExpiryTime(tenantDomain, recoveryScenario, recoveryStep, null);
+
+        long expiredRows;
+        if (smsExpiryTime == expiryTime) {
+            expiredRows = purge(group, expiryTime, null);
+        } else {
+            expiredRows = purge(group, smsExpiryTime, IdentityRecoveryConstants.SQLQueries
+                    .EXPIRED_RECOVERY_CODES_OF_CHANNEL_FILTER);
+            expiredRows += purge(group, expiryTime, IdentityRecoveryConstants.SQLQueries
+                    .EXPIRED_RECOVERY_CODES_OF_OTHER_CHANNELS_FILTER);
+        }
+        if (expiredRows > 0) {
+            report.expiredRowCount += expiredRows;
+            report.expiredRowCounts.merge(group.scenario + "." + group.step, expiredRows, Long::sum);
+        }
+    }
+
+    private long purge(RecoveryDataGroup group, int expiryTimeInMinutes, String channelFilter) throws SQLException {
+
+        if (expiryTimeInMinutes == Integer.MAX_VALUE) {
+            // Codes which never expire are not purged.
+            return 0;
+        }
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(expiryTimeInMinutes));
+        String filter = channelFilter == null ? "" : channelFilter;
+
+        Connection connection = connectionSupplier.get();
+        try {
+            if (dryRun) {
+                return countExpiredRows(connection, group, cutoff, filter);
+            }
+            long deletedRows = 0;
+            while (true) {
+                List<ExpiredCode> codes = loadExpiredCodes(connection, group, cutoff, filter);
+                if (codes.isEmpty()) {
+                    break;
+                }
+                int deleted = deleteCodes(connection, codes, cutoff);
+                IdentityDatabaseUtil.commitTransaction(connection);
+                // The codes are deleted without going through the store, hence their cached recovery data is
+                // cleared here.
+                for (ExpiredCode code : codes) {
+                    CachingRecoveryDataStore.clearCachedRecoveryData(group.tenantId, code.userStoreDomain,
+                            code.userName, code.code);
+                }
+                deletedRows += deleted;
+                // The rest were deleted in the meantime, or the last batch was found.
+                if (codes.size() < batchSize || deleted == 0) {
+                    break;
+                }
+            }
+            return deletedRows;
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            throw e;
+        } finally {
+            IdentityDatabaseUtil.closeConnection(connection);
+        }
+    }
+
+    private long countExpiredRows(Connection connection, RecoveryDataGroup group, Timestamp cutoff, String filter)
+            throws SQLException {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(
+                IdentityRecoveryConstants.SQLQueries.COUNT_EXPIRED_RECOVERY_CODES + filter)) {
+            setExpiredCodeParameters(prepStmt, group, cutoff, filter);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+
+    private List<ExpiredCode> loadExpiredCodes(Connection connection, RecoveryDataGroup group, Timestamp cutoff,
+                                               String filter) throws SQLException {
+
+        List<ExpiredCode> codes = new ArrayList<>(batchSize);
+        try (PreparedStatement prepStmt = connection.prepareStatement(
+                IdentityRecoveryConstants.SQLQueries.LOAD_EXPIRED_RECOVERY_CODES + filter)) {
+            prepStmt.setMaxRows(batchSize);
+            setExpiredCodeParameters(prepStmt, group, cutoff, filter);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    codes.add(new ExpiredCode(resultSet.getString("CODE"), resultSet.getString("USER_NAME"),
+                            resultSet.getString("USER_DOMAIN")));
+                }
+            }
+        }
+        return codes;
+    }
+
+    private int deleteCodes(Connection connection, List<ExpiredCode> codes, Timestamp cutoff) throws SQLException {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement(
+                IdentityRecoveryConstants.SQLQueries.DELETE_EXPIRED_RECOVERY_CODE)) {
+            for (ExpiredCode code : codes) {
+                prepStmt.setString(1, code.code);
+                prepStmt.setTimestamp(2, cutoff, Calendar.getInstance(TimeZone.getTimeZone(UTC)));
+                prepStmt.addBatch();
+            }
+            int deleted = 0;
+            for (int count : prepStmt.executeBatch()) {
+                // Some drivers do not report the affected row counts of a batch.
+                deleted += count == PreparedStatement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+            return deleted;
+        }
+    }
+
+    private void setExpiredCodeParameters(PreparedStatement prepStmt, RecoveryDataGroup group, Timestamp cutoff,
+                                          String filter) throws SQLException {
+
+        prepStmt.setInt(1, group.tenantId);
+        prepStmt.setString(2, group.scenario);
+        prepStmt.setString(3, group.step);
+        prepStmt.setTimestamp(4, cutoff, Calendar.getInstance(TimeZone.getTimeZone(UTC)));
+        if (!filter.isEmpty()) {
+            prepStmt.setString(5, SMS_CHANNEL);
+        }
+    }
+
+    /**
+     * Report of a purge run.
+     */
+    public static final class PurgeReport {
+
+        private final boolean dryRun;
+        private final long startTime;
+        private final Map<String, Long> expiredRowCounts = new LinkedHashMap<>();
+        private long expiredRowCount;
+        private long durationMillis;
+        private int failedGroupCount;
+
+        private PurgeReport(boolean dryRun, long startTime) {
+
+            this.dryRun = dryRun;
+            this.startTime = startTime;
+        }
+
+        /**
+         * Whether the expired rows were only counted.
+         *
+         * @return True for a dry run.
+         */
+        public boolean isDryRun() {
+
+            return dryRun;
+        }
+
+        /**
+         * Get the time the run started at.
+         *
+         * @return Start time in milliseconds.
+         */
+        public long getStartTime() {
+
+            return startTime;
+        }
+
+        /**
+         * Get the number of expired rows deleted, or found in a dry run.
+         *
+         * @return Expired row count.
+         */
+        public long getExpiredRowCount() {
+
+            return expiredRowCount;
+        }
+
+        /**
+         * Get the number of expired rows of each scenario and step, keyed by "SCENARIO.STEP".
+         *
+         * @return Expired row counts.
+         */
+        public Map<String, Long> getExpiredRowCounts() {
+
+            return Collections.unmodifiableMap(expiredRowCounts);
+        }
+
+        /**
+         * Get the time taken by the run.
+         *
+         * @return Duration in milliseconds.
+         */
+        public long getDurationMillis() {
+
+            return durationMillis;
+        }
+
+        /**
+         * Get the number of tenant, scenario and step groups which could not be purged.
+         *
+         * @return Failed group count.
+         */
+        public int getFailedGroupCount() {
+
+            return failedGroupCount;
+        }
+    }
+
+    private static final class RecoveryDataGroup {
+
+        private final int tenantId;
+        private final String scenario;
+        private final String step;
+
+        private RecoveryDataGroup(int tenantId, String scenario, String step) {
+
+            this.tenantId = tenantId;
+            this.scenario = scenario;
+            this.step = step;
+        }
+    }
+
+    private static final class ExpiredCode {
+
+        private final String code;
+        private final String userName;
+        private final String userStoreDomain;
+
+        private ExpiredCode(String code, String userName, String userStoreDomain) {
+
+            this.code = code;
+            this.userName = userName;
+            this.userStoreDomain = userStoreDomain;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.internal.service.impl;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.base.CarbonBaseConstants;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryServerException;
+import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
+import org.wso2.carbon.user.core.common.User;
+import org.wso2.carbon.user.core.model.Condition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class UserStoreSearchExecutorTest {
+
+    private static final int TENANT_ID = -1234;
+    private static final String TENANT_DOMAIN = "carbon.super";
+
+    private AbstractUserStoreManager userStoreManager;
+    private UserStoreSearchExecutor userStoreSearchExecutor;
+    private CountDownLatch releaseSearches;
+    private CountDownLatch interruptedSearches;
+    private List<String> searchThreads;
+
+    @BeforeClass
+    public void init() {
+
+        System.setProperty(CarbonBaseConstants.CARBON_HOME,
+                UserStoreSearchExecutorTest.class.getResource("/").getFile());
+    }
+
+    @BeforeMethod
+    public void setUp() {
+
+        userStoreManager = mock(AbstractUserStoreManager.class);
+        releaseSearches = new CountDownLatch(1);
+        interruptedSearches = new CountDownLatch(1);
+        searchThreads = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        releaseSearches.countDown();
+        if (userStoreSearchExecutor != null) {
+            userStoreSearchExecutor.shutdown();
+        }
+    }
+
+    @Test(description = "Test whether the users matched in each user store are returned.")
+    public void testSearch() throws Exception {
+
+        userStoreSearchExecutor = new UserStoreSearchExecutor(2, 10000);
+        mockMatchedUsers("PRIMARY", "user1");
+        mockMatchedUsers("SECONDARY");
+
+        List<User> users = userStoreSearchExecutor.search(userStoreManager, conditions("PRIMARY", "SECONDARY"),
+                TENANT_ID, TENANT_DOMAIN);
+        assertEquals(users.size(), 1);
+        assertEquals(users.get(0).getUsername(), "user1");
+    }
+
+    @Test(description = "Test whether the pending searches are cancelled once two users are matched.")
+    public void testCancelAfterTwoMatches() throws Exception {
+
+        userStoreSearchExecutor = new UserStoreSearchExecutor(2, 10000);
+        mockBlockingSearch("SLOW");
+        mockMatchedUsers("PRIMARY", "user1", "user2");
+
+        List<User> users = userStoreSearchExecutor.search(userStoreManager, conditions("SLOW", "PRIMARY"),
+                TENANT_ID, TENANT_DOMAIN);
+        assertEquals(users.size(), 2);
+        assertTrue(interruptedSearches.await(5, TimeUnit.SECONDS), "The pending search was not cancelled.");
+    }
+
+    @Test(description = "Test whether a user store which does not answer within the timeout fails the search.")
+    public void testTimeout() throws Exception {
+
+        userStoreSearchExecutor = new UserStoreSearchExecutor(2, 200);
+        mockMatchedUsers("PRIMARY", "user1");
+        mockBlockingSearch("SLOW");
+
+        try {
+            userStoreSearchExecutor.search(userStoreManager, conditions("PRIMARY", "SLOW"), TENANT_ID,
+                    TENANT_DOMAIN);
+            fail("The search did not time out.");
+        } catch (IdentityRecoveryServerException e) {
+            assertEquals(e.getErrorCode(),
+                    IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_USER_SEARCH_TIMED_OUT.getCode());
+        }
+        assertTrue(interruptedSearches.await(5, TimeUnit.SECONDS), "The timed out search was not cancelled.");
+    }
+
+    @Test(description = "Test whether searches are rejected, rather than run by the requesting thread, when the "
+            + "pool is saturated.")
+    public void testSaturation() throws Exception {
+
+        userStoreSearchExecutor = new UserStoreSearchExecutor(1, 10000);
+        // A single thread with a queue of 16 searches, hence the 18th user store can not be searched.
+        String[] domains = new String[18];
+        for (int i = 0; i < domains.length; i++) {
+            domains[i] = "DOMAIN" + i;
+            mockBlockingSearch(domains[i]);
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            userStoreSearchExecutor.search(userStoreManager, conditions(domains), TENANT_ID, TENANT_DOMAIN);
+            fail("The search was not rejected.");
+        } catch (IdentityRecoveryServerException e) {
+            assertEquals(e.getErrorCode(),
+                    IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_USER_SEARCH_REJECTED.getCode());
+        }
+        assertTrue(System.nanoTime() - startTime < TimeUnit.SECONDS.toNanos(5),
+                "The rejected search waited for the user stores.");
+        assertTrue(interruptedSearches.await(5, TimeUnit.SECONDS), "The running search was not cancelled.");
+        assertFalse(searchThreads.contains(Thread.currentThread().getName()),
+                "A user store was searched by the requesting thread.");
+    }
+
+    private void mockMatchedUsers(String domain, String... userNames) throws Exception {
+
+        List<User> users = new ArrayList<>();
+        for (String userName : userNames) {
+            users.add(new User(UUID.randomUUID().toString(), userName, userName));
+        }
+        when(userStoreManager.getUserListWithID(any(Condition.class), eq(domain), anyString(), anyInt(), anyInt(),
+                isNull(), isNull())).thenAnswer(invocation -> {
+                    searchThreads.add(Thread.currentThread().getName());
+                    return users;
+                });
+    }
+
+    private void mockBlockingSearch(String domain) throws Exception {
+
+        when(userStoreManager.getUserListWithID(any(Condition.class), eq(domain), anyString(), anyInt(), anyInt(),
+                isNull(), isNull())).thenAnswer(invocation -> {
+                    searchThreads.add(Thread.currentThread().getName());
+                    try {
+                        releaseSearches.await();
+                    } catch (InterruptedException e) {
+                        interruptedSearches.countDown();
+                    }
+                    return Collections.emptyList();
+                });
+    }
+
+    private Map<String, Condition> conditions(String... domains) {
+
+        Map<String, Condition> conditions = new LinkedHashMap<>();
+        for (String domain : domains) {
+            conditions.put(domain, mock(Condition.class));
+        }
+        return conditions;
+    }
+}
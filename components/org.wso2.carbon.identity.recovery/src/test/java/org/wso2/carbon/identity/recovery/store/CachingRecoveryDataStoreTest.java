@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.common.model.User;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryClientException;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+import org.wso2.carbon.identity.recovery.RecoverySteps;
+import org.wso2.carbon.identity.recovery.model.UserRecoveryData;
+
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Class which contains the test cases for CachingRecoveryDataStore.
+ */
+public class CachingRecoveryDataStoreTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final int TENANT_ID = -1234;
+    private static final String USER_STORE_DOMAIN = "PRIMARY";
+    private static final String USER_NAME = "alex";
+    private static final String CODE = "5e9b4a58-6f0c-4a7e-9d0b-1f7b3c2e8a41";
+    private static final String OTHER_CODE = "c3d1f7a2-0b6e-4d59-8f2a-7e4b9c1d0a65";
+    private static final RecoveryScenarios SCENARIO = RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY;
+
+    @Mock
+    private JDBCRecoveryDataStore jdbcRecoveryDataStore;
+
+    @Mock
+    private RecoveryDataCache recoveryDataCache;
+
+    private AutoCloseable mocks;
+    private MockedStatic<RecoveryDataCache> mockedRecoveryDataCache;
+    private MockedStatic<IdentityTenantUtil> mockedIdentityTenantUtil;
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+    private Map<RecoveryDataCacheKey, RecoveryDataCacheEntry> cachedEntries;
+    private CachingRecoveryDataStore cachingRecoveryDataStore;
+    private User user;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mocks = MockitoAnnotations.openMocks(this);
+        cachedEntries = new ConcurrentHashMap<>();
+        doAnswer(invocation -> cachedEntries.get(invocation.getArgument(0))).when(recoveryDataCache)
+                .getValueFromCache(any(RecoveryDataCacheKey.class), anyInt());
+        doAnswer(invocation -> cachedEntries.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(recoveryDataCache).addToCache(any(RecoveryDataCacheKey.class),
+                        any(RecoveryDataCacheEntry.class), anyInt());
+        doAnswer(invocation -> cachedEntries.remove(invocation.getArgument(0))).when(recoveryDataCache)
+                .clearCacheEntry(any(RecoveryDataCacheKey.class), anyInt());
+
+        mockedRecoveryDataCache = Mockito.mockStatic(RecoveryDataCache.class);
+        mockedRecoveryDataCache.when(RecoveryDataCache::getInstance).thenReturn(recoveryDataCache);
+        mockedIdentityTenantUtil = Mockito.mockStatic(IdentityTenantUtil.class);
+        mockedIdentityTenantUtil.when(() -> IdentityTenantUtil.getTenantId(TENANT_DOMAIN)).thenReturn(TENANT_ID);
+        mockedIdentityUtil = Mockito.mockStatic(IdentityUtil.class);
+        mockedIdentityUtil.when(() -> IdentityUtil.isUserStoreCaseSensitive(anyString(), anyInt()))
+                .thenReturn(true);
+
+        when(jdbcRecoveryDataStore.isCodeExpired(anyString(), any(), any(), anyLong(), any())).thenReturn(false);
+        cachingRecoveryDataStore = new CachingRecoveryDataStore(jdbcRecoveryDataStore);
+        user = newUser();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        mockedRecoveryDataCache.close();
+        mockedIdentityTenantUtil.close();
+        mockedIdentityUtil.close();
+        mocks.close();
+    }
+
+    @Test
+    public void testLoadByCodeIsServedFromCache() throws Exception {
+
+        when(jdbcRecoveryDataStore.load(CODE, false)).thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+        when(jdbcRecoveryDataStore.loadRecoveryData(CODE))
+                .thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+
+        cachingRecoveryDataStore.load(CODE);
+        UserRecoveryData userRecoveryData = cachingRecoveryDataStore.load(CODE);
+
+        verify(jdbcRecoveryDataStore, times(1)).load(CODE, false);
+        assertEquals(userRecoveryData.getSecret(), CODE);
+        assertEquals(userRecoveryData.getUser().getUserName(), USER_NAME);
+        assertEquals(userRecoveryData.getRecoveryScenario(), SCENARIO);
+        assertEquals(userRecoveryData.getRecoveryStep(), RecoverySteps.UPDATE_PASSWORD);
+    }
+
+    @Test
+    public void testLoadByRecoveryStepIsServedFromCache() throws Exception {
+
+        when(jdbcRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD))
+                .thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+        UserRecoveryData userRecoveryData = cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.UPDATE_PASSWORD);
+
+        verify(jdbcRecoveryDataStore, times(1)).loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.UPDATE_PASSWORD);
+        assertEquals(userRecoveryData.getSecret(), CODE);
+    }
+
+    @Test
+    public void testRecoveryStepsOfScenarioAreCachedSeparately() throws Exception {
+
+        when(jdbcRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.NOTIFY))
+                .thenReturn(newRecoveryData(CODE, RecoverySteps.NOTIFY));
+        when(jdbcRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD))
+                .thenReturn(newRecoveryData(OTHER_CODE, RecoverySteps.UPDATE_PASSWORD));
+
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.NOTIFY);
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+
+        assertEquals(cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.NOTIFY)
+                .getSecret(), CODE);
+        assertEquals(cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.UPDATE_PASSWORD).getSecret(), OTHER_CODE);
+        verify(jdbcRecoveryDataStore, times(1)).loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.NOTIFY);
+        verify(jdbcRecoveryDataStore, times(1)).loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.UPDATE_PASSWORD);
+    }
+
+    @Test
+    public void testUserInvalidationClearsCachedRecoveryData() throws Exception {
+
+        when(jdbcRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD))
+                .thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+        when(jdbcRecoveryDataStore.load(CODE, false)).thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+
+        cachingRecoveryDataStore.invalidate(newUser());
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+        cachingRecoveryDataStore.invalidate(newUser(), SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+        cachingRecoveryDataStore.load(CODE);
+
+        verify(jdbcRecoveryDataStore, times(2)).loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.UPDATE_PASSWORD);
+        verify(jdbcRecoveryDataStore, times(1)).load(CODE, false);
+    }
+
+    @Test
+    public void testCodeInvalidationClearsCachedRecoveryData() throws Exception {
+
+        when(jdbcRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD))
+                .thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+
+        // Only the code is cleared, as done by a node which does not know the user of the code.
+        cachingRecoveryDataStore.invalidate(CODE);
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+
+        verify(jdbcRecoveryDataStore, times(2)).loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.UPDATE_PASSWORD);
+    }
+
+    @Test
+    public void testExpiryOfCachedCodeIsValidated() throws Exception {
+
+        when(jdbcRecoveryDataStore.load(CODE, false)).thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+        when(jdbcRecoveryDataStore.loadRecoveryData(CODE))
+                .thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+        cachingRecoveryDataStore.load(CODE);
+        when(jdbcRecoveryDataStore.isCodeExpired(anyString(), any(), any(), anyLong(), any())).thenReturn(true);
+
+        assertTrue(cachingRecoveryDataStore.load(CODE, true).isCodeExpired());
+        try {
+            cachingRecoveryDataStore.load(CODE);
+            fail("An expired code is loaded from the cache.");
+        } catch (IdentityRecoveryClientException e) {
+            assertEquals(e.getErrorCode(), IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_EXPIRED_CODE.getCode());
+        }
+        verify(jdbcRecoveryDataStore, times(1)).load(CODE, false);
+    }
+
+    @Test
+    public void testRecoveryDataChangedByAnotherNodeDuringLoadIsNotCached() throws Exception {
+
+        when(jdbcRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD))
+                .thenAnswer(invocation -> {
+                    // Another node changes the recovery data of the user after it is read, and clears the version
+                    // of the user on all the nodes.
+                    cachedEntries.remove(RecoveryDataCacheKey.forUser(TENANT_ID, USER_STORE_DOMAIN, USER_NAME));
+                    return newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD);
+                });
+
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user, SCENARIO, RecoverySteps.UPDATE_PASSWORD);
+
+        verify(jdbcRecoveryDataStore, times(2)).loadWithoutCodeExpiryValidation(user, SCENARIO,
+                RecoverySteps.UPDATE_PASSWORD);
+    }
+
+    @Test
+    public void testRecoveryDataStoredDuringLoadByCodeIsNotCached() throws Exception {
+
+        when(jdbcRecoveryDataStore.load(CODE, false)).thenReturn(newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD));
+        when(jdbcRecoveryDataStore.loadRecoveryData(CODE)).thenAnswer(invocation -> {
+            cachingRecoveryDataStore.store(newRecoveryData(OTHER_CODE, RecoverySteps.UPDATE_PASSWORD));
+            return newRecoveryData(CODE, RecoverySteps.UPDATE_PASSWORD);
+        });
+
+        cachingRecoveryDataStore.load(CODE);
+        cachingRecoveryDataStore.load(CODE);
+
+        verify(jdbcRecoveryDataStore, times(2)).load(CODE, false);
+    }
+
+    private User newUser() {
+
+        User user = new User();
+        user.setUserName(USER_NAME);
+        user.setUserStoreDomain(USER_STORE_DOMAIN);
+        user.setTenantDomain(TENANT_DOMAIN);
+        return user;
+    }
+
+    private UserRecoveryData newRecoveryData(String code, RecoverySteps recoveryStep) {
+
+        return new UserRecoveryData(newUser(), code, SCENARIO, recoveryStep,
+                new Timestamp(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.recovery.store;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryServerException;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+import org.wso2.carbon.identity.recovery.RecoverySteps;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+/**
+ * This class does unit test coverage for RecoveryCodeExpiryPolicy class.
+ */
+public class RecoveryCodeExpiryPolicyTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String SMS_CHANNEL = "SMS";
+    private static final String EMAIL_CHANNEL = "EMAIL";
+
+    @Test(description = "Test whether an expiry time is resolved once for each scenario, step and channel.")
+    public void testGetExpiryTime() throws Exception {
+
+        AtomicInteger resolveCount = new AtomicInteger();
+        ExpiryTimeResolver resolver = (tenantDomain, recoveryScenario, recoveryStep, recoveryData) -> {
+            resolveCount.incrementAndGet();
+            return SMS_CHANNEL.equals(recoveryData) ? 5 : 1440;
+        };
+        RecoveryCodeExpiryPolicy expiryPolicy = new RecoveryCodeExpiryPolicy();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expiryPolicy.getExpiryTime(TENANT_DOMAIN, RecoveryScenarios.SELF_SIGN_UP,
+                    RecoverySteps.CONFIRM_SIGN_UP, SMS_CHANNEL, resolver), 5);
+            assertEquals(expiryPolicy.getExpiryTime(TENANT_DOMAIN, RecoveryScenarios.SELF_SIGN_UP,
+                    RecoverySteps.CONFIRM_SIGN_UP, EMAIL_CHANNEL, resolver), 1440);
+        }
+        assertEquals(resolveCount.get(), 2);
+
+        // Codes without a channel share the expiry time of the channels other than SMS.
+        assertEquals(expiryPolicy.getExpiryTime(TENANT_DOMAIN, RecoveryScenarios.SELF_SIGN_UP,
+                RecoverySteps.CONFIRM_SIGN_UP, null, resolver), 1440);
+        assertEquals(resolveCount.get(), 2);
+
+        assertEquals(expiryPolicy.getExpiryTime(TENANT_DOMAIN, RecoveryScenarios.SELF_SIGN_UP,
+                RecoverySteps.VERIFY_EMAIL, null, resolver), 1440);
+        assertEquals(resolveCount.get(), 3);
+    }
+
+    @Test(description = "Test whether an expiry time which could not be resolved is resolved again.")
+    public void testGetExpiryTimeWithResolveError() throws Exception {
+
+        AtomicInteger resolveCount = new AtomicInteger();
+        ExpiryTimeResolver resolver = (tenantDomain, recoveryScenario, recoveryStep, recoveryData) -> {
+            if (resolveCount.incrementAndGet() == 1) {
+                throw new IdentityRecoveryServerException("Error while reading the configs.");
+            }
+            return Integer.MAX_VALUE;
+        };
+        RecoveryCodeExpiryPolicy expiryPolicy = new RecoveryCodeExpiryPolicy();
+
+        try {
+            expiryPolicy.getExpiryTime(TENANT_DOMAIN, RecoveryScenarios.ASK_PASSWORD, RecoverySteps.UPDATE_PASSWORD,
+                    null, resolver);
+            fail("Expected the resolve error to be thrown.");
+        } catch (IdentityRecoveryServerException e) {
+            // Expected.
+        }
+        assertEquals(expiryPolicy.getExpiryTime(TENANT_DOMAIN, RecoveryScenarios.ASK_PASSWORD,
+                RecoverySteps.UPDATE_PASSWORD, null, resolver), Integer.MAX_VALUE);
+        assertEquals(resolveCount.get(), 2);
+    }
+}
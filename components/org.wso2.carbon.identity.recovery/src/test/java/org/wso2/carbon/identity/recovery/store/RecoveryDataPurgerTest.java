@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.store;
+
+import org.mockito.MockedStatic;
+import org.wso2.carbon.identity.application.common.model.User;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+import org.wso2.carbon.identity.recovery.RecoverySteps;
+import org.wso2.carbon.identity.recovery.model.UserRecoveryData;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class RecoveryDataPurgerTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:recovery-data-purger;DB_CLOSE_DELAY=-1";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final int TENANT_ID = -1234;
+    private static final String USER_STORE_DOMAIN = "PRIMARY";
+    private static final int EXPIRY_TIME = 15;
+    private static final long EXPIRED_AGE_MINUTES = 60;
+    private static final long FRESH_AGE_MINUTES = 1;
+
+    private Connection connection;
+    private MockedStatic<IdentityTenantUtil> identityTenantUtil;
+    private MockedStatic<IdentityUtil> identityUtil;
+    private MockedStatic<RecoveryDataCache> mockedRecoveryDataCache;
+    private Map<RecoveryDataCacheKey, RecoveryDataCacheEntry> cachedEntries;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        // Keeps the in memory database open during the test.
+        connection = DriverManager.getConnection(DB_URL);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS IDN_RECOVERY_DATA");
+            statement.execute("CREATE TABLE IDN_RECOVERY_DATA (USER_NAME VARCHAR(255) NOT NULL, " +
+                    "USER_DOMAIN VARCHAR(127) NOT NULL, TENANT_ID INTEGER DEFAULT -1, CODE VARCHAR(255) NOT NULL, " +
+                    "SCENARIO VARCHAR(255) NOT NULL, STEP VARCHAR(127) NOT NULL, TIME_CREATED TIMESTAMP NOT NULL, " +
+                    "REMAINING_SETS VARCHAR(2500) DEFAULT NULL, PRIMARY KEY (CODE))");
+        }
+        identityTenantUtil = mockStatic(IdentityTenantUtil.class);
+        identityTenantUtil.when(() -> IdentityTenantUtil.getTenantDomain(anyInt())).thenReturn(TENANT_DOMAIN);
+        identityTenantUtil.when(() -> IdentityTenantUtil.getTenantId(TENANT_DOMAIN)).thenReturn(TENANT_ID);
+        identityUtil = mockStatic(IdentityUtil.class);
+        identityUtil.when(() -> IdentityUtil.isUserStoreCaseSensitive(anyString(), anyInt())).thenReturn(true);
+
+        cachedEntries = new ConcurrentHashMap<>();
+        RecoveryDataCache recoveryDataCache = mock(RecoveryDataCache.class);
+        doAnswer(invocation -> cachedEntries.get(invocation.getArgument(0))).when(recoveryDataCache)
+                .getValueFromCache(any(RecoveryDataCacheKey.class), anyInt());
+        doAnswer(invocation -> cachedEntries.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(recoveryDataCache).addToCache(any(RecoveryDataCacheKey.class),
+                        any(RecoveryDataCacheEntry.class), anyInt());
+        doAnswer(invocation -> cachedEntries.remove(invocation.getArgument(0))).when(recoveryDataCache)
+                .clearCacheEntry(any(RecoveryDataCacheKey.class), anyInt());
+        mockedRecoveryDataCache = mockStatic(RecoveryDataCache.class);
+        mockedRecoveryDataCache.when(RecoveryDataCache::getInstance).thenReturn(recoveryDataCache);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        identityTenantUtil.close();
+        identityUtil.close();
+        mockedRecoveryDataCache.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS IDN_RECOVERY_DATA");
+        }
+        connection.close();
+    }
+
+    @Test(description = "Test whether only the expired codes of the scenarios ending at the code expiry are purged.")
+    public void testPurgeScenarios() throws Exception {
+
+        insert("expired-recovery", RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                EXPIRED_AGE_MINUTES);
+        insert("expired-question", RecoveryScenarios.QUESTION_BASED_PWD_RECOVERY,
+                RecoverySteps.VALIDATE_CHALLENGE_QUESTION, EXPIRED_AGE_MINUTES);
+        insert("expired-username", RecoveryScenarios.USERNAME_RECOVERY, RecoverySteps.SEND_RECOVERY_INFORMATION,
+                EXPIRED_AGE_MINUTES);
+        insert("fresh-recovery", RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                FRESH_AGE_MINUTES);
+        // Pending states, which are read without validating the expiry of the code.
+        insert("expired-sign-up", RecoveryScenarios.SELF_SIGN_UP, RecoverySteps.CONFIRM_SIGN_UP,
+                EXPIRED_AGE_MINUTES);
+        insert("expired-lite-sign-up", RecoveryScenarios.LITE_SIGN_UP, RecoverySteps.CONFIRM_LITE_SIGN_UP,
+                EXPIRED_AGE_MINUTES);
+        insert("expired-ask-password", RecoveryScenarios.ASK_PASSWORD, RecoverySteps.UPDATE_PASSWORD,
+                EXPIRED_AGE_MINUTES);
+        insert("expired-email-update", RecoveryScenarios.EMAIL_VERIFICATION_ON_UPDATE, RecoverySteps.VERIFY_EMAIL,
+                EXPIRED_AGE_MINUTES);
+
+        RecoveryDataPurger.PurgeReport report = newPurger(this::newConnection, 100, false).purge();
+
+        assertEquals(report.getExpiredRowCount(), 3);
+        assertEquals(report.getFailedGroupCount(), 0);
+        Set<String> codes = loadCodes();
+        assertFalse(codes.contains("expired-recovery"));
+        assertFalse(codes.contains("expired-question"));
+        assertFalse(codes.contains("expired-username"));
+        assertTrue(codes.contains("fresh-recovery"));
+        assertTrue(codes.contains("expired-sign-up"), "A pending self sign up is purged.");
+        assertTrue(codes.contains("expired-lite-sign-up"), "A pending lite sign up is purged.");
+        assertTrue(codes.contains("expired-ask-password"), "A pending ask password is purged.");
+        assertTrue(codes.contains("expired-email-update"), "A pending email verification is purged.");
+    }
+
+    @Test(description = "Test whether a dry run reports the expired codes without deleting them.")
+    public void testDryRun() throws Exception {
+
+        insert("expired-1", RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                EXPIRED_AGE_MINUTES);
+        insert("expired-2", RecoveryScenarios.USERNAME_RECOVERY, RecoverySteps.SEND_RECOVERY_INFORMATION,
+                EXPIRED_AGE_MINUTES);
+        insert("fresh", RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                FRESH_AGE_MINUTES);
+
+        RecoveryDataPurger recoveryDataPurger = newPurger(this::newConnection, 100, true);
+        RecoveryDataPurger.PurgeReport report = recoveryDataPurger.purge();
+
+        assertTrue(report.isDryRun());
+        assertEquals(report.getExpiredRowCount(), 2);
+        assertEquals(report.getExpiredRowCounts().get(RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY + "." +
+                RecoverySteps.UPDATE_PASSWORD), Long.valueOf(1));
+        assertEquals(loadCodes().size(), 3, "Recovery data is deleted in a dry run.");
+    }
+
+    @Test(description = "Test whether the expired codes are deleted in batches of the configured size.")
+    public void testBatchDeletion() throws Exception {
+
+        for (int i = 0; i < 5; i++) {
+            insert("expired-" + i, RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                    EXPIRED_AGE_MINUTES);
+        }
+        insert("fresh", RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                FRESH_AGE_MINUTES);
+
+        AtomicInteger deleteBatches = new AtomicInteger();
+        RecoveryDataPurger.PurgeReport report = newPurger(() -> countingDeletes(newConnection(), deleteBatches), 2,
+                false).purge();
+
+        assertEquals(report.getExpiredRowCount(), 5);
+        assertEquals(deleteBatches.get(), 3, "The expired codes are not deleted in batches of two.");
+        Set<String> codes = loadCodes();
+        assertEquals(codes.size(), 1);
+        assertTrue(codes.contains("fresh"));
+    }
+
+    @Test(description = "Test whether the recovery data of a purged code is no longer served from the cache.")
+    public void testLoadAfterPurgeMissesCache() throws Exception {
+
+        insert("expired-recovery", RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                EXPIRED_AGE_MINUTES);
+        User user = new User();
+        user.setUserName("user-expired-recovery");
+        user.setUserStoreDomain(USER_STORE_DOMAIN);
+        user.setTenantDomain(TENANT_DOMAIN);
+        JDBCRecoveryDataStore jdbcRecoveryDataStore = mock(JDBCRecoveryDataStore.class);
+        when(jdbcRecoveryDataStore.loadWithoutCodeExpiryValidation(user,
+                RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD))
+                .thenReturn(new UserRecoveryData(user, "expired-recovery",
+                        RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD,
+                        new Timestamp(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(EXPIRED_AGE_MINUTES))));
+        CachingRecoveryDataStore cachingRecoveryDataStore = new CachingRecoveryDataStore(jdbcRecoveryDataStore);
+
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user,
+                RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD);
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user,
+                RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD);
+        newPurger(this::newConnection, 100, false).purge();
+        cachingRecoveryDataStore.loadWithoutCodeExpiryValidation(user,
+                RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD);
+
+        assertFalse(loadCodes().contains("expired-recovery"));
+        verify(jdbcRecoveryDataStore, times(2)).loadWithoutCodeExpiryValidation(user,
+                RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY, RecoverySteps.UPDATE_PASSWORD);
+    }
+
+    private RecoveryDataPurger newPurger(Supplier<Connection> connectionSupplier, int batchSize, boolean dryRun) {
+
+        return new RecoveryDataPurger((tenantDomain, recoveryScenario, recoveryStep, recoveryData) -> EXPIRY_TIME,
+                connectionSupplier, batchSize, dryRun);
+    }
+
+    private Connection newConnection() {
+
+        try {
+            Connection newConnection = DriverManager.getConnection(DB_URL);
+            newConnection.setAutoCommit(false);
+            return newConnection;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Wrap a connection to count the statements which delete the expired codes.
+     */
+    private static Connection countingDeletes(Connection connection, AtomicInteger deleteBatches) {
+
+        return (Connection) Proxy.newProxyInstance(RecoveryDataPurgerTest.class.getClassLoader(),
+                new Class[]{Connection.class}, (proxy, method, args) -> {
+                    if ("prepareStatement".equals(method.getName()) && args != null &&
+                            String.valueOf(args[0]).startsWith("DELETE")) {
+                        deleteBatches.incrementAndGet();
+                    }
+                    return method.invoke(connection, args);
+                });
+    }
+
+    private void insert(String code, RecoveryScenarios scenario, RecoverySteps step, long ageMinutes)
+            throws SQLException {
+
+        try (PreparedStatement prepStmt = connection.prepareStatement("INSERT INTO IDN_RECOVERY_DATA (USER_NAME, " +
+                "USER_DOMAIN, TENANT_ID, CODE, SCENARIO, STEP, TIME_CREATED) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            prepStmt.setString(1, "user-" + code);
+            prepStmt.setString(2, USER_STORE_DOMAIN);
+            prepStmt.setInt(3, TENANT_ID);
+            prepStmt.setString(4, code);
+            prepStmt.setString(5, scenario.name());
+            prepStmt.setString(6, step.name());
+            prepStmt.setTimestamp(7, new Timestamp(System.currentTimeMillis() -
+                    TimeUnit.MINUTES.toMillis(ageMinutes)), Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+            prepStmt.execute();
+        }
+    }
+
+    private Set<String> loadCodes() throws SQLException {
+
+        Set<String> codes = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT CODE FROM IDN_RECOVERY_DATA")) {
+            while (resultSet.next()) {
+                codes.add(resultSet.getString(1));
+            }
+        }
+        return codes;
+    }
+}